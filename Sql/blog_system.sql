@@ -84,6 +84,7 @@ CREATE TABLE `comment_likes`  (
   `created_at` datetime NULL DEFAULT CURRENT_TIMESTAMP,
   PRIMARY KEY (`id`) USING BTREE,
   UNIQUE INDEX `uk_comment_user`(`comment_id` ASC, `user_id` ASC) USING BTREE,
+  INDEX `idx_comment_id_id`(`comment_id` ASC, `id` DESC) USING BTREE,
   INDEX `idx_user_id`(`user_id` ASC) USING BTREE,
   INDEX `idx_created_at`(`created_at` ASC) USING BTREE,
   CONSTRAINT `fk_cl_comment` FOREIGN KEY (`comment_id`) REFERENCES `comments` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT,
@@ -117,6 +118,7 @@ CREATE TABLE `comments`  (
   INDEX `idx_status`(`status` ASC) USING BTREE,
   INDEX `idx_created_at`(`created_at` ASC) USING BTREE,
   INDEX `idx_comment_post_status`(`post_id` ASC, `status` ASC, `created_at` DESC) USING BTREE,
+  INDEX `idx_post_root_created`(`post_id` ASC, `root_id` ASC, `created_at` ASC) USING BTREE,
   CONSTRAINT `fk_comment_post` FOREIGN KEY (`post_id`) REFERENCES `posts` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT,
   CONSTRAINT `fk_comment_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
 ) ENGINE = InnoDB AUTO_INCREMENT = 21 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = 'Comments table' ROW_FORMAT = Dynamic;
@@ -195,6 +197,87 @@ CREATE TABLE `file_uploads`  (
   CONSTRAINT `fk_file_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
 ) ENGINE = InnoDB AUTO_INCREMENT = 3 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = '文件上传表' ROW_FORMAT = Dynamic;
 
+-- ----------------------------
+-- Table structure for notification_broadcast_receipts
+-- ----------------------------
+DROP TABLE IF EXISTS `notification_broadcast_receipts`;
+CREATE TABLE `notification_broadcast_receipts`  (
+  `user_id` bigint NOT NULL COMMENT 'User who acted on the broadcast',
+  `broadcast_id` bigint NOT NULL COMMENT 'Broadcast ID',
+  `is_read` tinyint NOT NULL DEFAULT 0 COMMENT '0=unread, 1=read',
+  `is_deleted` tinyint NOT NULL DEFAULT 0 COMMENT '1=deleted by the user',
+  `created_at` datetime NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`user_id`, `broadcast_id`) USING BTREE,
+  INDEX `idx_broadcast_id`(`broadcast_id` ASC) USING BTREE,
+  CONSTRAINT `fk_receipt_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT,
+  CONSTRAINT `fk_receipt_broadcast` FOREIGN KEY (`broadcast_id`) REFERENCES `notification_broadcasts` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = 'Per-user state of broadcasts the user has read or deleted individually' ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- Table structure for notification_broadcasts
+-- ----------------------------
+DROP TABLE IF EXISTS `notification_broadcasts`;
+CREATE TABLE `notification_broadcasts`  (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT 'Broadcast ID',
+  `sender_id` bigint NOT NULL COMMENT 'Admin who created the broadcast',
+  `title` varchar(200) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT 'Notification title',
+  `content` varchar(500) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT NULL COMMENT 'Notification content',
+  `link_url` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT NULL COMMENT 'Related link URL',
+  `created_at` datetime NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_created_at`(`created_at` ASC) USING BTREE
+) ENGINE = InnoDB AUTO_INCREMENT = 1 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = 'System notifications sent to all users, one row per broadcast' ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- Table structure for notification_deliveries
+-- ----------------------------
+DROP TABLE IF EXISTS `notification_deliveries`;
+CREATE TABLE `notification_deliveries`  (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT 'Delivery job ID',
+  `sender_id` bigint NOT NULL COMMENT 'Admin who created the notification',
+  `title` varchar(200) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT 'Notification title',
+  `content` varchar(500) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT NULL COMMENT 'Notification content',
+  `link_url` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT NULL COMMENT 'Related link URL',
+  `status` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL DEFAULT 'PENDING' COMMENT 'PENDING, RUNNING, COMPLETED, FAILED',
+  `total_count` bigint NOT NULL DEFAULT 0 COMMENT 'Recipients recorded for the job',
+  `delivered_count` bigint NOT NULL DEFAULT 0 COMMENT 'Notifications inserted so far',
+  `last_user_id` bigint NOT NULL DEFAULT 0 COMMENT 'Keyset checkpoint: last recipient user ID delivered',
+  `error` varchar(500) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL DEFAULT NULL COMMENT 'Last failure message',
+  `heartbeat_at` datetime NULL DEFAULT NULL COMMENT 'Last chunk committed by the running worker',
+  `started_at` datetime NULL DEFAULT NULL,
+  `finished_at` datetime NULL DEFAULT NULL,
+  `created_at` datetime NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_status_heartbeat`(`status` ASC, `heartbeat_at` ASC) USING BTREE
+) ENGINE = InnoDB AUTO_INCREMENT = 1 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = 'Background jobs delivering system notifications to explicit recipients' ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- Table structure for notification_delivery_recipients
+-- ----------------------------
+DROP TABLE IF EXISTS `notification_delivery_recipients`;
+CREATE TABLE `notification_delivery_recipients`  (
+  `delivery_id` bigint NOT NULL COMMENT 'Delivery job ID',
+  `user_id` bigint NOT NULL COMMENT 'Recipient user ID',
+  PRIMARY KEY (`delivery_id`, `user_id`) USING BTREE,
+  INDEX `idx_user_id`(`user_id` ASC) USING BTREE,
+  CONSTRAINT `fk_ndr_delivery` FOREIGN KEY (`delivery_id`) REFERENCES `notification_deliveries` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT,
+  CONSTRAINT `fk_ndr_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = 'Recipients of a delivery job, read by user_id keyset' ROW_FORMAT = Dynamic;
+
+-- ----------------------------
+-- Table structure for notification_watermarks
+-- ----------------------------
+DROP TABLE IF EXISTS `notification_watermarks`;
+CREATE TABLE `notification_watermarks`  (
+  `user_id` bigint NOT NULL COMMENT 'User ID',
+  `broadcast_read_id` bigint NOT NULL DEFAULT 0 COMMENT 'Broadcasts with id <= this are read',
+  `updated_at` datetime NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`user_id`) USING BTREE,
+  CONSTRAINT `fk_watermark_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = 'Per-user broadcast read watermark' ROW_FORMAT = Dynamic;
+
 -- ----------------------------
 -- Table structure for notifications
 -- ----------------------------
@@ -287,12 +370,32 @@ CREATE TABLE `post_likes`  (
   `created_at` datetime NULL DEFAULT CURRENT_TIMESTAMP,
   PRIMARY KEY (`id`) USING BTREE,
   UNIQUE INDEX `uk_post_user`(`post_id` ASC, `user_id` ASC) USING BTREE,
+  INDEX `idx_post_id_id`(`post_id` ASC, `id` DESC) USING BTREE,
   INDEX `idx_user_id`(`user_id` ASC) USING BTREE,
   INDEX `idx_created_at`(`created_at` ASC) USING BTREE,
   CONSTRAINT `fk_pl_post` FOREIGN KEY (`post_id`) REFERENCES `posts` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT,
   CONSTRAINT `fk_pl_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
 ) ENGINE = InnoDB AUTO_INCREMENT = 16 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = 'Post likes table' ROW_FORMAT = Dynamic;
 
+-- ----------------------------
+-- Table structure for post_renders
+-- ----------------------------
+DROP TABLE IF EXISTS `post_renders`;
+CREATE TABLE `post_renders`  (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `post_id` bigint NOT NULL COMMENT 'Post ID',
+  `content_hash` char(64) CHARACTER SET ascii COLLATE ascii_bin NOT NULL COMMENT 'SHA-256 of the rendered Markdown source',
+  `html` longtext CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT 'Rendered HTML',
+  `toc` text CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NULL COMMENT 'Table of contents (JSON array)',
+  `word_count` int NULL DEFAULT 0 COMMENT 'Word count (each CJK character counts as one word)',
+  `reading_minutes` int NULL DEFAULT 1 COMMENT 'Estimated reading time in minutes',
+  `created_at` datetime NULL DEFAULT CURRENT_TIMESTAMP,
+  `updated_at` datetime NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_post_id`(`post_id` ASC) USING BTREE,
+  CONSTRAINT `fk_pr_post` FOREIGN KEY (`post_id`) REFERENCES `posts` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = 'Pre-rendered Markdown of posts' ROW_FORMAT = Dynamic;
+
 -- ----------------------------
 -- Table structure for post_tags
 -- ----------------------------
@@ -341,7 +444,7 @@ CREATE TABLE `posts`  (
   INDEX `idx_published_at`(`published_at` ASC) USING BTREE,
   INDEX `idx_created_at`(`created_at` ASC) USING BTREE,
   INDEX `idx_is_top`(`is_top` ASC) USING BTREE,
-  INDEX `idx_post_status_published`(`status` ASC, `published_at` DESC) USING BTREE,
+  INDEX `idx_post_status_published`(`status` ASC, `published_at` DESC, `id` DESC) USING BTREE,
   INDEX `idx_post_user_status`(`user_id` ASC, `status` ASC) USING BTREE,
   FULLTEXT INDEX `ft_title_content`(`title`, `content`),
   CONSTRAINT `fk_post_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE ON UPDATE RESTRICT
@@ -474,12 +577,6 @@ CREATE TABLE `users`  (
   INDEX `idx_created_at`(`created_at` ASC) USING BTREE
 ) ENGINE = InnoDB AUTO_INCREMENT = 7 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_unicode_ci COMMENT = 'Users table' ROW_FORMAT = Dynamic;
 
--- ----------------------------
--- View structure for v_hot_posts
--- ----------------------------
-DROP VIEW IF EXISTS `v_hot_posts`;
-CREATE ALGORITHM = UNDEFINED SQL SECURITY DEFINER VIEW `v_hot_posts` AS select `p`.`id` AS `id`,`p`.`title` AS `title`,`p`.`slug` AS `slug`,`p`.`summary` AS `summary`,`p`.`cover_image` AS `cover_image`,`p`.`view_count` AS `view_count`,`p`.`like_count` AS `like_count`,`p`.`favorite_count` AS `favorite_count`,`p`.`comment_count` AS `comment_count`,((((`p`.`view_count` * 0.1) + (`p`.`like_count` * 2)) + (`p`.`favorite_count` * 3)) + (`p`.`comment_count` * 1.5)) AS `hot_score`,`p`.`published_at` AS `published_at`,`u`.`username` AS `author_username`,`u`.`nickname` AS `author_nickname`,`u`.`avatar_url` AS `author_avatar` from (`posts` `p` join `users` `u` on((`p`.`user_id` = `u`.`id`))) where ((`p`.`status` = 1) and (`p`.`published_at` >= (now() - interval 30 day))) order by ((((`p`.`view_count` * 0.1) + (`p`.`like_count` * 2)) + (`p`.`favorite_count` * 3)) + (`p`.`comment_count` * 1.5)) desc;
-
 -- ----------------------------
 -- View structure for v_post_list
 -- ----------------------------
@@ -43,6 +43,11 @@ public class CommentDTO {
      */
     private List<CommentDTO> children;
 
+    /**
+     * 继续加载回复的游标（根评论预加载回复时返回），没有更多回复时为 null
+     */
+    private String replyCursor;
+
     /**
      * Whether current user has liked
      */
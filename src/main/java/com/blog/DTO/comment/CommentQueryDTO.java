@@ -40,4 +40,11 @@ public class CommentQueryDTO {
      * 是否加载评论的回复
      */
     private Boolean loadReplies = true;
+
+    /**
+     * 每条根评论预加载的回复数，更多回复通过回复游标分页加载
+     */
+    @Min(value = 1, message = "预加载回复数 >= 1")
+    @Max(value = 20, message = "预加载回复数 <= 20")
+    private Integer replyPreviewSize = 3;
 }
@@ -0,0 +1,33 @@
+package com.blog.DTO.mq;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-19:20
+ * @Description: 批量计数同步消息，一条消息携带一批目标自上次同步以来的增量
+ *
+ * 仅用于对账：posts/comments.like_count 已由点赞消费者逐条维护，
+ * 消费方只能拿增量与数据库变化比对，不能再累加到计数列，否则会重复计数。
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CountSyncBatchMessage implements Serializable {
+
+    private String messageId;
+    private String type; // LIKE_POST, LIKE_COMMENT
+    private Map<Long, Integer> deltas; // 目标ID -> 增量（已剔除 0）
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private LocalDateTime timestamp;
+
+}
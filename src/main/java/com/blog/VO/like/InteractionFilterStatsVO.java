@@ -0,0 +1,51 @@
+package com.blog.VO.like;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-20:30
+ * @Description: 关系过滤器命中统计（本节点自启动以来）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionFilterStatsVO {
+
+    /**
+     * 关系类型：POST_LIKE / COMMENT_LIKE / POST_FAVORITE
+     */
+    private String type;
+
+    /**
+     * 过滤器是否已构建完成
+     */
+    private Boolean ready;
+
+    /**
+     * 过滤器判定"一定不存在"、直接跳过数据库的次数
+     */
+    private Long negatives;
+
+    /**
+     * 判定"可能存在"且数据库确认存在的次数
+     */
+    private Long truePositives;
+
+    /**
+     * 判定"可能存在"但数据库中不存在的次数
+     */
+    private Long falsePositives;
+
+    /**
+     * 过滤器不可用、直接查库的次数
+     */
+    private Long bypassed;
+
+    /**
+     * 误判率：falsePositives / (falsePositives + negatives)
+     */
+    private Double falsePositiveRate;
+}
@@ -0,0 +1,26 @@
+package com.blog.VO.like;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-18:20
+ * @Description: 点赞切换结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeStatusVO {
+
+    /**
+     * 切换后是否处于点赞状态
+     */
+    private Boolean liked;
+
+    /**
+     * 切换后的点赞数
+     */
+    private Long likeCount;
+}
@@ -0,0 +1,27 @@
+package com.blog.VO.notification;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-23:30
+ * @Description: 全站系统通知VO
+ */
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class NotificationBroadcastVO {
+
+    private Long id;
+
+    private Long senderId;
+
+    private String title;
+
+    private String content;
+
+    private String linkUrl;
+
+    private LocalDateTime createdAt;
+}
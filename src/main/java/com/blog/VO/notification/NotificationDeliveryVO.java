@@ -0,0 +1,59 @@
+package com.blog.VO.notification;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-19-10:50
+ * @Description: 指定接收人的系统通知投递任务VO
+ */
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class NotificationDeliveryVO {
+
+    private Long id;
+
+    private Long senderId;
+
+    private String title;
+
+    /**
+     * 状态：PENDING, RUNNING, COMPLETED, FAILED
+     */
+    private String status;
+
+    /**
+     * 接收人数
+     */
+    private Long totalCount;
+
+    /**
+     * 已投递数
+     */
+    private Long deliveredCount;
+
+    /**
+     * 进度百分比（0-100）
+     */
+    private Integer progress;
+
+    /**
+     * 断点：已投递的最后一个接收人ID
+     */
+    private Long lastUserId;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String error;
+
+    private LocalDateTime heartbeatAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private LocalDateTime createdAt;
+}
@@ -8,6 +8,8 @@ package com.blog.VO.notification;
 
 import lombok.Data;
 
+import java.util.Map;
+
 @Data
 public class NotificationStatVO {
 
@@ -31,6 +33,11 @@ public class NotificationStatVO {
      */
     private Long unreadLikeCount;
 
+    /**
+     * 未读评论点赞通知数
+     */
+    private Long unreadLikeCommentCount;
+
     /**
      * 未读收藏通知数
      */
@@ -45,4 +52,9 @@ public class NotificationStatVO {
      * 未读系统通知数
      */
     private Long unreadSystemCount;
+
+    /**
+     * 各类型未读数（只含未读数大于 0 的类型，新增类型无需改动本类）
+     */
+    private Map<String, Long> unreadByType;
 }
\ No newline at end of file
@@ -13,6 +13,9 @@ import java.time.LocalDateTime;
 @Data
 public class NotificationVO {
 
+    /**
+     * 通知ID；全站通知为全站通知ID的相反数（标记已读、删除时原样传回）
+     */
     private Long id;
     private Long userId;
     private Long senderId;
@@ -1,6 +1,7 @@
 package com.blog.VO.post;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -19,12 +20,23 @@ public class PostDetailVO {
     private String slug;
     private String summary;
     private String coverImage;
-    private Integer viewCount;
+    /**
+     * 详情缓存中不含浏览量（置空不序列化），响应时再拼接实时值
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long viewCount;
     private Integer likeCount;
     private Integer favoriteCount;
     private LocalDateTime createdAt;
 
     private String content;
+    /**
+     * 服务端预渲染的 HTML、目录、字数与阅读时长（仅 Markdown 文章）
+     */
+    private String contentHtml;
+    private List<PostTocVO> toc;
+    private Integer wordCount;
+    private Integer readingMinutes;
     private Long userId;
     private String authorName;
     private String authorAvatar;
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * @Author: GALA_Lin
@@ -26,6 +27,14 @@ public class PostListVO {
     private Integer likeCount;
     private Integer commentCount;
 
+    private List<CategoryVO> categories;
+    private List<TagVO> tags;
+
+    /**
+     * 当前用户是否已点赞，未登录为 false
+     */
+    private Boolean isLiked;
+
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime publishedAt;
 }
@@ -0,0 +1,25 @@
+package com.blog.VO.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-14:55
+ * @Description: 文章目录项
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostTocVO {
+    /**
+     * 标题级别 1-6
+     */
+    private Integer level;
+    private String text;
+    /**
+     * 对应渲染后 HTML 中标题的 id
+     */
+    private String anchor;
+}
@@ -0,0 +1,41 @@
+package com.blog.VO.search;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-17:15
+ * @Description: 文章搜索结果
+ */
+@Data
+public class PostSearchVO {
+    private Long id;
+    private String title;
+    private String slug;
+    private String coverImage;
+
+    /**
+     * 高亮后的标题（命中词以 em 标签包裹，其余已转义）
+     */
+    private String highlightTitle;
+
+    /**
+     * 高亮后的正文片段
+     */
+    private String highlightSnippet;
+
+    private Double score;
+
+    private String authorName;
+    private String authorAvatar;
+
+    private Long viewCount;
+    private Integer likeCount;
+    private Integer commentCount;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime publishedAt;
+}
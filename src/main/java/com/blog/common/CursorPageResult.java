@@ -0,0 +1,50 @@
+package com.blog.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-14:20
+ * @Description: 游标分页结果封装
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageResult<T> {
+    /**
+     * 数据列表
+     */
+    private List<T> records;
+
+    /**
+     * 下一页游标（不透明字符串，原样回传即可），没有下一页时为 null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否有下一页
+     */
+    private Boolean hasNext;
+
+    /**
+     * 每页大小
+     */
+    private Integer pageSize;
+
+    /**
+     * 总记录数（未要求统计时为 null）
+     */
+    private Long total;
+
+    public static <T> CursorPageResult<T> of(List<T> records, String nextCursor, Integer pageSize, Long total) {
+        CursorPageResult<T> result = new CursorPageResult<>();
+        result.setRecords(records);
+        result.setNextCursor(nextCursor);
+        result.setHasNext(nextCursor != null);
+        result.setPageSize(pageSize);
+        result.setTotal(total);
+        return result;
+    }
+}
@@ -0,0 +1,43 @@
+package com.blog.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-11:05
+ * @Description: 已序列化好的 JSON 片段，响应时原样写出，不再经过 Jackson 对象序列化
+ */
+@JsonSerialize(using = RawJson.RawJsonSerializer.class)
+public final class RawJson {
+
+    private final String json;
+
+    private RawJson(String json) {
+        this.json = json;
+    }
+
+    public static RawJson of(String json) {
+        return new RawJson(json);
+    }
+
+    public String getJson() {
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return json;
+    }
+
+    public static class RawJsonSerializer extends JsonSerializer<RawJson> {
+        @Override
+        public void serialize(RawJson value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeRawValue(value.json);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.blog.config;
 
+import com.blog.config.properties.LikeBatchProperties;
+import com.blog.config.properties.NotificationBatchProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -10,6 +12,7 @@ import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -108,6 +111,49 @@ public class RabbitMQConfig {
         return factory;
     }
 
+    /**
+     * 点赞批量消费的容器工厂：攒够 batchSize 条或 receiveTimeout 内无新消息即交付一批，
+     * 单消费者保证同一用户对同一目标的消息按序处理，整批提交后手动确认
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "blog.like.batch", name = "enabled", havingValue = "true")
+    public SimpleRabbitListenerContainerFactory likeBatchListenerContainerFactory(
+            ConnectionFactory connectionFactory, LikeBatchProperties properties) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(properties.getBatchSize());
+        factory.setPrefetchCount(properties.getBatchSize());
+        factory.setReceiveTimeout(properties.getReceiveTimeout());
+        return factory;
+    }
+
+    /**
+     * 通知批量消费的容器工厂：攒够 batchSize 条或 receiveTimeout 内无新消息即交付一批，整批提交后手动确认
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "blog.notification.batch", name = "enabled", havingValue = "true")
+    public SimpleRabbitListenerContainerFactory notificationBatchListenerContainerFactory(
+            ConnectionFactory connectionFactory, NotificationBatchProperties properties) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setConcurrentConsumers(properties.getConcurrency());
+        factory.setMaxConcurrentConsumers(properties.getConcurrency());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(properties.getBatchSize());
+        factory.setPrefetchCount(properties.getBatchSize());
+        factory.setReceiveTimeout(properties.getReceiveTimeout());
+        return factory;
+    }
+
 
     // ==================== 点赞模块 ====================
 
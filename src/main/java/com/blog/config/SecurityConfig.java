@@ -3,6 +3,7 @@ package com.blog.config;
 import com.blog.security.JwtAccessDeniedHandler;
 import com.blog.security.JwtAuthenticationEntryPoint;
 import com.blog.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -89,6 +90,8 @@ public class SecurityConfig {
 
                 // Authorization rules
                 .authorizeHttpRequests(auth -> auth
+                        // 流式响应写完后的异步派发（原请求已通过鉴权）
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Public endpoints
                         .requestMatchers(
                                 "/auth/login",
@@ -101,7 +104,8 @@ public class SecurityConfig {
                                 "/v3/api-docs/**",
                                 "/swagger-ui/**",
                                 "/druid/**",
-                                "/posts"
+                                "/posts",
+                                "/search/posts"
                         ).permitAll()
 
                         // All other requests require authentication
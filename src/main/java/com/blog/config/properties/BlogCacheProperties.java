@@ -0,0 +1,40 @@
+package com.blog.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-11:10
+ * @Description: 业务缓存配置（blog.cache），时间单位均为秒
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.cache")
+public class BlogCacheProperties {
+    /**
+     * 默认过期时间
+     */
+    private long defaultTtl = 3600;
+
+    /**
+     * 热门文章过期时间
+     */
+    private long hotPostsTtl = 600;
+
+    /**
+     * 用户信息过期时间
+     */
+    private long userInfoTtl = 1800;
+
+    /**
+     * 文章详情过期时间
+     */
+    private long postDetailTtl = 600;
+
+    /**
+     * 分类/标签快照兜底刷新间隔（毫秒），用于补偿丢失的刷新广播
+     */
+    private long taxonomyRefreshInterval = 300000;
+}
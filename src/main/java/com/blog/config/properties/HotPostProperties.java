@@ -0,0 +1,63 @@
+package com.blog.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-15:40
+ * @Description: 热门文章排行配置（blog.hot-posts）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.hot-posts")
+public class HotPostProperties {
+    /**
+     * 各行为的权重（沿用已移除的 v_hot_posts 视图的权重）
+     */
+    private double viewWeight = 0.1;
+    private double likeWeight = 2;
+    private double favoriteWeight = 3;
+    private double commentWeight = 1.5;
+
+    /**
+     * 热度半衰期（小时）
+     */
+    private double halfLifeHours = 72;
+
+    /**
+     * 衰减任务执行间隔（毫秒）
+     */
+    private long decayInterval = 3600000;
+
+    /**
+     * 低于该分数的文章移出排行
+     */
+    private double minScore = 0.01;
+
+    /**
+     * 全站排行最多保留的文章数
+     */
+    private int maxSize = 1000;
+
+    /**
+     * 分类排行最多保留的文章数
+     */
+    private int categoryMaxSize = 200;
+
+    /**
+     * 从数据库重建时统计的发布时间窗口（天）
+     */
+    private int windowDays = 30;
+
+    /**
+     * 从数据库重建时每批读取的文章数
+     */
+    private int rebuildBatchSize = 500;
+
+    /**
+     * 定时从数据库重建的 cron 表达式
+     */
+    private String rebuildCron = "0 30 4 * * ?";
+}
@@ -0,0 +1,55 @@
+package com.blog.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-20:20
+ * @Description: 点赞/收藏关系过滤器配置（blog.interaction-filter）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.interaction-filter")
+public class InteractionFilterProperties {
+    /**
+     * 是否启用；关闭后所有判断直接查库
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每种关系的位图个数，用户按ID散列到其中一个
+     */
+    private int shards = 4;
+
+    /**
+     * 每个位图的位数（Redis 位图上限 2^32）
+     */
+    private long bitsPerShard = 8L * 1024 * 1024;
+
+    /**
+     * 哈希函数个数
+     */
+    private int hashFunctions = 7;
+
+    /**
+     * 定时重建的 cron 表达式
+     */
+    private String rebuildCron = "0 0 5 * * ?";
+
+    /**
+     * 重建时每批从数据库读取的行数
+     */
+    private int rebuildBatchSize = 2000;
+
+    /**
+     * 开始双写后等待多久再扫描数据库（毫秒），让队列中的点赞消息先落库
+     */
+    private long rebuildSettleDelay = 30000;
+
+    /**
+     * 重建锁的有效期（秒），同时也是双写标记的有效期
+     */
+    private long rebuildLockTtl = 3600;
+}
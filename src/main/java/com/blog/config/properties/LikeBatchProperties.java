@@ -0,0 +1,30 @@
+package com.blog.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-18:45
+ * @Description: 点赞消息批量落库配置（blog.like.batch）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.like.batch")
+public class LikeBatchProperties {
+    /**
+     * 是否启用批量消费；关闭时沿用逐条消费的 LikeMessageConsumer
+     */
+    private boolean enabled = false;
+
+    /**
+     * 每批最多消息数（同时作为 prefetch）
+     */
+    private int batchSize = 200;
+
+    /**
+     * 攒批等待时间（毫秒），超过该时间没有新消息即提交当前批次
+     */
+    private long receiveTimeout = 500;
+}
@@ -0,0 +1,40 @@
+package com.blog.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-21:05
+ * @Description: 用户点赞缓存预热配置（blog.like.warm-up）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.like.warm-up")
+public class LikeWarmUpProperties {
+    /**
+     * 每次从数据库读取并写入 Redis 的点赞条数
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * 后台预热线程数
+     */
+    private int threads = 2;
+
+    /**
+     * 等待中的预热任务上限，超出时放弃本次预热（请求照常走数据库兜底）
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * 预热锁有效期（秒），同一用户同时只有一个节点在预热
+     */
+    private long lockTtl = 300;
+
+    /**
+     * 取消点赞后该时间（秒）内视为可能仍在队列中未落库，预热时不把这些目标从数据库写回集合
+     */
+    private long unlikeSettleWindow = 600;
+}
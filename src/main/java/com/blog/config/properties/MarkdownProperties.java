@@ -0,0 +1,45 @@
+package com.blog.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-14:50
+ * @Description: Markdown 服务端渲染配置（blog.markdown）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.markdown")
+public class MarkdownProperties {
+    /**
+     * 是否启用 GitHub 风格扩展（当前随附的扩展为表格）
+     */
+    private boolean enableGfm = true;
+
+    /**
+     * 是否渲染表格
+     */
+    private boolean enableTables = true;
+
+    /**
+     * 是否为标题生成锚点 ID（目录跳转依赖此项）
+     */
+    private boolean enableHeadingAnchor = true;
+
+    /**
+     * 是否转义 Markdown 中的原始 HTML，防止 XSS
+     */
+    private boolean escapeHtml = true;
+
+    /**
+     * 阅读速度（字/分钟），用于估算阅读时长
+     */
+    private int wordsPerMinute = 300;
+
+    /**
+     * 批量重新渲染时每批读取的文章数
+     */
+    private int rerenderBatchSize = 200;
+}
@@ -0,0 +1,40 @@
+package com.blog.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-23:50
+ * @Description: 通知消息批量消费配置（blog.notification.batch）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.notification.batch")
+public class NotificationBatchProperties {
+    /**
+     * 是否启用批量消费；关闭时沿用逐条消费的 NotificationMessageConsumer
+     */
+    private boolean enabled = false;
+
+    /**
+     * 每批最多消息数（同时作为 prefetch）
+     */
+    private int batchSize = 500;
+
+    /**
+     * 攒批等待时间（毫秒），超过该时间没有新消息即提交当前批次
+     */
+    private long receiveTimeout = 500;
+
+    /**
+     * 消费者数；通知之间没有顺序要求，可以并行消费
+     */
+    private int concurrency = 2;
+
+    /**
+     * 聚合通知中列出姓名的发送者数，其余以“等 N 人”概括
+     */
+    private int namedSenders = 2;
+}
@@ -0,0 +1,30 @@
+package com.blog.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-23:02
+ * @Description: 指定接收人的系统通知投递配置（blog.notification.broadcast）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.notification.broadcast")
+public class NotificationBroadcastProperties {
+    /**
+     * 每块投递的接收人数（也是单条多行 INSERT 的行数）
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * 执行中的任务超过该时间（毫秒）未提交新分块，视为节点中断，由其他节点从断点接手
+     */
+    private long stallTimeout = 120000;
+
+    /**
+     * 检查待执行、中断任务的间隔（毫秒）
+     */
+    private long resumeInterval = 60000;
+}
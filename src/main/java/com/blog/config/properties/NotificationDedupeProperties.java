@@ -0,0 +1,30 @@
+package com.blog.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-19-00:10
+ * @Description: 通知防重配置（blog.notification.dedupe）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.notification.dedupe")
+public class NotificationDedupeProperties {
+    /**
+     * 防重窗口（秒），窗口内相同的通知只发一次
+     */
+    private long windowSeconds = 3600;
+
+    /**
+     * 进程内缓存过期时间（毫秒），同一波突发的重复消息不再访问 Redis
+     */
+    private long localTtl = 10000;
+
+    /**
+     * 进程内缓存容量
+     */
+    private int localCapacity = 10000;
+}
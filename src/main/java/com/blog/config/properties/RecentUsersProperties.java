@@ -0,0 +1,25 @@
+package com.blog.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-21:35
+ * @Description: 最近点赞/收藏用户缓存配置（blog.like.recent-users）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.like.recent-users")
+public class RecentUsersProperties {
+    /**
+     * 每个目标保留的最近用户数，超出部分从数据库按主键游标读取
+     */
+    private int capacity = 200;
+
+    /**
+     * 页码分页超出 ZSET 后最多跳过的记录数，更深的页需改用游标分页
+     */
+    private long maxPageOffset = 5000;
+}
@@ -0,0 +1,30 @@
+package com.blog.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-22:35
+ * @Description: 评论回复数校准配置（blog.comment.reply-count）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.comment.reply-count")
+public class ReplyCountProperties {
+    /**
+     * 校准间隔（毫秒）
+     */
+    private long reconcileInterval = 60000;
+
+    /**
+     * 单条校准 UPDATE 最多包含的根评论数
+     */
+    private int batchSize = 200;
+
+    /**
+     * 每轮滚动巡检的根评论数，0 表示只校准待校准集合
+     */
+    private int sweepSize = 500;
+}
@@ -0,0 +1,58 @@
+package com.blog.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-17:12
+ * @Description: 文章搜索配置（blog.search）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.search")
+public class SearchProperties {
+    /**
+     * 索引快照文件路径
+     */
+    private String snapshotPath = "./data/search/posts-index.bin.gz";
+
+    /**
+     * 索引有变更时写快照的间隔（毫秒）
+     */
+    private long snapshotInterval = 600000;
+
+    /**
+     * 正文参与索引的最大字符数，控制索引内存占用
+     */
+    private int maxContentChars = 5000;
+
+    /**
+     * 字段权重
+     */
+    private float titleWeight = 3.0f;
+    private float summaryWeight = 2.0f;
+    private float contentWeight = 1.0f;
+
+    /**
+     * BM25 参数
+     */
+    private double k1 = 1.2;
+    private double b = 0.75;
+
+    /**
+     * 摘要片段长度（字符）
+     */
+    private int snippetLength = 120;
+
+    /**
+     * 已删除文档占比超过该值时压缩索引
+     */
+    private double compactRatio = 0.2;
+
+    /**
+     * 全量构建时每批读取的文章数
+     */
+    private int rebuildBatchSize = 500;
+}
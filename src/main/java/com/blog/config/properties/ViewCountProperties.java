@@ -0,0 +1,25 @@
+package com.blog.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-13:02
+ * @Description: 浏览量写回配置（blog.view-count）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "blog.view-count")
+public class ViewCountProperties {
+    /**
+     * 刷盘间隔（毫秒）
+     */
+    private long flushInterval = 5000;
+
+    /**
+     * 单条批量 UPDATE 最多包含的文章数
+     */
+    private int batchSize = 500;
+}
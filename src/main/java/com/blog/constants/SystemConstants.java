@@ -41,19 +41,54 @@ public interface SystemConstants {
     String CACHE_USER_PREFIX = "user:";
     String CACHE_COMMENT_PREFIX = "comment:";
     String CACHE_HOT_POSTS = "posts:hot";
+    String KEY_HOT_POSTS_CATEGORY = "posts:hot:category:%d";
+    String KEY_HOT_POSTS_LOCK = "posts:hot:lock:%s";
     String CACHE_CATEGORY_TREE = "category:tree";
+    String KEY_USER_SUMMARY = "user:%d:summary";
+    String KEY_POST_DETAIL = "post:%d:detail:v%d";
+    String KEY_POST_DETAIL_VERSION = "post:%d:detail:version";
+    String KEY_POST_VIEW_COUNT = "post:%d:view_count";
 
     // Redis Keys for Like System
     String KEY_USER_LIKED_POSTS = "user:%d:liked:posts";
     String KEY_USER_LIKED_COMMENTS = "user:%d:liked:comments";
+    String KEY_LIKE_CACHE_WARM_FLAG = "like:cache:init:user:%d:%s";
+    String KEY_LIKE_CACHE_WARMING = "like:cache:warming:user:%d:%s";
+    String KEY_LIKE_CACHE_UNLIKED = "like:cache:unliked:user:%d:%s";
     String KEY_POST_LIKE_COUNT = "post:%d:like_count";
     String KEY_COMMENT_LIKE_COUNT = "comment:%d:like_count";
+    String KEY_POST_LIKE_COUNT_SYNCED = "post:%d:like_count:synced";
+    String KEY_COMMENT_LIKE_COUNT_SYNCED = "comment:%d:like_count:synced";
+    String KEY_LIKE_DIRTY_POSTS = "like:dirty:posts";
+    String KEY_LIKE_DIRTY_COMMENTS = "like:dirty:comments";
+
+    // Redis Keys for Interaction Filter（类型：post_like / comment_like / favorite）
+    String KEY_INTERACTION_FILTER = "filter:%s:%d";
+    String KEY_INTERACTION_FILTER_REBUILD = "filter:%s:%d:rebuild";
+    String KEY_INTERACTION_FILTER_READY = "filter:%s:ready";
+    String KEY_INTERACTION_FILTER_LOCK = "filter:%s:rebuilding";
+
+    // Redis Keys for Recent Users（最近点赞/收藏的用户，类型同上）
+    String KEY_RECENT_USERS = "recent:%s:%d";
+    String KEY_RECENT_USERS_LOADED = "recent:%s:%d:loaded";
+
+    // Redis Keys for Comment Reply Count（增减后待校准的根评论、全量巡检游标）
+    String KEY_REPLY_COUNT_DIRTY = "comment:reply_count:dirty";
+    String KEY_REPLY_COUNT_SWEEP_CURSOR = "comment:reply_count:sweep";
 
     // Redis Keys for Favorite System
     String KEY_USER_FAVORITED_POSTS = "user:%d:favorited:posts";
     String KEY_POST_FAVORITE_COUNT = "post:%d:favorite_count";
-    String KEY_USER_UNREAD_COUNT = "notification:user:%d:unread";
-    String KEY_USER_UNREAD_BY_TYPE = "notification:user:%d:type:%s";
+
+    // Redis Key for Unread Notification Counts（Hash：total 与各类型未读数）
+    String KEY_USER_UNREAD_COUNTS = "notification:user:%d:unread_counts";
+
+    // Redis Keys for Broadcast Notifications（最新全站通知ID；用户未读全站通知数按最新ID分版本）
+    String KEY_BROADCAST_LATEST_ID = "notification:broadcast:latest";
+    String KEY_USER_BROADCAST_UNREAD = "notification:user:%d:broadcast:%d";
+
+    // Redis Key for Notification Dedupe（接收者、发送者、类型、目标，SET NX EX 占位）
+    String KEY_NOTIFICATION_DEDUPE = "notification:dedupe:%d:%d:%s:%s";
 
     // Login Attempts
     String KEY_LOGIN_ATTEMPTS = "login:attempts:%s";
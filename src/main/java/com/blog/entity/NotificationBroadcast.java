@@ -0,0 +1,40 @@
+package com.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.blog.entity.base.BaseEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-23:05
+ * @Description: 全站系统通知（读时合并）
+ *
+ * 一条通知只存一行：用户读取通知时按读水位与回执合并进通知列表，
+ * 用户单独读过或删除后才在 notification_broadcast_receipts 留下该用户的记录
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@TableName("notification_broadcasts")
+public class NotificationBroadcast extends BaseEntity {
+
+    /**
+     * 发送通知的管理员ID
+     */
+    private Long senderId;
+
+    /**
+     * 通知标题
+     */
+    private String title;
+
+    /**
+     * 通知内容
+     */
+    private String content;
+
+    /**
+     * 相关链接URL
+     */
+    private String linkUrl;
+}
@@ -0,0 +1,81 @@
+package com.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.blog.entity.base.BaseEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-19-10:40
+ * @Description: 指定接收人的系统通知的后台投递任务
+ *
+ * 接收人在创建任务时写入 notification_delivery_recipients，投递按 user_id 游标分块进行，
+ * 断点、进度、心跳落在本表，节点中断或失败后可从断点继续
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@TableName("notification_deliveries")
+public class NotificationDelivery extends BaseEntity {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    /**
+     * 发送通知的管理员ID
+     */
+    private Long senderId;
+
+    /**
+     * 通知标题
+     */
+    private String title;
+
+    /**
+     * 通知内容
+     */
+    private String content;
+
+    /**
+     * 相关链接URL
+     */
+    private String linkUrl;
+
+    /**
+     * 状态：PENDING, RUNNING, COMPLETED, FAILED
+     */
+    private String status;
+
+    /**
+     * 接收人数（不存在的用户ID在创建时已剔除）
+     */
+    private Long totalCount;
+
+    /**
+     * 已投递的通知数
+     */
+    private Long deliveredCount;
+
+    /**
+     * 断点：已投递的最后一个接收人ID
+     */
+    private Long lastUserId;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String error;
+
+    /**
+     * 执行节点最近一次提交分块的时间，超时未更新视为中断
+     */
+    private LocalDateTime heartbeatAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
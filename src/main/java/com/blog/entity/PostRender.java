@@ -0,0 +1,35 @@
+package com.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.blog.entity.base.BaseEntity;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-15:10
+ * @Description: 文章 Markdown 预渲染结果
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@TableName("post_renders")
+public class PostRender extends BaseEntity {
+
+    private Long postId;
+
+    /**
+     * 渲染所用原文的 SHA-256，原文未变时跳过重新渲染
+     */
+    private String contentHash;
+
+    private String html;
+
+    /**
+     * 目录（JSON 数组）
+     */
+    private String toc;
+
+    private Integer wordCount;
+
+    private Integer readingMinutes;
+}
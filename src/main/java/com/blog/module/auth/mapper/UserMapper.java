@@ -6,6 +6,7 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -77,4 +78,21 @@ public interface UserMapper extends BaseMapper<User> {
         WHERE ur.user_id = #{userId}
     """)
     List<String> selectRolesByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    /**
+     * 批量查询用户摘要（仅 id、用户名、昵称、头像）
+     * @param userIds 用户ID集合
+     * @return 用户列表
+     */
+    @Select("""
+        <script>
+        SELECT id, username, nickname, avatar_url
+        FROM users
+        WHERE id IN
+        <foreach collection="userIds" item="userId" open="(" separator="," close=")">
+            #{userId}
+        </foreach>
+        </script>
+        """)
+    List<User> selectSummariesByIds(@Param("userIds") Collection<Long> userIds);
+}
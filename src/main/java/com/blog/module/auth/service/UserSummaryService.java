@@ -0,0 +1,34 @@
+package com.blog.module.auth.service;
+
+import com.blog.VO.auth.UserSimpleVO;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-10:12
+ * @Description: 用户摘要（昵称、头像）查询服务，供列表、通知等场景批量补全作者信息
+ */
+public interface UserSummaryService {
+
+    /**
+     * 获取单个用户摘要
+     * @param userId 用户ID
+     * @return 用户摘要，用户不存在时返回 null
+     */
+    UserSimpleVO getUserSummary(Long userId);
+
+    /**
+     * 批量获取用户摘要：本地缓存 -> Redis -> 一次 IN 查询
+     * @param userIds 用户ID集合
+     * @return userId -> 用户摘要，不存在的用户不会出现在结果中
+     */
+    Map<Long, UserSimpleVO> getUserSummaries(Collection<Long> userIds);
+
+    /**
+     * 失效用户摘要缓存（昵称、头像修改后调用）
+     * @param userId 用户ID
+     */
+    void evict(Long userId);
+}
@@ -9,6 +9,7 @@ import com.blog.DTO.auth.UpdateProfileDTO;
 import com.blog.VO.auth.UserProfileVO;
 import com.blog.module.auth.mapper.UserMapper;
 import com.blog.module.auth.service.UserService;
+import com.blog.module.auth.service.UserSummaryService;
 import com.blog.util.SecurityUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +32,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserSummaryService userSummaryService;
 
     @Override
     @Cacheable(value = "user:profile", key = "#userId")
@@ -58,7 +60,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    @CacheEvict(value = "user:profile", key = "#result")
+    @CacheEvict(value = "user:profile", key = "T(com.blog.util.SecurityUtil).getCurrentUserId()")
     public void updateProfile(UpdateProfileDTO updateProfileDTO) {
         Long userId = SecurityUtil.getCurrentUserId();
         if (userId == null) {
@@ -82,6 +84,8 @@ public class UserServiceImpl implements UserService {
         }
 
         userMapper.updateById(user);
+        // 昵称、头像会出现在文章列表、点赞列表、通知中，需同步失效用户摘要缓存
+        userSummaryService.evict(userId);
         log.info("User profile updated: {}", userId);
     }
 
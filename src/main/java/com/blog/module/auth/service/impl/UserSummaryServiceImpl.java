@@ -0,0 +1,223 @@
+package com.blog.module.auth.service.impl;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.blog.VO.auth.UserSimpleVO;
+import com.blog.config.properties.BlogCacheProperties;
+import com.blog.constants.SystemConstants;
+import com.blog.entity.User;
+import com.blog.module.auth.mapper.UserMapper;
+import com.blog.module.auth.service.UserSummaryService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-10:20
+ * @Description: 用户摘要两级缓存
+ *
+ * 查询顺序：
+ * 1. 进程内 LRU 缓存（容量有限，TTL 较短，多实例间靠 TTL 收敛）
+ * 2. Redis：user:{id}:summary，一次 MGET 取回所有本地未命中的用户
+ * 3. DB：剩余未命中的用户一次 IN 查询，回填本地缓存，并以一次管道 SET EX 回填 Redis
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserSummaryServiceImpl implements UserSummaryService {
+
+    /**
+     * 本地缓存容量
+     */
+    private static final int LOCAL_CACHE_CAPACITY = 10000;
+
+    /**
+     * 本地缓存过期时间（毫秒），其他实例修改资料后最多延迟这么久可见
+     */
+    private static final long LOCAL_CACHE_TTL_MILLIS = 60_000L;
+
+    private final UserMapper userMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlogCacheProperties cacheProperties;
+
+    private final LRUCache<Long, UserSimpleVO> localCache =
+            CacheUtil.newLRUCache(LOCAL_CACHE_CAPACITY, LOCAL_CACHE_TTL_MILLIS);
+
+    @Override
+    public UserSimpleVO getUserSummary(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return getUserSummaries(Collections.singletonList(userId)).get(userId);
+    }
+
+    @Override
+    public Map<Long, UserSimpleVO> getUserSummaries(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, UserSimpleVO> result = new HashMap<>();
+        List<Long> redisMisses = new ArrayList<>();
+
+        // 1. 本地缓存
+        for (Long userId : new LinkedHashSet<>(userIds)) {
+            if (userId == null) {
+                continue;
+            }
+            UserSimpleVO cached = localCache.get(userId, false);
+            if (cached != null) {
+                result.put(userId, cached);
+            } else {
+                redisMisses.add(userId);
+            }
+        }
+        if (redisMisses.isEmpty()) {
+            return result;
+        }
+
+        // 2. Redis MGET
+        List<Long> dbMisses = loadFromRedis(redisMisses, result);
+        if (dbMisses.isEmpty()) {
+            return result;
+        }
+
+        // 3. DB 一次 IN 查询
+        List<User> users = userMapper.selectSummariesByIds(dbMisses);
+        List<UserSimpleVO> loaded = new ArrayList<>(users.size());
+        for (User user : users) {
+            UserSimpleVO vo = toSummary(user);
+            result.put(user.getId(), vo);
+            localCache.put(user.getId(), vo);
+            loaded.add(vo);
+        }
+        writeToRedis(loaded);
+        log.debug("【用户摘要】批量补全: 请求={}, 查库={}, 命中库={}", userIds.size(), dbMisses.size(), users.size());
+        return result;
+    }
+
+    @Override
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        doEvict(userId);
+        // 事务内修改资料时，提交后再失效一次，避免并发读在提交前把旧数据回填
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(userId);
+                }
+            });
+        }
+    }
+
+    private void doEvict(Long userId) {
+        localCache.remove(userId);
+        try {
+            stringRedisTemplate.delete(summaryKey(userId));
+        } catch (Exception e) {
+            log.warn("【用户摘要】Redis 失效失败: userId={}", userId, e);
+        }
+    }
+
+    /**
+     * 从 Redis 批量读取，命中的写入 result 和本地缓存，返回仍未命中的用户ID
+     */
+    private List<Long> loadFromRedis(List<Long> userIds, Map<Long, UserSimpleVO> result) {
+        List<String> keys = userIds.stream().map(this::summaryKey).toList();
+        List<String> values;
+        try {
+            values = stringRedisTemplate.opsForValue().multiGet(keys);
+        } catch (Exception e) {
+            log.warn("【用户摘要】Redis 读取失败，回退数据库", e);
+            return userIds;
+        }
+        if (values == null) {
+            return userIds;
+        }
+
+        List<Long> misses = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            Long userId = userIds.get(i);
+            UserSimpleVO vo = parse(values.get(i));
+            if (vo != null) {
+                result.put(userId, vo);
+                localCache.put(userId, vo);
+            } else {
+                misses.add(userId);
+            }
+        }
+        return misses;
+    }
+
+    /**
+     * 一次管道回填本批查库得到的摘要
+     */
+    private void writeToRedis(List<UserSimpleVO> summaries) {
+        if (summaries.isEmpty()) {
+            return;
+        }
+        Map<byte[], byte[]> entries = new LinkedHashMap<>();
+        for (UserSimpleVO vo : summaries) {
+            try {
+                entries.put(bytes(summaryKey(vo.getId())), bytes(objectMapper.writeValueAsString(vo)));
+            } catch (JsonProcessingException e) {
+                log.warn("【用户摘要】缓存序列化失败: userId={}", vo.getId(), e);
+            }
+        }
+        Expiration ttl = Expiration.seconds(cacheProperties.getUserInfoTtl());
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                entries.forEach((key, value) ->
+                        connection.stringCommands().set(key, value, ttl, RedisStringCommands.SetOption.upsert()));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("【用户摘要】Redis 回填失败: 用户数={}", entries.size(), e);
+        }
+    }
+
+    private UserSimpleVO parse(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, UserSimpleVO.class);
+        } catch (JsonProcessingException e) {
+            log.warn("【用户摘要】缓存反序列化失败: {}", json, e);
+            return null;
+        }
+    }
+
+    private UserSimpleVO toSummary(User user) {
+        UserSimpleVO vo = new UserSimpleVO();
+        vo.setId(user.getId());
+        vo.setUsername(user.getUsername());
+        vo.setNickname(user.getNickname());
+        vo.setAvatarUrl(user.getAvatarUrl());
+        return vo;
+    }
+
+    private String summaryKey(Long userId) {
+        return String.format(SystemConstants.KEY_USER_SUMMARY, userId);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
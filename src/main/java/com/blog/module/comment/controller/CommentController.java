@@ -1,6 +1,7 @@
 package com.blog.module.comment.controller;
 
 import com.blog.DTO.comment.*;
+import com.blog.common.CursorPageResult;
 import com.blog.common.PageResult;
 import com.blog.common.Result;
 import com.blog.module.comment.service.ICommentService;
@@ -9,14 +10,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.blog.util.SecurityUtil;
 
-import java.util.List;
-
 /**
  * @Author: GALA_Lin
  * @Date: 2025-10-08-15:21
@@ -87,12 +89,35 @@ public class CommentController {
         return Result.success(comments);
     }
 
-    @Operation(summary = "获取评论树", description = "获取帖子的评论树")
+    @Operation(summary = "获取评论的回复", description = "按回复游标继续加载根评论下的回复")
+    @GetMapping("/{id}/replies")
+    public Result<CursorPageResult<CommentDTO>> getReplies(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+        Long userId = SecurityUtil.getCurrentUserIdOrNull();
+        return Result.success(commentService.getReplies(id, cursor, size, userId));
+    }
+
+    @Operation(summary = "获取评论树", description = "以流式 JSON 输出帖子的完整评论树")
     @GetMapping("/post/{postId}/tree")
-    public Result<List<CommentDTO>> getCommentTree(@PathVariable Long postId) {
+    public ResponseEntity<StreamingResponseBody> getCommentTree(@PathVariable Long postId) {
+        Long userId = SecurityUtil.getCurrentUserIdOrNull();
+        StreamingResponseBody body = out -> commentService.writeCommentTree(postId, userId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @Operation(summary = "分页获取评论树", description = "每页若干根评论，附带前几条回复和继续加载回复的游标")
+    @GetMapping("/post/{postId}/tree/page")
+    public Result<CursorPageResult<CommentDTO>> getCommentTreePage(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "3") Integer replyPreviewSize) {
         Long userId = SecurityUtil.getCurrentUserIdOrNull();
-        List<CommentDTO> tree = commentService.getCommentTree(postId, userId);
-        return Result.success(tree);
+        return Result.success(commentService.getCommentTreePage(postId, cursor, size, replyPreviewSize, userId));
     }
 
     @Operation(summary = "获取用户评论", description = "使用分页获取用户评论")
@@ -6,6 +6,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blog.entity.Comment;
 import org.apache.ibatis.annotations.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -57,6 +58,34 @@ public interface CommentMapper extends BaseMapper<Comment> {
             @Param("currentUserId") Long currentUserId
     );
 
+    /**
+     * 一次查出一页根评论各自的前若干条回复（窗口函数按根评论分组编号）
+     * @param rootIds 根评论ID列表
+     * @param limit 每条根评论最多返回的回复数
+     * @param currentUserId 当前登录用户ID
+     * @return 回复列表，按根评论、回复先后排序
+     */
+    List<Comment> selectReplyPreviews(
+            @Param("rootIds") List<Long> rootIds,
+            @Param("limit") int limit,
+            @Param("currentUserId") Long currentUserId
+    );
+
+    /**
+     * 游标读取根评论下的回复
+     * @param rootId 根评论ID
+     * @param afterId 上一页最后一条回复的ID
+     * @param limit 条数
+     * @param currentUserId 当前登录用户ID
+     * @return 回复列表，按回复先后排序
+     */
+    List<Comment> selectRepliesAfter(
+            @Param("rootId") Long rootId,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit,
+            @Param("currentUserId") Long currentUserId
+    );
+
     /**
      * 分页查询用户评论
      * @param page 分页对象
@@ -101,6 +130,15 @@ public interface CommentMapper extends BaseMapper<Comment> {
      */
     @Update("UPDATE comments SET like_count = like_count - 1 WHERE id = #{commentId} AND like_count > 0")
     int decrementLikeCount(@Param("commentId") Long commentId);
+
+    /**
+     * 按增量调整评论点赞数（批量落库时每条评论一条更新），结果不小于 0
+     * @param commentId 评论ID
+     * @param delta 增量
+     * @return 影响行数
+     */
+    @Update("UPDATE comments SET like_count = GREATEST(CAST(like_count AS SIGNED) + #{delta}, 0) WHERE id = #{commentId}")
+    int addLikeCount(@Param("commentId") Long commentId, @Param("delta") int delta);
     /**
      * 获取所有帖子的最新评论（用于管理员控制面板）
      * @param page 分页对象
@@ -118,19 +156,82 @@ public interface CommentMapper extends BaseMapper<Comment> {
      * @param status 评论状态
      * @return 影响行数
      */
-    @Update("UPDATE comments SET status = #{status} WHERE id IN " +
+    @Update("<script>UPDATE comments SET status = #{status} WHERE id IN " +
             "<foreach collection='ids' item='id' open='(' separator=',' close=')'>" +
             "#{id}" +
-            "</foreach>")
+            "</foreach></script>")
     int batchUpdateStatus(@Param("ids") List<Long> ids, @Param("status") Integer status);
 
     /**
-     * 根据文章ID查询评论树
+     * 锁定并读取一批评论的状态（批量改状态前计算回复数增量用）
+     * @param ids 评论ID列表
+     * @return 评论（仅含ID、根评论ID、状态）
+     */
+    @Select("<script>SELECT id, root_id, status FROM comments WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>" +
+            "#{id}" +
+            "</foreach> FOR UPDATE</script>")
+    List<Comment> selectStatusForUpdate(@Param("ids") List<Long> ids);
+
+    /**
+     * 按增量调整根评论的回复数，结果不小于 0
+     * @param commentId 根评论ID
+     * @param delta 增量
+     * @return 影响行数
+     */
+    @Update("UPDATE comments SET reply_count = GREATEST(CAST(reply_count AS SIGNED) + #{delta}, 0) WHERE id = #{commentId}")
+    int addReplyCount(@Param("commentId") Long commentId, @Param("delta") int delta);
+
+    /**
+     * 按实际已通过的回复重算一批根评论的回复数（走 idx_root_id）
+     * @param rootIds 根评论ID列表
+     * @return 影响行数（值有变化的行）
+     */
+    @Update("<script>UPDATE comments c " +
+            "LEFT JOIN (SELECT root_id, COUNT(*) AS cnt FROM comments WHERE root_id IN " +
+            "<foreach collection='rootIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            " AND status = 1 GROUP BY root_id) r ON r.root_id = c.id " +
+            "SET c.reply_count = COALESCE(r.cnt, 0) WHERE c.id IN " +
+            "<foreach collection='rootIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int reconcileReplyCounts(@Param("rootIds") List<Long> rootIds);
+
+    /**
+     * 按主键顺序读取一批根评论ID（回复数滚动巡检用）
+     * @param afterId 上一批最后一个ID
+     * @param limit 条数
+     * @return 根评论ID列表
+     */
+    @Select("SELECT id FROM comments WHERE id > #{afterId} AND root_id IS NULL ORDER BY id ASC LIMIT #{limit}")
+    List<Long> selectRootIdsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 按 (创建时间, ID) 游标读取文章的根评论
      * @param postId 文章ID
+     * @param afterCreatedAt 上一页最后一条的创建时间，首页为 null
+     * @param afterId 上一页最后一条的ID
+     * @param limit 条数
+     * @param currentUserId 当前登录用户ID
+     * @return 根评论列表，按创建先后排序
+     */
+    List<Comment> selectRootsAfter(
+            @Param("postId") Long postId,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Long afterId,
+            @Param("limit") int limit,
+            @Param("currentUserId") Long currentUserId
+    );
+
+    /**
+     * 查询一批根评论下的全部回复
+     * @param rootIds 根评论ID列表
      * @param currentUserId 当前登录用户ID
-     * @return
+     * @return 回复列表，按根评论、回复先后排序
      */
-    List<Comment> selectCommentTree(@Param("postId") Long postId, @Param("currentUserId") Long currentUserId);
+    List<Comment> selectRepliesByRootIds(
+            @Param("rootIds") List<Long> rootIds,
+            @Param("currentUserId") Long currentUserId
+    );
 
 }
 
@@ -2,10 +2,12 @@ package com.blog.module.comment.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.blog.DTO.comment.*;
+import com.blog.common.CursorPageResult;
 import com.blog.common.PageResult;
 import com.blog.entity.Comment;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * @Author: GALA_Lin
@@ -56,12 +58,34 @@ public interface ICommentService extends IService<Comment> {
     PageResult<CommentDTO> getPostComments(CommentQueryDTO queryDTO, Long userId);
 
     /**
-     * 获取评论树
+     * 游标分页获取根评论的回复
+     * @param commentId 根评论ID
+     * @param cursor 上一页（或评论列表预加载）返回的回复游标，从头读取时不传
+     * @param size 每页大小
+     * @param userId 用户ID
+     * @return 回复列表
+     */
+    CursorPageResult<CommentDTO> getReplies(Long commentId, String cursor, Integer size, Long userId);
+
+    /**
+     * 以流式 JSON 输出完整评论树（按批读取根评论及其回复，逐棵写出，不在内存中拼装整棵树）
+     * @param postId 文章ID
+     * @param userId 用户ID
+     * @param out 响应输出流
+     */
+    void writeCommentTree(Long postId, Long userId, OutputStream out) throws IOException;
+
+    /**
+     * 游标分页获取评论树：每页若干根评论，每条根评论附带有限条回复和继续加载回复的游标
      * @param postId 文章ID
+     * @param cursor 上一页返回的游标，首页不传
+     * @param size 每页根评论数
+     * @param replyPreviewSize 每条根评论附带的回复数
      * @param userId 用户ID
-     * @return 评论树
+     * @return 根评论列表
      */
-    List<CommentDTO> getCommentTree(Long postId, Long userId);
+    CursorPageResult<CommentDTO> getCommentTreePage(Long postId, String cursor, Integer size,
+                                                    Integer replyPreviewSize, Long userId);
 
     /**
      * 获取用户评论列表
@@ -6,20 +6,33 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.blog.VO.auth.UserSimpleVO;
 import com.blog.DTO.comment.*;
 import com.blog.common.BusinessException;
+import com.blog.common.CursorPageResult;
 import com.blog.common.PageResult;
-
+import com.blog.common.ResultCode;
+import com.blog.constants.SystemConstants;
 import com.blog.entity.Comment;
 import com.blog.entity.Post;
 import com.blog.module.comment.mapper.CommentMapper;
 import com.blog.module.comment.service.ICommentService;
+import com.blog.module.like.service.LikeService;
 import com.blog.module.notification.service.NotificationService;
 import com.blog.module.post.mapper.PostMapper;
+import com.blog.module.post.service.HotPostService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -29,9 +42,22 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> implements ICommentService {
 
+    /**
+     * 流式输出评论树时每批读取的根评论数
+     */
+    private static final int TREE_STREAM_BATCH_SIZE = 100;
+
+    private static final int DEFAULT_REPLY_PREVIEW_SIZE = 3;
+
+    private static final int MAX_REPLY_PREVIEW_SIZE = 20;
+
     private final CommentMapper commentMapper;
     private final PostMapper postMapper;
     private final NotificationService notificationService;
+    private final HotPostService hotPostService;
+    private final LikeService likeService;
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate stringRedisTemplate;
 
     /**
      * 创建评论
@@ -88,13 +114,13 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
 
         // 插入评论
         commentMapper.insert(comment);
+        hotPostService.recordComment(comment.getPostId(), 1);
 
-        // fix：取消触发器，更新父评论的 reply_count
-        if (comment.getParentId() != null) {
-            updateParentReplyCount(comment.getRootId());
+        // 根评论回复数原子加一
+        if (comment.getRootId() != null) {
+            changeReplyCount(comment.getRootId(), 1);
         }
 
-
         // 发送通知
         try {
             // 通知文章作者
@@ -121,25 +147,33 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         }
         return getCommentDetail(comment.getId(), userId);
     }
-    // 更新父评论的 reply_count
-    private void updateParentReplyCount(Long parentId) {
-        try {
-            // 计算父评论的实际回复数
-            Long replyCount = commentMapper.selectCount(
-                    new com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper<Comment>()
-                            .eq(Comment::getParentId, parentId)
-                            .eq(Comment::getStatus, 1)
-            );
-
-            // 更新父评论
-            Comment parent = new Comment();
-            parent.setId(parentId);
-            parent.setReplyCount(replyCount.intValue());
-            commentMapper.updateById(parent);
-
-            log.debug("更新父评论 {} 的 reply_count 为 {}", parentId, replyCount);
-        } catch (Exception e) {
-            log.error("更新父评论的 reply_count 失败", e);
+    /**
+     * 原子调整根评论的回复数，事务提交后登记到待校准集合，由定时任务按实际回复数校准漂移
+     * @param rootId 根评论ID
+     * @param delta 增量
+     */
+    private void changeReplyCount(Long rootId, int delta) {
+        commentMapper.addReplyCount(rootId, delta);
+        afterCommit(() -> {
+            try {
+                stringRedisTemplate.opsForSet().add(SystemConstants.KEY_REPLY_COUNT_DIRTY, String.valueOf(rootId));
+            } catch (Exception e) {
+                // 漏登记的根评论由滚动巡检兜底
+                log.warn("登记待校准的根评论 {} 失败: {}", rootId, e.getMessage());
+            }
+        });
+    }
+
+    private void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
         }
     }
 
@@ -188,8 +222,15 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
             throw new BusinessException("你没有权限删除此评论");
         }
 
+        boolean wasVisible = Integer.valueOf(1).equals(comment.getStatus());
         comment.setStatus(-1);
         commentMapper.updateById(comment);
+        if (wasVisible) {
+            hotPostService.recordComment(comment.getPostId(), -1);
+            if (comment.getRootId() != null) {
+                changeReplyCount(comment.getRootId(), -1);
+            }
+        }
 
     }
 
@@ -214,6 +255,7 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
             dto.setChildren(replies.stream().map(this::convertToDTO).collect(Collectors.toList()));
         }
 
+        fillLikeFlags(List.of(dto), userId);
         return dto;
     }
 
@@ -235,54 +277,232 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
         );
 
         List<CommentDTO> dtoList = commentPage.getRecords().stream()
-                .map(comment -> {
-                    CommentDTO dto = convertToDTO(comment);
-                    // Load replies if requested
-                    if (Boolean.TRUE.equals(queryDTO.getLoadReplies())) {
-                        List<Comment> replies = commentMapper.selectRepliesByCommentId(comment.getId(), userId);
-                        dto.setChildren(replies.stream().map(this::convertToDTO).collect(Collectors.toList()));
-                    }
-                    return dto;
-                })
+                .map(this::convertToDTO)
                 .collect(Collectors.toList());
 
+        // 整页根评论的前几条回复一次查出，更多回复凭回复游标继续加载
+        if (Boolean.TRUE.equals(queryDTO.getLoadReplies())) {
+            attachReplyPreviews(dtoList, queryDTO.getReplyPreviewSize(), userId);
+        }
+
+        fillLikeFlags(dtoList, userId);
         return new PageResult<>(dtoList, commentPage.getTotal(), queryDTO.getPageNum(), queryDTO.getPageSize());
     }
 
     /**
-     * 获取评论树
+     * 游标分页获取根评论的回复
+     * @param commentId 根评论ID
+     * @param cursor 回复游标
+     * @param size 每页大小
+     * @param userId 用户ID
+     * @return 回复列表
+     */
+    @Override
+    public CursorPageResult<CommentDTO> getReplies(Long commentId, String cursor, Integer size, Long userId) {
+        Comment root = commentMapper.selectById(commentId);
+        if (root == null || !Integer.valueOf(SystemConstants.COMMENT_STATUS_APPROVED).equals(root.getStatus())) {
+            throw new BusinessException("评论不存在");
+        }
+        if (root.getParentId() != null) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "只能加载根评论的回复");
+        }
+        int pageSize = size == null || size < 1 ? SystemConstants.DEFAULT_PAGE_SIZE
+                : Math.min(size, SystemConstants.MAX_PAGE_SIZE);
+        long afterId = cursor != null && !cursor.isBlank() ? ReplyCursor.decode(cursor).afterId() : 0L;
+
+        // 多取一条判断是否还有下一页
+        List<Comment> rows = commentMapper.selectRepliesAfter(commentId, afterId, pageSize + 1, userId);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = new ReplyCursor(rows.get(pageSize - 1).getId()).encode();
+        }
+        List<CommentDTO> replies = rows.stream().map(this::convertToDTO).collect(Collectors.toList());
+        fillLikeFlags(replies, userId);
+        return CursorPageResult.of(replies, nextCursor, pageSize, null);
+    }
+
+    /**
+     * 为一页根评论挂上各自的前 previewSize 条回复，还有更多回复的根评论附带回复游标
+     * @param roots 根评论DTO
+     * @param previewSize 每条根评论预加载的回复数
+     * @param userId 当前用户ID
+     */
+    private void attachReplyPreviews(List<CommentDTO> roots, int previewSize, Long userId) {
+        if (roots.isEmpty()) {
+            return;
+        }
+        List<Long> rootIds = roots.stream().map(CommentDTO::getId).toList();
+        Map<Long, List<CommentDTO>> repliesByRoot = new HashMap<>();
+        // 每条根评论多取一条，用于判断是否还有更多回复
+        for (Comment reply : commentMapper.selectReplyPreviews(rootIds, previewSize + 1, userId)) {
+            repliesByRoot.computeIfAbsent(reply.getRootId(), id -> new ArrayList<>()).add(convertToDTO(reply));
+        }
+        for (CommentDTO root : roots) {
+            List<CommentDTO> replies = repliesByRoot.getOrDefault(root.getId(), new ArrayList<>());
+            if (replies.size() > previewSize) {
+                replies = new ArrayList<>(replies.subList(0, previewSize));
+                root.setReplyCursor(new ReplyCursor(replies.get(previewSize - 1).getId()).encode());
+            }
+            root.setChildren(replies);
+        }
+    }
+
+    /**
+     * 根评论游标：上一页最后一条根评论的创建时间与ID，Base64(URL) 编码后对外不透明
+     */
+    private record RootCursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static RootCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.lastIndexOf('|');
+                return new RootCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new BusinessException(ResultCode.PARAM_ERROR, "无效的分页游标");
+            }
+        }
+    }
+
+    /**
+     * 回复游标：上一页最后一条回复的ID，Base64(URL) 编码后对外不透明
+     */
+    private record ReplyCursor(long afterId) {
+
+        String encode() {
+            String raw = "r" + afterId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static ReplyCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                if (!raw.startsWith("r")) {
+                    throw new IllegalArgumentException(raw);
+                }
+                return new ReplyCursor(Long.parseLong(raw.substring(1)));
+            } catch (RuntimeException e) {
+                throw new BusinessException(ResultCode.PARAM_ERROR, "无效的分页游标");
+            }
+        }
+    }
+
+    /**
+     * 流式输出完整评论树：每次读取一批根评论及其全部回复，拼成子树写出后即丢弃，
+     * 内存占用只与单批（及其中最大的一棵子树）有关
+     * @param postId 文章ID
+     * @param userId 用户ID
+     * @param out 响应输出流
+     */
+    @Override
+    public void writeCommentTree(Long postId, Long userId, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeNumberField("code", 200);
+            generator.writeStringField("message", "Success");
+            generator.writeArrayFieldStart("data");
+
+            LocalDateTime afterCreatedAt = null;
+            Long afterId = null;
+            while (true) {
+                List<Comment> roots = commentMapper.selectRootsAfter(
+                        postId, afterCreatedAt, afterId, TREE_STREAM_BATCH_SIZE, userId);
+                if (roots.isEmpty()) {
+                    break;
+                }
+                for (CommentDTO tree : buildSubtrees(roots, userId)) {
+                    objectMapper.writeValue(generator, tree);
+                }
+                generator.flush();
+
+                Comment last = roots.get(roots.size() - 1);
+                afterCreatedAt = last.getCreatedAt();
+                afterId = last.getId();
+                if (roots.size() < TREE_STREAM_BATCH_SIZE) {
+                    break;
+                }
+            }
+
+            generator.writeEndArray();
+            generator.writeNumberField("timestamp", System.currentTimeMillis());
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * 游标分页获取评论树
      * @param postId 文章ID
+     * @param cursor 游标
+     * @param size 每页根评论数
+     * @param replyPreviewSize 每条根评论附带的回复数
      * @param userId 用户ID
-     * @return 根评论
+     * @return 根评论列表
      */
     @Override
-    public List<CommentDTO> getCommentTree(Long postId, Long userId) {
-        List<Comment> allComments = commentMapper.selectCommentTree(postId, userId);
+    public CursorPageResult<CommentDTO> getCommentTreePage(Long postId, String cursor, Integer size,
+                                                           Integer replyPreviewSize, Long userId) {
+        int pageSize = size == null || size < 1 ? SystemConstants.DEFAULT_PAGE_SIZE
+                : Math.min(size, SystemConstants.MAX_PAGE_SIZE);
+        int previewSize = replyPreviewSize == null || replyPreviewSize < 1 ? DEFAULT_REPLY_PREVIEW_SIZE
+                : Math.min(replyPreviewSize, MAX_REPLY_PREVIEW_SIZE);
+        RootCursor position = cursor != null && !cursor.isBlank() ? RootCursor.decode(cursor) : null;
+
+        // 多取一条判断是否还有下一页
+        List<Comment> roots = commentMapper.selectRootsAfter(postId,
+                position != null ? position.createdAt() : null, position != null ? position.id() : null,
+                pageSize + 1, userId);
+        String nextCursor = null;
+        if (roots.size() > pageSize) {
+            roots = roots.subList(0, pageSize);
+            Comment last = roots.get(pageSize - 1);
+            nextCursor = new RootCursor(last.getCreatedAt(), last.getId()).encode();
+        }
 
-        // 建立评论ID与DTO的映射
-        Map<Long, CommentDTO> commentMap = new HashMap<>();
-        List<CommentDTO> rootComments = new ArrayList<>();
+        List<CommentDTO> dtoList = roots.stream().map(this::convertToDTO).collect(Collectors.toList());
+        attachReplyPreviews(dtoList, previewSize, userId);
+        fillLikeFlags(dtoList, userId);
+        return CursorPageResult.of(dtoList, nextCursor, pageSize, null);
+    }
 
-        // 转化为DTO
-        for (Comment comment : allComments) {
-            CommentDTO dto = convertToDTO(comment);
+    /**
+     * 一批根评论各自拼成完整子树（回复按 parentId 挂到父评论下）
+     * @param roots 根评论
+     * @param userId 当前用户ID
+     * @return 子树列表，与根评论顺序一致
+     */
+    private List<CommentDTO> buildSubtrees(List<Comment> roots, Long userId) {
+        Map<Long, CommentDTO> nodes = new HashMap<>();
+        List<CommentDTO> trees = new ArrayList<>(roots.size());
+        for (Comment root : roots) {
+            CommentDTO dto = convertToDTO(root);
             dto.setChildren(new ArrayList<>());
-            commentMap.put(dto.getId(), dto);
+            nodes.put(dto.getId(), dto);
+            trees.add(dto);
         }
 
-        // 建立评论树
-        for (CommentDTO dto : commentMap.values()) {
-            if (dto.getParentId() == null) {
-                rootComments.add(dto);
-            } else {
-                CommentDTO parent = commentMap.get(dto.getParentId());
-                if (parent != null) {
-                    parent.getChildren().add(dto);
-                }
+        // 回复按ID升序返回，父评论总在子评论之前
+        List<Long> rootIds = roots.stream().map(Comment::getId).toList();
+        for (Comment reply : commentMapper.selectRepliesByRootIds(rootIds, userId)) {
+            CommentDTO dto = convertToDTO(reply);
+            dto.setChildren(new ArrayList<>());
+            nodes.put(dto.getId(), dto);
+            CommentDTO parent = nodes.get(reply.getParentId());
+            if (parent == null) {
+                // 父评论已删除或未通过审核，挂到根评论下
+                parent = nodes.get(reply.getRootId());
+            }
+            if (parent != null) {
+                parent.getChildren().add(dto);
             }
         }
 
-        return rootComments;
+        fillLikeFlags(trees, userId);
+        return trees;
     }
 
     /**
@@ -329,7 +549,26 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void updateCommentStatus(CommentStatusDTO dto) {
+        // 先锁定这批评论读出原状态，按根评论汇总回复的可见性变化
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (Comment comment : commentMapper.selectStatusForUpdate(dto.getIds())) {
+            if (comment.getRootId() == null) {
+                continue;
+            }
+            boolean wasVisible = Integer.valueOf(SystemConstants.COMMENT_STATUS_APPROVED).equals(comment.getStatus());
+            boolean visible = Integer.valueOf(SystemConstants.COMMENT_STATUS_APPROVED).equals(dto.getStatus());
+            if (wasVisible != visible) {
+                deltas.merge(comment.getRootId(), visible ? 1 : -1, Integer::sum);
+            }
+        }
+
         commentMapper.batchUpdateStatus(dto.getIds(), dto.getStatus());
+        // 按ID顺序更新，多个管理操作并发时行锁顺序一致
+        new TreeMap<>(deltas).forEach((rootId, delta) -> {
+            if (delta != 0) {
+                changeReplyCount(rootId, delta);
+            }
+        });
 
         log.info("批量更新评论状态，共 {} 条，状态为 {}，原因为 {}",
                 dto.getIds().size(), dto.getStatus(), dto.getReason());
@@ -392,6 +631,33 @@ public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> impl
     }
 
 
+    /**
+     * 批量补全当前用户的点赞状态（含子回复），整页评论一次查询
+     * @param comments 评论DTO
+     * @param userId 当前用户ID，未登录为 null
+     */
+    private void fillLikeFlags(List<CommentDTO> comments, Long userId) {
+        List<CommentDTO> all = new ArrayList<>();
+        Deque<CommentDTO> stack = new ArrayDeque<>(comments);
+        while (!stack.isEmpty()) {
+            CommentDTO dto = stack.pop();
+            all.add(dto);
+            if (dto.getChildren() != null) {
+                dto.getChildren().forEach(stack::push);
+            }
+        }
+        if (all.isEmpty()) {
+            return;
+        }
+        if (userId == null) {
+            all.forEach(dto -> dto.setIsLiked(false));
+            return;
+        }
+        Map<Long, Boolean> liked = likeService.batchCheckCommentLikes(
+                all.stream().map(CommentDTO::getId).toList(), userId);
+        all.forEach(dto -> dto.setIsLiked(Boolean.TRUE.equals(liked.get(dto.getId()))));
+    }
+
     /**
      * 转换评论为DTO
      * @param comment 评论
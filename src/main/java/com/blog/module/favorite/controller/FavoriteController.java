@@ -4,6 +4,7 @@ import com.blog.DTO.favorite.*;
 import com.blog.VO.auth.UserSimpleVO;
 import com.blog.VO.favorite.FavoriteVO;
 import com.blog.VO.favorite.FolderVO;
+import com.blog.common.CursorPageResult;
 import com.blog.common.PageResult;
 import com.blog.common.Result;
 import com.blog.module.favorite.service.FavoriteService;
@@ -211,6 +212,15 @@ public class FavoriteController {
         return Result.success(users);
     }
 
+    @Operation(summary = "游标分页获取文章的收藏用户列表")
+    @GetMapping("/post/{postId}/users/cursor")
+    public Result<CursorPageResult<UserSimpleVO>> getPostFavoriteUsersByCursor(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size) {
+        return Result.success(favoriteService.getPostFavoriteUsersByCursor(postId, cursor, size));
+    }
+
     @Operation(summary = "获取我的收藏总数")
     @GetMapping("/my/count")
     @PreAuthorize("isAuthenticated()")
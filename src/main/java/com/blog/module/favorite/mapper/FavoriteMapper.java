@@ -27,6 +27,15 @@ public interface FavoriteMapper extends BaseMapper<Favorite> {
     @Select("SELECT COUNT(*) > 0 FROM favorites WHERE user_id = #{userId} AND post_id = #{postId}")
     Boolean isPostFavorited(@Param("userId") Long userId, @Param("postId") Long postId);
 
+    /**
+     * 按主键游标分批读取收藏关系（重建关系过滤器用）
+     * @param lastId 上一批最后一条的ID
+     * @param limit 每批条数
+     * @return 收藏记录（仅含ID、用户ID、文章ID）
+     */
+    @Select("SELECT id, user_id, post_id FROM favorites WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<Favorite> selectRelationsAfter(@Param("lastId") long lastId, @Param("limit") int limit);
+
     /**
      * 获取用户收藏的文章（带文章信息）
      * @param page 分页对象
@@ -55,6 +64,13 @@ public interface FavoriteMapper extends BaseMapper<Favorite> {
             @Param("folderId") Long folderId
     );
 
+    /**
+     * 获取单条收藏（带文章摘要与收藏夹，不含正文）
+     * @param id 收藏ID
+     * @return 收藏记录
+     */
+    Favorite selectFavoriteWithPostById(@Param("id") Long id);
+
     /**
      * 获取文章的收藏用户
      * @param page 分页对象
@@ -66,6 +82,39 @@ public interface FavoriteMapper extends BaseMapper<Favorite> {
             @Param("postId") Long postId
     );
 
+    /**
+     * 文章最近的收藏（加载最近收藏用户缓存用，fk_fav_post 索引内按主键有序）
+     * @param postId 文章ID
+     * @param limit 条数
+     * @return 收藏记录（仅含用户ID、收藏时间）
+     */
+    @Select("SELECT user_id, created_at FROM favorites WHERE post_id = #{postId} ORDER BY id DESC LIMIT #{limit}")
+    List<Favorite> selectRecentFavoriters(@Param("postId") Long postId, @Param("limit") int limit);
+
+    /**
+     * 按主键倒序游标读取文章的收藏（fk_fav_post 索引内按主键有序）；
+     * 页码分页的深页从定位点起跳过若干条，跳过部分只扫索引、不回表
+     * @param postId 文章ID
+     * @param beforeId 定位点：上一页最后一条的ID
+     * @param skip 定位点之后跳过的条数（游标分页为 0）
+     * @param limit 条数
+     * @return 收藏记录（仅含ID、用户ID）
+     */
+    @Select("SELECT f.id, f.user_id FROM favorites f JOIN (" +
+            "SELECT id FROM favorites WHERE post_id = #{postId} AND id < #{beforeId} " +
+            "ORDER BY id DESC LIMIT #{skip}, #{limit}) k ON k.id = f.id ORDER BY f.id DESC")
+    List<Favorite> selectFavoritersBefore(@Param("postId") Long postId, @Param("beforeId") long beforeId,
+                                          @Param("skip") long skip, @Param("limit") int limit);
+
+    /**
+     * 用户对文章的收藏记录ID
+     * @param postId 文章ID
+     * @param userId 用户ID
+     * @return 记录ID，未收藏时为 null
+     */
+    @Select("SELECT id FROM favorites WHERE post_id = #{postId} AND user_id = #{userId}")
+    Long selectFavoriteId(@Param("postId") Long postId, @Param("userId") Long userId);
+
     /**
      * 获取用户收藏的文章ID列表
      * @param userId 用户ID
@@ -4,6 +4,7 @@ import com.blog.DTO.favorite.*;
 import com.blog.VO.auth.UserSimpleVO;
 import com.blog.VO.favorite.FavoriteVO;
 import com.blog.VO.favorite.FolderVO;
+import com.blog.common.CursorPageResult;
 import com.blog.common.PageResult;
 
 import java.util.List;
@@ -149,6 +150,15 @@ public interface FavoriteService {
      */
     PageResult<UserSimpleVO> getPostFavoriteUsers(Long postId, Integer pageNum, Integer pageSize);
 
+    /**
+     * 游标分页获取文章的收藏用户列表（最近收藏在前）
+     * @param postId 文章ID
+     * @param cursor 上一页返回的游标，首页不传
+     * @param size 每页大小
+     * @return 收藏用户列表
+     */
+    CursorPageResult<UserSimpleVO> getPostFavoriteUsersByCursor(Long postId, String cursor, Integer size);
+
     /**
      * 获取用户收藏总数
      * @param userId 用户ID
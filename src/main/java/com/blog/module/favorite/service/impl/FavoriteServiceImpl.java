@@ -8,17 +8,25 @@ import com.blog.VO.favorite.FavoriteVO;
 import com.blog.VO.favorite.FolderVO;
 import com.blog.VO.post.PostSimpleVO;
 import com.blog.common.BusinessException;
+import com.blog.common.CursorPageResult;
 import com.blog.common.PageResult;
 import com.blog.entity.Favorite;
 import com.blog.entity.FavoriteFolder;
 import com.blog.entity.Post;
+import com.blog.constants.SystemConstants;
 import com.blog.entity.User;
 import com.blog.module.auth.mapper.UserMapper;
+import com.blog.module.auth.service.UserSummaryService;
 import com.blog.module.favorite.mapper.FavoriteFolderMapper;
 import com.blog.module.favorite.mapper.FavoriteMapper;
 import com.blog.module.favorite.service.FavoriteService;
+import com.blog.module.like.cache.RecentUsersCache;
+import com.blog.module.like.filter.InteractionFilter;
+import com.blog.module.like.filter.InteractionType;
 import com.blog.module.notification.service.NotificationService;
 import com.blog.module.post.mapper.PostMapper;
+import com.blog.module.post.service.HotPostService;
+import com.blog.module.post.service.PostService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
@@ -29,6 +37,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -46,6 +56,11 @@ public class FavoriteServiceImpl implements  FavoriteService {
     private final PostMapper postMapper;
     private final NotificationService notificationService;
     private final UserMapper userMapper;
+    private final UserSummaryService userSummaryService;
+    private final HotPostService hotPostService;
+    private final PostService postService;
+    private final InteractionFilter interactionFilter;
+    private final RecentUsersCache recentUsersCache;
 
     // ========== 收藏夹管理 ==========
 
@@ -59,34 +74,59 @@ public class FavoriteServiceImpl implements  FavoriteService {
     }
 
     /**
-     * 转换收藏实体为 VO
+     * 转换收藏实体为 VO（文章与收藏夹信息来自关联查询的投影，不再逐条回表）
      */
-    private FavoriteVO convertFavoriteToVO(Favorite favorite) {
+    private FavoriteVO convertFavoriteToVO(Favorite favorite, Map<Long, UserSimpleVO> authors) {
         FavoriteVO vo = new FavoriteVO();
         BeanUtils.copyProperties(favorite, vo);
 
         // 转换文章信息
-        Post post = postMapper.selectById(favorite.getPostId());
+        Post post = favorite.getPost();
         if (post != null) {
             PostSimpleVO postVO = new PostSimpleVO();
             BeanUtils.copyProperties(post, postVO);
-            postVO.setViewCount(Math.toIntExact(post.getViewCount()));
+            postVO.setViewCount(post.getViewCount() != null ? Math.toIntExact(post.getViewCount()) : 0);
+            postVO.setAuthor(authors.get(post.getUserId()));
             vo.setPost(postVO);
         }
 
         // 转换收藏夹信息
-        if (favorite.getFolderId() != null) {
-            FavoriteFolder folder = favoriteFolderMapper.selectById(favorite.getFolderId());
-            if (folder != null) {
-                FolderSimpleDTO folderDTO = new FolderSimpleDTO();
-                BeanUtils.copyProperties(folder, folderDTO);
-                vo.setFolder(folderDTO);
-            }
+        FavoriteFolder folder = favorite.getFolder();
+        if (folder != null && folder.getId() != null) {
+            FolderSimpleDTO folderDTO = new FolderSimpleDTO();
+            BeanUtils.copyProperties(folder, folderDTO);
+            vo.setFolder(folderDTO);
         }
 
         return vo;
     }
 
+    /**
+     * 批量转换收藏列表，作者信息一次性补全
+     */
+    private List<FavoriteVO> convertFavoritesToVO(List<Favorite> favorites) {
+        Set<Long> authorIds = favorites.stream()
+                .map(Favorite::getPost)
+                .filter(Objects::nonNull)
+                .map(Post::getUserId)
+                .collect(Collectors.toSet());
+        Map<Long, UserSimpleVO> authors = userSummaryService.getUserSummaries(authorIds);
+        return favorites.stream()
+                .map(favorite -> convertFavoriteToVO(favorite, authors))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 重新读取单条收藏的投影并转换
+     */
+    private FavoriteVO loadFavoriteVO(Long favoriteId) {
+        Favorite favorite = favoriteMapper.selectFavoriteWithPostById(favoriteId);
+        if (favorite == null) {
+            throw new BusinessException("收藏记录不存在");
+        }
+        return convertFavoritesToVO(List.of(favorite)).get(0);
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public FolderVO createFolder(FolderCreateDTO dto, Long userId) {
@@ -227,7 +267,7 @@ public class FavoriteServiceImpl implements  FavoriteService {
         }
 
         // 检查是否已收藏
-        if (Boolean.TRUE.equals(favoriteMapper.isPostFavorited(userId, dto.getPostId()))) {
+        if (Boolean.TRUE.equals(isPostFavorited(dto.getPostId(), userId))) {
             throw new BusinessException("已经收藏过此文章");
         }
 
@@ -252,12 +292,16 @@ public class FavoriteServiceImpl implements  FavoriteService {
             favorite.setFolderId(folderId);
             favorite.setNotes(dto.getNotes());
             favoriteMapper.insert(favorite);
+            interactionFilter.add(InteractionType.POST_FAVORITE, userId, dto.getPostId());
+            recentUsersCache.record(InteractionType.POST_FAVORITE, dto.getPostId(), userId);
 
             // 更新收藏夹文章数
             favoriteFolderMapper.updatePostCount(folderId, 1);
 
             // 更新文章收藏数
             postMapper.incrementFavoriteCount(dto.getPostId());
+            postService.evictPostDetail(dto.getPostId());
+            hotPostService.recordFavorite(dto.getPostId(), 1);
             // 发送通知
             if (!post.getUserId().equals(userId)) {
                 try {
@@ -271,7 +315,7 @@ public class FavoriteServiceImpl implements  FavoriteService {
                 }
             }
 
-            return convertFavoriteToVO(favorite);
+            return loadFavoriteVO(favorite.getId());
         } catch (DuplicateKeyException e) {
             log.warn("重复收藏: postId={}, userId={}", dto.getPostId(), userId);
             throw new BusinessException("已经收藏过此文章");
@@ -288,6 +332,7 @@ public class FavoriteServiceImpl implements  FavoriteService {
 
         // 删除收藏记录
         favoriteMapper.deleteById(favorite.getId());
+        recentUsersCache.remove(InteractionType.POST_FAVORITE, postId, userId);
 
         // 更新收藏夹文章数
         if (favorite.getFolderId() != null) {
@@ -296,6 +341,8 @@ public class FavoriteServiceImpl implements  FavoriteService {
 
         // 更新文章收藏数
         postMapper.decrementFavoriteCount(postId);
+        postService.evictPostDetail(postId);
+        hotPostService.recordFavorite(postId, -1);
 
         return true;
     }
@@ -353,7 +400,7 @@ public class FavoriteServiceImpl implements  FavoriteService {
         }
 
         favoriteMapper.updateById(favorite);
-        return convertFavoriteToVO(favorite);
+        return loadFavoriteVO(favorite.getId());
     }
 
     @Override
@@ -361,7 +408,9 @@ public class FavoriteServiceImpl implements  FavoriteService {
         if (postId == null || userId == null) {
             return false;
         }
-        return favoriteMapper.isPostFavorited(userId, postId);
+        // 过滤器判定一定未收藏时不查库
+        return interactionFilter.contains(InteractionType.POST_FAVORITE, userId, postId,
+                () -> favoriteMapper.isPostFavorited(userId, postId));
     }
 
     @Override
@@ -370,7 +419,9 @@ public class FavoriteServiceImpl implements  FavoriteService {
             return new HashMap<>();
         }
 
-        List<Long> favoritedPostIds = favoriteMapper.selectFavoritedPostIdsByUser(userId, postIds);
+        // 只查过滤器判定可能已收藏的文章，全部排除时不查库
+        Set<Long> favoritedPostIds = interactionFilter.containsAll(InteractionType.POST_FAVORITE, userId, postIds,
+                candidates -> favoriteMapper.selectFavoritedPostIdsByUser(userId, candidates));
 
         Map<Long, Boolean> result = new HashMap<>();
         for (Long postId : postIds) {
@@ -431,9 +482,7 @@ public class FavoriteServiceImpl implements  FavoriteService {
                 queryDTO.getSortOrder()
         );
 
-        List<FavoriteVO> voList = favoritePage.getRecords().stream()
-                .map(this::convertFavoriteToVO)
-                .collect(Collectors.toList());
+        List<FavoriteVO> voList = convertFavoritesToVO(favoritePage.getRecords());
 
         return new PageResult<>(voList, favoritePage.getTotal(),
                 queryDTO.getPageNum(), queryDTO.getPageSize());
@@ -456,33 +505,53 @@ public class FavoriteServiceImpl implements  FavoriteService {
         Page<Favorite> page = new Page<>(pageNum, pageSize);
         IPage<Favorite> favoritePage = favoriteMapper.selectFolderFavorites(page, folderId);
 
-        List<FavoriteVO> voList = favoritePage.getRecords().stream()
-                .map(this::convertFavoriteToVO)
-                .collect(Collectors.toList());
+        List<FavoriteVO> voList = convertFavoritesToVO(favoritePage.getRecords());
 
         return new PageResult<>(voList, favoritePage.getTotal(), pageNum, pageSize);
     }
 
     @Override
     public PageResult<UserSimpleVO> getPostFavoriteUsers(Long postId, Integer pageNum, Integer pageSize) {
-        Page<Favorite> page = new Page<>(pageNum, pageSize);
-        IPage<Favorite> favoritePage = favoriteMapper.selectPostFavoritesWithUser(page, postId);
-
-        List<UserSimpleVO> users = favoritePage.getRecords().stream()
-                .map(favorite -> {
-                    UserSimpleVO vo = new UserSimpleVO();
-                    User user = favorite.getUser();
-                    if (user != null) {
-                        vo.setId(user.getId());
-                        vo.setUsername(user.getUsername());
-                        vo.setNickname(user.getNickname());
-                        vo.setAvatarUrl(user.getAvatarUrl());
-                    }
-                    return vo;
-                })
-                .collect(Collectors.toList());
+        // 总数取文章收藏计数列，不再 COUNT(*)
+        List<Post> found = postMapper.selectPostSummariesByIds(List.of(postId));
+        long total = found.isEmpty() || found.get(0).getFavoriteCount() == null ? 0L : found.get(0).getFavoriteCount();
+        long offset = Math.max(0L, (long) (pageNum - 1) * pageSize);
+        List<Long> userIds = recentUsersCache.byRank(InteractionType.POST_FAVORITE, postId, offset, pageSize, total,
+                () -> recentFavoriters(postId), favoriters(postId));
+        return new PageResult<>(toUserSummaries(userIds), total, pageNum, pageSize);
+    }
+
+    @Override
+    public CursorPageResult<UserSimpleVO> getPostFavoriteUsersByCursor(Long postId, String cursor, Integer size) {
+        int pageSize = size == null || size < 1 ? SystemConstants.DEFAULT_PAGE_SIZE
+                : Math.min(size, SystemConstants.MAX_PAGE_SIZE);
+        CursorPageResult<Long> page = recentUsersCache.byCursor(InteractionType.POST_FAVORITE, postId, cursor, pageSize,
+                () -> recentFavoriters(postId), favoriters(postId));
+        return CursorPageResult.of(toUserSummaries(page.getRecords()), page.getNextCursor(), pageSize, null);
+    }
 
-        return new PageResult<>(users, favoritePage.getTotal(), pageNum, pageSize);
+    private RecentUsersCache.KeysetSource favoriters(Long postId) {
+        return RecentUsersCache.KeysetSource.of(
+                (beforeId, skip, limit) -> favoriteMapper.selectFavoritersBefore(postId, beforeId, skip, limit),
+                userId -> favoriteMapper.selectFavoriteId(postId, userId),
+                Favorite::getId, Favorite::getUserId);
+    }
+
+    private List<RecentUsersCache.Entry> recentFavoriters(Long postId) {
+        return favoriteMapper.selectRecentFavoriters(postId, recentUsersCache.capacity()).stream()
+                .map(favorite -> RecentUsersCache.Entry.of(favorite.getUserId(), favorite.getCreatedAt()))
+                .toList();
+    }
+
+    /**
+     * 按给定顺序批量补全用户信息
+     */
+    private List<UserSimpleVO> toUserSummaries(List<Long> userIds) {
+        Map<Long, UserSimpleVO> summaries = userSummaryService.getUserSummaries(userIds);
+        return userIds.stream()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -0,0 +1,270 @@
+package com.blog.module.like.cache;
+
+import com.blog.config.properties.LikeWarmUpProperties;
+import com.blog.constants.SystemConstants;
+import com.blog.entity.CommentLike;
+import com.blog.entity.PostLike;
+import com.blog.module.like.counter.LikeCounterType;
+import com.blog.module.like.mapper.CommentLikeMapper;
+import com.blog.module.like.mapper.PostLikeMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-21:10
+ * @Description: 用户点赞缓存预热
+ *
+ * 1. 按 idx_user_id 以主键游标分块读取用户的全部点赞，每块一次管道 SADD 写入 Redis
+ * 2. 全部加载完成后才写入预热标记，之前的查询仍走 Redis + 数据库兜底
+ * 3. 同一用户的并发预热在本节点合并为一个任务，跨节点由 Redis 锁保证只有一个节点在加载
+ * 4. 预热在独立线程池执行，请求线程只负责触发，不等待加载完成
+ * 5. 数据库快照可能还包含尚在队列中、未落库的取消点赞；点赞脚本把取消记入最近取消集合，
+ *    预热和单条查询的数据库兜底写回集合时都跳过这些目标，避免已取消的点赞被当作已点赞
+ */
+@Slf4j
+@Component
+public class LikeCacheWarmer {
+
+    /**
+     * 释放预热锁（仅当仍由本次预热持有）
+     */
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * 写入一块数据库快照，跳过最近取消（可能尚未落库）的目标
+     * KEYS: 1=用户点赞集合 2=最近取消集合；ARGV: 1=TTL秒 2=仍视为未落库的最早取消时间毫秒 3..=目标ID
+     */
+    private static final DefaultRedisScript<Long> WARM_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', '(' .. ARGV[2])
+            local added = 0
+            for i = 3, #ARGV do
+                if not redis.call('ZSCORE', KEYS[2], ARGV[i]) then
+                    added = added + redis.call('SADD', KEYS[1], ARGV[i])
+                end
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return added
+            """, Long.class);
+
+    /**
+     * 数据库确认已点赞时写回单个目标，最近取消过（可能尚未落库）时不写回
+     * KEYS: 1=用户点赞集合 2=最近取消集合；ARGV: 1=TTL秒 2=仍视为未落库的最早取消时间毫秒 3=目标ID
+     * 返回 1=已写回 0=最近取消过
+     */
+    private static final DefaultRedisScript<Long> RESTORE_SCRIPT = new DefaultRedisScript<>("""
+            local unliked = redis.call('ZSCORE', KEYS[2], ARGV[3])
+            if unliked and tonumber(unliked) >= tonumber(ARGV[2]) then
+                return 0
+            end
+            redis.call('SADD', KEYS[1], ARGV[3])
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private static final long CACHE_TTL_SECONDS = TimeUnit.DAYS.toSeconds(7);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final PostLikeMapper postLikeMapper;
+    private final CommentLikeMapper commentLikeMapper;
+    private final LikeWarmUpProperties properties;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 本节点正在进行的预热：类型:用户ID -> 任务
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<Boolean>> inflight = new ConcurrentHashMap<>();
+
+    public LikeCacheWarmer(StringRedisTemplate stringRedisTemplate, PostLikeMapper postLikeMapper,
+                           CommentLikeMapper commentLikeMapper, LikeWarmUpProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.postLikeMapper = postLikeMapper;
+        this.commentLikeMapper = commentLikeMapper;
+        this.properties = properties;
+        int threads = Math.max(1, properties.getThreads());
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "like-warm-up-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 用户的点赞缓存是否已完整加载
+     */
+    public boolean isWarmed(LikeCounterType type, Long userId) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(flagKey(type, userId)));
+    }
+
+    /**
+     * 触发后台预热，已有进行中的预热时返回同一个任务
+     * @return 完成时为 true 表示本次已写入预热标记；其他节点正在预热、队列已满或加载失败时为 false
+     */
+    public CompletableFuture<Boolean> warmUp(LikeCounterType type, Long userId) {
+        String taskKey = type.name() + ":" + userId;
+        CompletableFuture<Boolean> task = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = inflight.putIfAbsent(taskKey, task);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    task.complete(load(type, userId));
+                } catch (Throwable e) {
+                    log.error("【缓存预热】用户{}的{}点赞缓存预热失败", userId, type, e);
+                    task.complete(false);
+                } finally {
+                    inflight.remove(taskKey, task);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inflight.remove(taskKey, task);
+            log.warn("【缓存预热】预热队列已满，跳过用户{}的{}点赞缓存", userId, type);
+            task.complete(false);
+        }
+        return task;
+    }
+
+    /**
+     * 用户最近取消的点赞（ZSET：目标ID -> 取消时间毫秒）
+     */
+    public String unlikedKey(LikeCounterType type, Long userId) {
+        return String.format(SystemConstants.KEY_LIKE_CACHE_UNLIKED, userId, type.name());
+    }
+
+    /**
+     * 取消点赞可能仍未落库的时长（毫秒）
+     */
+    public long unlikeSettleMillis() {
+        return TimeUnit.SECONDS.toMillis(Math.max(1, properties.getUnlikeSettleWindow()));
+    }
+
+    /**
+     * 数据库兜底查到已点赞时写回集合
+     * @return false 表示该点赞最近被取消、取消可能还未落库，应视为未点赞
+     */
+    public boolean restoreLiked(LikeCounterType type, Long userId, Long targetId) {
+        Long restored = stringRedisTemplate.execute(RESTORE_SCRIPT,
+                List.of(type.userLikeKey(userId), unlikedKey(type, userId)),
+                String.valueOf(CACHE_TTL_SECONDS), String.valueOf(settledBefore()), String.valueOf(targetId));
+        return !Long.valueOf(0L).equals(restored);
+    }
+
+    /**
+     * 用户最近取消、可能尚未落库的点赞目标
+     */
+    public Set<Long> recentlyUnliked(LikeCounterType type, Long userId) {
+        Set<String> members = stringRedisTemplate.opsForZSet()
+                .rangeByScore(unlikedKey(type, userId), settledBefore(), Double.POSITIVE_INFINITY);
+        if (members == null || members.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return members.stream().map(Long::valueOf).collect(Collectors.toSet());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean load(LikeCounterType type, Long userId) {
+        if (isWarmed(type, userId)) {
+            return true;
+        }
+        String lockKey = String.format(SystemConstants.KEY_LIKE_CACHE_WARMING, userId, type.name());
+        String token = UUID.randomUUID().toString();
+        Boolean locked = stringRedisTemplate.opsForValue()
+                .setIfAbsent(lockKey, token, Duration.ofSeconds(properties.getLockTtl()));
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("【缓存预热】用户{}的{}点赞缓存正在由其他节点预热", userId, type);
+            return false;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            String setKey = type.userLikeKey(userId);
+            List<String> keys = List.of(setKey, unlikedKey(type, userId));
+            int chunkSize = Math.max(1, properties.getChunkSize());
+            long lastId = 0;
+            long loaded = 0;
+            while (true) {
+                List<long[]> chunk = loadChunk(type, userId, lastId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                List<String> args = new ArrayList<>(chunk.size() + 2);
+                args.add(String.valueOf(CACHE_TTL_SECONDS));
+                args.add(String.valueOf(settledBefore()));
+                for (long[] row : chunk) {
+                    args.add(String.valueOf(row[1]));
+                }
+                // SADD 与续期同一次往返；预热中途失败时集合也会按期过期
+                stringRedisTemplate.execute(WARM_SCRIPT, keys, args.toArray());
+                loaded += chunk.size();
+                lastId = chunk.get(chunk.size() - 1)[0];
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+
+            // 先写标记再续期集合，集合总比标记晚过期，避免出现"已预热但集合已过期"
+            stringRedisTemplate.opsForValue().set(flagKey(type, userId), "1", Duration.ofSeconds(CACHE_TTL_SECONDS));
+            stringRedisTemplate.expire(setKey, Duration.ofSeconds(CACHE_TTL_SECONDS));
+            log.info("【缓存预热完成】用户{}的{}点赞缓存，共{}条，耗时{}ms",
+                    userId, type, loaded, System.currentTimeMillis() - start);
+            return true;
+        } finally {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey), token);
+        }
+    }
+
+    /**
+     * 读取一块点赞记录
+     * @return [点赞记录ID, 目标ID]
+     */
+    private List<long[]> loadChunk(LikeCounterType type, Long userId, long lastId, int limit) {
+        return switch (type) {
+            case POST -> postLikeMapper.selectUserLikesAfter(userId, lastId, limit).stream()
+                    .map((PostLike like) -> new long[]{like.getId(), like.getPostId()})
+                    .toList();
+            case COMMENT -> commentLikeMapper.selectUserLikesAfter(userId, lastId, limit).stream()
+                    .map((CommentLike like) -> new long[]{like.getId(), like.getCommentId()})
+                    .toList();
+        };
+    }
+
+    /**
+     * 早于该时间（毫秒）的取消视为已落库
+     */
+    private long settledBefore() {
+        return System.currentTimeMillis() - unlikeSettleMillis();
+    }
+
+    private String flagKey(LikeCounterType type, Long userId) {
+        return String.format(SystemConstants.KEY_LIKE_CACHE_WARM_FLAG, userId, type.name());
+    }
+}
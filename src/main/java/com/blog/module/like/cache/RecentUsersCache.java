@@ -0,0 +1,388 @@
+package com.blog.module.like.cache;
+
+import com.blog.common.BusinessException;
+import com.blog.common.CursorPageResult;
+import com.blog.common.ResultCode;
+import com.blog.config.properties.RecentUsersProperties;
+import com.blog.module.like.filter.InteractionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-21:40
+ * @Description: 目标最近的点赞/收藏用户
+ *
+ * 1. 每个目标一个有上限的 ZSET（成员=用户ID，分数=操作时间毫秒），点赞/收藏时写入，取消时移除
+ * 2. 首次读取时从数据库加载最近的若干条并写入加载标记，之后前几页直接由 ZSET 提供
+ * 3. 超出 ZSET 的部分按 (目标ID, 主键) 倒序游标读取数据库，不再 OFFSET + COUNT
+ * 4. 页码分页的深页从 ZSET 最早一条对应的记录ID定位，只跳过 ZSET 之后的部分；
+ *    可跳过的条数有上限，更深的页需改用游标分页
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecentUsersCache {
+
+    /**
+     * 记录一次操作并裁剪到上限
+     * KEYS: 1=ZSET；ARGV: 1=用户ID 2=分数 3=上限 4=TTL秒
+     */
+    private static final DefaultRedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[3]) + 1))
+            redis.call('EXPIRE', KEYS[1], ARGV[4])
+            return 1
+            """, Long.class);
+
+    /**
+     * 合并数据库中最近的记录（NX：不覆盖加载期间新写入的分数）并写入加载标记
+     * KEYS: 1=ZSET 2=加载标记；ARGV: 1=上限 2=TTL秒 3..=分数,用户ID 成对
+     */
+    private static final DefaultRedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>("""
+            for i = 3, #ARGV, 2 do
+                redis.call('ZADD', KEYS[1], 'NX', ARGV[i], ARGV[i + 1])
+            end
+            redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[1]) + 1))
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            redis.call('SET', KEYS[2], '1', 'EX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    /**
+     * 按排名读取
+     * KEYS: 1=ZSET 2=加载标记；ARGV: 1=起始排名 2=结束排名
+     * 返回 {ZSET 大小, 用户ID, 分数, ...}；未加载时返回 nil
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final DefaultRedisScript<List<String>> RANK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 0 then
+                return false
+            end
+            local result = redis.call('ZREVRANGE', KEYS[1], ARGV[1], ARGV[2], 'WITHSCORES')
+            table.insert(result, 1, tostring(redis.call('ZCARD', KEYS[1])))
+            return result
+            """, (Class) List.class);
+
+    /**
+     * 按分数读取上一页最后一条之后的部分（+inf 表示从头开始）
+     * 分数相同的成员按成员倒序排列，跳过与上一页最后一条同分且成员不小于它的部分，同分成员不会被跨页漏掉
+     * KEYS: 1=ZSET 2=加载标记；ARGV: 1=上一页最后一条的分数 2=条数 3=上一页最后一条的用户ID
+     * 返回 {ZSET 大小, 用户ID, 分数, ...}；未加载时返回 nil
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final DefaultRedisScript<List<String>> SCORE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 0 then
+                return false
+            end
+            local skip = 0
+            if ARGV[1] ~= '+inf' then
+                for _, member in ipairs(redis.call('ZRANGEBYSCORE', KEYS[1], ARGV[1], ARGV[1])) do
+                    if member >= ARGV[3] then
+                        skip = skip + 1
+                    end
+                end
+            end
+            local result = redis.call('ZREVRANGEBYSCORE', KEYS[1], ARGV[1], '-inf', 'WITHSCORES', 'LIMIT', skip, ARGV[2])
+            table.insert(result, 1, tostring(redis.call('ZCARD', KEYS[1])))
+            return result
+            """, (Class) List.class);
+
+    private static final long TTL_SECONDS = TimeUnit.DAYS.toSeconds(7);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RecentUsersProperties properties;
+
+    /**
+     * 记录一次点赞/收藏
+     */
+    public void record(InteractionType type, Long targetId, Long userId) {
+        try {
+            stringRedisTemplate.execute(RECORD_SCRIPT, List.of(type.recentUsersKey(targetId)),
+                    String.valueOf(userId), String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(capacity()), String.valueOf(TTL_SECONDS));
+        } catch (Exception e) {
+            // 列表仅用于展示，丢掉加载标记让下次读取从数据库重新加载
+            log.warn("【最近用户】{} {} 写入失败: {}", type, targetId, e.getMessage());
+            invalidate(type, targetId);
+        }
+    }
+
+    /**
+     * 取消点赞/收藏
+     */
+    public void remove(InteractionType type, Long targetId, Long userId) {
+        try {
+            stringRedisTemplate.opsForZSet().remove(type.recentUsersKey(targetId), String.valueOf(userId));
+        } catch (Exception e) {
+            log.warn("【最近用户】{} {} 移除失败: {}", type, targetId, e.getMessage());
+            invalidate(type, targetId);
+        }
+    }
+
+    /**
+     * 按页码读取
+     * @param offset 起始位置
+     * @param count 条数
+     * @param total 总记录数（取自计数列/计数缓存）
+     * @param loader 未加载时从数据库读取最近的记录（最多 capacity 条，按时间倒序）
+     * @param source 数据库游标查询（本页超出 ZSET 覆盖范围时使用）
+     * @return 本页用户ID
+     */
+    public List<Long> byRank(InteractionType type, Long targetId, long offset, int count, long total,
+                             Supplier<List<Entry>> loader, KeysetSource source) {
+        Slice slice = offset < capacity() ? rank(type, targetId, loader, offset, offset + count - 1) : null;
+        List<Long> userIds = new ArrayList<>(count);
+        if (slice != null) {
+            slice.entries().forEach(entry -> userIds.add(entry.userId()));
+            // 本页整页落在 ZSET 内，或 ZSET 已包含全部记录
+            if (userIds.size() >= count || slice.cached() >= total) {
+                return userIds;
+            }
+        }
+
+        // 超出 ZSET：从 ZSET 最早一条在数据库中的位置起，只跳过 ZSET 之后的部分
+        // （本页已读到 ZSET 末尾时最后一条即最早一条）
+        Slice tail = !userIds.isEmpty() ? slice : rank(type, targetId, loader, -1, -1);
+        Entry oldest = tail != null && !tail.entries().isEmpty() ? tail.entries().get(tail.entries().size() - 1) : null;
+        Long beforeId = oldest != null ? source.idOf(oldest.userId()) : null;
+        if (!userIds.isEmpty() && beforeId == null) {
+            // 最早一条尚未落库，无法定位 ZSET 之后的位置，只返回 ZSET 内的部分
+            return userIds;
+        }
+        // Redis 不可用，或最早一条尚未落库时从首行定位
+        long skip = !userIds.isEmpty() ? 0L : beforeId != null ? Math.max(0L, offset - tail.cached()) : offset;
+        if (skip > properties.getMaxPageOffset()) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "页码过大，请使用游标分页");
+        }
+        long seek = beforeId != null ? beforeId : Long.MAX_VALUE;
+        source.before(seek, skip, count - userIds.size()).forEach(row -> userIds.add(row[1]));
+        return userIds;
+    }
+
+    /**
+     * 游标分页：先读 ZSET，读完后从最后一个用户对应的记录ID起按主键倒序读数据库
+     * @param cursor 上一页返回的游标，首页传 null
+     * @param size 每页大小
+     * @param loader 未加载时从数据库读取最近的记录
+     * @param source 数据库游标查询
+     * @return 用户ID游标分页；Redis 不可用时直接从数据库首行读取
+     */
+    public CursorPageResult<Long> byCursor(InteractionType type, Long targetId, String cursor, int size,
+                                           Supplier<List<Entry>> loader, KeysetSource source) {
+        RecentCursor position = cursor != null && !cursor.isBlank() ? RecentCursor.decode(cursor) : null;
+        List<Long> userIds = new ArrayList<>(size);
+        if (position == null || position.fromCache()) {
+            String maxScore = position != null ? String.valueOf(position.value()) : "+inf";
+            String lastUserId = position != null ? String.valueOf(position.userId()) : "";
+            Slice slice = read(type, targetId, loader, () -> stringRedisTemplate.execute(SCORE_SCRIPT,
+                    List.of(type.recentUsersKey(targetId), type.recentUsersLoadedKey(targetId)),
+                    maxScore, String.valueOf(size + 1), lastUserId));
+            if (slice == null) {
+                return fromDatabase(Long.MAX_VALUE, size, userIds, source);
+            }
+            List<Entry> entries = slice.entries();
+            if (entries.size() > size) {
+                entries = entries.subList(0, size);
+                entries.forEach(entry -> userIds.add(entry.userId()));
+                String next = RecentCursor.cache(entries.get(size - 1)).encode();
+                return CursorPageResult.of(userIds, next, size, null);
+            }
+            entries.forEach(entry -> userIds.add(entry.userId()));
+            // ZSET 已读完，从已返回的最早一条在数据库中的位置继续（尚未落库时结束）
+            Long oldestUserId = !entries.isEmpty() ? entries.get(entries.size() - 1).userId()
+                    : position != null ? position.userId() : null;
+            Long beforeId = oldestUserId != null ? source.idOf(oldestUserId) : null;
+            if (beforeId == null) {
+                return CursorPageResult.of(userIds, null, size, null);
+            }
+            return fromDatabase(beforeId, size, userIds, source);
+        }
+        return fromDatabase(position.value(), size, userIds, source);
+    }
+
+    /**
+     * 每个目标保留的最近用户数
+     */
+    public int capacity() {
+        return Math.max(1, properties.getCapacity());
+    }
+
+    private CursorPageResult<Long> fromDatabase(long beforeId, int size, List<Long> userIds, KeysetSource source) {
+        int remaining = size - userIds.size();
+        if (remaining <= 0) {
+            return CursorPageResult.of(userIds, RecentCursor.database(beforeId).encode(), size, null);
+        }
+        List<long[]> rows = source.before(beforeId, 0, remaining + 1);
+        String next = null;
+        if (rows.size() > remaining) {
+            rows = rows.subList(0, remaining);
+            next = RecentCursor.database(rows.get(remaining - 1)[0]).encode();
+        }
+        rows.forEach(row -> userIds.add(row[1]));
+        return CursorPageResult.of(userIds, next, size, null);
+    }
+
+    private Slice rank(InteractionType type, Long targetId, Supplier<List<Entry>> loader, long start, long end) {
+        return read(type, targetId, loader, () -> stringRedisTemplate.execute(RANK_SCRIPT,
+                List.of(type.recentUsersKey(targetId), type.recentUsersLoadedKey(targetId)),
+                String.valueOf(start), String.valueOf(end)));
+    }
+
+    private Slice read(InteractionType type, Long targetId, Supplier<List<Entry>> loader,
+                       Supplier<List<String>> query) {
+        try {
+            List<String> raw = query.get();
+            if (raw == null) {
+                load(type, targetId, loader.get());
+                raw = query.get();
+            }
+            return raw != null ? parse(raw) : null;
+        } catch (Exception e) {
+            log.warn("【最近用户】{} {} 读取失败，改查数据库: {}", type, targetId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void load(InteractionType type, Long targetId, List<Entry> entries) {
+        List<String> args = new ArrayList<>(2 + entries.size() * 2);
+        args.add(String.valueOf(capacity()));
+        args.add(String.valueOf(TTL_SECONDS));
+        for (Entry entry : entries) {
+            args.add(String.valueOf(entry.score()));
+            args.add(String.valueOf(entry.userId()));
+        }
+        stringRedisTemplate.execute(LOAD_SCRIPT,
+                List.of(type.recentUsersKey(targetId), type.recentUsersLoadedKey(targetId)), args.toArray());
+    }
+
+    private void invalidate(InteractionType type, Long targetId) {
+        try {
+            stringRedisTemplate.delete(type.recentUsersLoadedKey(targetId));
+        } catch (Exception e) {
+            log.error("【最近用户】{} {} 清除加载标记失败", type, targetId, e);
+        }
+    }
+
+    private Slice parse(List<String> raw) {
+        long cached = Long.parseLong(raw.get(0));
+        List<Entry> entries = new ArrayList<>((raw.size() - 1) / 2);
+        for (int i = 1; i + 1 < raw.size(); i += 2) {
+            entries.add(new Entry(Long.parseLong(raw.get(i)), (long) Double.parseDouble(raw.get(i + 1))));
+        }
+        return new Slice(entries, cached);
+    }
+
+    /**
+     * @param userId 用户ID
+     * @param score 操作时间毫秒
+     */
+    public record Entry(Long userId, long score) {
+
+        public static Entry of(Long userId, LocalDateTime createdAt) {
+            long score = createdAt != null ? createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+            return new Entry(userId, score);
+        }
+    }
+
+    /**
+     * @param entries 本次读取的用户，按时间倒序
+     * @param cached ZSET 当前大小
+     */
+    public record Slice(List<Entry> entries, long cached) {
+    }
+
+    /**
+     * 数据库游标查询
+     */
+    public interface KeysetSource {
+
+        /**
+         * 按主键倒序读取主键小于 beforeId 的记录，先跳过 skip 条
+         * @return [记录ID, 用户ID]
+         */
+        List<long[]> before(long beforeId, long skip, int limit);
+
+        /**
+         * 用户对该目标的记录ID，不存在时返回 null
+         */
+        Long idOf(Long userId);
+
+        /**
+         * @param before (beforeId, skip, limit) -> 记录列表
+         * @param idOf 用户ID -> 记录ID
+         * @param id 记录ID
+         * @param userId 记录的用户ID
+         */
+        static <T> KeysetSource of(Query<T> before, Function<Long, Long> idOf,
+                                   Function<T, Long> id, Function<T, Long> userId) {
+            return new KeysetSource() {
+                @Override
+                public List<long[]> before(long beforeId, long skip, int limit) {
+                    return before.query(beforeId, skip, limit).stream()
+                            .map(row -> new long[]{id.apply(row), userId.apply(row)})
+                            .toList();
+                }
+
+                @Override
+                public Long idOf(Long userId) {
+                    return idOf.apply(userId);
+                }
+            };
+        }
+
+        @FunctionalInterface
+        interface Query<T> {
+            List<T> query(long beforeId, long skip, int limit);
+        }
+    }
+
+    /**
+     * 游标：ZSET 阶段为上一页最后一条的分数与用户ID，数据库阶段为上一页最后一条的记录ID，
+     * Base64(URL) 编码后对外不透明
+     */
+    private record RecentCursor(boolean fromCache, long value, Long userId) {
+
+        static RecentCursor cache(Entry last) {
+            return new RecentCursor(true, last.score(), last.userId());
+        }
+
+        static RecentCursor database(long id) {
+            return new RecentCursor(false, id, null);
+        }
+
+        String encode() {
+            String raw = fromCache ? "c" + value + "|" + userId : "d" + value;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static RecentCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                if (raw.startsWith("c")) {
+                    int sep = raw.indexOf('|');
+                    return new RecentCursor(true, Long.parseLong(raw.substring(1, sep)), Long.parseLong(raw.substring(sep + 1)));
+                }
+                if (raw.startsWith("d")) {
+                    return new RecentCursor(false, Long.parseLong(raw.substring(1)), null);
+                }
+                throw new IllegalArgumentException(raw);
+            } catch (RuntimeException e) {
+                throw new BusinessException(ResultCode.PARAM_ERROR, "无效的分页游标");
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.blog.module.like.consumer;
+
+import com.blog.DTO.mq.LikeMessage;
+import com.blog.config.RabbitMQConfig;
+import com.blog.entity.CommentLike;
+import com.blog.entity.PostLike;
+import com.blog.module.comment.mapper.CommentMapper;
+import com.blog.module.like.mapper.CommentLikeMapper;
+import com.blog.module.like.mapper.PostLikeMapper;
+import com.blog.module.post.mapper.PostMapper;
+import com.blog.module.post.service.HotPostService;
+import com.rabbitmq.client.Channel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-18:50
+ * @Description: 点赞消息批量落库
+ *
+ * 1. 一批消息内按 (用户, 目标) 折叠，只保留最后一次操作（点赞/取消在 Redis 侧交替产生，成对抵消）
+ * 2. 先查出这批组合在库中的现状，只对真正需要变化的记录做多行 INSERT IGNORE / DELETE ... IN
+ * 3. 按目标汇总增量，每个目标一条 UPDATE，热门文章的点赞计数也只提交一次
+ * 4. 整批在一个事务内完成，提交后一次性确认（multiple ack）；失败则整批重新入队
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "blog.like.batch", name = "enabled", havingValue = "true")
+public class LikeBatchConsumer {
+
+    private final PostLikeMapper postLikeMapper;
+    private final CommentLikeMapper commentLikeMapper;
+    private final PostMapper postMapper;
+    private final CommentMapper commentMapper;
+    private final HotPostService hotPostService;
+    private final MessageConverter messageConverter;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 批量消费文章点赞消息
+     */
+    @RabbitListener(queues = RabbitMQConfig.LIKE_POST_QUEUE, containerFactory = "likeBatchListenerContainerFactory")
+    public void handlePostLikeMessages(List<Message> messages, Channel channel) {
+        consume(messages, channel, "文章", likes -> {
+            Map<Long, Integer> deltas = persistPostLikes(likes);
+            deltas.forEach((postId, delta) -> {
+                postMapper.addLikeCount(postId, delta);
+                hotPostService.recordLike(postId, delta);
+            });
+            return deltas.size();
+        });
+    }
+
+    /**
+     * 批量消费评论点赞消息
+     */
+    @RabbitListener(queues = RabbitMQConfig.LIKE_COMMENT_QUEUE, containerFactory = "likeBatchListenerContainerFactory")
+    public void handleCommentLikeMessages(List<Message> messages, Channel channel) {
+        consume(messages, channel, "评论", likes -> {
+            Map<Long, Integer> deltas = persistCommentLikes(likes);
+            deltas.forEach(commentMapper::addLikeCount);
+            return deltas.size();
+        });
+    }
+
+    private void consume(List<Message> messages, Channel channel, String targetName, BatchWriter writer) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        long lastTag = messages.get(messages.size() - 1).getMessageProperties().getDeliveryTag();
+        try {
+            Collection<LikeMessage> collapsed = collapse(messages);
+            Integer targets = collapsed.isEmpty() ? 0 : transactionTemplate.execute(status -> writer.write(collapsed));
+            // 事务已提交，确认到本批最后一条（含之前所有未确认的消息）
+            channel.basicAck(lastTag, true);
+            log.info("【MQ批量消费】{}点赞落库: 消息={}, 折叠后={}, 更新目标={}",
+                    targetName, messages.size(), collapsed.size(), targets);
+        } catch (Exception e) {
+            log.error("【MQ批量消费】{}点赞批次处理失败，整批重新入队: 消息={}", targetName, messages.size(), e);
+            try {
+                channel.basicNack(lastTag, true, true);
+            } catch (IOException ex) {
+                log.error("【MQ批量消费】消息重新入队失败", ex);
+            }
+        }
+    }
+
+    /**
+     * 按 (用户, 目标) 折叠，只保留最后一条消息；无法解析的消息记录后丢弃
+     */
+    private Collection<LikeMessage> collapse(List<Message> messages) {
+        Map<LikeKey, LikeMessage> latest = new LinkedHashMap<>();
+        for (Message message : messages) {
+            Object body;
+            try {
+                body = messageConverter.fromMessage(message);
+            } catch (Exception e) {
+                log.error("【MQ批量消费】消息解析失败，丢弃: {}", message, e);
+                continue;
+            }
+            if (!(body instanceof LikeMessage likeMessage)
+                    || likeMessage.getUserId() == null || likeMessage.getTargetId() == null) {
+                log.warn("【MQ批量消费】无效的点赞消息，丢弃: {}", body);
+                continue;
+            }
+            LikeKey key = new LikeKey(likeMessage.getUserId(), likeMessage.getTargetId());
+            // 先移除再放入，保持按最后一次出现的顺序
+            latest.remove(key);
+            latest.put(key, likeMessage);
+        }
+        return latest.values();
+    }
+
+    /**
+     * 文章点赞落库
+     * @return 文章ID -> 点赞数增量（不含增量为 0 的文章）
+     */
+    private Map<Long, Integer> persistPostLikes(Collection<LikeMessage> likes) {
+        Set<LikeKey> existing = new HashSet<>();
+        for (PostLike row : postLikeMapper.selectExistingPairs(likes.stream().map(this::toPostLike).toList())) {
+            existing.add(new LikeKey(row.getUserId(), row.getPostId()));
+        }
+        WritePlan plan = plan(likes, existing);
+        if (!plan.inserts().isEmpty()) {
+            postLikeMapper.insertIgnoreBatch(plan.inserts().stream().map(this::toPostLike).toList());
+        }
+        if (!plan.deletes().isEmpty()) {
+            postLikeMapper.deleteBatch(plan.deletes().stream().map(this::toPostLike).toList());
+        }
+        return plan.deltas();
+    }
+
+    /**
+     * 评论点赞落库
+     * @return 评论ID -> 点赞数增量（不含增量为 0 的评论）
+     */
+    private Map<Long, Integer> persistCommentLikes(Collection<LikeMessage> likes) {
+        Set<LikeKey> existing = new HashSet<>();
+        for (CommentLike row : commentLikeMapper.selectExistingPairs(likes.stream().map(this::toCommentLike).toList())) {
+            existing.add(new LikeKey(row.getUserId(), row.getCommentId()));
+        }
+        WritePlan plan = plan(likes, existing);
+        if (!plan.inserts().isEmpty()) {
+            commentLikeMapper.insertIgnoreBatch(plan.inserts().stream().map(this::toCommentLike).toList());
+        }
+        if (!plan.deletes().isEmpty()) {
+            commentLikeMapper.deleteBatch(plan.deletes().stream().map(this::toCommentLike).toList());
+        }
+        return plan.deltas();
+    }
+
+    /**
+     * 对照库中现状，得出需要插入、删除的记录和每个目标的增量；与现状一致的消息（重复投递等）直接跳过
+     */
+    private WritePlan plan(Collection<LikeMessage> likes, Set<LikeKey> existing) {
+        List<LikeMessage> inserts = new ArrayList<>();
+        List<LikeMessage> deletes = new ArrayList<>();
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (LikeMessage message : likes) {
+            boolean exists = existing.contains(new LikeKey(message.getUserId(), message.getTargetId()));
+            if ("LIKE".equals(message.getAction()) && !exists) {
+                inserts.add(message);
+                deltas.merge(message.getTargetId(), 1, Integer::sum);
+            } else if ("UNLIKE".equals(message.getAction()) && exists) {
+                deletes.add(message);
+                deltas.merge(message.getTargetId(), -1, Integer::sum);
+            }
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        return new WritePlan(inserts, deletes, deltas);
+    }
+
+    private PostLike toPostLike(LikeMessage message) {
+        PostLike like = new PostLike();
+        like.setPostId(message.getTargetId());
+        like.setUserId(message.getUserId());
+        like.setCreatedAt(message.getTimestamp() != null ? message.getTimestamp() : LocalDateTime.now());
+        return like;
+    }
+
+    private CommentLike toCommentLike(LikeMessage message) {
+        CommentLike like = new CommentLike();
+        like.setCommentId(message.getTargetId());
+        like.setUserId(message.getUserId());
+        like.setCreatedAt(message.getTimestamp() != null ? message.getTimestamp() : LocalDateTime.now());
+        return like;
+    }
+
+    /**
+     * 在事务内写入一批折叠后的消息，返回更新的目标数
+     */
+    @FunctionalInterface
+    private interface BatchWriter {
+        int write(Collection<LikeMessage> likes);
+    }
+
+    private record LikeKey(Long userId, Long targetId) {
+    }
+
+    private record WritePlan(List<LikeMessage> inserts, List<LikeMessage> deletes, Map<Long, Integer> deltas) {
+    }
+}
@@ -8,11 +8,13 @@ import com.blog.module.comment.mapper.CommentMapper;
 import com.blog.module.like.mapper.CommentLikeMapper;
 import com.blog.module.like.mapper.PostLikeMapper;
 import com.blog.module.post.mapper.PostMapper;
+import com.blog.module.post.service.HotPostService;
 import com.rabbitmq.client.Channel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,10 +22,11 @@ import org.springframework.transaction.annotation.Transactional;
 /**
  * @Author: GALA_Lin
  * @Date: 2025-10-23-22:51
- * @Description:
+ * @Description: 点赞消息逐条消费；开启 blog.like.batch.enabled 后由 LikeBatchConsumer 接管
  */
 @Slf4j
 @Component
+@ConditionalOnProperty(prefix = "blog.like.batch", name = "enabled", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
 public class LikeMessageConsumer {
 
@@ -31,6 +34,7 @@ public class LikeMessageConsumer {
     private final CommentLikeMapper commentLikeMapper;
     private final PostMapper postMapper;
     private final CommentMapper commentMapper;
+    private final HotPostService hotPostService;
     /**
      * 消费文章点赞消息
      */
@@ -104,6 +108,7 @@ public class LikeMessageConsumer {
 
             // 增加文章点赞数
             postMapper.incrementLikeCount(message.getTargetId());
+            hotPostService.recordLike(message.getTargetId(), 1);
 
             log.info("【数据库更新】文章点赞成功: userId={}, postId={}",
                     message.getUserId(), message.getTargetId());
@@ -125,6 +130,7 @@ public class LikeMessageConsumer {
         if (deleted > 0) {
             // 减少文章点赞数
             postMapper.decrementLikeCount(message.getTargetId());
+            hotPostService.recordLike(message.getTargetId(), -1);
 
             log.info("【数据库更新】取消文章点赞成功: userId={}, postId={}",
                     message.getUserId(), message.getTargetId());
@@ -1,7 +1,10 @@
 package com.blog.module.like.controller;
 
 import com.blog.VO.auth.UserSimpleVO;
-import com.blog.VO.post.PostVO;
+import com.blog.VO.like.InteractionFilterStatsVO;
+import com.blog.VO.like.LikeStatusVO;
+import com.blog.VO.post.PostSimpleVO;
+import com.blog.common.CursorPageResult;
 import com.blog.common.PageResult;
 import com.blog.common.Result;
 import com.blog.module.like.service.LikeService;
@@ -66,10 +69,10 @@ public class LikeController {
     @Operation(summary = "切换文章点赞状态", description = "已点赞则取消，未点赞则点赞")
     @PutMapping("/post/{postId}/toggle")
     @PreAuthorize("isAuthenticated()")
-    public Result<Boolean> togglePostLike(@PathVariable Long postId) {
+    public Result<LikeStatusVO> togglePostLike(@PathVariable Long postId) {
         Long userId = SecurityUtil.getCurrentUserId();
-        Boolean isLiked = likeService.togglePostLike(postId, userId);
-        return Result.success(isLiked ? "点赞成功" : "取消点赞成功" , isLiked);
+        LikeStatusVO status = likeService.togglePostLike(postId, userId);
+        return Result.success(status.getLiked() ? "点赞成功" : "取消点赞成功", status);
     }
 
     /**
@@ -110,24 +113,33 @@ public class LikeController {
         return Result.success(users);
     }
 
+    @Operation(summary = "游标分页获取文章的点赞用户列表")
+    @GetMapping("/post/{postId}/users/cursor")
+    public Result<CursorPageResult<UserSimpleVO>> getPostLikeUsersByCursor(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size) {
+        return Result.success(likeService.getPostLikeUsersByCursor(postId, cursor, size));
+    }
+
     @Operation(summary = "获取我点赞的文章列表")
     @GetMapping("/my-posts")
     @PreAuthorize("isAuthenticated()")
-    public Result<PageResult<PostVO>> getMyLikePosts(
+    public Result<PageResult<PostSimpleVO>> getMyLikePosts(
             @RequestParam(defaultValue = "1") Integer pageNum,
             @RequestParam(defaultValue = "10") Integer pageSize) {
         Long userId = SecurityUtil.getCurrentUserId();
-        PageResult<PostVO> posts = likeService.getUserLikePosts(userId, pageNum, pageSize);
+        PageResult<PostSimpleVO> posts = likeService.getUserLikePosts(userId, pageNum, pageSize);
         return Result.success(posts);
     }
 
     @Operation(summary = "获取指定用户点赞的文章列表")
     @GetMapping("/user/{userId}/posts")
-    public Result<PageResult<PostVO>> getUserLikePosts(
+    public Result<PageResult<PostSimpleVO>> getUserLikePosts(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "1") Integer pageNum,
             @RequestParam(defaultValue = "10") Integer pageSize) {
-        PageResult<PostVO> posts = likeService.getUserLikePosts(userId, pageNum, pageSize);
+        PageResult<PostSimpleVO> posts = likeService.getUserLikePosts(userId, pageNum, pageSize);
         return Result.success(posts);
     }
 
@@ -154,10 +166,10 @@ public class LikeController {
     @Operation(summary = "切换评论点赞状态")
     @PutMapping("/comment/{commentId}/toggle")
     @PreAuthorize("isAuthenticated()")
-    public Result<Boolean> toggleCommentLike(@PathVariable Long commentId) {
+    public Result<LikeStatusVO> toggleCommentLike(@PathVariable Long commentId) {
         Long userId = SecurityUtil.getCurrentUserId();
-        Boolean isLiked = likeService.toggleCommentLike(commentId, userId);
-        return Result.success(isLiked ? "点赞成功" : "取消点赞成功", isLiked);
+        LikeStatusVO status = likeService.toggleCommentLike(commentId, userId);
+        return Result.success(status.getLiked() ? "点赞成功" : "取消点赞成功", status);
     }
 
     @Operation(summary = "检查是否已点赞评论")
@@ -188,5 +200,27 @@ public class LikeController {
         return Result.success(users);
     }
 
+    @Operation(summary = "游标分页获取评论的点赞用户列表")
+    @GetMapping("/comment/{commentId}/users/cursor")
+    public Result<CursorPageResult<UserSimpleVO>> getCommentLikeUsersByCursor(
+            @PathVariable Long commentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size) {
+        return Result.success(likeService.getCommentLikeUsersByCursor(commentId, cursor, size));
+    }
+
+    @Operation(summary = "查看点赞/收藏关系过滤器统计（管理员）", description = "本节点自启动以来的跳过查库次数与误判率")
+    @GetMapping("/admin/filter/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<List<InteractionFilterStatsVO>> getInteractionFilterStats() {
+        return Result.success(likeService.getInteractionFilterStats());
+    }
 
+    @Operation(summary = "重建点赞/收藏关系过滤器（管理员）", description = "后台执行，进度见日志")
+    @PostMapping("/admin/filter/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<Void> rebuildInteractionFilters() {
+        likeService.rebuildInteractionFilters();
+        return Result.success("关系过滤器重建任务已提交");
+    }
 }
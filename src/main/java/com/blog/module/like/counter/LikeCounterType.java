@@ -0,0 +1,57 @@
+package com.blog.module.like.counter;
+
+import com.blog.constants.SystemConstants;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-19:45
+ * @Description: 点赞计数的目标类型及其 Redis 键
+ */
+public enum LikeCounterType {
+
+    POST(SystemConstants.KEY_USER_LIKED_POSTS, SystemConstants.KEY_POST_LIKE_COUNT,
+            SystemConstants.KEY_POST_LIKE_COUNT_SYNCED, SystemConstants.KEY_LIKE_DIRTY_POSTS),
+
+    COMMENT(SystemConstants.KEY_USER_LIKED_COMMENTS, SystemConstants.KEY_COMMENT_LIKE_COUNT,
+            SystemConstants.KEY_COMMENT_LIKE_COUNT_SYNCED, SystemConstants.KEY_LIKE_DIRTY_COMMENTS);
+
+    private final String userLikePattern;
+    private final String countPattern;
+    private final String syncedPattern;
+    private final String dirtyKey;
+
+    LikeCounterType(String userLikePattern, String countPattern, String syncedPattern, String dirtyKey) {
+        this.userLikePattern = userLikePattern;
+        this.countPattern = countPattern;
+        this.syncedPattern = syncedPattern;
+        this.dirtyKey = dirtyKey;
+    }
+
+    /**
+     * 用户点赞集合
+     */
+    public String userLikeKey(Long userId) {
+        return String.format(userLikePattern, userId);
+    }
+
+    /**
+     * 点赞计数键
+     */
+    public String countKey(Long targetId) {
+        return String.format(countPattern, targetId);
+    }
+
+    /**
+     * 上次同步时的计数（增量基线）
+     */
+    public String syncedKey(Long targetId) {
+        return String.format(syncedPattern, targetId);
+    }
+
+    /**
+     * 待同步目标集合
+     */
+    public String dirtyKey() {
+        return dirtyKey;
+    }
+}
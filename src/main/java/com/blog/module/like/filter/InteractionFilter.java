@@ -0,0 +1,444 @@
+package com.blog.module.like.filter;
+
+import com.blog.VO.like.InteractionFilterStatsVO;
+import com.blog.config.properties.InteractionFilterProperties;
+import com.blog.module.favorite.mapper.FavoriteMapper;
+import com.blog.module.like.mapper.CommentLikeMapper;
+import com.blog.module.like.mapper.PostLikeMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-20:35
+ * @Description: 用户点赞/收藏关系的布隆过滤器
+ *
+ * 1. 每种关系按用户ID散列到若干 Redis 位图，(用户, 目标) 经双重哈希映射为 k 个位
+ * 2. 判定"一定不存在"时直接返回 false，不再查 MySQL；"可能存在"时查库确认，并据此统计误判率
+ * 3. 点赞、收藏成功后置位；取消不清位（多出的位只会造成误判，不会漏判），由每日重建清掉
+ * 4. 重建写入临时位图，期间新增关系双写；扫描完成后原子替换线上位图
+ * 5. 首次重建完成前、位图丢失时视为不可用，全部查库
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InteractionFilter {
+
+    /**
+     * 批量判断
+     * KEYS: 1=就绪标记 2=位图；ARGV: 1=k 2..=每个元素的 k 个位偏移
+     * 返回与元素一一对应的 0/1；不可用时返回 {-1}
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final DefaultRedisScript<List<Long>> CONTAINS_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 or redis.call('EXISTS', KEYS[2]) == 0 then
+                return {-1}
+            end
+            local k = tonumber(ARGV[1])
+            local result = {}
+            for e = 1, (#ARGV - 1) / k do
+                local hit = 1
+                for j = 1, k do
+                    if redis.call('GETBIT', KEYS[2], ARGV[1 + (e - 1) * k + j]) == 0 then
+                        hit = 0
+                        break
+                    end
+                end
+                result[e] = hit
+            end
+            return result
+            """, (Class) List.class);
+
+    /**
+     * 置位；重建锁存在时同时写入重建中的位图
+     * KEYS: 1=位图 2=重建锁 3=重建中的位图；ARGV: 位偏移
+     */
+    private static final DefaultRedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>("""
+            for i = 1, #ARGV do
+                redis.call('SETBIT', KEYS[1], ARGV[i], 1)
+            end
+            if redis.call('EXISTS', KEYS[2]) == 1 then
+                for i = 1, #ARGV do
+                    redis.call('SETBIT', KEYS[3], ARGV[i], 1)
+                end
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * 重建时批量置位
+     * KEYS: 1=重建中的位图；ARGV: 位偏移
+     */
+    private static final DefaultRedisScript<Long> SET_BITS_SCRIPT = new DefaultRedisScript<>("""
+            for i = 1, #ARGV do
+                redis.call('SETBIT', KEYS[1], ARGV[i], 1)
+            end
+            return #ARGV
+            """, Long.class);
+
+    /**
+     * 用重建结果替换线上位图并标记就绪；重建锁已不属于本次重建时放弃（双写可能已中断）
+     * KEYS: 1..n=线上位图 n+1..2n=重建中的位图 2n+1=就绪标记 2n+2=重建锁；ARGV: 1=n 2=锁令牌
+     */
+    private static final DefaultRedisScript<Long> SWAP_SCRIPT = new DefaultRedisScript<>("""
+            local n = tonumber(ARGV[1])
+            if redis.call('GET', KEYS[2 * n + 2]) ~= ARGV[2] then
+                return 0
+            end
+            for i = 1, n do
+                if redis.call('EXISTS', KEYS[n + i]) == 0 then
+                    redis.call('SETBIT', KEYS[n + i], 0, 0)
+                end
+                redis.call('RENAME', KEYS[n + i], KEYS[i])
+            end
+            redis.call('SET', KEYS[2 * n + 1], '1')
+            redis.call('DEL', KEYS[2 * n + 2])
+            return 1
+            """, Long.class);
+
+    /**
+     * 释放重建锁（仅当仍由本次重建持有）
+     */
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final InteractionFilterProperties properties;
+    private final PostLikeMapper postLikeMapper;
+    private final CommentLikeMapper commentLikeMapper;
+    private final FavoriteMapper favoriteMapper;
+
+    private final Map<InteractionType, Stats> stats = new EnumMap<>(InteractionType.class);
+
+    {
+        for (InteractionType type : InteractionType.values()) {
+            stats.put(type, new Stats());
+        }
+    }
+
+    /**
+     * 判断关系是否存在：过滤器判定一定不存在时直接返回 false，否则查库确认
+     * @param query 数据库查询
+     */
+    public boolean contains(InteractionType type, Long userId, Long targetId, Supplier<Boolean> query) {
+        Judgement judgement = judge(type, userId, List.of(targetId));
+        if (judgement.maybe().isEmpty()) {
+            return false;
+        }
+        boolean present = Boolean.TRUE.equals(query.get());
+        if (judgement.judged()) {
+            stats.get(type).record(present ? 1 : 0, present ? 0 : 1);
+        }
+        return present;
+    }
+
+    /**
+     * 批量判断关系是否存在，只把过滤器判定可能存在的目标交给数据库查询，全部排除时不查库
+     * @param query 数据库查询：候选目标ID -> 其中存在关系的目标ID
+     * @return 存在关系的目标ID
+     */
+    public Set<Long> containsAll(InteractionType type, Long userId, Collection<Long> targetIds,
+                                 Function<List<Long>, Collection<Long>> query) {
+        Judgement judgement = judge(type, userId, targetIds);
+        if (judgement.maybe().isEmpty()) {
+            return new HashSet<>();
+        }
+        Set<Long> present = new HashSet<>(query.apply(judgement.maybe()));
+        if (judgement.judged()) {
+            long confirmed = judgement.maybe().stream().filter(present::contains).count();
+            stats.get(type).record(confirmed, judgement.maybe().size() - confirmed);
+        }
+        return present;
+    }
+
+    /**
+     * 一次往返判断一批目标
+     */
+    private Judgement judge(InteractionType type, Long userId, Collection<Long> targetIds) {
+        List<Long> ids = targetIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return new Judgement(ids, false);
+        }
+        Stats counter = stats.get(type);
+        if (!properties.isEnabled() || userId == null) {
+            counter.bypassed.add(ids.size());
+            return new Judgement(ids, false);
+        }
+
+        int k = hashFunctions();
+        List<String> args = new ArrayList<>(1 + ids.size() * k);
+        args.add(String.valueOf(k));
+        for (Long id : ids) {
+            for (long offset : offsets(userId, id)) {
+                args.add(String.valueOf(offset));
+            }
+        }
+        List<Long> flags;
+        try {
+            flags = stringRedisTemplate.execute(CONTAINS_SCRIPT,
+                    List.of(type.readyKey(), type.bitmapKey(shardOf(userId))), args.toArray());
+        } catch (Exception e) {
+            log.warn("【关系过滤器】{} 查询失败，直接查库: {}", type, e.getMessage());
+            flags = null;
+        }
+        if (flags == null || flags.size() != ids.size() || flags.get(0) == -1L) {
+            counter.bypassed.add(ids.size());
+            return new Judgement(ids, false);
+        }
+
+        List<Long> maybe = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (flags.get(i) == 1L) {
+                maybe.add(ids.get(i));
+            }
+        }
+        counter.negatives.add(ids.size() - maybe.size());
+        return new Judgement(maybe, true);
+    }
+
+    /**
+     * 新增关系后置位
+     */
+    public void add(InteractionType type, Long userId, Long targetId) {
+        if (!properties.isEnabled() || userId == null || targetId == null) {
+            return;
+        }
+        int shard = shardOf(userId);
+        long[] offsets = offsets(userId, targetId);
+        Object[] args = new Object[offsets.length];
+        for (int i = 0; i < offsets.length; i++) {
+            args[i] = String.valueOf(offsets[i]);
+        }
+        try {
+            stringRedisTemplate.execute(ADD_SCRIPT,
+                    List.of(type.bitmapKey(shard), type.lockKey(), type.rebuildKey(shard)), args);
+        } catch (Exception e) {
+            // 漏置位会导致漏判，丢掉就绪标记让过滤器在下次重建前不再生效
+            log.error("【关系过滤器】{} 置位失败，暂停使用直到重建: userId={}, targetId={}", type, userId, targetId, e);
+            try {
+                stringRedisTemplate.delete(type.readyKey());
+            } catch (Exception ex) {
+                log.error("【关系过滤器】{} 清除就绪标记失败", type, ex);
+            }
+        }
+    }
+
+    /**
+     * 各关系类型的命中统计
+     */
+    public List<InteractionFilterStatsVO> getStats() {
+        List<InteractionFilterStatsVO> result = new ArrayList<>();
+        for (InteractionType type : InteractionType.values()) {
+            Stats counter = stats.get(type);
+            long negatives = counter.negatives.sum();
+            long falsePositives = counter.falsePositives.sum();
+            long judged = negatives + falsePositives;
+            result.add(new InteractionFilterStatsVO(type.name(),
+                    Boolean.TRUE.equals(stringRedisTemplate.hasKey(type.readyKey())),
+                    negatives, counter.truePositives.sum(), falsePositives, counter.bypassed.sum(),
+                    judged > 0 ? (double) falsePositives / judged : 0D));
+        }
+        return result;
+    }
+
+    /**
+     * 启动后构建尚未就绪的过滤器
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (InteractionType type : InteractionType.values()) {
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(type.readyKey()))) {
+                rebuild(type);
+            }
+        }
+    }
+
+    /**
+     * 后台重建所有过滤器
+     */
+    @Async
+    public void rebuildAll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (InteractionType type : InteractionType.values()) {
+            rebuild(type);
+        }
+    }
+
+    /**
+     * 从数据库重建一种关系的过滤器
+     * @return 是否完成替换（其他节点正在重建、锁过期等情况返回 false）
+     */
+    public boolean rebuild(InteractionType type) {
+        String token = UUID.randomUUID().toString();
+        Boolean locked = stringRedisTemplate.opsForValue()
+                .setIfAbsent(type.lockKey(), token, Duration.ofSeconds(properties.getRebuildLockTtl()));
+        if (!Boolean.TRUE.equals(locked)) {
+            log.info("【关系过滤器】{} 正在由其他节点重建，跳过", type);
+            return false;
+        }
+
+        int shards = shards();
+        List<String> rebuildKeys = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            rebuildKeys.add(type.rebuildKey(i));
+        }
+        long start = System.currentTimeMillis();
+        try {
+            stringRedisTemplate.delete(rebuildKeys);
+            // 加锁前已写入 Redis 的点赞可能还在队列里，等它们落库后再扫描
+            Thread.sleep(properties.getRebuildSettleDelay());
+
+            long rows = 0;
+            long lastId = 0;
+            int batchSize = Math.max(1, properties.getRebuildBatchSize());
+            while (true) {
+                List<Relation> batch = loadRelations(type, lastId, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                Map<Integer, List<String>> offsetsByShard = new HashMap<>();
+                for (Relation relation : batch) {
+                    List<String> offsets = offsetsByShard.computeIfAbsent(shardOf(relation.userId()), s -> new ArrayList<>());
+                    for (long offset : offsets(relation.userId(), relation.targetId())) {
+                        offsets.add(String.valueOf(offset));
+                    }
+                }
+                offsetsByShard.forEach((shard, offsets) ->
+                        stringRedisTemplate.execute(SET_BITS_SCRIPT, List.of(type.rebuildKey(shard)), offsets.toArray()));
+                rows += batch.size();
+                lastId = batch.get(batch.size() - 1).id();
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+
+            List<String> keys = new ArrayList<>(shards * 2 + 2);
+            for (int i = 0; i < shards; i++) {
+                keys.add(type.bitmapKey(i));
+            }
+            keys.addAll(rebuildKeys);
+            keys.add(type.readyKey());
+            keys.add(type.lockKey());
+            Long swapped = stringRedisTemplate.execute(SWAP_SCRIPT, keys, String.valueOf(shards), token);
+            if (!Long.valueOf(1L).equals(swapped)) {
+                log.warn("【关系过滤器】{} 重建期间锁已失效，放弃本次结果", type);
+                stringRedisTemplate.delete(rebuildKeys);
+                return false;
+            }
+            log.info("【关系过滤器】{} 重建完成: 记录={}, 耗时={}ms", type, rows, System.currentTimeMillis() - start);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(type, token, rebuildKeys);
+            return false;
+        } catch (Exception e) {
+            log.error("【关系过滤器】{} 重建失败", type, e);
+            abort(type, token, rebuildKeys);
+            return false;
+        }
+    }
+
+    private void abort(InteractionType type, String token, List<String> rebuildKeys) {
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(type.lockKey()), token);
+            stringRedisTemplate.delete(rebuildKeys);
+        } catch (Exception e) {
+            log.error("【关系过滤器】{} 清理重建状态失败", type, e);
+        }
+    }
+
+    private List<Relation> loadRelations(InteractionType type, long lastId, int limit) {
+        return switch (type) {
+            case POST_LIKE -> postLikeMapper.selectRelationsAfter(lastId, limit).stream()
+                    .map(like -> new Relation(like.getId(), like.getUserId(), like.getPostId()))
+                    .toList();
+            case COMMENT_LIKE -> commentLikeMapper.selectRelationsAfter(lastId, limit).stream()
+                    .map(like -> new Relation(like.getId(), like.getUserId(), like.getCommentId()))
+                    .toList();
+            case POST_FAVORITE -> favoriteMapper.selectRelationsAfter(lastId, limit).stream()
+                    .map(favorite -> new Relation(favorite.getId(), favorite.getUserId(), favorite.getPostId()))
+                    .toList();
+        };
+    }
+
+    private int shards() {
+        return Math.max(1, properties.getShards());
+    }
+
+    private int hashFunctions() {
+        return Math.max(1, properties.getHashFunctions());
+    }
+
+    private int shardOf(long userId) {
+        return (int) Math.floorMod(mix(userId), (long) shards());
+    }
+
+    /**
+     * 双重哈希：offset_i = h1 + i * h2 (mod m)
+     */
+    private long[] offsets(long userId, long targetId) {
+        long bits = Math.max(64L, properties.getBitsPerShard());
+        long h1 = mix(userId * GOLDEN_GAMMA ^ targetId);
+        long h2 = mix(h1 + GOLDEN_GAMMA) | 1L;
+        long[] offsets = new long[hashFunctions()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = Math.floorMod(h1 + i * h2, bits);
+        }
+        return offsets;
+    }
+
+    /**
+     * SplitMix64 终结函数
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private record Relation(Long id, Long userId, Long targetId) {
+    }
+
+    /**
+     * @param maybe 需要查库确认的目标
+     * @param judged 是否经过滤器判定（不可用时为 false，不计入误判统计）
+     */
+    private record Judgement(List<Long> maybe, boolean judged) {
+    }
+
+    private static class Stats {
+        private final LongAdder negatives = new LongAdder();
+        private final LongAdder truePositives = new LongAdder();
+        private final LongAdder falsePositives = new LongAdder();
+        private final LongAdder bypassed = new LongAdder();
+
+        private void record(long truePositive, long falsePositive) {
+            truePositives.add(truePositive);
+            falsePositives.add(falsePositive);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.blog.module.like.filter;
+
+import com.blog.constants.SystemConstants;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-20:25
+ * @Description: 用户与目标之间的关系类型（点赞文章、点赞评论、收藏文章）及其 Redis 键
+ */
+public enum InteractionType {
+
+    POST_LIKE("post_like"),
+
+    COMMENT_LIKE("comment_like"),
+
+    POST_FAVORITE("favorite");
+
+    private final String code;
+
+    InteractionType(String code) {
+        this.code = code;
+    }
+
+    /**
+     * 线上使用的位图
+     */
+    public String bitmapKey(int shard) {
+        return String.format(SystemConstants.KEY_INTERACTION_FILTER, code, shard);
+    }
+
+    /**
+     * 重建中的位图，重建完成后原子替换线上位图
+     */
+    public String rebuildKey(int shard) {
+        return String.format(SystemConstants.KEY_INTERACTION_FILTER_REBUILD, code, shard);
+    }
+
+    /**
+     * 首次重建完成后写入；不存在时过滤器视为不可用
+     */
+    public String readyKey() {
+        return String.format(SystemConstants.KEY_INTERACTION_FILTER_READY, code);
+    }
+
+    /**
+     * 最近的用户（ZSET，成员为用户ID，分数为操作时间毫秒）
+     */
+    public String recentUsersKey(Long targetId) {
+        return String.format(SystemConstants.KEY_RECENT_USERS, code, targetId);
+    }
+
+    /**
+     * 最近用户已从数据库加载的标记
+     */
+    public String recentUsersLoadedKey(Long targetId) {
+        return String.format(SystemConstants.KEY_RECENT_USERS_LOADED, code, targetId);
+    }
+
+    /**
+     * 重建锁，存在期间新增关系同时写入重建中的位图
+     */
+    public String lockKey() {
+        return String.format(SystemConstants.KEY_INTERACTION_FILTER_LOCK, code);
+    }
+}
@@ -23,11 +23,64 @@ public interface CommentLikeMapper extends BaseMapper<CommentLike> {
     @Select("SELECT COUNT(*) > 0 FROM comment_likes WHERE comment_id = #{commentId} AND user_id = #{userId}")
     Boolean isLikedByUser(@Param("commentId") Long commentId, @Param("userId") Long userId);
 
+    /**
+     * 按主键游标分批读取点赞关系（重建关系过滤器用）
+     * @param lastId 上一批最后一条的ID
+     * @param limit 每批条数
+     * @return 点赞记录（仅含ID、评论ID、用户ID）
+     */
+    @Select("SELECT id, comment_id, user_id FROM comment_likes WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    java.util.List<CommentLike> selectRelationsAfter(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    /**
+     * 按主键游标分块读取用户的点赞（走 idx_user_id，二级索引内按主键有序）
+     * @param userId 用户ID
+     * @param lastId 上一块最后一条的ID
+     * @param limit 每块条数
+     * @return 点赞记录（仅含ID、评论ID）
+     */
+    @Select("SELECT id, comment_id FROM comment_likes WHERE user_id = #{userId} AND id > #{lastId} ORDER BY id LIMIT #{limit}")
+    java.util.List<CommentLike> selectUserLikesAfter(@Param("userId") Long userId, @Param("lastId") long lastId,
+                                                     @Param("limit") int limit);
+
     /**
      * 获取评论的点赞用户列表（分页）
      */
     IPage<CommentLike> selectCommentLikesWithUser(Page<?> page, @Param("commentId") Long commentId);
 
+    /**
+     * 评论最近的点赞（加载最近点赞用户缓存用，走 idx_comment_id_id）
+     * @param commentId 评论ID
+     * @param limit 条数
+     * @return 点赞记录（仅含用户ID、点赞时间）
+     */
+    @Select("SELECT user_id, created_at FROM comment_likes WHERE comment_id = #{commentId} ORDER BY id DESC LIMIT #{limit}")
+    java.util.List<CommentLike> selectRecentLikers(@Param("commentId") Long commentId, @Param("limit") int limit);
+
+    /**
+     * 按主键倒序游标读取评论的点赞（走 idx_comment_id_id）；
+     * 页码分页的深页从定位点起跳过若干条，跳过部分只扫索引、不回表
+     * @param commentId 评论ID
+     * @param beforeId 定位点：上一页最后一条的ID
+     * @param skip 定位点之后跳过的条数（游标分页为 0）
+     * @param limit 条数
+     * @return 点赞记录（仅含ID、用户ID）
+     */
+    @Select("SELECT l.id, l.user_id FROM comment_likes l JOIN (" +
+            "SELECT id FROM comment_likes WHERE comment_id = #{commentId} AND id < #{beforeId} " +
+            "ORDER BY id DESC LIMIT #{skip}, #{limit}) k ON k.id = l.id ORDER BY l.id DESC")
+    java.util.List<CommentLike> selectLikersBefore(@Param("commentId") Long commentId, @Param("beforeId") long beforeId,
+                                                   @Param("skip") long skip, @Param("limit") int limit);
+
+    /**
+     * 用户对评论的点赞记录ID
+     * @param commentId 评论ID
+     * @param userId 用户ID
+     * @return 记录ID，未点赞时为 null
+     */
+    @Select("SELECT id FROM comment_likes WHERE comment_id = #{commentId} AND user_id = #{userId}")
+    Long selectLikeId(@Param("commentId") Long commentId, @Param("userId") Long userId);
+
     /**
      * 获取用户的点赞评论列表（分页）
      */
@@ -43,4 +96,25 @@ public interface CommentLikeMapper extends BaseMapper<CommentLike> {
      */
     @Delete("DELETE FROM comment_likes WHERE comment_id = #{commentId} AND user_id = #{userId}")
     int deleteByCommentAndUser(@Param("commentId") Long commentId, @Param("userId") Long userId);
+
+    /**
+     * 批量落库：查询给定 (评论, 用户) 组合中已存在的点赞记录
+     * @param likes 评论ID 与用户ID 组合
+     * @return 已存在的记录（仅含评论ID、用户ID）
+     */
+    java.util.List<CommentLike> selectExistingPairs(@Param("likes") java.util.List<CommentLike> likes);
+
+    /**
+     * 批量落库：多行 INSERT IGNORE
+     * @param likes 待插入的点赞记录
+     * @return 实际插入行数
+     */
+    int insertIgnoreBatch(@Param("likes") java.util.List<CommentLike> likes);
+
+    /**
+     * 批量落库：按 (评论, 用户) 组合批量删除
+     * @param likes 待删除的点赞记录
+     * @return 删除的行数
+     */
+    int deleteBatch(@Param("likes") java.util.List<CommentLike> likes);
 }
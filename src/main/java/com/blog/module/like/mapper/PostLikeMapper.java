@@ -26,14 +26,59 @@ public interface PostLikeMapper extends BaseMapper<PostLike> {
     @Select("SELECT COUNT(*) > 0 FROM post_likes WHERE post_id = #{postId} AND user_id = #{userId}")
     Boolean isLikedByUser(@Param("postId") Long postId, @Param("userId") Long userId);
 
+    /**
+     * 按主键游标分批读取点赞关系（重建关系过滤器用）
+     * @param lastId 上一批最后一条的ID
+     * @param limit 每批条数
+     * @return 点赞记录（仅含ID、文章ID、用户ID）
+     */
+    @Select("SELECT id, post_id, user_id FROM post_likes WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    java.util.List<PostLike> selectRelationsAfter(@Param("lastId") long lastId, @Param("limit") int limit);
 
     /**
-     * 获取文章的点赞用户列表
-     * @param page 分页对象
+     * 按主键游标分块读取用户的点赞（走 idx_user_id，二级索引内按主键有序）
+     * @param userId 用户ID
+     * @param lastId 上一块最后一条的ID
+     * @param limit 每块条数
+     * @return 点赞记录（仅含ID、文章ID）
+     */
+    @Select("SELECT id, post_id FROM post_likes WHERE user_id = #{userId} AND id > #{lastId} ORDER BY id LIMIT #{limit}")
+    java.util.List<PostLike> selectUserLikesAfter(@Param("userId") Long userId, @Param("lastId") long lastId,
+                                                  @Param("limit") int limit);
+
+
+    /**
+     * 文章最近的点赞（加载最近点赞用户缓存用，走 idx_post_id_id）
      * @param postId 文章ID
-     * @return 文章的点赞用户列表
+     * @param limit 条数
+     * @return 点赞记录（仅含用户ID、点赞时间）
      */
-    IPage<PostLike> selectPostLikesWithUser(Page<?> page, @Param("postId") Long postId);
+    @Select("SELECT user_id, created_at FROM post_likes WHERE post_id = #{postId} ORDER BY id DESC LIMIT #{limit}")
+    java.util.List<PostLike> selectRecentLikers(@Param("postId") Long postId, @Param("limit") int limit);
+
+    /**
+     * 按主键倒序游标读取文章的点赞（走 idx_post_id_id）；
+     * 页码分页的深页从定位点起跳过若干条，跳过部分只扫索引、不回表
+     * @param postId 文章ID
+     * @param beforeId 定位点：上一页最后一条的ID
+     * @param skip 定位点之后跳过的条数（游标分页为 0）
+     * @param limit 条数
+     * @return 点赞记录（仅含ID、用户ID）
+     */
+    @Select("SELECT l.id, l.user_id FROM post_likes l JOIN (" +
+            "SELECT id FROM post_likes WHERE post_id = #{postId} AND id < #{beforeId} " +
+            "ORDER BY id DESC LIMIT #{skip}, #{limit}) k ON k.id = l.id ORDER BY l.id DESC")
+    java.util.List<PostLike> selectLikersBefore(@Param("postId") Long postId, @Param("beforeId") long beforeId,
+                                                @Param("skip") long skip, @Param("limit") int limit);
+
+    /**
+     * 用户对文章的点赞记录ID
+     * @param postId 文章ID
+     * @param userId 用户ID
+     * @return 记录ID，未点赞时为 null
+     */
+    @Select("SELECT id FROM post_likes WHERE post_id = #{postId} AND user_id = #{userId}")
+    Long selectLikeId(@Param("postId") Long postId, @Param("userId") Long userId);
 
     /**
      * 获取用户的文章点赞列表
@@ -59,4 +104,25 @@ public interface PostLikeMapper extends BaseMapper<PostLike> {
      */
     @Delete("DELETE FROM post_likes WHERE post_id = #{postId} AND user_id = #{userId}")
     int deleteByPostAndUser(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    /**
+     * 批量落库：查询给定 (文章, 用户) 组合中已存在的点赞记录
+     * @param likes 文章ID 与用户ID 组合
+     * @return 已存在的记录（仅含文章ID、用户ID）
+     */
+    java.util.List<PostLike> selectExistingPairs(@Param("likes") java.util.List<PostLike> likes);
+
+    /**
+     * 批量落库：多行 INSERT IGNORE
+     * @param likes 待插入的点赞记录
+     * @return 实际插入行数
+     */
+    int insertIgnoreBatch(@Param("likes") java.util.List<PostLike> likes);
+
+    /**
+     * 批量落库：按 (文章, 用户) 组合批量删除
+     * @param likes 待删除的点赞记录
+     * @return 删除的行数
+     */
+    int deleteBatch(@Param("likes") java.util.List<PostLike> likes);
 }
@@ -1,7 +1,10 @@
 package com.blog.module.like.service;
 
 import com.blog.VO.auth.UserSimpleVO;
-import com.blog.VO.post.PostVO;
+import com.blog.VO.like.InteractionFilterStatsVO;
+import com.blog.VO.like.LikeStatusVO;
+import com.blog.VO.post.PostSimpleVO;
+import com.blog.common.CursorPageResult;
 import com.blog.common.PageResult;
 
 import java.util.List;
@@ -34,9 +37,9 @@ public interface LikeService {
      * 切换文章点赞状态（已点赞则取消，未点赞则点赞）
      * @param postId 文章ID
      * @param userId 用户ID
-     * @return true=点赞, false=取消点赞
+     * @return 切换后的点赞状态与点赞数
      */
-    Boolean togglePostLike(Long postId, Long userId);
+    LikeStatusVO togglePostLike(Long postId, Long userId);
 
     /**
      * 检查用户是否已点赞文章
@@ -63,6 +66,15 @@ public interface LikeService {
      */
     PageResult<UserSimpleVO> getPostLikeUsers(Long postId, Integer pageNum, Integer pageSize);
 
+    /**
+     * 游标分页获取文章的点赞用户列表（最近点赞在前）
+     * @param postId 文章ID
+     * @param cursor 上一页返回的游标，首页不传
+     * @param size 每页大小
+     * @return 点赞用户列表
+     */
+    CursorPageResult<UserSimpleVO> getPostLikeUsersByCursor(Long postId, String cursor, Integer size);
+
     /**
      * 获取用户的点赞文章列表
      *
@@ -71,7 +83,7 @@ public interface LikeService {
      * @param pageSize 页大小
      * @return 点赞文章列表
      */
-    PageResult<PostVO> getUserLikePosts(Long userId, Integer pageNum, Integer pageSize);
+    PageResult<PostSimpleVO> getUserLikePosts(Long userId, Integer pageNum, Integer pageSize);
 
     // ========== 评论点赞 ==========
     /**
@@ -94,9 +106,9 @@ public interface LikeService {
      * 切换评论点赞状态（已点赞则取消，未点赞则点赞）
      * @param commentId 评论ID
      * @param userId 用户ID
-     * @return true=点赞, false=取消点赞
+     * @return 切换后的点赞状态与点赞数
      */
-    Boolean toggleCommentLike(Long commentId, Long userId);
+    LikeStatusVO toggleCommentLike(Long commentId, Long userId);
 
     /**
      * 检查用户是否已点赞评论
@@ -123,6 +135,15 @@ public interface LikeService {
      */
     PageResult<UserSimpleVO> getCommentLikeUsers(Long commentId, Integer pageNum, Integer pageSize);
 
+    /**
+     * 游标分页获取评论的点赞用户列表（最近点赞在前）
+     * @param commentId 评论ID
+     * @param cursor 上一页返回的游标，首页不传
+     * @param size 每页大小
+     * @return 点赞用户列表
+     */
+    CursorPageResult<UserSimpleVO> getCommentLikeUsersByCursor(Long commentId, String cursor, Integer size);
+
     /**
      * 获取用户的点赞评论列表
      * @param userId 用户ID
@@ -131,4 +152,15 @@ public interface LikeService {
      * @return 点赞评论列表
      */
     PageResult<Long> getUserLikeComments(Long userId, Integer pageNum, Integer pageSize);
+
+    /**
+     * 点赞/收藏关系过滤器的命中统计（本节点）
+     * @return 各关系类型的统计，含误判率
+     */
+    List<InteractionFilterStatsVO> getInteractionFilterStats();
+
+    /**
+     * 后台从数据库重建点赞/收藏关系过滤器
+     */
+    void rebuildInteractionFilters();
 }
@@ -4,13 +4,23 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blog.DTO.mq.*;
 import com.blog.VO.auth.UserSimpleVO;
-import com.blog.VO.post.PostVO;
+import com.blog.VO.like.InteractionFilterStatsVO;
+import com.blog.VO.like.LikeStatusVO;
+import com.blog.VO.post.PostSimpleVO;
 import com.blog.common.BusinessException;
+import com.blog.common.CursorPageResult;
 import com.blog.common.PageResult;
+import com.blog.common.ResultCode;
 import com.blog.config.RabbitMQConfig;
 import com.blog.constants.SystemConstants;
 import com.blog.entity.*;
+import com.blog.module.auth.service.UserSummaryService;
 import com.blog.module.comment.mapper.CommentMapper;
+import com.blog.module.like.cache.LikeCacheWarmer;
+import com.blog.module.like.cache.RecentUsersCache;
+import com.blog.module.like.counter.LikeCounterType;
+import com.blog.module.like.filter.InteractionFilter;
+import com.blog.module.like.filter.InteractionType;
 import com.blog.module.like.mapper.CommentLikeMapper;
 import com.blog.module.like.mapper.PostLikeMapper;
 import com.blog.module.like.service.LikeService;
@@ -19,14 +29,19 @@ import com.blog.module.post.mapper.PostMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -49,128 +64,133 @@ public class LikeServiceImpl implements LikeService {
     private final PostMapper postMapper;
     private final CommentMapper commentMapper;
     private final NotificationService notificationService;
+    private final UserSummaryService userSummaryService;
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
     private final RabbitTemplate rabbitTemplate;
+    private final InteractionFilter interactionFilter;
+    private final LikeCacheWarmer likeCacheWarmer;
+    private final RecentUsersCache recentUsersCache;
 
-    // Redis 缓存标记
-    private static final String CACHE_INIT_FLAG = "like:cache:init:user:%d:%s"; // user:1:POST
-
-    // ========== 文章点赞实现 ==========
-
-    @Override
-    @Transactional(rollbackFor = Exception.class)
-    public Boolean likePost(Long postId, Long userId) {
-        Post post = postMapper.selectById(postId);
-        if (post == null) {
-            throw new BusinessException("文章不存在");
-        }
-        if (post.getStatus() != 1) {
-            throw new BusinessException("文章未发布");
-        }
-
-        String userLikeKey = String.format(SystemConstants.KEY_USER_LIKED_POSTS, userId);
-        String postLikeCountKey = String.format(SystemConstants.KEY_POST_LIKE_COUNT, postId);
-
-        // 检查 Redis 中是否已点赞
-        Boolean redisMember = redisTemplate.opsForSet().isMember(userLikeKey, postId);
-        if (Boolean.TRUE.equals(redisMember)) {
-            log.info("【Redis检测】用户{}已点赞文章{}", userId, postId);
-            return false;
-        }
-
-        // ✅ 关键修复：即使 Redis 返回 false，也要检查数据库（防止 Redis 未预热）
-        Boolean dbLiked = postLikeMapper.isLikedByUser(postId, userId);
-        if (Boolean.TRUE.equals(dbLiked)) {
-            // 数据库已点赞，同步到 Redis
-            redisTemplate.opsForSet().add(userLikeKey, postId);
-            redisTemplate.expire(userLikeKey, 7, TimeUnit.DAYS);
-            log.warn("【数据不一致】Redis未预热，已从DB同步：用户{}文章{}", userId, postId);
-            return false;
-        }
+    /**
+     * 服务端是否支持 SMISMEMBER，首次调用失败后不再尝试
+     */
+    private volatile boolean smIsMemberSupported = true;
 
-        // Redis 和 DB 都未点赞，执行点赞逻辑
-        log.info("【Redis更新】用户{}点赞文章{}", userId, postId);
-        redisTemplate.opsForSet().add(userLikeKey, postId);
-        redisTemplate.expire(userLikeKey, 7, TimeUnit.DAYS);
+    private static final int MODE_UNLIKE = 0;
+    private static final int MODE_LIKE = 1;
+    private static final int MODE_TOGGLE = 2;
 
-        redisTemplate.opsForValue().increment(postLikeCountKey, 1);
-        redisTemplate.expire(postLikeCountKey, 7, TimeUnit.DAYS);
+    private static final long LIKE_CACHE_TTL_SECONDS = TimeUnit.DAYS.toSeconds(7);
 
-        // 发送 MQ 消息
-        LikeMessage likeMessage = LikeMessage.builder()
-                .messageId(UUID.randomUUID().toString())
-                .userId(userId)
-                .targetId(postId)
-                .targetType("POST")
-                .action("LIKE")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.LIKE_EXCHANGE,
-                RabbitMQConfig.LIKE_POST_ROUTING_KEY,
-                likeMessage
-        );
+    /**
+     * 点赞状态原子变更
+     * KEYS: 1=用户点赞集合 2=目标点赞计数 3=用户点赞缓存预热标记 4=待同步目标集合 5=目标计数的上次同步值
+     *       6=用户最近取消的点赞
+     * ARGV: 1=目标ID 2=模式(0取消/1点赞/2切换) 3=TTL秒 4=数据库点赞状态(1/0，未知传空串) 5=计数缺失时的初始值
+     *       6=当前时间毫秒 7=取消记录保留毫秒
+     * 返回 {操作后状态, 是否变化, 操作后计数}；集合未命中且未预热、又不知道数据库状态时返回 {-1, 0, 0}
+     * 计数变化时记入待同步集合；上次同步值不存在时以变化前的计数为基线，供同步任务计算真实增量
+     * 取消点赞记入最近取消集合（落库前预热不会把它从数据库快照写回），重新点赞时移除；
+     * 带着数据库状态重试时同样不写回最近取消过的目标，此时按未点赞处理
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final DefaultRedisScript<List<Long>> LIKE_SCRIPT = new DefaultRedisScript<>("""
+            local liked = redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 1
+            if not liked then
+                local unliked = redis.call('ZSCORE', KEYS[6], ARGV[1])
+                local pending = unliked and tonumber(unliked) >= tonumber(ARGV[6]) - tonumber(ARGV[7])
+                if ARGV[4] == '1' and not pending then
+                    redis.call('SADD', KEYS[1], ARGV[1])
+                    liked = true
+                elseif ARGV[4] == '' and redis.call('EXISTS', KEYS[3]) == 0 then
+                    return {-1, 0, 0}
+                end
+            end
+            local mode = tonumber(ARGV[2])
+            local target = mode == 1 or (mode == 2 and not liked)
+            if redis.call('EXISTS', KEYS[2]) == 0 then
+                redis.call('SET', KEYS[2], ARGV[5])
+            end
+            local changed = 0
+            if target ~= liked then
+                changed = 1
+                if redis.call('EXISTS', KEYS[5]) == 0 then
+                    redis.call('SET', KEYS[5], redis.call('GET', KEYS[2]), 'EX', ARGV[3])
+                end
+                redis.call('SADD', KEYS[4], ARGV[1])
+                if target then
+                    redis.call('SADD', KEYS[1], ARGV[1])
+                    redis.call('INCR', KEYS[2])
+                    redis.call('ZREM', KEYS[6], ARGV[1])
+                else
+                    redis.call('SREM', KEYS[1], ARGV[1])
+                    if tonumber(redis.call('GET', KEYS[2])) > 0 then
+                        redis.call('DECR', KEYS[2])
+                    end
+                    redis.call('ZADD', KEYS[6], ARGV[6], ARGV[1])
+                    redis.call('ZREMRANGEBYSCORE', KEYS[6], '-inf', '(' .. (tonumber(ARGV[6]) - tonumber(ARGV[7])))
+                    redis.call('PEXPIRE', KEYS[6], ARGV[7])
+                end
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            redis.call('EXPIRE', KEYS[2], ARGV[3])
+            return {target and 1 or 0, changed, tonumber(redis.call('GET', KEYS[2]))}
+            """, (Class) List.class);
 
-        // 发送通知
-        if (!post.getUserId().equals(userId)) {
-            notificationService.sendLikeNotification(
-                    post.getUserId(), userId, postId, "LIKE"
-            );
-        }
+    // ========== 文章点赞实现 ==========
 
-        return true;
+    @Override
+    public Boolean likePost(Long postId, Long userId) {
+        return changePostLike(postId, userId, MODE_LIKE).changed();
     }
 
     @Override
     public Boolean unlikePost(Long postId, Long userId) {
-        String userLikeKey = String.format(SystemConstants.KEY_USER_LIKED_POSTS, userId);
-        String postLikeCountKey = String.format(SystemConstants.KEY_POST_LIKE_COUNT, postId);
-
-        // 检查 Redis
-        Boolean redisMember = redisTemplate.opsForSet().isMember(userLikeKey, postId);
+        return changePostLike(postId, userId, MODE_UNLIKE).changed();
+    }
 
-        // ✅ Redis 和 DB 双查
-        Boolean dbLiked = postLikeMapper.isLikedByUser(postId, userId);
+    @Override
+    public LikeStatusVO togglePostLike(Long postId, Long userId) {
+        LikeChange change = changePostLike(postId, userId, MODE_TOGGLE);
+        return new LikeStatusVO(change.liked(), change.count());
+    }
 
-        if (Boolean.FALSE.equals(redisMember) && Boolean.FALSE.equals(dbLiked)) {
-            log.info("【检测】用户{}未点赞文章{}", userId, postId);
-            return false;
+    /**
+     * 文章点赞状态变更：判断、改集合、改计数、续期在一次脚本调用内完成，状态确有变化才发 MQ 和通知
+     * @param mode MODE_LIKE / MODE_UNLIKE / MODE_TOGGLE
+     */
+    private LikeChange changePostLike(Long postId, Long userId, int mode) {
+        List<Post> found = postMapper.selectPostSummariesByIds(List.of(postId));
+        if (found.isEmpty()) {
+            throw new BusinessException("文章不存在");
+        }
+        Post post = found.get(0);
+        if (mode != MODE_UNLIKE && post.getStatus() != 1) {
+            throw new BusinessException("文章未发布");
         }
 
-        // 更新 Redis
-        log.info("【Redis更新】用户{}取消点赞文章{}", userId, postId);
-        redisTemplate.opsForSet().remove(userLikeKey, postId);
-        redisTemplate.opsForValue().decrement(postLikeCountKey, 1);
-
-        // 发送 MQ 消息
-        LikeMessage likeMessage = LikeMessage.builder()
-                .messageId(UUID.randomUUID().toString())
-                .userId(userId)
-                .targetId(postId)
-                .targetType("POST")
-                .action("UNLIKE")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.LIKE_EXCHANGE,
-                RabbitMQConfig.LIKE_POST_ROUTING_KEY,
-                likeMessage
-        );
-
-        return true;
-    }
-
-    @Override
-    @Transactional(rollbackFor = Exception.class)
-    public Boolean togglePostLike(Long postId, Long userId) {
-        if (Boolean.TRUE.equals(isPostLiked(postId, userId))) {
-            return !unlikePost(postId, userId);
+        LikeChange change = executeLikeScript(LikeCounterType.POST, userId, postId, mode, post.getLikeCount(),
+                () -> interactionFilter.contains(InteractionType.POST_LIKE, userId, postId,
+                        () -> postLikeMapper.isLikedByUser(postId, userId)));
+        if (!change.changed()) {
+            log.info("【点赞检测】用户{}文章{}点赞状态未变化: liked={}", userId, postId, change.liked());
+            return change;
+        }
+        log.info("【Redis更新】用户{}{}文章{}，当前点赞数{}", userId, change.liked() ? "点赞" : "取消点赞", postId, change.count());
+        if (change.liked()) {
+            interactionFilter.add(InteractionType.POST_LIKE, userId, postId);
+            recentUsersCache.record(InteractionType.POST_LIKE, postId, userId);
         } else {
-            return likePost(postId, userId);
+            recentUsersCache.remove(InteractionType.POST_LIKE, postId, userId);
+        }
+
+        sendLikeMessage(userId, postId, "POST", change.liked(), RabbitMQConfig.LIKE_POST_ROUTING_KEY);
+        if (change.liked() && !post.getUserId().equals(userId)) {
+            notificationService.sendLikeNotification(post.getUserId(), userId, postId, "LIKE");
         }
+        return change;
     }
 
     @Override
@@ -178,14 +198,15 @@ public class LikeServiceImpl implements LikeService {
         String userLikeKey = String.format(SystemConstants.KEY_USER_LIKED_POSTS, userId);
 
         // 检查缓存是否已预热
-        if (isCacheWarmed(userId, "POST")) {
+        if (likeCacheWarmer.isWarmed(LikeCounterType.POST, userId)) {
             // 缓存已预热，直接从 Redis 查询
             Boolean isMember = redisTemplate.opsForSet().isMember(userLikeKey, postId);
             log.debug("【Redis查询】用户{}点赞文章{}状态: {}（已预热）", userId, postId, isMember);
             return Boolean.TRUE.equals(isMember);
         }
 
-        // 缓存未预热，Redis + DB 双查
+        // 缓存未预热：后台触发全量预热，本次 Redis + DB 双查
+        likeCacheWarmer.warmUp(LikeCounterType.POST, userId);
         Boolean redisMember = redisTemplate.opsForSet().isMember(userLikeKey, postId);
         if (Boolean.TRUE.equals(redisMember)) {
             // Redis 有记录，直接返回
@@ -193,12 +214,11 @@ public class LikeServiceImpl implements LikeService {
             return true;
         }
 
-        // 数据库兜底
-        Boolean dbLiked = postLikeMapper.isLikedByUser(postId, userId);
-        if (Boolean.TRUE.equals(dbLiked)) {
-            // 数据库有记录，同步到 Redis
-            redisTemplate.opsForSet().add(userLikeKey, postId);
-            redisTemplate.expire(userLikeKey, 7, TimeUnit.DAYS);
+        // 过滤器判定一定未点赞时不查库，否则数据库兜底
+        boolean dbLiked = interactionFilter.contains(InteractionType.POST_LIKE, userId, postId,
+                () -> postLikeMapper.isLikedByUser(postId, userId));
+        // 数据库有记录，同步到 Redis（最近取消过、取消尚未落库的除外）
+        if (dbLiked && likeCacheWarmer.restoreLiked(LikeCounterType.POST, userId, postId)) {
             log.debug("【DB兜底】用户{}点赞文章{}，已同步Redis", userId, postId);
             return true;
         }
@@ -217,113 +237,162 @@ public class LikeServiceImpl implements LikeService {
         Map<Long, Boolean> result = new HashMap<>(postIds.size());
 
         // 检查缓存是否已预热
-        if (isCacheWarmed(userId, "POST")) {
-            // 已预热，直接从 Redis 批量查询
-            for (Long postId : postIds) {
-                Boolean isMember = redisTemplate.opsForSet().isMember(userLikeKey, postId);
-                result.put(postId, Boolean.TRUE.equals(isMember));
-            }
+        if (likeCacheWarmer.isWarmed(LikeCounterType.POST, userId)) {
+            // 已预热，一次往返批量查询 Redis
+            result.putAll(batchIsMember(userLikeKey, postIds));
             log.debug("【Redis批量查询】用户{}的点赞状态（已预热）", userId);
             return result;
         }
 
-        // 预热：从 DB 一次性加载所有点赞记录
-        log.info("【缓存预热】开始预热用户{}的文章点赞缓存", userId);
-        List<Long> allLikedPostIds = postLikeMapper.selectLikedPostIdsByUser(postIds, userId);
-
-        // 批量写入 Redis
-        if (!allLikedPostIds.isEmpty()) {
-            redisTemplate.opsForSet().add(userLikeKey, allLikedPostIds.toArray());
-            redisTemplate.expire(userLikeKey, 7, TimeUnit.DAYS);
-        }
-
-        // 标记缓存已预热（关键：只有批量加载后才标记）
-        markCacheWarmed(userId, "POST");
-
-        // 构建返回结果
-        Set<Long> likedSet = new HashSet<>(allLikedPostIds);
+        // 未预热：后台加载用户的全部点赞，本次只查请求的文章（过滤器排除一定未点赞的）
+        likeCacheWarmer.warmUp(LikeCounterType.POST, userId);
+        Set<Long> likedSet = new HashSet<>(interactionFilter.containsAll(InteractionType.POST_LIKE, userId, postIds,
+                candidates -> postLikeMapper.selectLikedPostIdsByUser(candidates, userId)));
+        // 最近取消、取消尚未落库的按未点赞处理
+        likedSet.removeAll(likeCacheWarmer.recentlyUnliked(LikeCounterType.POST, userId));
+        // Redis 集合中可能有尚未落库的点赞
+        Map<Long, Boolean> cached = batchIsMember(userLikeKey, postIds);
         for (Long postId : postIds) {
-            result.put(postId, likedSet.contains(postId));
+            result.put(postId, likedSet.contains(postId) || Boolean.TRUE.equals(cached.get(postId)));
         }
-
-        log.info("【缓存预热完成】用户{}的文章点赞缓存，共{}条", userId, allLikedPostIds.size());
         return result;
     }
 
     /**
-     * 检查缓存是否已预热
-     * @param userId 用户ID
-     * @param type 类型：POST / COMMENT
-     * @return true=已预热，false=未预热
+     * 批量判断集合成员，一次往返完成
+     * 优先使用 SMISMEMBER（Redis 6.2+），服务端不支持时降级为管道批量 SISMEMBER
+     * @param key 集合键
+     * @param ids 待判断的ID
+     * @return ID -> 是否为成员
      */
-    private boolean isCacheWarmed(Long userId, String type) {
-        String flagKey = String.format(CACHE_INIT_FLAG, userId, type);
-        return redisTemplate.hasKey(flagKey);
-    }
+    @SuppressWarnings("unchecked")
+    private Map<Long, Boolean> batchIsMember(String key, List<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, Boolean> result = new HashMap<>(distinctIds.size());
+        if (distinctIds.isEmpty()) {
+            return result;
+        }
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        byte[] rawKey = keySerializer.serialize(key);
+        byte[][] rawValues = new byte[distinctIds.size()][];
+        for (int i = 0; i < distinctIds.size(); i++) {
+            rawValues[i] = valueSerializer.serialize(distinctIds.get(i));
+        }
 
-    /**
-     * 标记缓存已预热（仅在批量加载后调用）
-     * @param userId 用户ID
-     * @param type 类型：POST / COMMENT
-     */
-    private void markCacheWarmed(Long userId, String type) {
-        String flagKey = String.format(CACHE_INIT_FLAG, userId, type);
-        redisTemplate.opsForValue().set(flagKey, "1", 7, TimeUnit.DAYS);
-        log.info("【缓存标记】用户{}的{}点赞缓存已预热", userId, type);
+        List<?> flags = null;
+        if (smIsMemberSupported) {
+            try {
+                flags = redisTemplate.execute((RedisCallback<List<Boolean>>) connection ->
+                        connection.setCommands().sMIsMember(rawKey, rawValues));
+            } catch (DataAccessException e) {
+                smIsMemberSupported = false;
+                log.warn("【Redis批量查询】SMISMEMBER 不可用，降级为管道 SISMEMBER: {}", e.getMessage());
+            }
+        }
+        if (flags == null) {
+            flags = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (byte[] rawValue : rawValues) {
+                    connection.setCommands().sIsMember(rawKey, rawValue);
+                }
+                return null;
+            });
+        }
+
+        for (int i = 0; i < distinctIds.size(); i++) {
+            Object flag = i < flags.size() ? flags.get(i) : null;
+            result.put(distinctIds.get(i), Boolean.TRUE.equals(flag));
+        }
+        return result;
     }
 
     @Override
     public PageResult<UserSimpleVO> getPostLikeUsers(Long postId, Integer pageNum, Integer pageSize) {
-        Page<PostLike> page = new Page<>(pageNum, pageSize);
-        IPage<PostLike> likePage = postLikeMapper.selectPostLikesWithUser(page, postId);
-
-        List<UserSimpleVO> users = likePage.getRecords().stream()
-                .map(like -> {
-                    UserSimpleVO dto = new UserSimpleVO();
-                    User user = like.getUser();
-                    if (user != null) {
-                        dto.setId(user.getId());
-                        dto.setUsername(user.getUsername());
-                        dto.setNickname(user.getNickname());
-                        dto.setAvatarUrl(user.getAvatarUrl());
-                    }
-                    return dto;
-                })
+        // 总数取计数缓存/计数列，不再 COUNT(*)
+        long total = postLikeTotal(postId);
+        long offset = Math.max(0L, (long) (pageNum - 1) * pageSize);
+        List<Long> userIds = recentUsersCache.byRank(InteractionType.POST_LIKE, postId, offset, pageSize, total,
+                () -> recentPostLikers(postId), postLikers(postId));
+        return new PageResult<>(toUserSummaries(userIds), total, pageNum, pageSize);
+    }
+
+    @Override
+    public CursorPageResult<UserSimpleVO> getPostLikeUsersByCursor(Long postId, String cursor, Integer size) {
+        int pageSize = clampPageSize(size);
+        CursorPageResult<Long> page = recentUsersCache.byCursor(InteractionType.POST_LIKE, postId, cursor, pageSize,
+                () -> recentPostLikers(postId), postLikers(postId));
+        return CursorPageResult.of(toUserSummaries(page.getRecords()), page.getNextCursor(), pageSize, null);
+    }
+
+    private RecentUsersCache.KeysetSource postLikers(Long postId) {
+        return RecentUsersCache.KeysetSource.of(
+                (beforeId, skip, limit) -> postLikeMapper.selectLikersBefore(postId, beforeId, skip, limit),
+                userId -> postLikeMapper.selectLikeId(postId, userId),
+                PostLike::getId, PostLike::getUserId);
+    }
+
+    private long postLikeTotal(Long postId) {
+        Long cached = cachedLikeCount(LikeCounterType.POST, postId);
+        if (cached != null) {
+            return cached;
+        }
+        List<Post> found = postMapper.selectPostSummariesByIds(List.of(postId));
+        return found.isEmpty() || found.get(0).getLikeCount() == null ? 0L : found.get(0).getLikeCount();
+    }
+
+    private List<RecentUsersCache.Entry> recentPostLikers(Long postId) {
+        return postLikeMapper.selectRecentLikers(postId, recentUsersCache.capacity()).stream()
+                .map(like -> RecentUsersCache.Entry.of(like.getUserId(), like.getCreatedAt()))
+                .toList();
+    }
+
+    /**
+     * 按给定顺序批量补全用户信息
+     */
+    private List<UserSimpleVO> toUserSummaries(List<Long> userIds) {
+        Map<Long, UserSimpleVO> summaries = userSummaryService.getUserSummaries(userIds);
+        return userIds.stream()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+    }
 
-        return new PageResult<>(users, likePage.getTotal(), pageNum, pageSize);
+    private int clampPageSize(Integer size) {
+        if (size == null || size < 1) {
+            return SystemConstants.DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, SystemConstants.MAX_PAGE_SIZE);
     }
 
     @Override
-    public PageResult<PostVO> getUserLikePosts(Long userId, Integer pageNum, Integer pageSize) {
+    public PageResult<PostSimpleVO> getUserLikePosts(Long userId, Integer pageNum, Integer pageSize) {
         Page<PostLike> page = new Page<>(pageNum, pageSize);
         IPage<PostLike> likePage = postLikeMapper.selectUserLikesWithPost(page, userId);
 
-        List<PostVO> posts = likePage.getRecords().stream()
-                .map(like -> {
-                    PostVO dto = new PostVO();
-                    Post post = like.getPost();
-                    if (post != null) {
-                        dto.setId(post.getId());
-                        dto.setTitle(post.getTitle());
-                        dto.setSlug(post.getSlug());
-                        dto.setSummary(post.getSummary());
-                        dto.setContent(post.getContent());
-                        dto.setContentType(post.getContentType());
-                        dto.setCoverImage(post.getCoverImage());
-                        dto.setStatus(post.getStatus());
-                        dto.setIsTop(post.getIsTop());
-                        dto.setIsOriginal(post.getIsOriginal());
-                        dto.setOriginalUrl(post.getOriginalUrl());
-                        dto.setViewCount(Math.toIntExact(post.getViewCount()));
-                        dto.setLikeCount(post.getLikeCount());
-                        dto.setFavoriteCount(post.getFavoriteCount());
-                        dto.setCommentCount(post.getCommentCount());
-                        dto.setAllowComment(post.getAllowComment());
-                        dto.setPublishedAt(post.getPublishedAt());
-                        dto.setCreatedAt(post.getCreatedAt());
-                        dto.setUpdatedAt(post.getUpdatedAt());
-                    }
+        // 批量补全作者信息
+        Set<Long> authorIds = likePage.getRecords().stream()
+                .map(PostLike::getPost)
+                .filter(Objects::nonNull)
+                .map(Post::getUserId)
+                .collect(Collectors.toSet());
+        Map<Long, UserSimpleVO> authors = userSummaryService.getUserSummaries(authorIds);
+
+        // 列表只返回摘要，不含正文
+        List<PostSimpleVO> posts = likePage.getRecords().stream()
+                .map(PostLike::getPost)
+                .filter(Objects::nonNull)
+                .map(post -> {
+                    PostSimpleVO dto = new PostSimpleVO();
+                    dto.setId(post.getId());
+                    dto.setTitle(post.getTitle());
+                    dto.setSlug(post.getSlug());
+                    dto.setSummary(post.getSummary());
+                    dto.setCoverImage(post.getCoverImage());
+                    dto.setViewCount(post.getViewCount() != null ? Math.toIntExact(post.getViewCount()) : 0);
+                    dto.setLikeCount(post.getLikeCount());
+                    dto.setFavoriteCount(post.getFavoriteCount());
+                    dto.setCreatedAt(post.getCreatedAt());
+                    dto.setAuthor(authors.get(post.getUserId()));
                     return dto;
                 })
                 .collect(Collectors.toList());
@@ -335,110 +404,52 @@ public class LikeServiceImpl implements LikeService {
 
     @Override
     public Boolean likeComment(Long commentId, Long userId) {
-        Comment comment = commentMapper.selectCommentWithAuthor(commentId);
-        if (comment == null) {
-            throw new BusinessException("评论不存在");
-        }
-        if (comment.getStatus() != 1) {
-            throw new BusinessException("评论不可用");
-        }
-
-        String userLikeKey = String.format(SystemConstants.KEY_USER_LIKED_COMMENTS, userId);
-        String commentLikeCountKey = String.format(SystemConstants.KEY_COMMENT_LIKE_COUNT, commentId);
-
-        // Redis + DB 双查
-        Boolean redisMember = redisTemplate.opsForSet().isMember(userLikeKey, commentId);
-        if (Boolean.TRUE.equals(redisMember)) {
-            return false;
-        }
-
-        Boolean dbLiked = commentLikeMapper.isLikedByUser(commentId, userId);
-        if (Boolean.TRUE.equals(dbLiked)) {
-            redisTemplate.opsForSet().add(userLikeKey, commentId);
-            redisTemplate.expire(userLikeKey, 7, TimeUnit.DAYS);
-            log.warn("【数据不一致】Redis未预热，已从DB同步：用户{}评论{}", userId, commentId);
-            return false;
-        }
-
-        // 执行点赞
-        log.info("【Redis更新】用户{}点赞评论{}", userId, commentId);
-        redisTemplate.opsForSet().add(userLikeKey, commentId);
-        redisTemplate.expire(userLikeKey, 7, TimeUnit.DAYS);
-
-        redisTemplate.opsForValue().increment(commentLikeCountKey, 1);
-        redisTemplate.expire(commentLikeCountKey, 7, TimeUnit.DAYS);
-
-        // 发送 MQ
-        LikeMessage likeMessage = LikeMessage.builder()
-                .messageId(UUID.randomUUID().toString())
-                .userId(userId)
-                .targetId(commentId)
-                .targetType("COMMENT")
-                .action("LIKE")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.LIKE_EXCHANGE,
-                RabbitMQConfig.LIKE_COMMENT_ROUTING_KEY,
-                likeMessage
-        );
-
-        // 发送通知
-        if (!comment.getUserId().equals(userId)) {
-            notificationService.sendLikeNotification(
-                    comment.getUserId(), userId, commentId, "LIKE_COMMENT"
-            );
-        }
-
-        return true;
+        return changeCommentLike(commentId, userId, MODE_LIKE).changed();
     }
 
     @Override
     public Boolean unlikeComment(Long commentId, Long userId) {
-        String userLikeKey = String.format(SystemConstants.KEY_USER_LIKED_COMMENTS, userId);
-        String commentLikeCountKey = String.format(SystemConstants.KEY_COMMENT_LIKE_COUNT, commentId);
+        return changeCommentLike(commentId, userId, MODE_UNLIKE).changed();
+    }
 
-        // Redis + DB 双查
-        Boolean redisMember = redisTemplate.opsForSet().isMember(userLikeKey, commentId);
-        Boolean dbLiked = commentLikeMapper.isLikedByUser(commentId, userId);
+    @Override
+    public LikeStatusVO toggleCommentLike(Long commentId, Long userId) {
+        LikeChange change = changeCommentLike(commentId, userId, MODE_TOGGLE);
+        return new LikeStatusVO(change.liked(), change.count());
+    }
 
-        if (Boolean.FALSE.equals(redisMember) && Boolean.FALSE.equals(dbLiked)) {
-            return false;
+    /**
+     * 评论点赞状态变更，流程同文章
+     * @param mode MODE_LIKE / MODE_UNLIKE / MODE_TOGGLE
+     */
+    private LikeChange changeCommentLike(Long commentId, Long userId, int mode) {
+        Comment comment = commentMapper.selectById(commentId);
+        if (comment == null) {
+            throw new BusinessException("评论不存在");
+        }
+        if (mode != MODE_UNLIKE && comment.getStatus() != 1) {
+            throw new BusinessException("评论不可用");
         }
 
-        // 更新 Redis
-        log.info("【Redis更新】用户{}取消点赞评论{}", userId, commentId);
-        redisTemplate.opsForSet().remove(userLikeKey, commentId);
-        redisTemplate.opsForValue().decrement(commentLikeCountKey, 1);
-
-        // 发送 MQ
-        LikeMessage likeMessage = LikeMessage.builder()
-                .messageId(UUID.randomUUID().toString())
-                .userId(userId)
-                .targetId(commentId)
-                .targetType("COMMENT")
-                .action("UNLIKE")
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.LIKE_EXCHANGE,
-                RabbitMQConfig.LIKE_COMMENT_ROUTING_KEY,
-                likeMessage
-        );
-
-        return true;
-    }
-
-    @Override
-    @Transactional(rollbackFor = Exception.class)
-    public Boolean toggleCommentLike(Long commentId, Long userId) {
-        if (Boolean.TRUE.equals(isCommentLiked(commentId, userId))) {
-            return !unlikeComment(commentId, userId);
+        LikeChange change = executeLikeScript(LikeCounterType.COMMENT, userId, commentId, mode, comment.getLikeCount(),
+                () -> interactionFilter.contains(InteractionType.COMMENT_LIKE, userId, commentId,
+                        () -> commentLikeMapper.isLikedByUser(commentId, userId)));
+        if (!change.changed()) {
+            return change;
+        }
+        log.info("【Redis更新】用户{}{}评论{}，当前点赞数{}", userId, change.liked() ? "点赞" : "取消点赞", commentId, change.count());
+        if (change.liked()) {
+            interactionFilter.add(InteractionType.COMMENT_LIKE, userId, commentId);
+            recentUsersCache.record(InteractionType.COMMENT_LIKE, commentId, userId);
         } else {
-            return likeComment(commentId, userId);
+            recentUsersCache.remove(InteractionType.COMMENT_LIKE, commentId, userId);
+        }
+
+        sendLikeMessage(userId, commentId, "COMMENT", change.liked(), RabbitMQConfig.LIKE_COMMENT_ROUTING_KEY);
+        if (change.liked() && !comment.getUserId().equals(userId)) {
+            notificationService.sendLikeNotification(comment.getUserId(), userId, commentId, "LIKE_COMMENT");
         }
+        return change;
     }
 
     @Override
@@ -446,21 +457,21 @@ public class LikeServiceImpl implements LikeService {
         String userLikeKey = String.format(SystemConstants.KEY_USER_LIKED_COMMENTS, userId);
 
         // 已预热：直接查 Redis
-        if (isCacheWarmed(userId, "COMMENT")) {
+        if (likeCacheWarmer.isWarmed(LikeCounterType.COMMENT, userId)) {
             Boolean isMember = redisTemplate.opsForSet().isMember(userLikeKey, commentId);
             return Boolean.TRUE.equals(isMember);
         }
 
-        // 未预热：Redis + DB 双查
+        // 未预热：后台触发全量预热，本次 Redis + DB 双查
+        likeCacheWarmer.warmUp(LikeCounterType.COMMENT, userId);
         Boolean redisMember = redisTemplate.opsForSet().isMember(userLikeKey, commentId);
         if (Boolean.TRUE.equals(redisMember)) {
             return true;
         }
 
-        Boolean dbLiked = commentLikeMapper.isLikedByUser(commentId, userId);
-        if (Boolean.TRUE.equals(dbLiked)) {
-            redisTemplate.opsForSet().add(userLikeKey, commentId);
-            redisTemplate.expire(userLikeKey, 7, TimeUnit.DAYS);
+        boolean dbLiked = interactionFilter.contains(InteractionType.COMMENT_LIKE, userId, commentId,
+                () -> commentLikeMapper.isLikedByUser(commentId, userId));
+        if (dbLiked && likeCacheWarmer.restoreLiked(LikeCounterType.COMMENT, userId, commentId)) {
             return true;
         }
 
@@ -477,56 +488,60 @@ public class LikeServiceImpl implements LikeService {
         Map<Long, Boolean> result = new HashMap<>(commentIds.size());
 
         // 已预热：直接查 Redis
-        if (isCacheWarmed(userId, "COMMENT")) {
-            for (Long commentId : commentIds) {
-                Boolean isMember = redisTemplate.opsForSet().isMember(userLikeKey, commentId);
-                result.put(commentId, Boolean.TRUE.equals(isMember));
-            }
+        if (likeCacheWarmer.isWarmed(LikeCounterType.COMMENT, userId)) {
+            result.putAll(batchIsMember(userLikeKey, commentIds));
             return result;
         }
 
-        // 未预热：从 DB 批量加载
-        log.info("【缓存预热】开始预热用户{}的评论点赞缓存", userId);
-        List<Long> allLikedCommentIds = commentLikeMapper.selectLikedCommentIdsByUser(commentIds, userId);
-
-        if (!allLikedCommentIds.isEmpty()) {
-            redisTemplate.opsForSet().add(userLikeKey, allLikedCommentIds.toArray());
-            redisTemplate.expire(userLikeKey, 7, TimeUnit.DAYS);
-        }
-
-        // 标记已预热
-        markCacheWarmed(userId, "COMMENT");
-
-        // 构建结果
-        Set<Long> likedSet = new HashSet<>(allLikedCommentIds);
+        // 未预热：后台加载用户的全部点赞，本次只查请求的评论（过滤器排除一定未点赞的）
+        likeCacheWarmer.warmUp(LikeCounterType.COMMENT, userId);
+        Set<Long> likedSet = new HashSet<>(interactionFilter.containsAll(InteractionType.COMMENT_LIKE, userId, commentIds,
+                candidates -> commentLikeMapper.selectLikedCommentIdsByUser(candidates, userId)));
+        likedSet.removeAll(likeCacheWarmer.recentlyUnliked(LikeCounterType.COMMENT, userId));
+        Map<Long, Boolean> cached = batchIsMember(userLikeKey, commentIds);
         for (Long commentId : commentIds) {
-            result.put(commentId, likedSet.contains(commentId));
+            result.put(commentId, likedSet.contains(commentId) || Boolean.TRUE.equals(cached.get(commentId)));
         }
-
-        log.info("【缓存预热完成】用户{}的评论点赞缓存，共{}条", userId, allLikedCommentIds.size());
         return result;
     }
 
     @Override
     public PageResult<UserSimpleVO> getCommentLikeUsers(Long commentId, Integer pageNum, Integer pageSize) {
-        Page<CommentLike> page = new Page<>(pageNum, pageSize);
-        IPage<CommentLike> likePage = commentLikeMapper.selectCommentLikesWithUser(page, commentId);
-
-        List<UserSimpleVO> users = likePage.getRecords().stream()
-                .map(like -> {
-                    UserSimpleVO dto = new UserSimpleVO();
-                    User user = like.getUser();
-                    if (user != null) {
-                        dto.setId(user.getId());
-                        dto.setUsername(user.getUsername());
-                        dto.setNickname(user.getNickname());
-                        dto.setAvatarUrl(user.getAvatarUrl());
-                    }
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        long total = commentLikeTotal(commentId);
+        long offset = Math.max(0L, (long) (pageNum - 1) * pageSize);
+        List<Long> userIds = recentUsersCache.byRank(InteractionType.COMMENT_LIKE, commentId, offset, pageSize, total,
+                () -> recentCommentLikers(commentId), commentLikers(commentId));
+        return new PageResult<>(toUserSummaries(userIds), total, pageNum, pageSize);
+    }
+
+    @Override
+    public CursorPageResult<UserSimpleVO> getCommentLikeUsersByCursor(Long commentId, String cursor, Integer size) {
+        int pageSize = clampPageSize(size);
+        CursorPageResult<Long> page = recentUsersCache.byCursor(InteractionType.COMMENT_LIKE, commentId, cursor, pageSize,
+                () -> recentCommentLikers(commentId), commentLikers(commentId));
+        return CursorPageResult.of(toUserSummaries(page.getRecords()), page.getNextCursor(), pageSize, null);
+    }
+
+    private RecentUsersCache.KeysetSource commentLikers(Long commentId) {
+        return RecentUsersCache.KeysetSource.of(
+                (beforeId, skip, limit) -> commentLikeMapper.selectLikersBefore(commentId, beforeId, skip, limit),
+                userId -> commentLikeMapper.selectLikeId(commentId, userId),
+                CommentLike::getId, CommentLike::getUserId);
+    }
+
+    private long commentLikeTotal(Long commentId) {
+        Long cached = cachedLikeCount(LikeCounterType.COMMENT, commentId);
+        if (cached != null) {
+            return cached;
+        }
+        Comment comment = commentMapper.selectById(commentId);
+        return comment == null || comment.getLikeCount() == null ? 0L : comment.getLikeCount();
+    }
 
-        return new PageResult<>(users, likePage.getTotal(), pageNum, pageSize);
+    private List<RecentUsersCache.Entry> recentCommentLikers(Long commentId) {
+        return commentLikeMapper.selectRecentLikers(commentId, recentUsersCache.capacity()).stream()
+                .map(like -> RecentUsersCache.Entry.of(like.getUserId(), like.getCreatedAt()))
+                .toList();
     }
 
     @Override
@@ -541,26 +556,83 @@ public class LikeServiceImpl implements LikeService {
         return new PageResult<>(commentIds, likePage.getTotal(), pageNum, pageSize);
     }
 
+    @Override
+    public List<InteractionFilterStatsVO> getInteractionFilterStats() {
+        return interactionFilter.getStats();
+    }
+
+    @Override
+    public void rebuildInteractionFilters() {
+        interactionFilter.rebuildAll();
+    }
+
     // ========== 私有辅助方法 ==========
 
     /**
-     * 检查缓存是否已初始化（预热）
+     * 执行点赞脚本。用户集合里没有该目标且缓存未预热时，脚本不做修改并返回 -1，
+     * 此时查一次数据库确认真实状态后带着结果重试（仅冷用户多一次往返）
+     * @param type 目标类型
      * @param userId 用户ID
-     * @param type 类型：POST / COMMENT
-     * @return true=已预热，false=未预热
+     * @param targetId 目标ID
+     * @param mode 操作模式
+     * @param dbCount 计数键缺失时的初始值（数据库点赞数）
+     * @param dbLiked 数据库点赞状态
      */
-    private boolean isCacheInitialized(Long userId, String type) {
-        String flagKey = String.format(CACHE_INIT_FLAG + ":%s", userId, type);
-        return redisTemplate.hasKey(flagKey);
+    private LikeChange executeLikeScript(LikeCounterType type, Long userId, Long targetId, int mode,
+                                         Integer dbCount, Supplier<Boolean> dbLiked) {
+        List<String> keys = List.of(type.userLikeKey(userId), type.countKey(targetId),
+                String.format(SystemConstants.KEY_LIKE_CACHE_WARM_FLAG, userId, type.name()),
+                type.dirtyKey(), type.syncedKey(targetId), likeCacheWarmer.unlikedKey(type, userId));
+        String member = String.valueOf(targetId);
+        String ttl = String.valueOf(LIKE_CACHE_TTL_SECONDS);
+        String seed = String.valueOf(dbCount != null ? dbCount : 0);
+        String now = String.valueOf(System.currentTimeMillis());
+        String settle = String.valueOf(likeCacheWarmer.unlikeSettleMillis());
+
+        List<Long> result = stringRedisTemplate.execute(LIKE_SCRIPT, keys, member, String.valueOf(mode), ttl, "", seed,
+                now, settle);
+        if (result != null && result.get(0) == -1L) {
+            String known = Boolean.TRUE.equals(dbLiked.get()) ? "1" : "0";
+            result = stringRedisTemplate.execute(LIKE_SCRIPT, keys, member, String.valueOf(mode), ttl, known, seed,
+                    now, settle);
+        }
+        if (result == null || result.size() < 3) {
+            throw new BusinessException(ResultCode.SYSTEM_ERROR, "点赞状态更新失败");
+        }
+        return new LikeChange(result.get(0) == 1L, result.get(1) == 1L, result.get(2));
     }
 
     /**
-     * 标记缓存已初始化
-     * @param userId 用户ID
-     * @param type 类型：POST / COMMENT
+     * Redis 中的点赞计数
+     * @return 计数键不存在时返回 null
+     */
+    private Long cachedLikeCount(LikeCounterType type, Long targetId) {
+        String value = stringRedisTemplate.opsForValue().get(type.countKey(targetId));
+        return value != null ? Long.parseLong(value) : null;
+    }
+
+    /**
+     * 发送点赞/取消点赞 MQ 消息，由消费者异步落库
+     */
+    private void sendLikeMessage(Long userId, Long targetId, String targetType, boolean liked, String routingKey) {
+        LikeMessage likeMessage = LikeMessage.builder()
+                .messageId(UUID.randomUUID().toString())
+                .userId(userId)
+                .targetId(targetId)
+                .targetType(targetType)
+                .action(liked ? "LIKE" : "UNLIKE")
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        rabbitTemplate.convertAndSend(RabbitMQConfig.LIKE_EXCHANGE, routingKey, likeMessage);
+    }
+
+    /**
+     * 点赞脚本执行结果
+     * @param liked 操作后是否点赞
+     * @param changed 本次是否发生变化
+     * @param count 操作后的点赞数
      */
-    private void markCacheInitialized(Long userId, String type) {
-        String flagKey = String.format(CACHE_INIT_FLAG + ":%s", userId, type);
-        redisTemplate.opsForValue().set(flagKey, 1, 7, TimeUnit.DAYS);
+    private record LikeChange(boolean liked, boolean changed, long count) {
     }
-}
\ No newline at end of file
+}
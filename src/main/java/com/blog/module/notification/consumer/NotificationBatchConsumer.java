@@ -0,0 +1,310 @@
+package com.blog.module.notification.consumer;
+
+import com.blog.DTO.mq.NotificationMessage;
+import com.blog.VO.auth.UserSimpleVO;
+import com.blog.config.RabbitMQConfig;
+import com.blog.config.properties.NotificationBatchProperties;
+import com.blog.entity.Notification;
+import com.blog.entity.Post;
+import com.blog.module.auth.service.UserSummaryService;
+import com.blog.module.notification.counter.UnreadCounter;
+import com.blog.module.notification.dedupe.NotificationDeduplicator;
+import com.blog.module.notification.dedupe.NotificationDeduplicator.DedupeKey;
+import com.blog.module.notification.mapper.NotificationMapper;
+import com.blog.module.post.mapper.PostMapper;
+import com.rabbitmq.client.Channel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-23:55
+ * @Description: 通知消息批量消费
+ *
+ * 1. 一批消息先按 messageId 去重，再由 NotificationDeduplicator 对 (接收者, 发送者, 类型, 目标) 一次管道占位，
+ *    排除 1 小时内已发过的
+ * 2. 发送者摘要、文章标题各一次 IN 查询预取
+ * 3. 点赞、评论点赞、收藏、关注按 (接收者, 类型, 目标) 聚合为一条，例如「A、B 等 42 人赞了您的文章」；
+ *    评论、回复各自保留
+ * 4. 整批一条多行 INSERT，随后按类型一次管道累加各接收者的未读计数，并一次性确认（multiple ack）；
+ *    落库前失败则撤销占位、整批重新入队，落库后失败则保留占位，重投的消息判为重复
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "blog.notification.batch", name = "enabled", havingValue = "true")
+public class NotificationBatchConsumer {
+
+    /**
+     * 依赖文章信息的通知类型（文章不存在时丢弃）
+     */
+    private static final Set<String> POST_REQUIRED_TYPES = Set.of("COMMENT", "LIKE", "FAVORITE");
+
+    private final NotificationMapper notificationMapper;
+    private final UserSummaryService userSummaryService;
+    private final PostMapper postMapper;
+    private final UnreadCounter unreadCounter;
+    private final NotificationDeduplicator notificationDeduplicator;
+    private final MessageConverter messageConverter;
+    private final NotificationBatchProperties properties;
+
+    @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_QUEUE, containerFactory = "notificationBatchListenerContainerFactory")
+    public void handleNotificationMessages(List<Message> messages, Channel channel) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        long lastTag = messages.get(messages.size() - 1).getMessageProperties().getDeliveryTag();
+        Set<DedupeKey> acquired = new HashSet<>();
+        boolean persisted = false;
+        try {
+            List<NotificationMessage> deduped = dedupe(parse(messages), acquired);
+            List<Notification> notifications = build(deduped);
+            if (!notifications.isEmpty()) {
+                notificationMapper.insertBatch(notifications);
+                persisted = true;
+                incrementUnreadCounts(notifications);
+            }
+            channel.basicAck(lastTag, true);
+            log.info("【MQ批量消费】通知落库: 消息={}, 去重后={}, 写入={}",
+                    messages.size(), deduped.size(), notifications.size());
+        } catch (Exception e) {
+            if (persisted) {
+                // 通知已提交：保留占位，通道恢复后重投的消息会被判为重复，不会重复写入
+                log.error("【MQ批量消费】通知已落库但确认失败，等待重投后判重: 消息={}", messages.size(), e);
+                return;
+            }
+            log.error("【MQ批量消费】通知批次处理失败，整批重新入队: 消息={}", messages.size(), e);
+            notificationDeduplicator.release(acquired);
+            try {
+                channel.basicNack(lastTag, true, true);
+            } catch (IOException ex) {
+                log.error("【MQ批量消费】消息重新入队失败", ex);
+            }
+        }
+    }
+
+    /**
+     * 解析消息；无法解析、缺少字段或发给自己的消息记录后丢弃
+     */
+    private List<NotificationMessage> parse(List<Message> messages) {
+        List<NotificationMessage> parsed = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            Object body;
+            try {
+                body = messageConverter.fromMessage(message);
+            } catch (Exception e) {
+                log.error("【MQ批量消费】消息解析失败，丢弃: {}", message, e);
+                continue;
+            }
+            if (!(body instanceof NotificationMessage notificationMessage)
+                    || notificationMessage.getRecipientId() == null || notificationMessage.getSenderId() == null
+                    || notificationMessage.getType() == null) {
+                log.warn("【MQ批量消费】无效的通知消息，丢弃: {}", body);
+                continue;
+            }
+            if (notificationMessage.getRecipientId().equals(notificationMessage.getSenderId())) {
+                continue;
+            }
+            parsed.add(notificationMessage);
+        }
+        return parsed;
+    }
+
+    /**
+     * 批内按 messageId 去重，再对 (接收者, 发送者, 类型, 目标) 批量占位，排除 1 小时内已经发过的
+     * @param acquired 输出：本批占位成功的组合（失败重新入队时撤销）
+     */
+    private List<NotificationMessage> dedupe(List<NotificationMessage> messages, Set<DedupeKey> acquired) {
+        Set<String> messageIds = new HashSet<>();
+        List<NotificationMessage> unique = new ArrayList<>(messages.size());
+        for (NotificationMessage message : messages) {
+            if (message.getMessageId() == null || messageIds.add(message.getMessageId())) {
+                unique.add(message);
+            }
+        }
+        if (unique.isEmpty()) {
+            return unique;
+        }
+
+        acquired.addAll(notificationDeduplicator.tryAcquireAll(unique.stream().map(this::dedupeKeyOf).toList()));
+        Set<DedupeKey> pending = new HashSet<>(acquired);
+        List<NotificationMessage> deduped = new ArrayList<>(acquired.size());
+        for (NotificationMessage message : unique) {
+            // 同一组合在批内出现多次时只保留第一条
+            if (pending.remove(dedupeKeyOf(message))) {
+                deduped.add(message);
+            }
+        }
+        return deduped;
+    }
+
+    private DedupeKey dedupeKeyOf(NotificationMessage message) {
+        return new DedupeKey(message.getRecipientId(), message.getSenderId(), message.getType(), message.getRelatedId());
+    }
+
+    /**
+     * 预取发送者与文章，生成通知；可聚合的类型按 (接收者, 类型, 目标) 合并
+     */
+    private List<Notification> build(List<NotificationMessage> messages) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, UserSimpleVO> senders = userSummaryService.getUserSummaries(
+                messages.stream().map(NotificationMessage::getSenderId).collect(Collectors.toSet()));
+        Set<Long> postIds = messages.stream()
+                .map(this::postIdOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Post> posts = postIds.isEmpty() ? Map.of() : postMapper.selectPostSummariesByIds(postIds).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        // 按 (接收者, 类型, 目标) 分组，组内按消息顺序；不可聚合的类型每条自成一组
+        Map<Object, List<NotificationMessage>> groups = new LinkedHashMap<>();
+        for (NotificationMessage message : messages) {
+            if (!senders.containsKey(message.getSenderId())) {
+                log.warn("【通知处理】发送者不存在: {}", message.getSenderId());
+                continue;
+            }
+            Long postId = postIdOf(message);
+            if (POST_REQUIRED_TYPES.contains(message.getType()) && (postId == null || !posts.containsKey(postId))) {
+                log.warn("【通知处理】文章不存在: postId={}", postId);
+                continue;
+            }
+            Object key = NotificationDeduplicator.AGGREGATED_TYPES.contains(message.getType())
+                    ? new GroupKey(message.getRecipientId(), message.getType(), message.getRelatedId())
+                    : message;
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(message);
+        }
+
+        List<Notification> notifications = new ArrayList<>(groups.size());
+        for (List<NotificationMessage> group : groups.values()) {
+            Notification notification = toNotification(group, senders, posts);
+            if (notification != null) {
+                notifications.add(notification);
+            }
+        }
+        return notifications;
+    }
+
+    /**
+     * 一组消息生成一条通知，以最后一条消息为准
+     */
+    private Notification toNotification(List<NotificationMessage> group, Map<Long, UserSimpleVO> senders,
+                                        Map<Long, Post> posts) {
+        NotificationMessage last = group.get(group.size() - 1);
+        Long postId = postIdOf(last);
+        Post post = postId != null ? posts.get(postId) : null;
+        String who = senderNames(group, senders);
+
+        Notification notification = new Notification();
+        notification.setUserId(last.getRecipientId());
+        notification.setSenderId(last.getSenderId());
+        notification.setType(last.getType());
+        notification.setRelatedId(last.getRelatedId());
+        notification.setIsRead(0);
+        notification.setCreatedAt(last.getTimestamp() != null ? last.getTimestamp() : LocalDateTime.now());
+
+        switch (last.getType()) {
+            case "COMMENT" -> {
+                notification.setTitle("新评论通知");
+                notification.setContent(String.format("%s 评论了您的文章《%s》", who, post.getTitle()));
+                notification.setLinkUrl("/posts/" + postId + "#comment-" + last.getRelatedId());
+            }
+            case "REPLY" -> {
+                notification.setTitle("新回复通知");
+                notification.setContent(String.format("%s 回复了您的评论", who));
+                notification.setLinkUrl(post != null ? "/posts/" + postId + "#comment-" + last.getRelatedId() : "");
+            }
+            case "LIKE" -> {
+                notification.setTitle("新点赞通知");
+                notification.setContent(String.format("%s 赞了您的文章《%s》", who, post.getTitle()));
+                notification.setLinkUrl("/posts/" + last.getRelatedId());
+            }
+            case "LIKE_COMMENT" -> {
+                notification.setTitle("评论点赞通知");
+                notification.setContent(String.format("%s 赞了您的评论", who));
+                notification.setLinkUrl("");
+            }
+            case "FAVORITE" -> {
+                notification.setTitle("新收藏通知");
+                notification.setContent(String.format("%s 收藏了您的文章《%s》", who, post.getTitle()));
+                notification.setLinkUrl("/posts/" + last.getRelatedId());
+            }
+            case "FOLLOW" -> {
+                notification.setTitle("新关注通知");
+                notification.setContent(String.format("%s 关注了您", who));
+                notification.setLinkUrl("/users/" + last.getSenderId());
+            }
+            default -> {
+                log.warn("【MQ批量消费】未知通知类型: {}", last.getType());
+                return null;
+            }
+        }
+        return notification;
+    }
+
+    /**
+     * 发送者称呼：最近的在前，超过 namedSenders 个时概括为「A、B 等 N 人」
+     */
+    private String senderNames(List<NotificationMessage> group, Map<Long, UserSimpleVO> senders) {
+        LinkedHashSet<Long> senderIds = new LinkedHashSet<>();
+        for (int i = group.size() - 1; i >= 0; i--) {
+            senderIds.add(group.get(i).getSenderId());
+        }
+        int named = Math.max(1, properties.getNamedSenders());
+        String names = senderIds.stream()
+                .limit(named)
+                .map(senders::get)
+                .map(sender -> sender.getNickname() != null ? sender.getNickname() : sender.getUsername())
+                .collect(Collectors.joining("、"));
+        return senderIds.size() > named ? names + " 等 " + senderIds.size() + " 人" : names;
+    }
+
+    /**
+     * 消息关联的文章：点赞、收藏的目标即文章，评论类消息的文章ID在 content（postId:xxx）中
+     */
+    private Long postIdOf(NotificationMessage message) {
+        return switch (message.getType()) {
+            case "LIKE", "FAVORITE" -> message.getRelatedId();
+            case "COMMENT", "REPLY" -> extractPostId(message.getContent());
+            default -> null;
+        };
+    }
+
+    private Long extractPostId(String content) {
+        if (content != null && content.startsWith("postId:")) {
+            try {
+                return Long.parseLong(content.substring(7));
+            } catch (NumberFormatException e) {
+                log.warn("【解析失败】无法从content提取postId: {}", content);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按类型汇总每个接收者的新增通知数，每种类型一次管道提交
+     */
+    private void incrementUnreadCounts(List<Notification> notifications) {
+        Map<String, Map<Long, Integer>> byType = new HashMap<>();
+        for (Notification notification : notifications) {
+            byType.computeIfAbsent(notification.getType(), t -> new HashMap<>())
+                    .merge(notification.getUserId(), 1, Integer::sum);
+        }
+        byType.forEach((type, deltas) -> unreadCounter.incrementAll(deltas, type));
+    }
+
+    private record GroupKey(Long recipientId, String type, Long relatedId) {
+    }
+}
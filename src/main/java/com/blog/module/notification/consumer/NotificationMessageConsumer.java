@@ -1,11 +1,14 @@
 package com.blog.module.notification.consumer;
 
 import com.blog.DTO.mq.NotificationMessage;
+import com.blog.VO.auth.UserSimpleVO;
 import com.blog.config.RabbitMQConfig;
 import com.blog.entity.Notification;
 import com.blog.entity.Post;
-import com.blog.entity.User;
-import com.blog.module.auth.mapper.UserMapper;
+import com.blog.module.auth.service.UserSummaryService;
+import com.blog.module.notification.counter.UnreadCounter;
+import com.blog.module.notification.dedupe.NotificationDeduplicator;
+import com.blog.module.notification.dedupe.NotificationDeduplicator.DedupeKey;
 import com.blog.module.notification.mapper.NotificationMapper;
 import com.blog.module.notification.service.impl.NotificationServiceImpl;
 import com.blog.module.post.mapper.PostMapper;
@@ -14,13 +17,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.concurrent.TimeUnit;
-
-import static com.blog.constants.SystemConstants.*;
+import java.util.List;
 
 /**
  * @Author: GALA_Lin
@@ -30,47 +30,60 @@ import static com.blog.constants.SystemConstants.*;
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "blog.notification.batch", name = "enabled", havingValue = "false", matchIfMissing = true)
 public class NotificationMessageConsumer {
 
     private final NotificationMapper notificationMapper;
-    private final UserMapper userMapper;
+    private final UserSummaryService userSummaryService;
     private final PostMapper postMapper;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final NotificationDeduplicator notificationDeduplicator;
+    private final UnreadCounter unreadCounter;
 
     @RabbitListener(queues = RabbitMQConfig.NOTIFICATION_QUEUE)
-    @Transactional(rollbackFor = Exception.class)
     public void handleNotificationMessage(NotificationMessage message, Message mqMessage, Channel channel) {
+        DedupeKey dedupeKey = new DedupeKey(message.getRecipientId(), message.getSenderId(),
+                message.getType(), message.getRelatedId());
+        boolean acquired = false;
+        boolean persisted = false;
         try {
             log.info("【MQ消费】收到通知消息: {}", message);
 
             // 防重复（1小时内相同通知不重复发送）
-            if (Boolean.TRUE.equals(notificationMapper.existsSimilarNotification(
-                    message.getRecipientId(),
-                    message.getSenderId(),
-                    message.getType(),
-                    message.getRelatedId()))) {
+            if (!notificationDeduplicator.tryAcquire(dedupeKey)) {
                 log.info("【MQ消费】跳过重复通知: {}", message);
                 channel.basicAck(mqMessage.getMessageProperties().getDeliveryTag(), false);
                 return;
             }
+            acquired = true;
 
-            // 根据类型处理
-            switch (message.getType()) {
+            // 根据类型处理；单条 INSERT 自动提交，写入后即视为已落库
+            persisted = switch (message.getType()) {
                 case "COMMENT" -> handleCommentNotification(message);
                 case "REPLY" -> handleReplyNotification(message);
                 case "LIKE" -> handleLikeNotification(message);
                 case "LIKE_COMMENT" -> handleCommentLikeNotification(message);
                 case "FAVORITE" -> handleFavoriteNotification(message);
                 case "FOLLOW" -> handleFollowNotification(message);
-                default -> log.warn("【MQ消费】未知通知类型: {}", message.getType());
-            }
+                default -> {
+                    log.warn("【MQ消费】未知通知类型: {}", message.getType());
+                    yield false;
+                }
+            };
 
             // 手动确认
             channel.basicAck(mqMessage.getMessageProperties().getDeliveryTag(), false);
             log.info("【MQ消费】通知消息处理成功: messageId={}", message.getMessageId());
 
         } catch (Exception e) {
+            if (persisted) {
+                // 通知已写入：保留占位，通道恢复后重投的消息会被判为重复，不会重复写入
+                log.error("【MQ消费】通知已落库但确认失败，等待重投后判重: messageId={}", message.getMessageId(), e);
+                return;
+            }
             log.error("【MQ消费】处理通知消息失败: {}", message, e);
+            if (acquired) {
+                notificationDeduplicator.release(List.of(dedupeKey));
+            }
             try {
                 // 重新入队
                 channel.basicNack(mqMessage.getMessageProperties().getDeliveryTag(), false, true);
@@ -80,18 +93,13 @@ public class NotificationMessageConsumer {
         }
     }
 
-    private void handleCommentLikeNotification(NotificationMessage message) {
-        User sender = userMapper.selectById(message.getSenderId());
+    private boolean handleCommentLikeNotification(NotificationMessage message) {
+        UserSimpleVO sender = userSummaryService.getUserSummary(message.getSenderId());
         if (sender == null) {
             log.warn("【通知处理】发送者不存在: {}", message.getSenderId());
-            return;
-        }
-        Long postId = extractPostId(message.getContent());
-        Post post = postId != null ? postMapper.selectById(postId) : null;
-        if (post == null) {
-            log.warn("【通知处理】文章不存在: postId={}", postId);
-            return;
+            return false;
         }
+        // 评论点赞消息不带文章ID（content 为空），不做文章校验
 
         Notification notification = new Notification();
         notification.setUserId(message.getRecipientId());
@@ -105,22 +113,23 @@ public class NotificationMessageConsumer {
         notification.setIsRead(0);
 
         notificationMapper.insert(notification);
-        incrementUnreadCount(message.getRecipientId(), "LIKE_COMMENT");
+        unreadCounter.increment(message.getRecipientId(), "LIKE_COMMENT");
 
         log.info("【数据库保存】评论点赞通知创建成功: recipientId={}, commentId={}",
                 message.getRecipientId(), message.getRelatedId());
+        return true;
     }
 
-    private void handleLikeNotification(NotificationMessage message) {
-        User sender = userMapper.selectById(message.getSenderId());
+    private boolean handleLikeNotification(NotificationMessage message) {
+        UserSimpleVO sender = userSummaryService.getUserSummary(message.getSenderId());
         if (sender == null) {
-            return;
+            return false;
         }
 
         Post post = postMapper.selectById(message.getRelatedId());
         if (post == null) {
             log.warn("【通知处理】文章不存在: postId={}", message.getRelatedId());
-            return;
+            return false;
         }
 
         Notification notification = new Notification();
@@ -136,28 +145,29 @@ public class NotificationMessageConsumer {
         notification.setIsRead(0);
 
         notificationMapper.insert(notification);
-        incrementUnreadCount(message.getRecipientId(), "LIKE");
+        unreadCounter.increment(message.getRecipientId(), "LIKE");
 
         log.info("【数据库保存】点赞通知创建成功: recipientId={}, postId={}",
                 message.getRecipientId(), message.getRelatedId());
+        return true;
     }
 
     /**
      * 处理评论通知
      */
-    private void handleCommentNotification(NotificationMessage message) {
-        // 修复：只查询 sender，用于生成通知内容
-        User sender = userMapper.selectById(message.getSenderId());
+    private boolean handleCommentNotification(NotificationMessage message) {
+        // 只查询 sender 摘要，用于生成通知内容
+        UserSimpleVO sender = userSummaryService.getUserSummary(message.getSenderId());
         if (sender == null) {
             log.warn("【通知处理】发送者不存在: {}", message.getSenderId());
-            return;
+            return false;
         }
 
         Long postId = extractPostId(message.getContent());
         Post post = postId != null ? postMapper.selectById(postId) : null;
         if (post == null) {
             log.warn("【通知处理】文章不存在: postId={}", postId);
-            return;
+            return false;
         }
 
         Notification notification = new Notification();
@@ -175,26 +185,11 @@ public class NotificationMessageConsumer {
 
         notificationMapper.insert(notification);
         // Redis 未读计数
-        incrementUnreadCount(message.getRecipientId(), "COMMENT");
+        unreadCounter.increment(message.getRecipientId(), "COMMENT");
 
         log.info("【数据库保存】评论通知创建成功: recipientId={}, commentId={}",
                 message.getRecipientId(), message.getRelatedId());
-    }
-
-    /**
-     * 增加未读计数（Redis）
-     */
-    private void incrementUnreadCount(Long userId, String type) {
-        String totalKey = String.format(KEY_USER_UNREAD_COUNT, userId);
-        String typeKey = String.format(KEY_USER_UNREAD_BY_TYPE, userId, type);
-
-        redisTemplate.opsForValue().increment(totalKey, 1);
-        redisTemplate.expire(totalKey, 1, TimeUnit.HOURS);
-
-        redisTemplate.opsForValue().increment(typeKey, 1);
-        redisTemplate.expire(typeKey, 1, TimeUnit.HOURS);
-
-        log.debug("【Redis更新】未读计数增加: userId={}, type={}", userId, type);
+        return true;
     }
 
     /**
@@ -214,10 +209,10 @@ public class NotificationMessageConsumer {
     /**
      * 处理回复通知
      */
-    private void handleReplyNotification(NotificationMessage message) {
-        User sender = userMapper.selectById(message.getSenderId());
+    private boolean handleReplyNotification(NotificationMessage message) {
+        UserSimpleVO sender = userSummaryService.getUserSummary(message.getSenderId());
         if (sender == null) {
-            return;
+            return false;
         }
 
         Long postId = extractPostId(message.getContent());
@@ -236,21 +231,22 @@ public class NotificationMessageConsumer {
         notification.setIsRead(0);
 
         notificationMapper.insert(notification);
-        incrementUnreadCount(message.getRecipientId(), "REPLY");
+        unreadCounter.increment(message.getRecipientId(), "REPLY");
 
         log.info("【数据库保存】回复通知创建成功: recipientId={}, commentId={}",
                 message.getRecipientId(), message.getRelatedId());
+        return true;
     }
 
     /**
      * 处理收藏通知
      */
-    private void handleFavoriteNotification(NotificationMessage message) {
-        User sender = userMapper.selectById(message.getSenderId());
+    private boolean handleFavoriteNotification(NotificationMessage message) {
+        UserSimpleVO sender = userSummaryService.getUserSummary(message.getSenderId());
         Post post = postMapper.selectById(message.getRelatedId());
 
         if (sender == null || post == null) {
-            return;
+            return false;
         }
 
         Notification notification = new Notification();
@@ -266,19 +262,20 @@ public class NotificationMessageConsumer {
         notification.setIsRead(0);
 
         notificationMapper.insert(notification);
-        incrementUnreadCount(message.getRecipientId(), "FAVORITE");
+        unreadCounter.increment(message.getRecipientId(), "FAVORITE");
 
         log.info("【数据库保存】收藏通知创建成功: recipientId={}, postId={}",
                 message.getRecipientId(), message.getRelatedId());
+        return true;
     }
 
     /**
      * 处理关注通知
      */
-    private void handleFollowNotification(NotificationMessage message) {
-        User sender = userMapper.selectById(message.getSenderId());
+    private boolean handleFollowNotification(NotificationMessage message) {
+        UserSimpleVO sender = userSummaryService.getUserSummary(message.getSenderId());
         if (sender == null) {
-            return;
+            return false;
         }
 
         Notification notification = new Notification();
@@ -292,10 +289,11 @@ public class NotificationMessageConsumer {
         notification.setIsRead(0);
 
         notificationMapper.insert(notification);
-        incrementUnreadCount(message.getRecipientId(), "FOLLOW");
+        unreadCounter.increment(message.getRecipientId(), "FOLLOW");
 
         log.info("【数据库保存】关注通知创建成功: recipientId={}, senderId={}",
                 message.getRecipientId(), message.getSenderId());
+        return true;
     }
 
 }
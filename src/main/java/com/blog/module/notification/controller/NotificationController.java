@@ -147,8 +147,49 @@ public class NotificationController {
     @Operation(summary = "创建系统通知（管理员）")
     @PostMapping("/system")
     @PreAuthorize("hasRole('ADMIN')")
-    public Result<Void> createSystemNotification(@Valid @RequestBody SystemNotificationDTO dto) {
-        notificationService.createSystemNotification(dto);
-        return Result.success("系统通知创建成功");
+    public Result<?> createSystemNotification(@Valid @RequestBody SystemNotificationDTO dto) {
+        if (dto.getUserIds() != null && !dto.getUserIds().isEmpty()) {
+            return Result.success("系统通知已开始投递", notificationService.createSystemDelivery(dto));
+        }
+        return Result.success("全站通知发布成功", notificationService.createSystemNotification(dto));
+    }
+
+    @Operation(summary = "指定接收人的系统通知投递任务列表（管理员）")
+    @GetMapping("/system/deliveries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<PageResult<NotificationDeliveryVO>> listDeliveries(
+            @RequestParam(defaultValue = "1") Integer pageNum,
+            @RequestParam(defaultValue = "10") Integer pageSize) {
+        return Result.success(notificationService.listDeliveries(pageNum, pageSize));
+    }
+
+    @Operation(summary = "系统通知投递进度（管理员）")
+    @GetMapping("/system/deliveries/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<NotificationDeliveryVO> getDelivery(@PathVariable Long id) {
+        return Result.success(notificationService.getDelivery(id));
+    }
+
+    @Operation(summary = "失败的系统通知投递从断点继续（管理员）")
+    @PostMapping("/system/deliveries/{id}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<NotificationDeliveryVO> resumeDelivery(@PathVariable Long id) {
+        return Result.success("已从断点继续投递", notificationService.resumeDelivery(id));
+    }
+
+    @Operation(summary = "全站通知列表（管理员）")
+    @GetMapping("/system/broadcasts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<PageResult<NotificationBroadcastVO>> listBroadcasts(
+            @RequestParam(defaultValue = "1") Integer pageNum,
+            @RequestParam(defaultValue = "10") Integer pageSize) {
+        return Result.success(notificationService.listBroadcasts(pageNum, pageSize));
+    }
+
+    @Operation(summary = "全站通知详情（管理员）")
+    @GetMapping("/system/broadcasts/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Result<NotificationBroadcastVO> getBroadcast(@PathVariable Long id) {
+        return Result.success(notificationService.getBroadcast(id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,260 @@
+package com.blog.module.notification.counter;
+
+import com.blog.constants.SystemConstants;
+import com.blog.module.notification.mapper.NotificationMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-23:15
+ * @Description: 未读通知计数（Redis Hash）
+ *
+ * 1. 每个用户一个 Hash：total 为总数，其余字段为各类型的未读数，统计接口一次 HGETALL 取回
+ * 2. Hash 不存在时用一条 GROUP BY 查询回填；累加只在 Hash 已存在时进行，
+ *    避免凭一次增量创建出一个偏小的计数
+ * 3. 扣减在脚本内按字段截断到 0，总数按各字段实际扣减量同步扣减，计数不会出现负数
+ * 4. 查库到回填之间到达的累加会因 Hash 尚不存在而丢弃，回填后再查一次库：结果有变化且回填后
+ *    没有累加/扣减（rev 仍为 0）时以第二次结果覆盖，否则删除 Hash 交给下次读取重新回填
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UnreadCounter {
+
+    /**
+     * 总未读数字段
+     */
+    public static final String FIELD_TOTAL = "total";
+
+    /**
+     * 回填后的累加/扣减次数，不对外返回
+     */
+    private static final String FIELD_REVISION = "rev";
+
+    /**
+     * KEYS: 1=计数 Hash；ARGV: 1=类型 2=增量 3=TTL秒
+     */
+    private static final byte[] INCR_IF_EXISTS_SCRIPT = """
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                redis.call('HINCRBY', KEYS[1], 'total', ARGV[2])
+                redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2])
+                redis.call('HINCRBY', KEYS[1], 'rev', 1)
+                redis.call('EXPIRE', KEYS[1], ARGV[3])
+                return 1
+            end
+            return 0
+            """.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * KEYS: 1=计数 Hash；ARGV: 类型1, 数量1, 类型2, 数量2 ...
+     */
+    private static final DefaultRedisScript<Long> DECR_CLAMPED_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return 0
+            end
+            local removed = 0
+            for i = 1, #ARGV, 2 do
+                local current = tonumber(redis.call('HGET', KEYS[1], ARGV[i]) or '0')
+                local left = current - tonumber(ARGV[i + 1])
+                if left < 0 then
+                    left = 0
+                end
+                redis.call('HSET', KEYS[1], ARGV[i], left)
+                removed = removed + current - left
+            end
+            local total = tonumber(redis.call('HGET', KEYS[1], 'total') or '0') - removed
+            if total < 0 then
+                total = 0
+            end
+            redis.call('HSET', KEYS[1], 'total', total)
+            redis.call('HINCRBY', KEYS[1], 'rev', 1)
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS: 1=计数 Hash；ARGV: 1=TTL秒，之后为 字段, 值 ...；已存在时不覆盖（期间已有累加）
+     */
+    private static final DefaultRedisScript<Long> LOAD_IF_ABSENT_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'rev', 0, unpack(ARGV, 2))
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /**
+     * 以第二次查库的结果覆盖回填值；回填后已有累加/扣减（或 Hash 已不存在）时删除，交给下次读取
+     * KEYS: 1=计数 Hash；ARGV: 1=TTL秒，之后为 字段, 值 ...
+     */
+    private static final DefaultRedisScript<Long> RELOAD_SCRIPT = new DefaultRedisScript<>("""
+            local rev = redis.call('HGET', KEYS[1], 'rev')
+            redis.call('DEL', KEYS[1])
+            if rev ~= '0' then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'rev', 0, unpack(ARGV, 2))
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private static final long TTL_SECONDS = TimeUnit.HOURS.toSeconds(1);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final NotificationMapper notificationMapper;
+
+    /**
+     * 用户的未读计数
+     * @return total -> 总数，类型 -> 该类型未读数（没有的类型不在其中）
+     */
+    public Map<String, Long> get(Long userId) {
+        String key = keyOf(userId);
+        try {
+            Map<Object, Object> cached = stringRedisTemplate.opsForHash().entries(key);
+            if (cached.containsKey(FIELD_TOTAL)) {
+                Map<String, Long> counts = new HashMap<>();
+                cached.forEach((field, value) -> counts.put(field.toString(), Long.parseLong(value.toString())));
+                counts.remove(FIELD_REVISION);
+                return counts;
+            }
+        } catch (Exception e) {
+            log.warn("【未读计数】读取失败，直接查库: userId={}, {}", userId, e.getMessage());
+            return loadFromDatabase(userId);
+        }
+
+        Map<String, Long> counts = loadFromDatabase(userId);
+        try {
+            Long loaded = stringRedisTemplate.execute(LOAD_IF_ABSENT_SCRIPT, List.of(key), loadArgs(counts));
+            if (!Long.valueOf(1L).equals(loaded)) {
+                return counts;
+            }
+            // 查库期间到达的累加已被丢弃：再查一次，有变化时覆盖
+            Map<String, Long> latest = loadFromDatabase(userId);
+            if (!latest.equals(counts)) {
+                stringRedisTemplate.execute(RELOAD_SCRIPT, List.of(key), loadArgs(latest));
+            }
+            return latest;
+        } catch (Exception e) {
+            log.warn("【未读计数】回填失败: userId={}, {}", userId, e.getMessage());
+        }
+        return counts;
+    }
+
+    /**
+     * 一个用户的某类通知未读数加一
+     */
+    public void increment(Long userId, String type) {
+        incrementAll(Map.of(userId, 1), type);
+    }
+
+    /**
+     * 一批用户的某类通知未读数各加一，整批一次管道提交
+     */
+    public void incrementAll(Collection<Long> userIds, String type) {
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        userIds.forEach(userId -> deltas.merge(userId, 1, Integer::sum));
+        incrementAll(deltas, type);
+    }
+
+    /**
+     * 一批用户的某类通知未读数按各自增量累加，整批一次管道提交
+     * @param deltas 用户ID -> 增量
+     * @param type 通知类型
+     */
+    public void incrementAll(Map<Long, Integer> deltas, String type) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        byte[] field = type.getBytes(StandardCharsets.UTF_8);
+        byte[] ttl = String.valueOf(TTL_SECONDS).getBytes(StandardCharsets.UTF_8);
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                deltas.forEach((userId, delta) -> evalIncrement(connection, keyOf(userId), field,
+                        String.valueOf(delta).getBytes(StandardCharsets.UTF_8), ttl));
+                return null;
+            });
+        } catch (Exception e) {
+            // 计数随 TTL 过期后从数据库回填
+            log.warn("【未读计数】{} 个用户的 {} 未读数累加失败: {}", deltas.size(), type, e.getMessage());
+        }
+    }
+
+    /**
+     * 扣减一个用户若干类型的未读数（截断到 0）
+     * @param typeCounts 类型 -> 扣减数
+     */
+    public void decrement(Long userId, Map<String, Long> typeCounts) {
+        List<String> args = new ArrayList<>(typeCounts.size() * 2);
+        typeCounts.forEach((type, count) -> {
+            if (count != null && count > 0) {
+                args.add(type);
+                args.add(String.valueOf(count));
+            }
+        });
+        if (args.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.execute(DECR_CLAMPED_SCRIPT, List.of(keyOf(userId)), args.toArray());
+        } catch (Exception e) {
+            log.warn("【未读计数】扣减失败，清除缓存: userId={}, {}", userId, e.getMessage());
+            clear(userId);
+        }
+    }
+
+    /**
+     * 清除用户的计数缓存，下次读取时从数据库回填
+     */
+    public void clear(Long userId) {
+        try {
+            stringRedisTemplate.delete(keyOf(userId));
+        } catch (Exception e) {
+            log.warn("【未读计数】清除失败: userId={}, {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 一条 GROUP BY 查询得出各类型未读数与总数
+     */
+    private Map<String, Long> loadFromDatabase(Long userId) {
+        Map<String, Long> counts = new HashMap<>();
+        long total = 0;
+        for (Map<String, Object> row : notificationMapper.countUnreadGroupByType(userId)) {
+            long count = ((Number) row.get("count")).longValue();
+            counts.put(String.valueOf(row.get("type")), count);
+            total += count;
+        }
+        counts.put(FIELD_TOTAL, total);
+        return counts;
+    }
+
+    private Object[] loadArgs(Map<String, Long> counts) {
+        List<String> args = new ArrayList<>(counts.size() * 2 + 1);
+        args.add(String.valueOf(TTL_SECONDS));
+        counts.forEach((field, count) -> {
+            args.add(field);
+            args.add(String.valueOf(count));
+        });
+        return args.toArray();
+    }
+
+    private String keyOf(Long userId) {
+        return String.format(SystemConstants.KEY_USER_UNREAD_COUNTS, userId);
+    }
+
+    private void evalIncrement(RedisConnection connection, String key, byte[] field, byte[] delta, byte[] ttl) {
+        connection.scriptingCommands().eval(INCR_IF_EXISTS_SCRIPT, ReturnType.INTEGER, 1,
+                key.getBytes(StandardCharsets.UTF_8), field, delta, ttl);
+    }
+}
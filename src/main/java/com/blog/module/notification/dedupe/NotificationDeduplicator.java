@@ -0,0 +1,157 @@
+package com.blog.module.notification.dedupe;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.blog.config.properties.NotificationDedupeProperties;
+import com.blog.constants.SystemConstants;
+import com.blog.entity.Notification;
+import com.blog.module.notification.mapper.NotificationMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-19-00:15
+ * @Description: 通知防重
+ *
+ * 1. 进程内短 TTL 缓存：本节点刚判定过的组合直接视为重复，同一波突发不再访问 Redis
+ * 2. Redis SET NX EX：窗口内第一个占位成功的消息发送，其余视为重复；批量判定时一次管道提交
+ * 3. Redis 不可用时才查库（防重窗口内是否已有相同通知）；聚合类型的通知行只保存最后一个发送者，
+ *    查库无法判定被合并的发送者，这些类型降级时直接放行
+ * 占位后落库失败、消息重新入队时应调用 {@link #release(Collection)} 撤销占位，否则重投的消息会被误判为重复
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDeduplicator {
+
+    /**
+     * 批量消费时按 (接收者, 类型, 目标) 聚合为一条的通知类型
+     */
+    public static final Set<String> AGGREGATED_TYPES = Set.of("LIKE", "LIKE_COMMENT", "FAVORITE", "FOLLOW");
+
+    private static final byte[] PLACEHOLDER = "1".getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final NotificationMapper notificationMapper;
+    private final NotificationDedupeProperties properties;
+
+    private LRUCache<DedupeKey, Boolean> localCache;
+
+    @PostConstruct
+    public void init() {
+        localCache = CacheUtil.newLRUCache(properties.getLocalCapacity(), properties.getLocalTtl());
+    }
+
+    /**
+     * 判定一条通知是否为窗口内第一次出现（是则同时占位）
+     */
+    public boolean tryAcquire(DedupeKey key) {
+        return tryAcquireAll(List.of(key)).contains(key);
+    }
+
+    /**
+     * 批量判定，同一批内重复的组合只有第一个算数
+     * @return 占位成功（应当发送）的组合
+     */
+    public Set<DedupeKey> tryAcquireAll(Collection<DedupeKey> keys) {
+        List<DedupeKey> candidates = new ArrayList<>();
+        for (DedupeKey key : new LinkedHashSet<>(keys)) {
+            if (localCache.get(key) == null) {
+                candidates.add(key);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<DedupeKey> acquired;
+        try {
+            acquired = acquireInRedis(candidates);
+        } catch (Exception e) {
+            log.warn("【通知防重】Redis 不可用，改为查库判重: {}", e.getMessage());
+            acquired = acquireInDatabase(candidates);
+        }
+        candidates.forEach(key -> localCache.put(key, Boolean.TRUE));
+        return acquired;
+    }
+
+    /**
+     * 撤销占位（落库失败、消息重新入队时）
+     */
+    public void release(Collection<DedupeKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        keys.forEach(localCache::remove);
+        try {
+            stringRedisTemplate.delete(keys.stream().map(DedupeKey::redisKey).toList());
+        } catch (Exception e) {
+            log.warn("【通知防重】撤销占位失败，重投的消息可能被判为重复: {}", e.getMessage());
+        }
+    }
+
+    private Set<DedupeKey> acquireInRedis(List<DedupeKey> keys) {
+        Expiration window = Expiration.seconds(properties.getWindowSeconds());
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (DedupeKey key : keys) {
+                connection.stringCommands().set(key.redisKey().getBytes(StandardCharsets.UTF_8), PLACEHOLDER,
+                        window, RedisStringCommands.SetOption.SET_IF_ABSENT);
+            }
+            return null;
+        });
+        Set<DedupeKey> acquired = new HashSet<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                acquired.add(keys.get(i));
+            }
+        }
+        return acquired;
+    }
+
+    /**
+     * 降级：按接收者一次查出防重窗口内的通知，在内存中比对；聚合类型直接放行
+     */
+    private Set<DedupeKey> acquireInDatabase(List<DedupeKey> keys) {
+        Set<DedupeKey> acquired = new HashSet<>();
+        List<DedupeKey> checked = new ArrayList<>(keys.size());
+        for (DedupeKey key : keys) {
+            if (AGGREGATED_TYPES.contains(key.type())) {
+                acquired.add(key);
+            } else {
+                checked.add(key);
+            }
+        }
+        if (checked.isEmpty()) {
+            return acquired;
+        }
+        Set<Long> recipientIds = checked.stream().map(DedupeKey::recipientId).collect(Collectors.toSet());
+        Set<DedupeKey> sent = new HashSet<>();
+        for (Notification row : notificationMapper.selectRecentByRecipients(recipientIds, properties.getWindowSeconds())) {
+            sent.add(new DedupeKey(row.getUserId(), row.getSenderId(), row.getType(), row.getRelatedId()));
+        }
+        checked.stream().filter(key -> !sent.contains(key)).forEach(acquired::add);
+        return acquired;
+    }
+
+    /**
+     * 防重的组合：接收者、发送者、类型、目标
+     */
+    public record DedupeKey(Long recipientId, Long senderId, String type, Long relatedId) {
+
+        String redisKey() {
+            return String.format(SystemConstants.KEY_NOTIFICATION_DEDUPE, recipientId, senderId, type,
+                    relatedId != null ? relatedId.toString() : "-");
+        }
+    }
+}
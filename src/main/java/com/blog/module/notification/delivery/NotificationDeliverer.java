@@ -0,0 +1,162 @@
+package com.blog.module.notification.delivery;
+
+import com.blog.config.properties.NotificationBroadcastProperties;
+import com.blog.entity.Notification;
+import com.blog.entity.NotificationDelivery;
+import com.blog.module.notification.counter.UnreadCounter;
+import com.blog.module.notification.mapper.NotificationDeliveryMapper;
+import com.blog.module.notification.mapper.NotificationMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-19-10:55
+ * @Description: 指定接收人的系统通知分块投递
+ *
+ * 1. 创建任务时把接收人登记到 notification_delivery_recipients（与任务行同一事务），请求线程不写通知
+ * 2. 后台按 user_id 游标分块读取接收人，每块一条多行 INSERT，与断点推进在同一个短事务内提交；
+ *    每块提交后以一次管道累加这批用户的未读计数
+ * 3. 任务状态、断点、心跳落在 notification_deliveries，节点中断后由定时任务认领并从断点继续；
+ *    断点推进带条件（上一断点），同一任务不会被两个节点重复投递
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDeliverer {
+
+    private static final String TYPE_SYSTEM = "SYSTEM";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final NotificationDeliveryMapper deliveryMapper;
+    private final NotificationMapper notificationMapper;
+    private final UnreadCounter unreadCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationBroadcastProperties properties;
+
+    /**
+     * 创建投递任务并登记接收人（随后由 {@link #run(Long)} 在后台执行）
+     */
+    public NotificationDelivery create(Long senderId, String title, String content, String linkUrl,
+                                       List<Long> userIds) {
+        List<Long> distinct = userIds.stream().distinct().toList();
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        return transactionTemplate.execute(status -> {
+            NotificationDelivery delivery = new NotificationDelivery();
+            delivery.setSenderId(senderId);
+            delivery.setTitle(title);
+            delivery.setContent(content);
+            delivery.setLinkUrl(linkUrl);
+            delivery.setStatus(NotificationDelivery.STATUS_PENDING);
+            delivery.setDeliveredCount(0L);
+            delivery.setLastUserId(0L);
+            delivery.setTotalCount(0L);
+            deliveryMapper.insert(delivery);
+
+            long total = 0;
+            for (int from = 0; from < distinct.size(); from += chunkSize) {
+                total += deliveryMapper.insertRecipients(delivery.getId(),
+                        distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+            }
+            delivery.setTotalCount(total);
+            deliveryMapper.updateById(delivery);
+            return delivery;
+        });
+    }
+
+    /**
+     * 认领并执行任务；任务已被其他节点执行或已结束时直接返回
+     */
+    @Async
+    public void run(Long deliveryId) {
+        if (deliveryMapper.claim(deliveryId, staleBefore()) == 0) {
+            return;
+        }
+        NotificationDelivery delivery = deliveryMapper.selectById(deliveryId);
+        log.info("【系统通知投递】开始: id={}, 断点={}, 已投递={}/{}",
+                deliveryId, delivery.getLastUserId(), delivery.getDeliveredCount(), delivery.getTotalCount());
+
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        long lastUserId = delivery.getLastUserId();
+        long delivered = delivery.getDeliveredCount();
+        try {
+            while (true) {
+                List<Long> userIds = deliveryMapper.selectRecipientsAfter(deliveryId, lastUserId, chunkSize);
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                long from = lastUserId;
+                long to = userIds.get(userIds.size() - 1);
+                Boolean committed = transactionTemplate.execute(status -> {
+                    notificationMapper.insertBatch(build(delivery, userIds));
+                    if (deliveryMapper.advance(deliveryId, from, to, userIds.size()) == 0) {
+                        // 断点已被其他节点推进（本节点曾被判定为中断）
+                        status.setRollbackOnly();
+                        return false;
+                    }
+                    return true;
+                });
+                if (!Boolean.TRUE.equals(committed)) {
+                    log.warn("【系统通知投递】任务已由其他节点接手，本节点停止: id={}, 断点={}", deliveryId, from);
+                    return;
+                }
+                unreadCounter.incrementAll(userIds, TYPE_SYSTEM);
+                lastUserId = to;
+                delivered += userIds.size();
+                if (userIds.size() < chunkSize) {
+                    break;
+                }
+            }
+            deliveryMapper.finish(deliveryId, NotificationDelivery.STATUS_COMPLETED, null);
+            log.info("【系统通知投递】完成: id={}, 共投递 {} 条", deliveryId, delivered);
+        } catch (Exception e) {
+            log.error("【系统通知投递】失败，保留断点等待重试: id={}, 断点={}", deliveryId, lastUserId, e);
+            deliveryMapper.finish(deliveryId, NotificationDelivery.STATUS_FAILED, truncate(e.getMessage()));
+        }
+    }
+
+    /**
+     * 需要（继续）执行的任务：待执行的，以及心跳超时的
+     */
+    public List<Long> findResumable() {
+        return deliveryMapper.selectResumableIds(staleBefore());
+    }
+
+    private List<Notification> build(NotificationDelivery delivery, List<Long> userIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            Notification notification = new Notification();
+            notification.setUserId(userId);
+            notification.setSenderId(delivery.getSenderId());
+            notification.setType(TYPE_SYSTEM);
+            notification.setTitle(delivery.getTitle());
+            notification.setContent(delivery.getContent());
+            notification.setLinkUrl(delivery.getLinkUrl());
+            notification.setIsRead(0);
+            notification.setCreatedAt(now);
+            notifications.add(notification);
+        }
+        return notifications;
+    }
+
+    private LocalDateTime staleBefore() {
+        return LocalDateTime.now().minus(properties.getStallTimeout(), ChronoUnit.MILLIS);
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,103 @@
+package com.blog.module.notification.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.blog.entity.NotificationBroadcast;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-23:08
+ * @Description: 全站系统通知、用户读水位与回执
+ *
+ * 用户可见的全站通知：发布时间不早于用户注册时间，且未被该用户删除；
+ * 已读：ID 不超过用户的读水位，或回执中已标记已读
+ */
+@Mapper
+public interface NotificationBroadcastMapper extends BaseMapper<NotificationBroadcast> {
+
+    /**
+     * 最新一条全站通知的ID
+     * @return 没有时为 0
+     */
+    @Select("SELECT COALESCE(MAX(id), 0) FROM notification_broadcasts")
+    Long selectMaxId();
+
+    /**
+     * 推进用户的读水位（只前进不后退）
+     * @param userId 用户ID
+     * @param readId 新水位
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO notification_watermarks (user_id, broadcast_read_id) VALUES (#{userId}, #{readId}) " +
+            "ON DUPLICATE KEY UPDATE broadcast_read_id = GREATEST(broadcast_read_id, VALUES(broadcast_read_id))")
+    int advanceWatermark(@Param("userId") Long userId, @Param("readId") Long readId);
+
+    /**
+     * 用户单独标记若干全站通知为已读（不可见的ID忽略）
+     * @param userId 用户ID
+     * @param broadcastIds 全站通知ID列表
+     * @return 影响行数
+     */
+    @Insert({
+            "<script>",
+            "INSERT INTO notification_broadcast_receipts (user_id, broadcast_id, is_read)",
+            "SELECT #{userId}, b.id, 1 FROM notification_broadcasts b",
+            "JOIN users me ON me.id = #{userId}",
+            "WHERE b.created_at &gt;= me.created_at AND b.id IN",
+            "<foreach collection='broadcastIds' item='id' open='(' separator=',' close=')'>",
+            "#{id}",
+            "</foreach>",
+            "ON DUPLICATE KEY UPDATE notification_broadcast_receipts.is_read = 1",
+            "</script>"
+    })
+    int markRead(@Param("userId") Long userId, @Param("broadcastIds") List<Long> broadcastIds);
+
+    /**
+     * 用户删除若干全站通知（不可见的ID忽略）
+     * @param userId 用户ID
+     * @param broadcastIds 全站通知ID列表
+     * @return 影响行数
+     */
+    @Insert({
+            "<script>",
+            "INSERT INTO notification_broadcast_receipts (user_id, broadcast_id, is_deleted)",
+            "SELECT #{userId}, b.id, 1 FROM notification_broadcasts b",
+            "JOIN users me ON me.id = #{userId}",
+            "WHERE b.created_at &gt;= me.created_at AND b.id IN",
+            "<foreach collection='broadcastIds' item='id' open='(' separator=',' close=')'>",
+            "#{id}",
+            "</foreach>",
+            "ON DUPLICATE KEY UPDATE notification_broadcast_receipts.is_deleted = 1",
+            "</script>"
+    })
+    int markDeleted(@Param("userId") Long userId, @Param("broadcastIds") List<Long> broadcastIds);
+
+    /**
+     * 删除用户已读的全站通知
+     * @param userId 用户ID
+     * @param days 只删除该天数之前发布的，为 null 时不限
+     * @return 影响行数
+     */
+    @Insert({
+            "<script>",
+            "INSERT INTO notification_broadcast_receipts (user_id, broadcast_id, is_read, is_deleted)",
+            "SELECT #{userId}, b.id, 1, 1 FROM notification_broadcasts b",
+            "JOIN users me ON me.id = #{userId}",
+            "LEFT JOIN notification_watermarks w ON w.user_id = #{userId}",
+            "LEFT JOIN notification_broadcast_receipts r ON r.user_id = #{userId} AND r.broadcast_id = b.id",
+            "WHERE b.created_at &gt;= me.created_at",
+            "AND (b.id &lt;= COALESCE(w.broadcast_read_id, 0) OR r.is_read = 1)",
+            "AND (r.is_deleted IS NULL OR r.is_deleted = 0)",
+            "<if test='days != null'>",
+            "AND b.created_at &lt; DATE_SUB(NOW(), INTERVAL #{days} DAY)",
+            "</if>",
+            "ON DUPLICATE KEY UPDATE notification_broadcast_receipts.is_deleted = 1",
+            "</script>"
+    })
+    int deleteRead(@Param("userId") Long userId, @Param("days") Integer days);
+}
@@ -0,0 +1,105 @@
+package com.blog.module.notification.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.blog.entity.NotificationDelivery;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-19-10:45
+ * @Description: 指定接收人的系统通知投递任务及其接收人
+ */
+@Mapper
+public interface NotificationDeliveryMapper extends BaseMapper<NotificationDelivery> {
+
+    /**
+     * 登记一块接收人（不存在的用户ID、重复ID自动跳过）
+     * @param deliveryId 任务ID
+     * @param userIds 接收人ID
+     * @return 实际登记数
+     */
+    @Insert({
+            "<script>",
+            "INSERT IGNORE INTO notification_delivery_recipients (delivery_id, user_id)",
+            "SELECT #{deliveryId}, id FROM users WHERE id IN",
+            "<foreach collection='userIds' item='id' open='(' separator=',' close=')'>",
+            "#{id}",
+            "</foreach>",
+            "</script>"
+    })
+    int insertRecipients(@Param("deliveryId") Long deliveryId, @Param("userIds") List<Long> userIds);
+
+    /**
+     * 按 user_id 游标读取一块接收人
+     * @param deliveryId 任务ID
+     * @param afterUserId 断点（不含）
+     * @param limit 块大小
+     * @return 接收人ID（升序）
+     */
+    @Select("SELECT user_id FROM notification_delivery_recipients " +
+            "WHERE delivery_id = #{deliveryId} AND user_id > #{afterUserId} ORDER BY user_id LIMIT #{limit}")
+    List<Long> selectRecipientsAfter(@Param("deliveryId") Long deliveryId,
+                                     @Param("afterUserId") long afterUserId,
+                                     @Param("limit") int limit);
+
+    /**
+     * 认领任务：待执行，或执行中但心跳已超时（执行节点中断）
+     * @param id 任务ID
+     * @param staleBefore 心跳早于该时间视为中断
+     * @return 1=认领成功
+     */
+    @Update("UPDATE notification_deliveries SET status = 'RUNNING', heartbeat_at = NOW(), " +
+            "started_at = COALESCE(started_at, NOW()), error = NULL " +
+            "WHERE id = #{id} AND (status = 'PENDING' OR (status = 'RUNNING' AND heartbeat_at < #{staleBefore}))")
+    int claim(@Param("id") Long id, @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * 推进断点（与本块通知同一事务提交）；断点已被其他节点推进时不更新
+     * @param id 任务ID
+     * @param fromUserId 本块开始前的断点
+     * @param toUserId 本块最后一个接收人ID
+     * @param delivered 本块投递数
+     * @return 1=推进成功
+     */
+    @Update("UPDATE notification_deliveries SET last_user_id = #{toUserId}, " +
+            "delivered_count = delivered_count + #{delivered}, heartbeat_at = NOW() " +
+            "WHERE id = #{id} AND status = 'RUNNING' AND last_user_id = #{fromUserId}")
+    int advance(@Param("id") Long id, @Param("fromUserId") long fromUserId,
+                @Param("toUserId") long toUserId, @Param("delivered") int delivered);
+
+    /**
+     * 结束任务
+     * @param id 任务ID
+     * @param status COMPLETED / FAILED
+     * @param error 失败原因
+     * @return 影响行数
+     */
+    @Update("UPDATE notification_deliveries SET status = #{status}, error = #{error}, finished_at = NOW() " +
+            "WHERE id = #{id} AND status = 'RUNNING'")
+    int finish(@Param("id") Long id, @Param("status") String status, @Param("error") String error);
+
+    /**
+     * 失败的任务从断点重新排队
+     * @param id 任务ID
+     * @return 1=已重新排队
+     */
+    @Update("UPDATE notification_deliveries SET status = 'PENDING', finished_at = NULL " +
+            "WHERE id = #{id} AND status = 'FAILED'")
+    int requeue(@Param("id") Long id);
+
+    /**
+     * 需要（继续）执行的任务
+     * @param staleBefore 心跳早于该时间视为中断
+     * @return 任务ID列表
+     */
+    @Select("SELECT id FROM notification_deliveries " +
+            "WHERE status = 'PENDING' OR (status = 'RUNNING' AND heartbeat_at < #{staleBefore}) ORDER BY id")
+    List<Long> selectResumableIds(@Param("staleBefore") LocalDateTime staleBefore);
+}
@@ -6,6 +6,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blog.entity.Notification;
 import org.apache.ibatis.annotations.*;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -18,7 +19,7 @@ import java.util.Map;
 public interface NotificationMapper extends BaseMapper<Notification> {
 
     /**
-     * 分页查询用户通知
+     * 分页查询用户通知（合并用户可见的全站通知）
      * @param page 分页对象
      * @param userId 用户id
      * @param type 通知类型
@@ -37,23 +38,30 @@ public interface NotificationMapper extends BaseMapper<Notification> {
     );
 
     /**
-     * 获取未读通知数量
-     * @param userId 用户id
-     * @return 未读通知数量
+     * 多行插入一批通知
+     * @param notifications 通知列表
+     * @return 插入行数
      */
-    @Select("SELECT COUNT(*) FROM notifications WHERE user_id = #{userId} AND is_read = 0")
-    Long countUnread(@Param("userId") Long userId);
+    int insertBatch(@Param("notifications") List<Notification> notifications);
 
     /**
-     * 统计指定类型的未读通知数量
+     * 获取用户的一条全站通知（按用户的读水位和回执计算已读状态）
+     * @param userId 用户ID
+     * @param broadcastId 全站通知ID
+     * @return 以通知形式表示的全站通知（id 为全站通知ID的相反数），用户不可见时为 null
+     */
+    Notification selectBroadcastNotification(@Param("userId") Long userId, @Param("broadcastId") Long broadcastId);
+
+    /**
+     * 统计用户未读的全站通知数
      * @param userId 用户ID
-     * @param type 通知类型
      * @return 未读数量
      */
-    @Select("SELECT COUNT(*) FROM notifications WHERE user_id = #{userId} AND type = #{type} AND is_read = 0")
-    Long countUnreadByType(@Param("userId") Long userId, @Param("type") String type);
+    Long countUnreadBroadcasts(@Param("userId") Long userId);
+
+
     /**
-     * 按类型分组统计未读通知（用于统计页面）
+     * 按类型分组统计未读通知（未读计数缓存回填用）
      * @param userId 用户ID
      * @return 各类型未读数量列表
      */
@@ -117,16 +125,21 @@ public interface NotificationMapper extends BaseMapper<Notification> {
     int deleteOldReadNotifications(@Param("userId") Long userId, @Param("days") Integer days);
 
     /**
-     * 检查是否存在相同的通知（防止重复）
+     * 一批接收者在防重窗口内收到的通知（Redis 不可用时在内存中判重）
+     * @param recipientIds 接收者ID集合
+     * @param windowSeconds 防重窗口（秒）
+     * @return 仅含 user_id、sender_id、type、related_id
      */
-    @Select("SELECT COUNT(*) > 0 FROM notifications " +
-            "WHERE user_id = #{userId} AND sender_id = #{senderId} " +
-            "AND type = #{type} AND related_id = #{relatedId} " +
-            "AND created_at > DATE_SUB(NOW(), INTERVAL 1 HOUR)")
-    Boolean existsSimilarNotification(
-            @Param("userId") Long userId,
-            @Param("senderId") Long senderId,
-            @Param("type") String type,
-            @Param("relatedId") Long relatedId
-    );
+    @Select({
+            "<script>",
+            "SELECT user_id, sender_id, type, related_id FROM notifications",
+            "WHERE user_id IN",
+            "<foreach collection='recipientIds' item='id' open='(' separator=',' close=')'>",
+            "#{id}",
+            "</foreach>",
+            "AND created_at &gt; DATE_SUB(NOW(), INTERVAL #{windowSeconds} SECOND)",
+            "</script>"
+    })
+    List<Notification> selectRecentByRecipients(@Param("recipientIds") Collection<Long> recipientIds,
+                                                @Param("windowSeconds") long windowSeconds);
 }
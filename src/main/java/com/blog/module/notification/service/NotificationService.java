@@ -2,6 +2,8 @@ package com.blog.module.notification.service;
 
 import com.blog.DTO.notification.NotificationQueryDTO;
 import com.blog.DTO.notification.SystemNotificationDTO;
+import com.blog.VO.notification.NotificationBroadcastVO;
+import com.blog.VO.notification.NotificationDeliveryVO;
 import com.blog.VO.notification.NotificationStatVO;
 import com.blog.VO.notification.NotificationVO;
 import com.blog.common.PageResult;
@@ -62,10 +64,57 @@ public interface NotificationService {
     void sendFollowNotification(Long recipientId, Long senderId);
 
     /**
-     * 创建系统通知（管理员使用）
+     * 发布全站系统通知（管理员使用）
+     * 只写一条全站通知，用户读取时合并
      * @param dto 系统通知DTO
+     * @return 全站通知
      */
-    void createSystemNotification(SystemNotificationDTO dto);
+    NotificationBroadcastVO createSystemNotification(SystemNotificationDTO dto);
+
+    /**
+     * 向指定用户发送系统通知（管理员使用）
+     * 登记接收人后创建投递任务，在后台分块执行
+     * @param dto 系统通知DTO（userIds 不能为空）
+     * @return 投递任务
+     */
+    NotificationDeliveryVO createSystemDelivery(SystemNotificationDTO dto);
+
+    /**
+     * 获取投递任务进度
+     * @param deliveryId 任务ID
+     * @return 任务进度
+     */
+    NotificationDeliveryVO getDelivery(Long deliveryId);
+
+    /**
+     * 分页获取投递任务（按创建时间倒序）
+     * @param pageNum 页码
+     * @param pageSize 每页数量
+     * @return 任务列表
+     */
+    PageResult<NotificationDeliveryVO> listDeliveries(Integer pageNum, Integer pageSize);
+
+    /**
+     * 失败的投递任务从断点继续
+     * @param deliveryId 任务ID
+     * @return 任务进度
+     */
+    NotificationDeliveryVO resumeDelivery(Long deliveryId);
+
+    /**
+     * 获取全站通知
+     * @param broadcastId 全站通知ID
+     * @return 全站通知
+     */
+    NotificationBroadcastVO getBroadcast(Long broadcastId);
+
+    /**
+     * 分页获取全站通知（按发布时间倒序）
+     * @param pageNum 页码
+     * @param pageSize 每页数量
+     * @return 全站通知列表
+     */
+    PageResult<NotificationBroadcastVO> listBroadcasts(Integer pageNum, Integer pageSize);
 
     // ========== 查询通知 ==========
 
@@ -1,21 +1,29 @@
 package com.blog.module.notification.service.impl;
 
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blog.DTO.mq.NotificationMessage;
 import com.blog.DTO.notification.NotificationQueryDTO;
 import com.blog.DTO.notification.SystemNotificationDTO;
 import com.blog.VO.auth.UserSimpleVO;
+import com.blog.VO.notification.NotificationBroadcastVO;
+import com.blog.VO.notification.NotificationDeliveryVO;
 import com.blog.VO.notification.NotificationStatVO;
 import com.blog.VO.notification.NotificationVO;
 import com.blog.common.BusinessException;
 import com.blog.common.PageResult;
+import com.blog.common.ResultCode;
 import com.blog.config.RabbitMQConfig;
 import com.blog.constants.SystemConstants;
 import com.blog.entity.Notification;
-import com.blog.entity.User;
-import com.blog.module.auth.mapper.UserMapper;
+import com.blog.entity.NotificationBroadcast;
+import com.blog.entity.NotificationDelivery;
+import com.blog.module.notification.counter.UnreadCounter;
+import com.blog.module.notification.delivery.NotificationDeliverer;
+import com.blog.module.notification.mapper.NotificationBroadcastMapper;
+import com.blog.module.notification.mapper.NotificationDeliveryMapper;
 import com.blog.module.notification.mapper.NotificationMapper;
 import com.blog.module.notification.service.NotificationService;
 import com.blog.util.SecurityUtil;
@@ -26,6 +34,8 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -45,13 +55,14 @@ import java.util.stream.Collectors;
 public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationMapper notificationMapper;
-    private final UserMapper userMapper;
+    private final NotificationBroadcastMapper broadcastMapper;
+    private final UnreadCounter unreadCounter;
+    private final NotificationDeliveryMapper deliveryMapper;
+    private final NotificationDeliverer deliverer;
     private final RedisTemplate<String, Object> redisTemplate;
     private final RabbitTemplate rabbitTemplate;
 
-    // Redis Key 前缀
-    private static final String KEY_USER_UNREAD_COUNT = "notification:user:%d:unread";
-    private static final String KEY_USER_UNREAD_BY_TYPE = "notification:user:%d:type:%s";
+    private static final String TYPE_SYSTEM = "SYSTEM";
 
     // ========== 创建通知（通过 MQ 异步处理）==========
 
@@ -174,39 +185,89 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public void createSystemNotification(SystemNotificationDTO dto) {
+    public NotificationBroadcastVO createSystemNotification(SystemNotificationDTO dto) {
 
-        Long senderId = SecurityUtil.getCurrentUserId();
-        if (senderId == null) {
-            throw new BusinessException("系统通知必须指定发送者");
+        Long senderId = requireSender();
+
+        // 全体用户：只写一行，用户读取时合并
+        NotificationBroadcast broadcast = new NotificationBroadcast();
+        broadcast.setSenderId(senderId);
+        broadcast.setTitle(dto.getTitle());
+        broadcast.setContent(dto.getContent());
+        broadcast.setLinkUrl(dto.getLinkUrl());
+        broadcastMapper.insert(broadcast);
+
+        // 最新ID变化后，各用户按旧ID缓存的未读全站通知数自然失效
+        redisTemplate.opsForValue().set(SystemConstants.KEY_BROADCAST_LATEST_ID, broadcast.getId(), 1, TimeUnit.HOURS);
+
+        log.info("【系统通知】全站通知已发布: id={}, senderId={}", broadcast.getId(), senderId);
+        return convertToBroadcastVO(broadcast);
+    }
+
+    @Override
+    public NotificationDeliveryVO createSystemDelivery(SystemNotificationDTO dto) {
+        Long senderId = requireSender();
+        if (dto.getUserIds() == null || dto.getUserIds().isEmpty()) {
+            throw new BusinessException("请指定接收用户");
         }
 
-        List<Long> targetUsers = dto.getUserIds();
-        if (targetUsers == null || targetUsers.isEmpty()) {
-            // 全体用户
-            targetUsers = userMapper.selectList(null).stream()
-                    .map(User::getId)
-                    .toList();
+        NotificationDelivery delivery = deliverer.create(senderId, dto.getTitle(), dto.getContent(),
+                dto.getLinkUrl(), dto.getUserIds());
+        deliverer.run(delivery.getId());
+        log.info("【系统通知】投递任务已创建: id={}, senderId={}, targetCount={}",
+                delivery.getId(), senderId, delivery.getTotalCount());
+        return convertToDeliveryVO(delivery);
+    }
+
+    @Override
+    public NotificationDeliveryVO getDelivery(Long deliveryId) {
+        NotificationDelivery delivery = deliveryMapper.selectById(deliveryId);
+        if (delivery == null) {
+            throw new BusinessException(ResultCode.RESOURCE_NOT_FOUND, "投递任务不存在");
         }
+        return convertToDeliveryVO(delivery);
+    }
 
-        for (Long userId : targetUsers) {
-            Notification notification = new Notification();
-            notification.setUserId(userId);
-            notification.setSenderId(senderId);
-            notification.setType("SYSTEM");
-            notification.setTitle(dto.getTitle());
-            notification.setContent(dto.getContent());
-            notification.setLinkUrl(dto.getLinkUrl());
-            notification.setIsRead(0);
+    @Override
+    public PageResult<NotificationDeliveryVO> listDeliveries(Integer pageNum, Integer pageSize) {
+        Page<NotificationDelivery> page = deliveryMapper.selectPage(new Page<>(pageNum, pageSize),
+                new LambdaQueryWrapper<NotificationDelivery>().orderByDesc(NotificationDelivery::getId));
+        List<NotificationDeliveryVO> voList = page.getRecords().stream()
+                .map(this::convertToDeliveryVO)
+                .collect(Collectors.toList());
+        return new PageResult<>(voList, page.getTotal(), pageNum, pageSize);
+    }
 
-            notificationMapper.insert(notification);
+    @Override
+    public NotificationDeliveryVO resumeDelivery(Long deliveryId) {
+        NotificationDelivery delivery = deliveryMapper.selectById(deliveryId);
+        if (delivery == null) {
+            throw new BusinessException(ResultCode.RESOURCE_NOT_FOUND, "投递任务不存在");
+        }
+        if (deliveryMapper.requeue(deliveryId) == 0) {
+            throw new BusinessException("只有失败的投递任务可以继续，当前状态: " + delivery.getStatus());
+        }
+        deliverer.run(deliveryId);
+        return getDelivery(deliveryId);
+    }
 
-            // 更新 Redis 未读计数
-            incrementUnreadCount(userId, "SYSTEM");
+    @Override
+    public NotificationBroadcastVO getBroadcast(Long broadcastId) {
+        NotificationBroadcast broadcast = broadcastMapper.selectById(broadcastId);
+        if (broadcast == null) {
+            throw new BusinessException(ResultCode.RESOURCE_NOT_FOUND, "全站通知不存在");
         }
+        return convertToBroadcastVO(broadcast);
+    }
 
-        log.info("【系统通知】创建成功: senderId={}, targetCount={}", senderId, targetUsers.size());
+    @Override
+    public PageResult<NotificationBroadcastVO> listBroadcasts(Integer pageNum, Integer pageSize) {
+        Page<NotificationBroadcast> page = broadcastMapper.selectPage(new Page<>(pageNum, pageSize),
+                new LambdaQueryWrapper<NotificationBroadcast>().orderByDesc(NotificationBroadcast::getId));
+        List<NotificationBroadcastVO> voList = page.getRecords().stream()
+                .map(this::convertToBroadcastVO)
+                .collect(Collectors.toList());
+        return new PageResult<>(voList, page.getTotal(), pageNum, pageSize);
     }
 
     // ========== 查询通知 ==========
@@ -235,6 +296,17 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public NotificationVO getNotificationDetail(Long notificationId, Long userId) {
+        if (isBroadcast(notificationId)) {
+            Notification broadcast = notificationMapper.selectBroadcastNotification(userId, -notificationId);
+            if (broadcast == null) {
+                throw new BusinessException("通知不存在");
+            }
+            if (broadcast.getIsRead() == 0) {
+                markBroadcastsRead(userId, List.of(-notificationId));
+            }
+            return convertToVO(broadcast);
+        }
+
         Notification notification = notificationMapper.selectById(notificationId);
 
         if (notification == null) {
@@ -254,65 +326,50 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public Long getUnreadCount(Long userId) {
-        String key = String.format(KEY_USER_UNREAD_COUNT, userId);
+        return unreadCounter.get(userId).getOrDefault(UnreadCounter.FIELD_TOTAL, 0L) + getUnreadBroadcastCount(userId);
+    }
+
+    /**
+     * 未读的全站通知数（缓存键带最新全站通知ID，发布新通知后自动换键）
+     */
+    private long getUnreadBroadcastCount(Long userId) {
+        String key = String.format(SystemConstants.KEY_USER_BROADCAST_UNREAD, userId, getLatestBroadcastId());
 
-        // 优先从 Redis 获取
         Object count = redisTemplate.opsForValue().get(key);
         if (count != null) {
-            log.debug("【Redis查询】未读通知数: userId={}, count={}", userId, count);
             return ((Number) count).longValue();
         }
 
-        // Redis 未命中，查数据库
-        Long dbCount = notificationMapper.countUnread(userId);
-        log.debug("【数据库查询】未读通知数: userId={}, count={}", userId, dbCount);
-
-        // 回写 Redis
+        Long dbCount = notificationMapper.countUnreadBroadcasts(userId);
         redisTemplate.opsForValue().set(key, dbCount, 1, TimeUnit.HOURS);
-
         return dbCount;
     }
 
     @Override
     public NotificationStatVO getNotificationStats(Long userId) {
-        NotificationStatVO stats = new NotificationStatVO();
-
-        // 总未读数
-        stats.setUnreadCount(getUnreadCount(userId));
-
-        // 按类型统计
-        String[] types = {"COMMENT", "REPLY", "LIKE", "FAVORITE", "FOLLOW", "SYSTEM"};
-        for (String type : types) {
-            Long count = getUnreadCountByType(userId, type);
-            switch (type) {
-                case "COMMENT" -> stats.setUnreadCommentCount(count);
-                case "REPLY" -> stats.setUnreadReplyCount(count);
-                case "LIKE" -> stats.setUnreadLikeCount(count);
-                case "FAVORITE" -> stats.setUnreadFavoriteCount(count);
-                case "FOLLOW" -> stats.setUnreadFollowCount(count);
-                case "SYSTEM" -> stats.setUnreadSystemCount(count);
-            }
-        }
-
-        return stats;
-    }
-
-    /**
-     * 获取指定类型的未读数量
-     */
-    private Long getUnreadCountByType(Long userId, String type) {
-        String key = String.format(KEY_USER_UNREAD_BY_TYPE, userId, type);
-
-        Object count = redisTemplate.opsForValue().get(key);
-        if (count != null) {
-            return ((Number) count).longValue();
+        // 一次 HGETALL 取回总数与各类型未读数，全站通知计入系统通知
+        Map<String, Long> counts = new HashMap<>(unreadCounter.get(userId));
+        long broadcastCount = getUnreadBroadcastCount(userId);
+        if (broadcastCount > 0) {
+            counts.merge(UnreadCounter.FIELD_TOTAL, broadcastCount, Long::sum);
+            counts.merge(TYPE_SYSTEM, broadcastCount, Long::sum);
         }
 
-        // 查数据库（需要在 Mapper 中添加方法）
-        Long dbCount = notificationMapper.countUnreadByType(userId, type);
-        redisTemplate.opsForValue().set(key, dbCount, 1, TimeUnit.HOURS);
+        NotificationStatVO stats = new NotificationStatVO();
+        stats.setUnreadCount(counts.getOrDefault(UnreadCounter.FIELD_TOTAL, 0L));
+        stats.setUnreadCommentCount(counts.getOrDefault("COMMENT", 0L));
+        stats.setUnreadReplyCount(counts.getOrDefault("REPLY", 0L));
+        stats.setUnreadLikeCount(counts.getOrDefault("LIKE", 0L));
+        stats.setUnreadLikeCommentCount(counts.getOrDefault("LIKE_COMMENT", 0L));
+        stats.setUnreadFavoriteCount(counts.getOrDefault("FAVORITE", 0L));
+        stats.setUnreadFollowCount(counts.getOrDefault("FOLLOW", 0L));
+        stats.setUnreadSystemCount(counts.getOrDefault(TYPE_SYSTEM, 0L));
+
+        counts.remove(UnreadCounter.FIELD_TOTAL);
+        counts.values().removeIf(count -> count == 0);
+        stats.setUnreadByType(counts);
 
-        return dbCount;
+        return stats;
     }
 
     // ========== 标记已读 ==========
@@ -320,6 +377,17 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void markAsRead(Long notificationId, Long userId) {
+        if (isBroadcast(notificationId)) {
+            Notification broadcast = notificationMapper.selectBroadcastNotification(userId, -notificationId);
+            if (broadcast == null) {
+                throw new BusinessException("通知不存在");
+            }
+            if (broadcast.getIsRead() == 0) {
+                markBroadcastsRead(userId, List.of(-notificationId));
+            }
+            return;
+        }
+
         Notification notification = notificationMapper.selectById(notificationId);
 
         if (notification == null) {
@@ -334,7 +402,7 @@ public class NotificationServiceImpl implements NotificationService {
             notificationMapper.updateById(notification);
 
             // 更新 Redis 计数
-            decrementUnreadCount(userId, notification.getType());
+            decrementUnreadCount(userId, Map.of(notification.getType(), 1L));
         }
     }
 
@@ -345,24 +413,27 @@ public class NotificationServiceImpl implements NotificationService {
             return;
         }
 
+        List<Long> broadcastIds = broadcastIdsOf(ids);
+        if (!broadcastIds.isEmpty()) {
+            markBroadcastsRead(userId, broadcastIds);
+            ids = rowIdsOf(ids);
+            if (ids.isEmpty()) {
+                return;
+            }
+        }
+
         // 查询这些通知的类型（用于更新 Redis）
         List<Notification> notifications = notificationMapper.selectBatchIds(ids);
         Map<String, Long> typeCounts = notifications.stream()
-                .filter(n -> n.getIsRead() == 0)
+                .filter(n -> n.getUserId().equals(userId) && n.getIsRead() == 0)
                 .collect(Collectors.groupingBy(Notification::getType, Collectors.counting()));
 
         // 批量更新数据库
         int updated = notificationMapper.batchMarkAsRead(userId, ids);
         log.info("【批量标记已读】userId={}, count={}", userId, updated);
 
-        // 更新 Redis
-        typeCounts.forEach((type, count) -> {
-            String typeKey = String.format(KEY_USER_UNREAD_BY_TYPE, userId, type);
-            redisTemplate.opsForValue().decrement(typeKey, count);
-        });
-
-        String totalKey = String.format(KEY_USER_UNREAD_COUNT, userId);
-        redisTemplate.opsForValue().decrement(totalKey, updated);
+        // 更新 Redis（并发标记时可能重复扣减，计数截断到 0）
+        decrementUnreadCount(userId, typeCounts);
     }
 
     @Override
@@ -371,15 +442,11 @@ public class NotificationServiceImpl implements NotificationService {
         int updated = notificationMapper.markAllRead(userId);
         log.info("【标记全部已读】userId={}, count={}", userId, updated);
 
-        // 清空 Redis 计数
-        String totalKey = String.format(KEY_USER_UNREAD_COUNT, userId);
-        redisTemplate.delete(totalKey);
+        // 全站通知：读水位推进到最新一条
+        advanceBroadcastWatermark(userId);
 
-        String[] types = {"COMMENT", "REPLY", "LIKE", "FAVORITE", "FOLLOW", "SYSTEM"};
-        for (String type : types) {
-            String typeKey = String.format(KEY_USER_UNREAD_BY_TYPE, userId, type);
-            redisTemplate.delete(typeKey);
-        }
+        // 清空 Redis 计数
+        afterCommit(() -> unreadCounter.clear(userId));
     }
 
     @Override
@@ -388,12 +455,12 @@ public class NotificationServiceImpl implements NotificationService {
         int updated = notificationMapper.markTypeAsRead(userId, type);
         log.info("【标记类型已读】userId={}, type={}, count={}", userId, type, updated);
 
-        // 更新 Redis
-        String typeKey = String.format(KEY_USER_UNREAD_BY_TYPE, userId, type);
-        redisTemplate.delete(typeKey);
+        if (TYPE_SYSTEM.equals(type)) {
+            advanceBroadcastWatermark(userId);
+        }
 
-        String totalKey = String.format(KEY_USER_UNREAD_COUNT, userId);
-        redisTemplate.opsForValue().decrement(totalKey, updated);
+        // 更新 Redis
+        decrementUnreadCount(userId, Map.of(type, (long) updated));
     }
 
     // ========== 删除通知 ==========
@@ -401,6 +468,15 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void deleteNotification(Long notificationId, Long userId) {
+        if (isBroadcast(notificationId)) {
+            Notification broadcast = notificationMapper.selectBroadcastNotification(userId, -notificationId);
+            if (broadcast == null) {
+                throw new BusinessException("通知不存在");
+            }
+            deleteBroadcasts(userId, List.of(-notificationId));
+            return;
+        }
+
         Notification notification = notificationMapper.selectById(notificationId);
 
         if (notification == null) {
@@ -414,7 +490,7 @@ public class NotificationServiceImpl implements NotificationService {
 
         // 如果是未读通知，更新 Redis
         if (notification.getIsRead() == 0) {
-            decrementUnreadCount(userId, notification.getType());
+            decrementUnreadCount(userId, Map.of(notification.getType(), 1L));
         }
     }
 
@@ -425,6 +501,15 @@ public class NotificationServiceImpl implements NotificationService {
             return;
         }
 
+        List<Long> broadcastIds = broadcastIdsOf(ids);
+        if (!broadcastIds.isEmpty()) {
+            deleteBroadcasts(userId, broadcastIds);
+            ids = rowIdsOf(ids);
+            if (ids.isEmpty()) {
+                return;
+            }
+        }
+
         List<Notification> notifications = notificationMapper.selectBatchIds(ids);
 
         // 验证权限
@@ -442,16 +527,7 @@ public class NotificationServiceImpl implements NotificationService {
         notificationMapper.deleteBatchIds(ids);
 
         // 更新 Redis
-        long totalUnread = unreadTypeCounts.values().stream().mapToLong(Long::longValue).sum();
-        if (totalUnread > 0) {
-            String totalKey = String.format(KEY_USER_UNREAD_COUNT, userId);
-            redisTemplate.opsForValue().decrement(totalKey, totalUnread);
-
-            unreadTypeCounts.forEach((type, count) -> {
-                String typeKey = String.format(KEY_USER_UNREAD_BY_TYPE, userId, type);
-                redisTemplate.opsForValue().decrement(typeKey, count);
-            });
-        }
+        decrementUnreadCount(userId, unreadTypeCounts);
 
         log.info("【批量删除通知】userId={}, count={}", userId, ids.size());
     }
@@ -460,6 +536,7 @@ public class NotificationServiceImpl implements NotificationService {
     @Transactional(rollbackFor = Exception.class)
     public void clearReadNotifications(Long userId) {
         int deleted = notificationMapper.deleteReadNotifications(userId);
+        broadcastMapper.deleteRead(userId, null);
         log.info("【清空已读通知】userId={}, count={}", deleted);
     }
 
@@ -467,34 +544,90 @@ public class NotificationServiceImpl implements NotificationService {
     @Transactional(rollbackFor = Exception.class)
     public void cleanOldNotifications(Long userId, Integer days) {
         int deleted = notificationMapper.deleteOldReadNotifications(userId, days);
+        broadcastMapper.deleteRead(userId, days);
         log.info("【清理历史通知】userId={}, days={}, count={}", userId, days, deleted);
     }
 
     // ========== 私有辅助方法 ==========
 
+    private Long requireSender() {
+        Long senderId = SecurityUtil.getCurrentUserId();
+        if (senderId == null) {
+            throw new BusinessException("系统通知必须指定发送者");
+        }
+        return senderId;
+    }
+
     /**
-     * 增加未读计数（Redis）
+     * 全站通知在用户操作前没有自己的通知记录，列表中以全站通知ID的相反数作为通知ID
      */
-    private void incrementUnreadCount(Long userId, String type) {
-        String totalKey = String.format(KEY_USER_UNREAD_COUNT, userId);
-        String typeKey = String.format(KEY_USER_UNREAD_BY_TYPE, userId, type);
+    private boolean isBroadcast(Long notificationId) {
+        return notificationId != null && notificationId < 0;
+    }
+
+    private List<Long> broadcastIdsOf(List<Long> ids) {
+        return ids.stream().filter(this::isBroadcast).map(id -> -id).distinct().toList();
+    }
+
+    private List<Long> rowIdsOf(List<Long> ids) {
+        return ids.stream().filter(id -> id != null && id > 0).toList();
+    }
+
+    private void markBroadcastsRead(Long userId, List<Long> broadcastIds) {
+        broadcastMapper.markRead(userId, broadcastIds);
+        afterCommit(() -> evictUnreadBroadcastCount(userId));
+    }
 
-        redisTemplate.opsForValue().increment(totalKey, 1);
-        redisTemplate.expire(totalKey, 1, TimeUnit.HOURS);
+    private void deleteBroadcasts(Long userId, List<Long> broadcastIds) {
+        broadcastMapper.markDeleted(userId, broadcastIds);
+        afterCommit(() -> evictUnreadBroadcastCount(userId));
+    }
 
-        redisTemplate.opsForValue().increment(typeKey, 1);
-        redisTemplate.expire(typeKey, 1, TimeUnit.HOURS);
+    private void advanceBroadcastWatermark(Long userId) {
+        Long latestId = broadcastMapper.selectMaxId();
+        if (latestId > 0) {
+            broadcastMapper.advanceWatermark(userId, latestId);
+            afterCommit(() -> evictUnreadBroadcastCount(userId));
+        }
+    }
+
+    private void evictUnreadBroadcastCount(Long userId) {
+        redisTemplate.delete(String.format(SystemConstants.KEY_USER_BROADCAST_UNREAD, userId, getLatestBroadcastId()));
     }
 
     /**
-     * 减少未读计数（Redis）
+     * 最新全站通知ID（Redis 缺失时查库回填；发布时直接覆盖，回填用 SETNX 不覆盖更新的值）
      */
-    private void decrementUnreadCount(Long userId, String type) {
-        String totalKey = String.format(KEY_USER_UNREAD_COUNT, userId);
-        String typeKey = String.format(KEY_USER_UNREAD_BY_TYPE, userId, type);
+    private long getLatestBroadcastId() {
+        Object cached = redisTemplate.opsForValue().get(SystemConstants.KEY_BROADCAST_LATEST_ID);
+        if (cached != null) {
+            return ((Number) cached).longValue();
+        }
+        Long latestId = broadcastMapper.selectMaxId();
+        redisTemplate.opsForValue().setIfAbsent(SystemConstants.KEY_BROADCAST_LATEST_ID, latestId, 1, TimeUnit.HOURS);
+        return latestId;
+    }
 
-        redisTemplate.opsForValue().decrement(totalKey, 1);
-        redisTemplate.opsForValue().decrement(typeKey, 1);
+    private void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * 减少未读计数（Redis，事务提交后执行，截断到 0）
+     */
+    private void decrementUnreadCount(Long userId, Map<String, Long> typeCounts) {
+        if (!typeCounts.isEmpty()) {
+            afterCommit(() -> unreadCounter.decrement(userId, typeCounts));
+        }
     }
 
     /**
@@ -519,6 +652,21 @@ public class NotificationServiceImpl implements NotificationService {
         return vo;
     }
 
+    private NotificationBroadcastVO convertToBroadcastVO(NotificationBroadcast broadcast) {
+        NotificationBroadcastVO vo = new NotificationBroadcastVO();
+        BeanUtils.copyProperties(broadcast, vo);
+        return vo;
+    }
+
+    private NotificationDeliveryVO convertToDeliveryVO(NotificationDelivery delivery) {
+        NotificationDeliveryVO vo = new NotificationDeliveryVO();
+        BeanUtils.copyProperties(delivery, vo);
+        long total = delivery.getTotalCount() != null ? delivery.getTotalCount() : 0L;
+        long delivered = delivery.getDeliveredCount() != null ? delivery.getDeliveredCount() : 0L;
+        vo.setProgress(total == 0 ? 100 : (int) Math.min(100, delivered * 100 / total));
+        return vo;
+    }
+
     private String getTypeText(String type) {
         return switch (type) {
             case "COMMENT" -> "评论";
@@ -2,9 +2,10 @@ package com.blog.module.post.controller;
 
 import com.blog.DTO.post.PostCreateDTO;
 import com.blog.DTO.post.PostUpdateDTO;
-import com.blog.VO.post.PostDetailVO;
 import com.blog.VO.post.PostListVO;
+import com.blog.common.CursorPageResult;
 import com.blog.common.PageResult;
+import com.blog.common.RawJson;
 import com.blog.common.Result;
 import com.blog.module.post.service.PostService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -50,8 +51,8 @@ public class PostController {
      */
     @GetMapping("/{id}")
     @Operation(summary = "获取文章详情", description = "获取文章详情")
-    public Result<PostDetailVO> getPost(@PathVariable Long id) {
-        PostDetailVO post = postService.getPostById(id);
+    public Result<RawJson> getPost(@PathVariable Long id) {
+        RawJson post = postService.getPostDetailJson(id);
         // 增加文章阅读量
         postService.incrementViewCount(id);
         return Result.success(post);
@@ -75,6 +76,42 @@ public class PostController {
         return Result.success(result);
     }
 
+    /**
+     * 游标分页获取已发布文章列表（深分页请使用此接口）
+     *
+     * @param cursor    上一页返回的 nextCursor，首页不传
+     * @param size      每页大小
+     * @param withTotal 是否统计总数
+     * @return 文章列表
+     */
+    @GetMapping("/cursor")
+    @Operation(summary = "游标分页获取文章列表", description = "按发布时间倒序，返回 nextCursor 用于获取下一页")
+    public Result<CursorPageResult<PostListVO>> getPostListByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") Boolean withTotal) {
+        CursorPageResult<PostListVO> result = postService.getPostListByCursor(cursor, size, withTotal);
+        return Result.success(result);
+    }
+
+    /**
+     * 获取热门文章
+     *
+     * @param page       页码
+     * @param size       每页大小
+     * @param categoryId 分类ID，不传为全站排行（分类排行包含子分类文章）
+     * @return 按热度倒序的文章列表
+     */
+    @GetMapping("/hot")
+    @Operation(summary = "获取热门文章", description = "按时间衰减的热度倒序，可按分类查看")
+    public Result<PageResult<PostListVO>> getHotPosts(
+            @RequestParam(defaultValue = "1") Integer page,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Long categoryId) {
+        PageResult<PostListVO> result = postService.getHotPosts(page, size, categoryId);
+        return Result.success(result);
+    }
+
     /**
      * 更新文章
      * @param id 文章ID
@@ -118,4 +155,44 @@ public class PostController {
         postService.publishPost(id);
         return Result.success("文章已发布");
     }
+
+    /**
+     * 重建分类/标签快照（直接修改分类、标签表后使用）
+     *
+     * @return 操作结果
+     */
+    @PostMapping("/admin/taxonomy/refresh")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "重建分类标签快照", description = "重建本节点快照并广播其他节点")
+    public Result<Void> refreshTaxonomy() {
+        postService.refreshTaxonomy();
+        return Result.success("分类标签快照已刷新");
+    }
+
+    /**
+     * 后台重新渲染所有文章的 Markdown（渲染配置变更或历史数据补齐时使用）
+     *
+     * @param force 是否忽略原文哈希强制渲染
+     * @return 操作结果
+     */
+    @PostMapping("/admin/render/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "重新渲染文章", description = "按ID分批后台执行，进度见日志")
+    public Result<Void> rerenderAllPosts(@RequestParam(defaultValue = "false") Boolean force) {
+        postService.rerenderAllPosts(Boolean.TRUE.equals(force));
+        return Result.success("批量渲染任务已提交");
+    }
+
+    /**
+     * 从数据库重建热门排行
+     *
+     * @return 参与排行的文章数
+     */
+    @PostMapping("/admin/hot/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "重建热门排行", description = "按发布时间窗口从数据库重新计算并替换排行")
+    public Result<Integer> rebuildHotPosts() {
+        int count = postService.rebuildHotPosts();
+        return Result.success("热门排行已重建", count);
+    }
 }
@@ -0,0 +1,97 @@
+package com.blog.module.post.counter;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-13:05
+ * @Description: 本节点浏览量缓冲
+ *
+ * 每篇文章一个 LongAdder（内部按 CPU 分段累加，无锁），浏览时只做内存自增，
+ * 由 ViewCountFlushScheduler 定期取走增量并批量写回数据库。
+ *
+ * 刷盘时移除没有增量的条目并标记为已退役；自增后发现条目已退役的线程，在条目锁内把
+ * 刷盘线程可能没取走的部分转入新条目。两边都是先写后读（自增/标记、再读标记/取值），
+ * 至少一方能看到对方，任何一次自增都只会被取走一次。
+ */
+@Component
+public class ViewCountBuffer {
+
+    private final ConcurrentHashMap<Long, Counter> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次浏览
+     */
+    public void increment(Long postId) {
+        add(postId, 1L);
+    }
+
+    /**
+     * 本节点尚未写回数据库的浏览量
+     */
+    public long getPending(Long postId) {
+        Counter counter = pending.get(postId);
+        return counter != null ? counter.adder.sum() : 0L;
+    }
+
+    /**
+     * 取走全部增量
+     * 计数为 0 的条目顺带移除并退役，退役前后并发写入的部分由刷盘线程或写入线程之一取走
+     * @return postId -> 增量
+     */
+    public Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new HashMap<>();
+        Iterator<Map.Entry<Long, Counter>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Counter> entry = it.next();
+            Counter counter = entry.getValue();
+            long delta = counter.adder.sumThenReset();
+            if (delta > 0) {
+                deltas.put(entry.getKey(), delta);
+            } else if (pending.remove(entry.getKey(), counter)) {
+                counter.retired = true;
+                long late;
+                synchronized (counter) {
+                    late = counter.adder.sumThenReset();
+                }
+                if (late > 0) {
+                    deltas.merge(entry.getKey(), late, Long::sum);
+                }
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * 写回失败时归还增量，等待下次刷盘
+     */
+    public void restore(Map<Long, Long> deltas) {
+        deltas.forEach(this::add);
+    }
+
+    private void add(Long postId, long delta) {
+        Counter counter = pending.computeIfAbsent(postId, id -> new Counter());
+        counter.adder.add(delta);
+        if (counter.retired) {
+            // 条目已被刷盘线程移除：把可能没被取走的部分转入新条目
+            long moved;
+            synchronized (counter) {
+                moved = counter.adder.sumThenReset();
+            }
+            if (moved != 0) {
+                add(postId, moved);
+            }
+        }
+    }
+
+    private static final class Counter {
+        private final LongAdder adder = new LongAdder();
+        private volatile boolean retired;
+    }
+}
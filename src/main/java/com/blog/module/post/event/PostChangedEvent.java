@@ -0,0 +1,16 @@
+package com.blog.module.post.event;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-17:10
+ * @Description: 文章变更事件（创建、更新、发布、删除），由 PostServiceImpl 在事务内发布，监听方按需在提交后处理
+ *
+ * @param postId 文章ID
+ * @param type 变更类型
+ */
+public record PostChangedEvent(Long postId, Type type) {
+
+    public enum Type {
+        CREATED, UPDATED, PUBLISHED, DELETED
+    }
+}
@@ -1,14 +1,20 @@
 package com.blog.module.post.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blog.entity.Category;
 import com.blog.entity.Post;
+import com.blog.module.post.taxonomy.PostTermRow;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @Author: GALA_Lin
@@ -19,10 +25,107 @@ import java.util.List;
 public interface PostMapper extends BaseMapper<Post> {
 
     /**
-     * 增加浏览量
+     * 批量累加浏览量（一条多行 UPDATE）
+     * @param deltas 文章ID -> 浏览量增量
      */
-    @Update("UPDATE posts SET view_count = view_count + 1 WHERE id = #{postId}")
-    void incrementViewCount(Long id);
+    @Update("""
+        <script>
+        UPDATE posts
+        SET view_count = view_count + CASE id
+            <foreach collection="deltas" index="postId" item="delta">
+                WHEN #{postId} THEN #{delta}
+            </foreach>
+            END
+        WHERE id IN
+        <foreach collection="deltas" index="postId" open="(" separator="," close=")">
+            #{postId}
+        </foreach>
+        </script>
+        """)
+    int batchIncrementViewCount(@Param("deltas") Map<Long, Long> deltas);
+
+    /**
+     * 分页获取文章列表（仅列表卡片字段，不含正文）
+     * @param page 分页对象
+     * @param status 文章状态，null 表示不限
+     * @return 文章分页
+     */
+    IPage<Post> selectPostListPage(Page<?> page, @Param("status") Integer status);
+
+    /**
+     * 游标分页获取已发布文章（仅列表卡片字段，不含正文）
+     * @param publishedAt 上一页最后一条的发布时间，首页传 null
+     * @param id 上一页最后一条的ID
+     * @param limit 读取条数
+     * @return 文章列表
+     */
+    List<Post> selectPublishedPostsByCursor(@Param("publishedAt") LocalDateTime publishedAt,
+                                            @Param("id") Long id,
+                                            @Param("limit") int limit);
+
+    /**
+     * 按ID批量获取文章摘要（仅列表卡片字段，不含正文）
+     * @param postIds 文章ID集合
+     * @return 文章列表
+     */
+    List<Post> selectPostSummariesByIds(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * 按ID升序分批读取待渲染的文章正文（键集分页，不做全表加载）
+     * @param lastId 上一批最后一篇文章ID，首批传 0
+     * @param limit 每批条数
+     * @return 仅含 id、content、content_type
+     */
+    @Select("SELECT id, `content`, content_type FROM posts WHERE id > #{lastId} AND status != -1 ORDER BY id LIMIT #{limit}")
+    List<Post> selectRenderSourcesAfter(@Param("lastId") Long lastId, @Param("limit") int limit);
+
+    /**
+     * 按ID升序分批读取热度重建所需的计数（键集分页，仅已发布且在时间窗口内的文章）
+     * @param since 发布时间下限
+     * @param lastId 上一批最后一篇文章ID，首批传 0
+     * @param limit 每批条数
+     * @return 仅含 id、各计数与发布时间
+     */
+    @Select("""
+        SELECT id, view_count, like_count, favorite_count, comment_count, published_at
+        FROM posts
+        WHERE status = 1 AND published_at >= #{since} AND id > #{lastId}
+        ORDER BY id
+        LIMIT #{limit}
+        """)
+    List<Post> selectHotCandidatesAfter(@Param("since") LocalDateTime since,
+                                        @Param("lastId") Long lastId,
+                                        @Param("limit") int limit);
+
+    /**
+     * 按ID升序分批读取待建索引的已发布文章（正文截断到 maxChars）
+     * @param lastId 上一批最后一篇文章ID，首批传 0
+     * @param limit 每批条数
+     * @param maxChars 正文最多读取的字符数
+     * @return 仅含 id、title、summary、content
+     */
+    List<Post> selectSearchSourcesAfter(@Param("lastId") Long lastId,
+                                        @Param("limit") int limit,
+                                        @Param("maxChars") int maxChars);
+
+    /**
+     * 按ID批量读取建索引/生成片段所需字段（列表卡片字段 + 截断到 maxChars 的正文）
+     */
+    List<Post> selectSearchSourcesByIds(@Param("postIds") Collection<Long> postIds,
+                                        @Param("maxChars") int maxChars);
+
+    /**
+     * 获取指定时间之后有改动的文章ID与状态（索引快照加载后追平增量）
+     */
+    @Select("SELECT id, status FROM posts WHERE updated_at >= #{since}")
+    List<Post> selectChangedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * 批量获取文章的分类与标签关联（post_categories、post_tags 合并为一次查询）
+     * @param postIds 文章ID集合
+     * @return 关联行，按文章ID排序
+     */
+    List<PostTermRow> selectPostTermsByPostIds(@Param("postIds") Collection<Long> postIds);
 
     /**
      * 根据文章ID查询分类
@@ -44,6 +147,12 @@ public interface PostMapper extends BaseMapper<Post> {
     @Update("UPDATE posts SET like_count = like_count - 1 WHERE id = #{postId} AND like_count > 0")
     void decrementLikeCount(@Param("postId") Long postId);
 
+    /**
+     * 按增量调整文章点赞数（批量落库时每篇文章一条更新），结果不小于 0
+     */
+    @Update("UPDATE posts SET like_count = GREATEST(CAST(like_count AS SIGNED) + #{delta}, 0) WHERE id = #{postId}")
+    int addLikeCount(@Param("postId") Long postId, @Param("delta") int delta);
+
 
     /**
      * 增加文章收藏数
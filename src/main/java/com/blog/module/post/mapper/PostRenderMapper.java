@@ -0,0 +1,56 @@
+package com.blog.module.post.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.blog.entity.PostRender;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-15:12
+ * @Description: 文章预渲染结果 Mapper
+ */
+@Mapper
+public interface PostRenderMapper extends BaseMapper<PostRender> {
+
+    /**
+     * 按文章ID写入渲染结果，已存在则覆盖（post_id 唯一）
+     */
+    @Insert("""
+        INSERT INTO post_renders (post_id, content_hash, html, toc, word_count, reading_minutes)
+        VALUES (#{postId}, #{contentHash}, #{html}, #{toc}, #{wordCount}, #{readingMinutes})
+        ON DUPLICATE KEY UPDATE
+            content_hash = VALUES(content_hash),
+            html = VALUES(html),
+            toc = VALUES(toc),
+            word_count = VALUES(word_count),
+            reading_minutes = VALUES(reading_minutes)
+        """)
+    int upsert(PostRender render);
+
+    /**
+     * 获取文章的渲染结果
+     */
+    @Select("SELECT * FROM post_renders WHERE post_id = #{postId}")
+    PostRender selectByPostId(@Param("postId") Long postId);
+
+    /**
+     * 批量获取已渲染原文的哈希（不读 HTML），用于批量重新渲染时跳过未变化的文章
+     */
+    @Select("""
+        <script>
+        SELECT post_id, content_hash
+        FROM post_renders
+        WHERE post_id IN
+        <foreach collection="postIds" item="postId" open="(" separator="," close=")">
+            #{postId}
+        </foreach>
+        </script>
+        """)
+    List<PostRender> selectHashesByPostIds(@Param("postIds") Collection<Long> postIds);
+}
@@ -0,0 +1,136 @@
+package com.blog.module.post.render;
+
+import com.blog.VO.post.PostTocVO;
+import com.blog.config.properties.MarkdownProperties;
+import org.commonmark.Extension;
+import org.commonmark.ext.gfm.tables.TablesExtension;
+import org.commonmark.ext.heading.anchor.HeadingAnchorExtension;
+import org.commonmark.ext.heading.anchor.IdGenerator;
+import org.commonmark.node.AbstractVisitor;
+import org.commonmark.node.Code;
+import org.commonmark.node.Heading;
+import org.commonmark.node.Node;
+import org.commonmark.node.Text;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.commonmark.renderer.text.TextContentRenderer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-15:00
+ * @Description: Markdown 渲染器（commonmark）
+ *
+ * 一次解析同时产出 HTML、目录、字数与阅读时长。
+ * Parser / HtmlRenderer 线程安全，启动时按配置构建一次后复用。
+ */
+@Component
+public class MarkdownRenderer {
+
+    private final MarkdownProperties properties;
+    private final Parser parser;
+    private final HtmlRenderer htmlRenderer;
+    private final TextContentRenderer textRenderer;
+
+    public MarkdownRenderer(MarkdownProperties properties) {
+        this.properties = properties;
+        List<Extension> extensions = new ArrayList<>();
+        if (properties.isEnableGfm() || properties.isEnableTables()) {
+            extensions.add(TablesExtension.create());
+        }
+        if (properties.isEnableHeadingAnchor()) {
+            extensions.add(HeadingAnchorExtension.create());
+        }
+        this.parser = Parser.builder().extensions(extensions).build();
+        this.htmlRenderer = HtmlRenderer.builder()
+                .extensions(extensions)
+                .escapeHtml(properties.isEscapeHtml())
+                .sanitizeUrls(true)
+                .build();
+        this.textRenderer = TextContentRenderer.builder().build();
+    }
+
+    /**
+     * 渲染 Markdown
+     * @param markdown 原文
+     * @return 渲染结果
+     */
+    public RenderedMarkdown render(String markdown) {
+        Node document = parser.parse(markdown != null ? markdown : "");
+        String html = htmlRenderer.render(document);
+        List<PostTocVO> toc = extractToc(document);
+        int wordCount = countWords(textRenderer.render(document));
+        int readingMinutes = Math.max(1, (int) Math.ceil((double) wordCount / Math.max(1, properties.getWordsPerMinute())));
+        return new RenderedMarkdown(html, toc, wordCount, readingMinutes);
+    }
+
+    /**
+     * 提取目录：锚点与 HeadingAnchorExtension 的生成规则一致（同一文档内按顺序去重）
+     */
+    private List<PostTocVO> extractToc(Node document) {
+        List<PostTocVO> toc = new ArrayList<>();
+        IdGenerator idGenerator = IdGenerator.builder().defaultId("id").build();
+        document.accept(new AbstractVisitor() {
+            @Override
+            public void visit(Heading heading) {
+                StringBuilder text = new StringBuilder();
+                heading.accept(new AbstractVisitor() {
+                    @Override
+                    public void visit(Text node) {
+                        text.append(node.getLiteral());
+                    }
+
+                    @Override
+                    public void visit(Code node) {
+                        text.append(node.getLiteral());
+                    }
+                });
+                String title = text.toString().trim();
+                String anchor = properties.isEnableHeadingAnchor() ? idGenerator.generateId(title) : null;
+                toc.add(new PostTocVO(heading.getLevel(), title, anchor));
+            }
+        });
+        return toc;
+    }
+
+    /**
+     * 统计字数：每个中日韩字符计 1，连续的字母数字计 1
+     */
+    private int countWords(String text) {
+        int count = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+            if (isCjk(cp)) {
+                count++;
+                inWord = false;
+            } else if (Character.isLetterOrDigit(cp)) {
+                if (!inWord) {
+                    count++;
+                    inWord = true;
+                }
+            } else {
+                inWord = false;
+            }
+        }
+        return count;
+    }
+
+    private boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    /**
+     * 渲染结果
+     */
+    public record RenderedMarkdown(String html, List<PostTocVO> toc, int wordCount, int readingMinutes) {
+    }
+}
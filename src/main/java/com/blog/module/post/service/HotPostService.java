@@ -0,0 +1,80 @@
+package com.blog.module.post.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-15:50
+ * @Description: 热门文章排行服务（Redis 有序集合，带时间衰减）
+ */
+public interface HotPostService {
+
+    /**
+     * 点赞数变化
+     * @param postId 文章ID
+     * @param delta +1 点赞，-1 取消点赞
+     */
+    void recordLike(Long postId, int delta);
+
+    /**
+     * 收藏数变化
+     * @param postId 文章ID
+     * @param delta +1 收藏，-1 取消收藏
+     */
+    void recordFavorite(Long postId, int delta);
+
+    /**
+     * 评论数变化
+     * @param postId 文章ID
+     * @param delta +1 新增评论，-1 删除评论
+     */
+    void recordComment(Long postId, int delta);
+
+    /**
+     * 浏览量批量变化（浏览量刷盘后调用）
+     * @param viewDeltas 文章ID -> 浏览量增量
+     */
+    void recordViews(Map<Long, Long> viewDeltas);
+
+    /**
+     * 将文章移出所有排行（删除、撤回发布时调用）
+     * @param postId 文章ID
+     */
+    void remove(Long postId);
+
+    /**
+     * 从排行中移除读取时发现已下线的文章（移出所读排行与全站排行，立即执行）
+     * @param categoryId 所读排行的分类ID，null 表示全站
+     * @param postIds 文章ID
+     */
+    void prune(Long categoryId, Collection<Long> postIds);
+
+    /**
+     * 按热度倒序分页获取文章ID
+     * @param categoryId 分类ID，null 表示全站
+     * @param offset 偏移量
+     * @param count 条数
+     * @return 文章ID列表
+     */
+    List<Long> getHotPostIds(Long categoryId, long offset, int count);
+
+    /**
+     * 排行中的文章数
+     * @param categoryId 分类ID，null 表示全站
+     * @return 文章数
+     */
+    long countHotPosts(Long categoryId);
+
+    /**
+     * 按半衰期整体衰减所有排行，并裁剪低分与超量文章
+     */
+    void decay();
+
+    /**
+     * 从数据库重建所有排行
+     * @return 参与排行的文章数
+     */
+    int rebuild();
+}
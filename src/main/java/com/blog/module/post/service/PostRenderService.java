@@ -0,0 +1,32 @@
+package com.blog.module.post.service;
+
+import com.blog.entity.Post;
+import com.blog.module.post.render.MarkdownRenderer;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-15:15
+ * @Description: 文章 Markdown 预渲染服务
+ */
+public interface PostRenderService {
+
+    /**
+     * 保存文章时渲染正文，原文哈希未变化则跳过
+     * @param postId 文章ID
+     * @param content Markdown 原文
+     */
+    void renderPost(Long postId, String content);
+
+    /**
+     * 获取文章的渲染结果，缺失或已过期（原文被改动）时现场渲染并回写
+     * @param post 文章（需包含 id、content、contentType）
+     * @return 渲染结果，非 Markdown 文章返回 null
+     */
+    MarkdownRenderer.RenderedMarkdown getOrRender(Post post);
+
+    /**
+     * 后台按ID分批重新渲染所有文章
+     * @param force true 时忽略哈希，全部重新渲染（渲染配置变更后使用）
+     */
+    void rerenderAll(boolean force);
+}
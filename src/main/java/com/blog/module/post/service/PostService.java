@@ -4,7 +4,9 @@ import com.blog.DTO.post.PostCreateDTO;
 import com.blog.DTO.post.PostUpdateDTO;
 import com.blog.VO.post.PostDetailVO;
 import com.blog.VO.post.PostListVO;
+import com.blog.common.CursorPageResult;
 import com.blog.common.PageResult;
+import com.blog.common.RawJson;
 
 /**
  * @Author: GALA_Lin
@@ -26,6 +28,19 @@ public interface PostService {
      */
     PostDetailVO getPostById(Long id);
 
+    /**
+     * 获取文章详情（优先读取已序列化的缓存）
+     * @param id 文章ID
+     * @return 文章详情 JSON
+     */
+    RawJson getPostDetailJson(Long id);
+
+    /**
+     * 失效文章详情缓存（存在事务时在提交后生效）
+     * @param id 文章ID
+     */
+    void evictPostDetail(Long id);
+
     /**
      * 获取文章列表
      * @param page 页码
@@ -35,6 +50,30 @@ public interface PostService {
      */
     PageResult<PostListVO> getPostList(Integer page, Integer size, Integer status);
 
+    /**
+     * 游标分页获取已发布文章列表
+     * @param cursor 上一页返回的游标，首页传 null
+     * @param size 每页大小
+     * @param withTotal 是否统计总数
+     * @return 文章列表
+     */
+    CursorPageResult<PostListVO> getPostListByCursor(String cursor, Integer size, Boolean withTotal);
+
+    /**
+     * 获取热门文章
+     * @param page 页码
+     * @param size 每页大小
+     * @param categoryId 分类ID，null 表示全站排行
+     * @return 按热度倒序的文章列表
+     */
+    PageResult<PostListVO> getHotPosts(Integer page, Integer size, Long categoryId);
+
+    /**
+     * 从数据库重建热门排行
+     * @return 参与排行的文章数
+     */
+    int rebuildHotPosts();
+
     /**
      * 更新文章
      * @param dto 文章更新DTO
@@ -53,6 +92,17 @@ public interface PostService {
      */
     void publishPost(Long id);
 
+    /**
+     * 重建分类/标签快照（直接改库后手动触发）
+     */
+    void refreshTaxonomy();
+
+    /**
+     * 后台分批重新渲染所有文章的 Markdown
+     * @param force 是否忽略原文哈希强制渲染
+     */
+    void rerenderAllPosts(boolean force);
+
     /**
      * 浏览量自增
      * @param id 文章ID
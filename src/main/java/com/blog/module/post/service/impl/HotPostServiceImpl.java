@@ -0,0 +1,499 @@
+package com.blog.module.post.service.impl;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.blog.common.BusinessException;
+import com.blog.config.properties.HotPostProperties;
+import com.blog.constants.SystemConstants;
+import com.blog.entity.Post;
+import com.blog.module.post.mapper.PostMapper;
+import com.blog.module.post.service.HotPostService;
+import com.blog.module.post.taxonomy.TaxonomyCache;
+import com.blog.module.post.taxonomy.TaxonomySnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-16:00
+ * @Description: 热门文章排行
+ *
+ * 1. 全站排行 posts:hot，分类排行 posts:hot:category:{id}（文章计入所属分类及其所有祖先分类）
+ * 2. 分数 = 累计加权计数 × 0.5^(发布时长 / 半衰期)，增量、衰减、重建都按这一个模型计算
+ * 3. 点赞、收藏、评论、浏览在事务提交后累加"权重 × 文章当前衰减系数"，只累加已在排行中的文章（ZINCRBY XX），
+ *    低于下限的移出；不在排行中的已发布、窗口内文章按数据库计数补入，草稿与窗口外的文章不进入排行
+ * 4. 定时按半衰期整体乘以衰减系数（ZUNIONSTORE WEIGHTS），并裁掉低分与超出容量的文章，分数始终有界
+ * 5. 从数据库重建：按发布时长折算衰减后写入临时 key，完成后 RENAME 原子替换
+ *
+ * 多节点部署时衰减与重建通过 Redis 锁保证同一时刻只有一个节点执行
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HotPostServiceImpl implements HotPostService {
+
+    /**
+     * 文章 -> 排行分类 本地缓存，避免每次计分都查关联表
+     */
+    private static final int CATEGORY_CACHE_CAPACITY = 10000;
+    private static final long CATEGORY_CACHE_TTL_MILLIS = 600_000L;
+
+    private static final long REBUILD_LOCK_SECONDS = 600L;
+    private static final int REBUILD_WRITE_CHUNK = 500;
+
+    private static final String NODE_ID = UUID.randomUUID().toString();
+
+    /**
+     * 仅持有者才能释放锁
+     */
+    private static final DefaultRedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * 只累加已在排行中的文章，累加后低于下限的移出
+     * KEYS: 文章所在的排行；ARGV: 1=文章ID 2=增量 3=分数下限
+     * 返回不包含该文章的排行数
+     */
+    private static final byte[] INCREMENT_SCRIPT = """
+            local absent = 0
+            for i = 1, #KEYS do
+                if redis.call('ZSCORE', KEYS[i], ARGV[1]) then
+                    local score = tonumber(redis.call('ZINCRBY', KEYS[i], ARGV[2], ARGV[1]))
+                    if score < tonumber(ARGV[3]) then
+                        redis.call('ZREM', KEYS[i], ARGV[1])
+                    end
+                else
+                    absent = absent + 1
+                end
+            end
+            return absent
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final PostMapper postMapper;
+    private final TaxonomyCache taxonomyCache;
+    private final HotPostProperties properties;
+
+    /**
+     * 已发布文章 -> 所在分类排行与发布时间，只缓存已发布的文章
+     */
+    private final LRUCache<Long, RankTarget> rankTargetCache =
+            CacheUtil.newLRUCache(CATEGORY_CACHE_CAPACITY, CATEGORY_CACHE_TTL_MILLIS);
+
+    @Override
+    public void recordLike(Long postId, int delta) {
+        incrementAfterCommit(Map.of(postId, delta * properties.getLikeWeight()));
+    }
+
+    @Override
+    public void recordFavorite(Long postId, int delta) {
+        incrementAfterCommit(Map.of(postId, delta * properties.getFavoriteWeight()));
+    }
+
+    @Override
+    public void recordComment(Long postId, int delta) {
+        incrementAfterCommit(Map.of(postId, delta * properties.getCommentWeight()));
+    }
+
+    @Override
+    public void recordViews(Map<Long, Long> viewDeltas) {
+        Map<Long, Double> scores = new HashMap<>();
+        viewDeltas.forEach((postId, delta) -> scores.put(postId, delta * properties.getViewWeight()));
+        incrementAfterCommit(scores);
+    }
+
+    @Override
+    public void remove(Long postId) {
+        afterCommit(() -> {
+            try {
+                String member = String.valueOf(postId);
+                List<Long> categoryIds = getRankCategoryIds(List.of(postId)).getOrDefault(postId, List.of());
+                stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    connection.zSetCommands().zRem(bytes(SystemConstants.CACHE_HOT_POSTS), bytes(member));
+                    for (Long categoryId : categoryIds) {
+                        connection.zSetCommands().zRem(bytes(categoryKey(categoryId)), bytes(member));
+                    }
+                    return null;
+                });
+                rankTargetCache.remove(postId);
+            } catch (Exception e) {
+                log.warn("【热门排行】移除文章失败: postId={}", postId, e);
+            }
+        });
+    }
+
+    @Override
+    public void prune(Long categoryId, Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        byte[][] members = postIds.stream().map(id -> bytes(String.valueOf(id))).toArray(byte[][]::new);
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.zSetCommands().zRem(bytes(SystemConstants.CACHE_HOT_POSTS), members);
+                if (categoryId != null) {
+                    connection.zSetCommands().zRem(bytes(categoryKey(categoryId)), members);
+                }
+                return null;
+            });
+            postIds.forEach(rankTargetCache::remove);
+        } catch (Exception e) {
+            log.warn("【热门排行】移除已下线文章失败: categoryId={}, postIds={}", categoryId, postIds, e);
+        }
+    }
+
+    @Override
+    public List<Long> getHotPostIds(Long categoryId, long offset, int count) {
+        Set<String> members = stringRedisTemplate.opsForZSet()
+                .reverseRange(rankKey(categoryId), offset, offset + count - 1);
+        if (members == null || members.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return members.stream().map(Long::valueOf).toList();
+    }
+
+    @Override
+    public long countHotPosts(Long categoryId) {
+        Long size = stringRedisTemplate.opsForZSet().zCard(rankKey(categoryId));
+        return size != null ? size : 0L;
+    }
+
+    @Override
+    public void decay() {
+        // 锁持有半个周期且不主动释放：同一周期内其他节点的定时任务直接跳过
+        long lockMillis = Math.max(1000L, properties.getDecayInterval() / 2);
+        Boolean locked = stringRedisTemplate.opsForValue()
+                .setIfAbsent(lockKey("decay"), NODE_ID, lockMillis, TimeUnit.MILLISECONDS);
+        if (!Boolean.TRUE.equals(locked)) {
+            return;
+        }
+
+        double hours = properties.getDecayInterval() / 3_600_000.0;
+        double factor = Math.pow(0.5, hours / properties.getHalfLifeHours());
+        List<String> keys = allRankKeys();
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                int maxSize = SystemConstants.CACHE_HOT_POSTS.equals(key)
+                        ? properties.getMaxSize() : properties.getCategoryMaxSize();
+                byte[] raw = bytes(key);
+                RedisZSetCommands zSet = connection.zSetCommands();
+                zSet.zUnionStore(raw, Aggregate.SUM, Weights.of(factor), raw);
+                zSet.zRemRangeByScore(raw, -Double.MAX_VALUE, properties.getMinScore());
+                zSet.zRemRange(raw, 0, -(maxSize + 1L));
+            }
+            return null;
+        });
+        log.info("【热门排行】衰减完成: 排行数={}, 系数={}", keys.size(), factor);
+    }
+
+    @Override
+    public int rebuild() {
+        String lockKey = lockKey("rebuild");
+        Boolean locked = stringRedisTemplate.opsForValue()
+                .setIfAbsent(lockKey, NODE_ID, REBUILD_LOCK_SECONDS, TimeUnit.SECONDS);
+        if (!Boolean.TRUE.equals(locked)) {
+            throw new BusinessException("热门排行正在重建，请稍后再试");
+        }
+        try {
+            return doRebuild();
+        } finally {
+            stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), NODE_ID);
+        }
+    }
+
+    /**
+     * 重建期间到达的增量写在旧 key 上，RENAME 后丢失；相对整体分数可以忽略
+     */
+    private int doRebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = now.minusDays(properties.getWindowDays());
+        int batchSize = Math.max(1, properties.getRebuildBatchSize());
+        TaxonomySnapshot taxonomy = taxonomyCache.current();
+
+        Map<String, Map<String, Double>> rankings = new HashMap<>();
+        int total = 0;
+        long lastId = 0L;
+        while (true) {
+            List<Post> batch = postMapper.selectHotCandidatesAfter(since, lastId, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<Long, TaxonomyCache.PostTerms> terms = taxonomyCache.getPostTerms(batch.stream().map(Post::getId).toList());
+            for (Post post : batch) {
+                double score = score(post, now);
+                if (score < properties.getMinScore()) {
+                    continue;
+                }
+                String member = String.valueOf(post.getId());
+                rankings.computeIfAbsent(SystemConstants.CACHE_HOT_POSTS, k -> new HashMap<>()).put(member, score);
+                Set<Long> categoryIds = new LinkedHashSet<>();
+                terms.getOrDefault(post.getId(), TaxonomyCache.PostTerms.empty()).categories()
+                        .forEach(c -> categoryIds.addAll(taxonomy.getAncestorIds(c.getId())));
+                for (Long categoryId : categoryIds) {
+                    rankings.computeIfAbsent(categoryKey(categoryId), k -> new HashMap<>()).put(member, score);
+                }
+                total++;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        for (String key : allRankKeys()) {
+            replaceRanking(key, rankings.getOrDefault(key, Collections.emptyMap()));
+        }
+        rankTargetCache.clear();
+        log.info("【热门排行】重建完成: 文章数={}, 排行数={}, 耗时={}ms",
+                total, rankings.size(), System.currentTimeMillis() - start);
+        return total;
+    }
+
+    /**
+     * 写入临时 key 后 RENAME 原子替换；没有文章的排行直接删除
+     */
+    private void replaceRanking(String key, Map<String, Double> scores) {
+        if (scores.isEmpty()) {
+            stringRedisTemplate.delete(key);
+            return;
+        }
+        String tempKey = key + ":rebuilding";
+        stringRedisTemplate.delete(tempKey);
+        List<ZSetOperations.TypedTuple<String>> chunk = new ArrayList<>(REBUILD_WRITE_CHUNK);
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            chunk.add(new DefaultTypedTuple<>(entry.getKey(), entry.getValue()));
+            if (chunk.size() >= REBUILD_WRITE_CHUNK) {
+                stringRedisTemplate.opsForZSet().add(tempKey, new HashSet<>(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            stringRedisTemplate.opsForZSet().add(tempKey, new HashSet<>(chunk));
+        }
+        int maxSize = SystemConstants.CACHE_HOT_POSTS.equals(key) ? properties.getMaxSize() : properties.getCategoryMaxSize();
+        stringRedisTemplate.opsForZSet().removeRange(tempKey, 0, -(maxSize + 1L));
+        stringRedisTemplate.rename(tempKey, key);
+    }
+
+    /**
+     * 加权分数按发布时长折算半衰期
+     */
+    private double score(Post post, LocalDateTime now) {
+        double raw = nvl(post.getViewCount()) * properties.getViewWeight()
+                + nvl(post.getLikeCount()) * properties.getLikeWeight()
+                + nvl(post.getFavoriteCount()) * properties.getFavoriteWeight()
+                + nvl(post.getCommentCount()) * properties.getCommentWeight();
+        return raw * decayFactor(post.getPublishedAt(), now);
+    }
+
+    /**
+     * 文章当前的衰减系数；定时衰减每个周期把所有分数再乘以同一系数，两者始终一致
+     */
+    private double decayFactor(LocalDateTime publishedAt, LocalDateTime now) {
+        double ageHours = Math.max(0, Duration.between(publishedAt, now).toMinutes() / 60.0);
+        return Math.pow(0.5, ageHours / properties.getHalfLifeHours());
+    }
+
+    private void incrementAfterCommit(Map<Long, Double> scores) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> increment(scores));
+    }
+
+    private void increment(Map<Long, Double> weights) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime since = now.minusDays(properties.getWindowDays());
+            Map<Long, RankTarget> targets = getRankTargets(weights.keySet());
+            // 草稿、已删除、窗口外的文章不计分
+            List<Long> postIds = weights.keySet().stream()
+                    .filter(postId -> targets.containsKey(postId) && !targets.get(postId).publishedAt().isBefore(since))
+                    .toList();
+            if (postIds.isEmpty()) {
+                return;
+            }
+            byte[] minScore = bytes(String.valueOf(properties.getMinScore()));
+            List<Object> absent = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long postId : postIds) {
+                    RankTarget target = targets.get(postId);
+                    List<String> keys = rankKeys(target);
+                    byte[][] keysAndArgs = new byte[keys.size() + 3][];
+                    for (int i = 0; i < keys.size(); i++) {
+                        keysAndArgs[i] = bytes(keys.get(i));
+                    }
+                    double delta = weights.get(postId) * decayFactor(target.publishedAt(), now);
+                    keysAndArgs[keys.size()] = bytes(String.valueOf(postId));
+                    keysAndArgs[keys.size() + 1] = bytes(String.valueOf(delta));
+                    keysAndArgs[keys.size() + 2] = minScore;
+                    connection.scriptingCommands().eval(INCREMENT_SCRIPT, ReturnType.INTEGER, keys.size(), keysAndArgs);
+                }
+                return null;
+            });
+
+            // 不在排行中的文章：只有正向增量才补入（按数据库计数算完整分数，已包含本次增量）
+            List<Long> missing = new ArrayList<>();
+            for (int i = 0; i < postIds.size(); i++) {
+                Object count = i < absent.size() ? absent.get(i) : null;
+                if (count instanceof Long n && n > 0 && weights.get(postIds.get(i)) > 0) {
+                    missing.add(postIds.get(i));
+                }
+            }
+            if (!missing.isEmpty()) {
+                seed(missing, targets, now, since);
+            }
+        } catch (Exception e) {
+            // 排行仅用于展示，定时重建时纠正
+            log.warn("【热门排行】计分失败: {}", weights, e);
+        }
+    }
+
+    /**
+     * 按数据库计数补入不在排行中的文章（NX：不覆盖并发写入的分数）
+     */
+    private void seed(List<Long> postIds, Map<Long, RankTarget> targets, LocalDateTime now, LocalDateTime since) {
+        List<Post> posts = postMapper.selectPostSummariesByIds(postIds).stream()
+                .filter(post -> post.getStatus() != null && post.getStatus() == SystemConstants.POST_STATUS_PUBLISHED)
+                .filter(post -> post.getPublishedAt() != null && !post.getPublishedAt().isBefore(since))
+                .toList();
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Post post : posts) {
+                double score = score(post, now);
+                if (score < properties.getMinScore()) {
+                    continue;
+                }
+                byte[] member = bytes(String.valueOf(post.getId()));
+                for (String key : rankKeys(targets.get(post.getId()))) {
+                    connection.zSetCommands().zAdd(bytes(key), score, member, RedisZSetCommands.ZAddArgs.ifNotExists());
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 已发布文章的计分信息，未发布、已删除的文章不在结果中
+     */
+    private Map<Long, RankTarget> getRankTargets(Collection<Long> postIds) {
+        Map<Long, RankTarget> result = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long postId : postIds) {
+            RankTarget cached = rankTargetCache.get(postId, false);
+            if (cached != null) {
+                result.put(postId, cached);
+            } else {
+                misses.add(postId);
+            }
+        }
+        if (misses.isEmpty()) {
+            return result;
+        }
+        List<Post> published = postMapper.selectPostSummariesByIds(misses).stream()
+                .filter(post -> post.getStatus() != null && post.getStatus() == SystemConstants.POST_STATUS_PUBLISHED)
+                .filter(post -> post.getPublishedAt() != null)
+                .toList();
+        if (published.isEmpty()) {
+            return result;
+        }
+        Map<Long, List<Long>> categories = getRankCategoryIds(published.stream().map(Post::getId).toList());
+        for (Post post : published) {
+            RankTarget target = new RankTarget(categories.getOrDefault(post.getId(), List.of()), post.getPublishedAt());
+            rankTargetCache.put(post.getId(), target);
+            result.put(post.getId(), target);
+        }
+        return result;
+    }
+
+    /**
+     * 获取文章应计入的分类排行：所属分类及其祖先分类
+     */
+    private Map<Long, List<Long>> getRankCategoryIds(Collection<Long> postIds) {
+        TaxonomySnapshot taxonomy = taxonomyCache.current();
+        Map<Long, TaxonomyCache.PostTerms> terms = taxonomyCache.getPostTerms(postIds);
+        Map<Long, List<Long>> result = new HashMap<>();
+        for (Long postId : postIds) {
+            Set<Long> categoryIds = new LinkedHashSet<>();
+            terms.getOrDefault(postId, TaxonomyCache.PostTerms.empty()).categories()
+                    .forEach(c -> categoryIds.addAll(taxonomy.getAncestorIds(c.getId())));
+            result.put(postId, List.copyOf(categoryIds));
+        }
+        return result;
+    }
+
+    private List<String> rankKeys(RankTarget target) {
+        List<String> keys = new ArrayList<>(target.categoryIds().size() + 1);
+        keys.add(SystemConstants.CACHE_HOT_POSTS);
+        target.categoryIds().forEach(categoryId -> keys.add(categoryKey(categoryId)));
+        return keys;
+    }
+
+    private List<String> allRankKeys() {
+        List<String> keys = new ArrayList<>();
+        keys.add(SystemConstants.CACHE_HOT_POSTS);
+        taxonomyCache.current().getCategoryIds().forEach(id -> keys.add(categoryKey(id)));
+        return keys;
+    }
+
+    private void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private String rankKey(Long categoryId) {
+        return categoryId != null ? categoryKey(categoryId) : SystemConstants.CACHE_HOT_POSTS;
+    }
+
+    private String categoryKey(Long categoryId) {
+        return String.format(SystemConstants.KEY_HOT_POSTS_CATEGORY, categoryId);
+    }
+
+    private String lockKey(String job) {
+        return String.format(SystemConstants.KEY_HOT_POSTS_LOCK, job);
+    }
+
+    private static double nvl(Number value) {
+        return value != null ? value.doubleValue() : 0D;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param categoryIds 文章计入的分类排行
+     * @param publishedAt 发布时间（计算衰减系数）
+     */
+    private record RankTarget(List<Long> categoryIds, LocalDateTime publishedAt) {
+    }
+}
@@ -0,0 +1,212 @@
+package com.blog.module.post.service.impl;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.blog.VO.post.PostTocVO;
+import com.blog.config.properties.MarkdownProperties;
+import com.blog.constants.SystemConstants;
+import com.blog.entity.Post;
+import com.blog.entity.PostRender;
+import com.blog.module.post.mapper.PostMapper;
+import com.blog.module.post.mapper.PostRenderMapper;
+import com.blog.module.post.render.MarkdownRenderer;
+import com.blog.module.post.service.PostRenderService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-15:20
+ * @Description: 文章 Markdown 预渲染
+ *
+ * 写入时渲染一次，HTML、目录、字数、阅读时长存入 post_renders，以原文 SHA-256 判断是否需要重新渲染。
+ * 读取时若缺失（历史文章）或哈希不一致（绕过服务直接改库）则现场补渲染。
+ * 批量重新渲染时，每批渲染结果写入后递增这些文章的详情缓存版本，缓存里的旧 HTML、目录随之失效。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostRenderServiceImpl implements PostRenderService {
+
+    private static final String CONTENT_TYPE_MARKDOWN = "MARKDOWN";
+
+    private static final TypeReference<List<PostTocVO>> TOC_TYPE = new TypeReference<>() {
+    };
+
+    private final PostRenderMapper postRenderMapper;
+    private final PostMapper postMapper;
+    private final MarkdownRenderer markdownRenderer;
+    private final MarkdownProperties markdownProperties;
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 批量重新渲染是否正在进行，同一节点只允许一个任务
+     */
+    private final AtomicBoolean rerendering = new AtomicBoolean(false);
+
+    @Override
+    public void renderPost(Long postId, String content) {
+        String hash = hash(content);
+        PostRender existing = postRenderMapper.selectByPostId(postId);
+        if (existing != null && hash.equals(existing.getContentHash())) {
+            return;
+        }
+        save(postId, hash, markdownRenderer.render(content));
+    }
+
+    @Override
+    public MarkdownRenderer.RenderedMarkdown getOrRender(Post post) {
+        if (!isMarkdown(post)) {
+            return null;
+        }
+        String hash = hash(post.getContent());
+        PostRender existing = postRenderMapper.selectByPostId(post.getId());
+        if (existing != null && hash.equals(existing.getContentHash())) {
+            return new MarkdownRenderer.RenderedMarkdown(existing.getHtml(), parseToc(existing.getToc()),
+                    existing.getWordCount() != null ? existing.getWordCount() : 0,
+                    existing.getReadingMinutes() != null ? existing.getReadingMinutes() : 1);
+        }
+        MarkdownRenderer.RenderedMarkdown rendered = markdownRenderer.render(post.getContent());
+        try {
+            save(post.getId(), hash, rendered);
+        } catch (Exception e) {
+            // 回写失败不影响本次读取
+            log.warn("【Markdown渲染】补渲染结果写入失败: postId={}", post.getId(), e);
+        }
+        return rendered;
+    }
+
+    @Async
+    @Override
+    public void rerenderAll(boolean force) {
+        if (!rerendering.compareAndSet(false, true)) {
+            log.warn("【Markdown渲染】已有批量渲染任务在执行，本次忽略");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int scanned = 0;
+        int rendered = 0;
+        try {
+            int batchSize = Math.max(1, markdownProperties.getRerenderBatchSize());
+            long lastId = 0L;
+            while (true) {
+                // 按主键键集分页，每批只读 id 与正文
+                List<Post> batch = postMapper.selectRenderSourcesAfter(lastId, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                Map<Long, String> hashes = force ? Collections.emptyMap() : loadHashes(batch);
+                List<Long> changed = new ArrayList<>();
+                for (Post post : batch) {
+                    scanned++;
+                    if (!isMarkdown(post)) {
+                        continue;
+                    }
+                    String hash = hash(post.getContent());
+                    if (hash.equals(hashes.get(post.getId()))) {
+                        continue;
+                    }
+                    try {
+                        save(post.getId(), hash, markdownRenderer.render(post.getContent()));
+                        changed.add(post.getId());
+                        rendered++;
+                    } catch (Exception e) {
+                        log.error("【Markdown渲染】文章渲染失败，跳过: postId={}", post.getId(), e);
+                    }
+                }
+                evictPostDetails(changed);
+                lastId = batch.get(batch.size() - 1).getId();
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+            log.info("【Markdown渲染】批量渲染完成: 扫描={}, 渲染={}, 耗时={}ms",
+                    scanned, rendered, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("【Markdown渲染】批量渲染中断: 已扫描={}, 已渲染={}", scanned, rendered, e);
+        } finally {
+            rerendering.set(false);
+        }
+    }
+
+    private Map<Long, String> loadHashes(List<Post> batch) {
+        List<Long> postIds = batch.stream().map(Post::getId).toList();
+        return postRenderMapper.selectHashesByPostIds(postIds).stream()
+                .collect(Collectors.toMap(PostRender::getPostId, PostRender::getContentHash));
+    }
+
+    /**
+     * 递增一批文章的详情缓存版本（渲染结果已逐条提交），一次管道提交
+     */
+    private void evictPostDetails(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long postId : postIds) {
+                    connection.stringCommands().incr(String.format(SystemConstants.KEY_POST_DETAIL_VERSION, postId)
+                            .getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("【Markdown渲染】{} 篇文章的详情缓存版本递增失败，旧缓存将在过期后更新", postIds.size(), e);
+        }
+    }
+
+    private void save(Long postId, String hash, MarkdownRenderer.RenderedMarkdown rendered) {
+        PostRender render = new PostRender();
+        render.setPostId(postId);
+        render.setContentHash(hash);
+        render.setHtml(rendered.html());
+        render.setToc(writeToc(rendered.toc()));
+        render.setWordCount(rendered.wordCount());
+        render.setReadingMinutes(rendered.readingMinutes());
+        postRenderMapper.upsert(render);
+    }
+
+    private boolean isMarkdown(Post post) {
+        return post.getContentType() == null || CONTENT_TYPE_MARKDOWN.equalsIgnoreCase(post.getContentType());
+    }
+
+    private String hash(String content) {
+        return DigestUtil.sha256Hex(content != null ? content : "");
+    }
+
+    private String writeToc(List<PostTocVO> toc) {
+        try {
+            return objectMapper.writeValueAsString(toc);
+        } catch (JsonProcessingException e) {
+            log.warn("【Markdown渲染】目录序列化失败", e);
+            return "[]";
+        }
+    }
+
+    private List<PostTocVO> parseToc(String toc) {
+        if (toc == null || toc.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return objectMapper.readValue(toc, TOC_TYPE);
+        } catch (JsonProcessingException e) {
+            log.warn("【Markdown渲染】目录反序列化失败: {}", toc, e);
+            return Collections.emptyList();
+        }
+    }
+}
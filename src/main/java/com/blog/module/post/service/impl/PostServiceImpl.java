@@ -1,30 +1,55 @@
 package com.blog.module.post.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.blog.DTO.post.PostCreateDTO;
 import com.blog.DTO.post.PostUpdateDTO;
-import com.blog.VO.post.CategoryVO;
+import com.blog.VO.auth.UserSimpleVO;
 import com.blog.VO.post.PostDetailVO;
 import com.blog.VO.post.PostListVO;
-import com.blog.VO.post.TagVO;
 import com.blog.entity.*;
 
 import com.blog.common.BusinessException;
+import com.blog.common.CursorPageResult;
 import com.blog.common.PageResult;
+import com.blog.common.RawJson;
 import com.blog.common.ResultCode;
-import com.blog.module.auth.mapper.UserMapper;
+import com.blog.config.properties.BlogCacheProperties;
+import com.blog.constants.SystemConstants;
+import com.blog.module.auth.service.UserSummaryService;
+import com.blog.module.like.service.LikeService;
+import com.blog.module.post.counter.ViewCountBuffer;
+import com.blog.module.post.event.PostChangedEvent;
 import com.blog.module.post.mapper.*;
+import com.blog.module.post.render.MarkdownRenderer;
+import com.blog.module.post.service.HotPostService;
+import com.blog.module.post.service.PostRenderService;
 import com.blog.module.post.service.PostService;
+import com.blog.module.post.taxonomy.TaxonomyCache;
 import com.blog.util.SecurityUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -32,16 +57,29 @@ import java.util.stream.Collectors;
  * @Date: 2025-10-08-13:42
  * @Description:
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PostServiceImpl implements PostService {
 
+    /**
+     * 热门列表补页的最多读取轮数（每轮剔除已下线文章后继续读取）
+     */
+    private static final int HOT_PAGE_FILL_ROUNDS = 3;
+
     private final PostMapper postMapper;
     private final PostCategoryMapper postCategoryMapper;
     private final PostTagMapper postTagMapper;
-    private final UserMapper userMapper;
-    private final TagMapper tagMapper;
-    private final CategoryMapper categoryMapper;
+    private final UserSummaryService userSummaryService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlogCacheProperties cacheProperties;
+    private final ViewCountBuffer viewCountBuffer;
+    private final TaxonomyCache taxonomyCache;
+    private final PostRenderService postRenderService;
+    private final HotPostService hotPostService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LikeService likeService;
     /**
      * 创建文章
      * @param dto 文章创建DTO
@@ -69,7 +107,11 @@ public class PostServiceImpl implements PostService {
         if (dto.getStatus() == 1){
             post.setPublishedAt(LocalDateTime.now());
         }
-        // 处理分类与标签
+        postMapper.insert(post);
+        // 预渲染 Markdown
+        postRenderService.renderPost(post.getId(), post.getContent());
+
+        // 处理分类与标签（插入后才有文章ID）
         if (dto.getCategoryIds() != null && !dto.getCategoryIds().isEmpty()) {
             saveCategoriesForPost(post.getId(), dto.getCategoryIds());
         }
@@ -77,8 +119,7 @@ public class PostServiceImpl implements PostService {
         if (dto.getTagIds() != null && !dto.getTagIds().isEmpty()) {
             saveTagsForPost(post.getId(), dto.getTagIds());
         }
-
-        postMapper.insert(post);
+        eventPublisher.publishEvent(new PostChangedEvent(post.getId(), PostChangedEvent.Type.CREATED));
         return post.getId();
     }
     private String generateSlug(String title) {
@@ -129,6 +170,15 @@ public class PostServiceImpl implements PostService {
      */
     @Override
     public PostDetailVO getPostById(Long id) {
+        PostDetailVO vo = loadPostDetail(id);
+        vo.setViewCount(vo.getViewCount() + viewCountBuffer.getPending(id));
+        return vo;
+    }
+
+    /**
+     * 从数据库加载文章详情，浏览量为已落库的值
+     */
+    private PostDetailVO loadPostDetail(Long id) {
         Post post = postMapper.selectById(id);
         if (post == null) {
             throw new BusinessException(ResultCode.POST_NOT_FOUND);
@@ -136,59 +186,131 @@ public class PostServiceImpl implements PostService {
         // 加载文章信息
         PostDetailVO vo = new PostDetailVO();
         BeanUtils.copyProperties(post, vo);
+        vo.setViewCount(post.getViewCount() != null ? post.getViewCount() : 0L);
+        // 预渲染结果（缺失时现场补渲染）
+        MarkdownRenderer.RenderedMarkdown rendered = postRenderService.getOrRender(post);
+        if (rendered != null) {
+            vo.setContentHtml(rendered.html());
+            vo.setToc(rendered.toc());
+            vo.setWordCount(rendered.wordCount());
+            vo.setReadingMinutes(rendered.readingMinutes());
+        }
         // 加载作者信息
-        User author = userMapper.selectById(post.getUserId());
+        UserSimpleVO author = userSummaryService.getUserSummary(post.getUserId());
         if (author != null){
             vo.setAuthorName(author.getNickname() != null ? author.getNickname() : author.getUsername());
             vo.setAuthorAvatar(author.getAvatarUrl());
         }
-        // 加载分类
-        List<CategoryVO> categories = loadCategoriesForPost(id);
-        vo.setCategories(categories);
-        // 加载标签
-        List<TagVO> tags = loadTagsForPost(id);
-        vo.setTags(tags);
+        // 加载分类与标签（一次关联查询，名称取自进程内快照）
+        TaxonomyCache.PostTerms terms = taxonomyCache.getPostTerms(List.of(id))
+                .getOrDefault(id, TaxonomyCache.PostTerms.empty());
+        vo.setCategories(terms.categories());
+        vo.setTags(terms.tags());
         return vo;
     }
 
-    private List<CategoryVO> loadCategoriesForPost(Long postId) {
-
-        LambdaQueryWrapper<PostCategory> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(PostCategory::getPostId, postId);
-        List<PostCategory> postCategories = postCategoryMapper.selectList(wrapper);
-
-        List<CategoryVO> categoryVOs = new ArrayList<>();
-        for (PostCategory pc : postCategories) {
-            Category category = categoryMapper.selectById(pc.getCategoryId());
-            if (category != null) {
-                CategoryVO vo = new CategoryVO();
-                vo.setId(category.getId());
-                vo.setName(category.getName());
-                vo.setSlug(category.getSlug());
-                categoryVOs.add(vo);
+    /**
+     * 获取文章详情（已序列化的 JSON）
+     * 缓存键带版本号：先读版本，再按版本读详情；写操作提交后递增版本，旧版本条目自然过期。
+     * 浏览量不进详情缓存，单独存放在 post:{id}:view_count（刷盘时累加），响应时加上本节点未刷盘的增量；
+     * 点赞数以 post:{id}:like_count 的实时计数覆盖，收藏数变化时递增版本。
+     * @param id 文章ID
+     * @return 文章详情 JSON
+     */
+    @Override
+    public RawJson getPostDetailJson(Long id) {
+        String versionKey = String.format(SystemConstants.KEY_POST_DETAIL_VERSION, id);
+        String viewCountKey = String.format(SystemConstants.KEY_POST_VIEW_COUNT, id);
+        String likeCountKey = String.format(SystemConstants.KEY_POST_LIKE_COUNT, id);
+        String version = null;
+        String cached = null;
+        long viewCount = 0L;
+        Long likeCount = null;
+        try {
+            List<String> head = stringRedisTemplate.opsForValue().multiGet(List.of(versionKey, viewCountKey, likeCountKey));
+            if (head != null) {
+                likeCount = head.get(2) != null ? Long.valueOf(head.get(2)) : null;
             }
+            if (head != null && head.get(1) != null) {
+                version = head.get(0);
+                viewCount = Long.parseLong(head.get(1));
+                cached = stringRedisTemplate.opsForValue().get(detailKey(id, version));
+            }
+        } catch (Exception e) {
+            log.warn("【文章详情缓存】读取失败，回退数据库: postId={}", id, e);
+        }
+        if (cached != null) {
+            return withCounters(cached, viewCount + viewCountBuffer.getPending(id), likeCount);
+        }
+
+        PostDetailVO vo = loadPostDetail(id);
+        long persistedViewCount = vo.getViewCount();
+        // viewCount 置空后不参与序列化（NON_NULL），由读取时写入
+        vo.setViewCount(null);
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(vo);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(ResultCode.SYSTEM_ERROR);
+        }
+        try {
+            // 写入读取时的版本：若期间文章被修改，版本已递增，这条旧数据不会再被读到
+            stringRedisTemplate.opsForValue().set(detailKey(id, version), json,
+                    cacheProperties.getPostDetailTtl(), TimeUnit.SECONDS);
+            // 已存在说明刷盘一直在累加，比刚读到的值更新，不覆盖
+            stringRedisTemplate.opsForValue().setIfAbsent(viewCountKey, String.valueOf(persistedViewCount),
+                    cacheProperties.getPostDetailTtl(), TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("【文章详情缓存】写入失败: postId={}", id, e);
         }
-        return categoryVOs;
+        return withCounters(json, persistedViewCount + viewCountBuffer.getPending(id), likeCount);
     }
-    private List<TagVO> loadTagsForPost(Long postId) {
-        LambdaQueryWrapper<PostTag> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(PostTag::getPostId, postId);
-        List<PostTag> postTags = postTagMapper.selectList(wrapper);
-
-        List<TagVO> tagVOs = new ArrayList<>();
-        for (PostTag pt : postTags) {
-            Tag tag = tagMapper.selectById(pt.getTagId());
-            if (tag != null) {
-                TagVO vo = new TagVO();
-                vo.setId(tag.getId());
-                vo.setName(tag.getName());
-                vo.setSlug(tag.getSlug());
-                tagVOs.add(vo);
+
+    /**
+     * 在已序列化的详情上写入实时计数
+     * @param viewCount 浏览量
+     * @param likeCount Redis 点赞计数，不存在时保留详情中的值
+     */
+    private RawJson withCounters(String json, long viewCount, Long likeCount) {
+        try {
+            ObjectNode detail = (ObjectNode) objectMapper.readTree(json);
+            detail.put("viewCount", viewCount);
+            if (likeCount != null) {
+                detail.put("likeCount", likeCount);
             }
+            return RawJson.of(objectMapper.writeValueAsString(detail));
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(ResultCode.SYSTEM_ERROR);
         }
-        return tagVOs;
     }
 
+    private String detailKey(Long id, String version) {
+        return String.format(SystemConstants.KEY_POST_DETAIL, id, version != null ? Long.parseLong(version) : 0L);
+    }
+
+    /**
+     * 失效文章详情缓存：事务提交后递增版本号
+     */
+    @Override
+    public void evictPostDetail(Long id) {
+        Runnable bump = () -> {
+            try {
+                stringRedisTemplate.opsForValue().increment(String.format(SystemConstants.KEY_POST_DETAIL_VERSION, id));
+            } catch (Exception e) {
+                log.warn("【文章详情缓存】版本递增失败: postId={}", id, e);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump.run();
+                }
+            });
+        } else {
+            bump.run();
+        }
+    }
 
     /**
      * 获取文章列表
@@ -199,35 +321,162 @@ public class PostServiceImpl implements PostService {
      */
     @Override
     public PageResult<PostListVO> getPostList(Integer page, Integer size, Integer status) {
-        // 创建查询条件
-        LambdaQueryWrapper<Post> wrapper = new LambdaQueryWrapper<>();
-        // 如果有状态参数，则筛选状态
-        if (status != null) {
-            wrapper.eq(Post::getStatus, status);
-        }
-        // 按照发布时间倒序排序
-        wrapper.orderByDesc(Post::getPublishedAt);
-        // 分页查询文章列表
+        // 分页查询文章列表（列表投影，不加载正文），按照发布时间倒序排序
         Page<Post> pageParam = new Page<>(page, size);
-        Page<Post> pageResult = postMapper.selectPage(pageParam, wrapper);
+        IPage<Post> pageResult = postMapper.selectPostListPage(pageParam, status);
+
+        List<PostListVO> voList = toPostListVOs(pageResult.getRecords());
+        return PageResult.of(pageResult.getTotal(), pageResult.getSize(), pageResult.getCurrent(), voList);
+    }
+
+    /**
+     * 游标分页获取已发布文章列表
+     * 按 (published_at, id) 倒序走 idx_post_status_published，翻页代价与页深无关
+     * @param cursor 上一页返回的游标，首页传 null
+     * @param size 每页大小
+     * @param withTotal 是否统计总数
+     * @return 文章列表游标分页
+     */
+    @Override
+    public CursorPageResult<PostListVO> getPostListByCursor(String cursor, Integer size, Boolean withTotal) {
+        int pageSize = size == null ? SystemConstants.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(size, SystemConstants.MAX_PAGE_SIZE));
+        PostCursor position = cursor != null && !cursor.isBlank() ? PostCursor.decode(cursor) : null;
+        // 多取一条用于判断是否还有下一页
+        List<Post> posts = postMapper.selectPublishedPostsByCursor(
+                position != null ? position.publishedAt() : null,
+                position != null ? position.id() : null,
+                pageSize + 1);
+
+        String nextCursor = null;
+        if (posts.size() > pageSize) {
+            posts = posts.subList(0, pageSize);
+            Post last = posts.get(pageSize - 1);
+            nextCursor = new PostCursor(last.getPublishedAt(), last.getId()).encode();
+        }
+
+        Long total = null;
+        if (Boolean.TRUE.equals(withTotal)) {
+            total = postMapper.selectCount(new LambdaQueryWrapper<Post>()
+                    .eq(Post::getStatus, SystemConstants.POST_STATUS_PUBLISHED));
+        }
+        return CursorPageResult.of(toPostListVOs(posts), nextCursor, pageSize, total);
+    }
+
+    /**
+     * 获取热门文章（全站或分类排行）
+     * @param page 页码
+     * @param size 每页大小
+     * @param categoryId 分类ID，null 表示全站
+     * @return 按热度倒序的文章分页
+     */
+    @Override
+    public PageResult<PostListVO> getHotPosts(Integer page, Integer size, Long categoryId) {
+        int pageNum = page == null ? 1 : Math.max(1, page);
+        int pageSize = size == null ? SystemConstants.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(size, SystemConstants.MAX_PAGE_SIZE));
+        // 按排行顺序回填文章；已下线的文章移出排行，其后的文章前移，继续读取补满本页
+        long offset = (long) (pageNum - 1) * pageSize;
+        List<Post> posts = new ArrayList<>(pageSize);
+        for (int round = 0; round < HOT_PAGE_FILL_ROUNDS && posts.size() < pageSize; round++) {
+            List<Long> postIds = hotPostService.getHotPostIds(categoryId, offset, pageSize - posts.size());
+            if (postIds.isEmpty()) {
+                break;
+            }
+            Map<Long, Post> postMap = postMapper.selectPostSummariesByIds(postIds).stream()
+                    .collect(Collectors.toMap(Post::getId, p -> p));
+            List<Long> stale = new ArrayList<>();
+            for (Long postId : postIds) {
+                Post post = postMap.get(postId);
+                if (post != null && post.getStatus() != null && post.getStatus() == SystemConstants.POST_STATUS_PUBLISHED) {
+                    posts.add(post);
+                } else {
+                    stale.add(postId);
+                }
+            }
+            if (stale.isEmpty()) {
+                break;
+            }
+            hotPostService.prune(categoryId, stale);
+            offset += postIds.size() - stale.size();
+        }
+        // 移出已下线文章后再统计总数
+        long total = hotPostService.countHotPosts(categoryId);
+        if (posts.isEmpty()) {
+            return PageResult.of(total, (long) pageSize, (long) pageNum, List.of());
+        }
+        return PageResult.of(total, (long) pageSize, (long) pageNum, toPostListVOs(posts));
+    }
+
+    /**
+     * 从数据库重建热门排行
+     * @return 参与排行的文章数
+     */
+    @Override
+    public int rebuildHotPosts() {
+        return hotPostService.rebuild();
+    }
+
+    /**
+     * 文章列表转 VO：批量补全作者、分类与标签、当前用户点赞状态，并合并本节点未刷盘的浏览量
+     */
+    private List<PostListVO> toPostListVOs(List<Post> posts) {
+        // 批量补全作者信息（两级缓存 + 一次 IN 查询）
+        Set<Long> authorIds = posts.stream()
+                .map(Post::getUserId)
+                .collect(Collectors.toSet());
+        Map<Long, UserSimpleVO> authors = userSummaryService.getUserSummaries(authorIds);
+        // 批量获取分类与标签（一次关联查询）
+        Map<Long, TaxonomyCache.PostTerms> termsByPost = taxonomyCache.getPostTerms(
+                posts.stream().map(Post::getId).toList());
+        // 当前用户点赞状态（一次 Redis 往返）
+        Long currentUserId = SecurityUtil.getCurrentUserIdOrNull();
+        Map<Long, Boolean> likedByPost = currentUserId != null && !posts.isEmpty()
+                ? likeService.batchCheckPostLikes(posts.stream().map(Post::getId).toList(), currentUserId)
+                : Collections.emptyMap();
 
-        // 转换成 VO 并返回
-        List<PostListVO> voList = pageResult.getRecords().stream()
+        // 转换成 VO
+        return posts.stream()
                 .map(post -> {
                     PostListVO vo = new PostListVO();
                     // 复制基础属性
                     BeanUtils.copyProperties(post, vo);
-                    // 加载并设置作者信息
-                    User author = userMapper.selectById(post.getUserId());
+                    long persisted = post.getViewCount() != null ? post.getViewCount() : 0L;
+                    vo.setViewCount(persisted + viewCountBuffer.getPending(post.getId()));
+                    // 设置作者信息
+                    UserSimpleVO author = authors.get(post.getUserId());
                     if (author != null) {
                         vo.setAuthorName(author.getNickname() != null ? author.getNickname() : author.getUsername());
                         vo.setAuthorAvatar(author.getAvatarUrl());
                     }
+                    TaxonomyCache.PostTerms terms = termsByPost.getOrDefault(post.getId(), TaxonomyCache.PostTerms.empty());
+                    vo.setCategories(terms.categories());
+                    vo.setTags(terms.tags());
+                    vo.setIsLiked(Boolean.TRUE.equals(likedByPost.get(post.getId())));
                     return vo;
                 })
                 .toList();
+    }
 
-        return PageResult.of(pageResult.getTotal(), pageResult.getSize(), pageResult.getCurrent(), voList);
+    /**
+     * 列表游标：最后一条的发布时间与ID，Base64(URL) 编码后对外不透明
+     */
+    private record PostCursor(LocalDateTime publishedAt, Long id) {
+
+        String encode() {
+            String raw = publishedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static PostCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.lastIndexOf('|');
+                return new PostCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new BusinessException(ResultCode.PARAM_ERROR, "无效的分页游标");
+            }
+        }
     }
 
     /**
@@ -266,6 +515,16 @@ public class PostServiceImpl implements PostService {
             post.setStatus(dto.getStatus());
         }
         postMapper.updateById(post);
+        if (dto.getStatus() != null && dto.getStatus() != SystemConstants.POST_STATUS_PUBLISHED) {
+            // 撤回发布移出热门排行
+            hotPostService.remove(post.getId());
+        }
+        if (dto.getContent() != null) {
+            // 原文未变化时按哈希跳过
+            postRenderService.renderPost(post.getId(), post.getContent());
+        }
+        evictPostDetail(post.getId());
+        eventPublisher.publishEvent(new PostChangedEvent(post.getId(), PostChangedEvent.Type.UPDATED));
     }
 
     /**
@@ -291,6 +550,9 @@ public class PostServiceImpl implements PostService {
         // 软删除文章：将状态设置为 -1
         post.setStatus(-1);
         postMapper.updateById(post);
+        hotPostService.remove(id);
+        evictPostDetail(id);
+        eventPublisher.publishEvent(new PostChangedEvent(id, PostChangedEvent.Type.DELETED));
     }
 
     /**
@@ -314,16 +576,33 @@ public class PostServiceImpl implements PostService {
         post.setStatus(1);
         post.setPublishedAt(LocalDateTime.now());
         postMapper.updateById(post);
+        evictPostDetail(id);
+        eventPublisher.publishEvent(new PostChangedEvent(id, PostChangedEvent.Type.PUBLISHED));
+    }
+    /**
+     * 重建分类/标签快照并广播到其他节点
+     */
+    @Override
+    public void refreshTaxonomy() {
+        taxonomyCache.refresh();
+    }
 
-
+    /**
+     * 后台重新渲染所有文章
+     * @param force 是否忽略哈希强制渲染
+     */
+    @Override
+    public void rerenderAllPosts(boolean force) {
+        postRenderService.rerenderAll(force);
     }
+
     /**
-     * 增加文章阅读量
+     * 增加文章阅读量：只记入本节点缓冲，由 ViewCountFlushScheduler 批量写回
      * @param id 文章ID
      */
     @Override
     public void incrementViewCount(Long id) {
-        postMapper.incrementViewCount(id);
+        viewCountBuffer.increment(id);
     }
 
 }
@@ -0,0 +1,34 @@
+package com.blog.module.post.taxonomy;
+
+import lombok.Data;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-14:05
+ * @Description: 文章与分类/标签的关联行（post_categories 与 post_tags 合并查询结果）
+ */
+@Data
+public class PostTermRow {
+
+    /**
+     * 分类关联
+     */
+    public static final String TYPE_CATEGORY = "C";
+
+    /**
+     * 标签关联
+     */
+    public static final String TYPE_TAG = "T";
+
+    private Long postId;
+
+    /**
+     * 分类ID或标签ID
+     */
+    private Long termId;
+
+    /**
+     * 关联类型：C-分类 T-标签
+     */
+    private String termType;
+}
@@ -0,0 +1,171 @@
+package com.blog.module.post.taxonomy;
+
+import com.blog.VO.post.CategoryVO;
+import com.blog.VO.post.TagVO;
+import com.blog.constants.SystemConstants;
+import com.blog.module.post.mapper.CategoryMapper;
+import com.blog.module.post.mapper.PostMapper;
+import com.blog.module.post.mapper.TagMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-14:20
+ * @Description: 分类/标签进程内快照
+ *
+ * 1. 启动时全量加载 categories、tags，构建不可变快照
+ * 2. 分类或标签写入后调用 refresh()：提交后本节点重建并替换快照，再通过 Redis 频道 category:tree 广播，其他节点收到后各自重建
+ * 3. 定时兜底重建，补偿丢失的广播（Redis 发布订阅不保证送达）
+ * 4. 文章的分类/标签关联一次合并查询取回，再用快照解析名称，列表页无 N+1
+ *
+ * 注意：文章详情缓存中内嵌了分类/标签名称，重命名后最多延迟 blog.cache.post-detail-ttl 可见
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaxonomyCache implements MessageListener {
+
+    /**
+     * 本节点标识，收到自己发出的广播时跳过（本节点已在发布前重建）
+     */
+    private static final String NODE_ID = UUID.randomUUID().toString();
+
+    private final CategoryMapper categoryMapper;
+    private final TagMapper tagMapper;
+    private final PostMapper postMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private final AtomicReference<TaxonomySnapshot> snapshot = new AtomicReference<>(TaxonomySnapshot.EMPTY);
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(SystemConstants.CACHE_CATEGORY_TREE));
+        try {
+            reload();
+        } catch (Exception e) {
+            // 启动时数据库不可用不阻断启动，等待定时兜底重建
+            log.error("【分类快照】启动加载失败", e);
+        }
+    }
+
+    /**
+     * 获取当前快照
+     */
+    public TaxonomySnapshot current() {
+        return snapshot.get();
+    }
+
+    /**
+     * 分类或标签写入后调用：事务提交后重建本节点快照并广播给其他节点
+     */
+    public void refresh() {
+        Runnable task = () -> {
+            reload();
+            try {
+                stringRedisTemplate.convertAndSend(SystemConstants.CACHE_CATEGORY_TREE, NODE_ID);
+            } catch (Exception e) {
+                log.warn("【分类快照】刷新广播失败，其他节点将在定时兜底时更新", e);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String sender = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (NODE_ID.equals(sender)) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("【分类快照】收到刷新广播后重建失败", e);
+        }
+    }
+
+    /**
+     * 定时兜底重建
+     */
+    @Scheduled(initialDelayString = "${blog.cache.taxonomy-refresh-interval:300000}",
+            fixedDelayString = "${blog.cache.taxonomy-refresh-interval:300000}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("【分类快照】定时重建失败", e);
+        }
+    }
+
+    /**
+     * 全量重建并整体替换；串行执行，保证后读到的数据不会被先读到的覆盖
+     */
+    public synchronized void reload() {
+        TaxonomySnapshot next = TaxonomySnapshot.of(categoryMapper.selectList(null), tagMapper.selectList(null));
+        snapshot.set(next);
+        log.info("【分类快照】已重建: 分类={}, 标签={}", next.categoryCount(), next.tagCount());
+    }
+
+    /**
+     * 批量获取文章的分类与标签：一次查询取回所有关联行，名称从快照解析
+     * @param postIds 文章ID集合
+     * @return 文章ID -> 分类与标签，没有关联的文章不在结果中
+     */
+    public Map<Long, PostTerms> getPostTerms(Collection<Long> postIds) {
+        if (postIds == null || postIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        TaxonomySnapshot current = snapshot.get();
+        Map<Long, PostTerms> result = new HashMap<>();
+        for (PostTermRow row : postMapper.selectPostTermsByPostIds(postIds)) {
+            PostTerms terms = result.computeIfAbsent(row.getPostId(),
+                    k -> new PostTerms(new ArrayList<>(), new ArrayList<>()));
+            if (PostTermRow.TYPE_CATEGORY.equals(row.getTermType())) {
+                CategoryVO category = current.toCategoryVO(row.getTermId());
+                if (category != null) {
+                    terms.categories().add(category);
+                }
+            } else {
+                TagVO tag = current.toTagVO(row.getTermId());
+                if (tag != null) {
+                    terms.tags().add(tag);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 单篇文章的分类与标签
+     */
+    public record PostTerms(List<CategoryVO> categories, List<TagVO> tags) {
+
+        public static PostTerms empty() {
+            return new PostTerms(new ArrayList<>(), new ArrayList<>());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.blog.module.post.taxonomy;
+
+import com.blog.VO.post.CategoryVO;
+import com.blog.VO.post.TagVO;
+import com.blog.entity.Category;
+import com.blog.entity.Tag;
+
+import java.util.*;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-14:08
+ * @Description: 分类树与标签的不可变快照
+ *
+ * 构建完成后不再修改，读线程无需加锁；变更时整体重建后替换引用。
+ * 对外返回的 VO 每次新建，调用方修改不会影响快照。
+ */
+public final class TaxonomySnapshot {
+
+    public static final TaxonomySnapshot EMPTY = new TaxonomySnapshot(List.of(), List.of());
+
+    private final Map<Long, CategoryNode> categories;
+    private final List<Long> rootCategoryIds;
+    private final Map<Long, TagNode> tags;
+
+    private TaxonomySnapshot(List<Category> categoryRows, List<Tag> tagRows) {
+        // 同级按 sort_order、ID 排序
+        List<Category> sorted = new ArrayList<>(categoryRows);
+        sorted.sort(Comparator.comparing((Category c) -> c.getSortOrder() != null ? c.getSortOrder() : 0)
+                .thenComparing(Category::getId));
+
+        Map<Long, List<Long>> children = new HashMap<>();
+        List<Long> roots = new ArrayList<>();
+        Set<Long> ids = new HashSet<>();
+        sorted.forEach(c -> ids.add(c.getId()));
+        for (Category c : sorted) {
+            // 父分类不存在的按根节点处理，避免整棵子树丢失
+            if (c.getParentId() == null || c.getParentId() == 0 || !ids.contains(c.getParentId())) {
+                roots.add(c.getId());
+            } else {
+                children.computeIfAbsent(c.getParentId(), k -> new ArrayList<>()).add(c.getId());
+            }
+        }
+
+        Map<Long, CategoryNode> categoryMap = new LinkedHashMap<>();
+        for (Category c : sorted) {
+            categoryMap.put(c.getId(), new CategoryNode(c.getId(), c.getParentId(), c.getName(), c.getSlug(),
+                    c.getStatus(), List.copyOf(children.getOrDefault(c.getId(), List.of()))));
+        }
+
+        Map<Long, TagNode> tagMap = new LinkedHashMap<>();
+        for (Tag t : tagRows) {
+            tagMap.put(t.getId(), new TagNode(t.getId(), t.getName(), t.getSlug(), t.getColor()));
+        }
+
+        this.categories = Collections.unmodifiableMap(categoryMap);
+        this.rootCategoryIds = List.copyOf(roots);
+        this.tags = Collections.unmodifiableMap(tagMap);
+    }
+
+    public static TaxonomySnapshot of(List<Category> categories, List<Tag> tags) {
+        return new TaxonomySnapshot(categories, tags);
+    }
+
+    public CategoryNode getCategory(Long id) {
+        return categories.get(id);
+    }
+
+    public TagNode getTag(Long id) {
+        return tags.get(id);
+    }
+
+    public List<Long> getRootCategoryIds() {
+        return rootCategoryIds;
+    }
+
+    public Set<Long> getCategoryIds() {
+        return categories.keySet();
+    }
+
+    /**
+     * 获取分类自身及所有祖先分类ID（由近及远）
+     */
+    public List<Long> getAncestorIds(Long categoryId) {
+        Set<Long> result = new LinkedHashSet<>();
+        CategoryNode node = categories.get(categoryId);
+        while (node != null && result.add(node.id())) {
+            node = node.parentId() != null ? categories.get(node.parentId()) : null;
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * 获取分类及其所有子孙分类ID（广度优先）
+     */
+    public List<Long> getDescendantIds(Long categoryId) {
+        if (!categories.containsKey(categoryId)) {
+            return List.of();
+        }
+        // 用集合去重，脏数据中 parent_id 成环时也能终止
+        Set<Long> result = new LinkedHashSet<>();
+        Deque<Long> queue = new ArrayDeque<>();
+        queue.add(categoryId);
+        while (!queue.isEmpty()) {
+            Long id = queue.poll();
+            if (result.add(id)) {
+                queue.addAll(categories.get(id).childIds());
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    public CategoryVO toCategoryVO(Long id) {
+        CategoryNode node = categories.get(id);
+        if (node == null) {
+            return null;
+        }
+        CategoryVO vo = new CategoryVO();
+        vo.setId(node.id());
+        vo.setName(node.name());
+        vo.setSlug(node.slug());
+        return vo;
+    }
+
+    public TagVO toTagVO(Long id) {
+        TagNode node = tags.get(id);
+        if (node == null) {
+            return null;
+        }
+        TagVO vo = new TagVO();
+        vo.setId(node.id());
+        vo.setName(node.name());
+        vo.setSlug(node.slug());
+        return vo;
+    }
+
+    public int categoryCount() {
+        return categories.size();
+    }
+
+    public int tagCount() {
+        return tags.size();
+    }
+
+    public record CategoryNode(Long id, Long parentId, String name, String slug, Integer status, List<Long> childIds) {
+    }
+
+    public record TagNode(Long id, String name, String slug, String color) {
+    }
+}
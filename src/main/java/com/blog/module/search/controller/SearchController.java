@@ -0,0 +1,58 @@
+package com.blog.module.search.controller;
+
+import com.blog.VO.search.PostSearchVO;
+import com.blog.common.PageResult;
+import com.blog.common.Result;
+import com.blog.module.search.service.PostSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-17:45
+ * @Description: 搜索接口
+ */
+@Slf4j
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+@Tag(name = "搜索模块", description = "文章全文搜索")
+public class SearchController {
+
+    private final PostSearchService postSearchService;
+
+    /**
+     * 搜索文章
+     *
+     * @param keyword 关键词
+     * @param page    页码
+     * @param size    每页大小
+     * @return 按相关度排序的文章
+     */
+    @GetMapping("/posts")
+    @Operation(summary = "搜索文章", description = "标题、摘要、正文全文检索，返回高亮标题与片段")
+    public Result<PageResult<PostSearchVO>> searchPosts(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "1") Integer page,
+            @RequestParam(defaultValue = "10") Integer size) {
+        PageResult<PostSearchVO> result = postSearchService.search(keyword, page, size);
+        return Result.success(result);
+    }
+
+    /**
+     * 从数据库重建搜索索引
+     *
+     * @return 操作结果
+     */
+    @PostMapping("/admin/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "重建搜索索引", description = "后台全量重建，完成后整体替换，进度见日志")
+    public Result<Void> rebuildIndex() {
+        postSearchService.rebuild();
+        return Result.success("索引重建任务已提交");
+    }
+}
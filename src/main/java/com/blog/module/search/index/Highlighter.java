@@ -0,0 +1,113 @@
+package com.blog.module.search.index;
+
+import cn.hutool.http.HtmlUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-17:05
+ * @Description: 搜索结果高亮与摘要片段
+ *
+ * 按与索引相同的分词规则定位命中词，相邻/重叠的命中合并后用 &lt;em&gt; 包裹，其余文本做 HTML 转义。
+ */
+public final class Highlighter {
+
+    private static final String PRE_TAG = "<em>";
+    private static final String POST_TAG = "</em>";
+    private static final String ELLIPSIS = "…";
+
+    private Highlighter() {
+    }
+
+    /**
+     * 高亮整段文本
+     */
+    public static String highlight(String text, Set<String> queryTerms) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        return render(text, 0, text.length(), matchedSpans(text, queryTerms));
+    }
+
+    /**
+     * 截取命中最密集的一段并高亮
+     * @param text 原文（纯文本）
+     * @param queryTerms 查询词项
+     * @param length 片段长度
+     * @return 高亮片段；没有命中时返回开头一段
+     */
+    public static String snippet(String text, Set<String> queryTerms, int length) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        List<int[]> spans = matchedSpans(text, queryTerms);
+        int start = 0;
+        int bestCount = 0;
+        for (int[] candidate : spans) {
+            // 命中点前留出四分之一长度作为上下文
+            int windowStart = Math.max(0, candidate[0] - length / 4);
+            int windowEnd = windowStart + length;
+            int count = 0;
+            for (int[] span : spans) {
+                if (span[0] >= windowStart && span[1] <= windowEnd) {
+                    count++;
+                }
+            }
+            if (count > bestCount) {
+                bestCount = count;
+                start = windowStart;
+            }
+        }
+        int end = Math.min(text.length(), start + length);
+        StringBuilder sb = new StringBuilder();
+        if (start > 0) {
+            sb.append(ELLIPSIS);
+        }
+        sb.append(render(text, start, end, spans));
+        if (end < text.length()) {
+            sb.append(ELLIPSIS);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 命中位置，重叠或相邻的合并为一段
+     */
+    private static List<int[]> matchedSpans(String text, Set<String> queryTerms) {
+        List<int[]> spans = new ArrayList<>();
+        for (Tokenizer.Token token : Tokenizer.tokenize(text)) {
+            if (!queryTerms.contains(token.term())) {
+                continue;
+            }
+            int[] last = spans.isEmpty() ? null : spans.get(spans.size() - 1);
+            if (last != null && token.start() <= last[1]) {
+                last[1] = Math.max(last[1], token.end());
+            } else {
+                spans.add(new int[]{token.start(), token.end()});
+            }
+        }
+        return spans;
+    }
+
+    private static String render(String text, int from, int to, List<int[]> spans) {
+        StringBuilder sb = new StringBuilder();
+        int cursor = from;
+        for (int[] span : spans) {
+            int spanStart = Math.max(span[0], from);
+            int spanEnd = Math.min(span[1], to);
+            if (spanEnd <= spanStart || spanStart < cursor) {
+                continue;
+            }
+            sb.append(HtmlUtil.escape(text.substring(cursor, spanStart)))
+                    .append(PRE_TAG)
+                    .append(HtmlUtil.escape(text.substring(spanStart, spanEnd)))
+                    .append(POST_TAG);
+            cursor = spanEnd;
+        }
+        sb.append(HtmlUtil.escape(text.substring(cursor, to)));
+        return sb.toString();
+    }
+}
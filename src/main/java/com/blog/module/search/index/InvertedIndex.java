@@ -0,0 +1,397 @@
+package com.blog.module.search.index;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-16:50
+ * @Description: 文章倒排索引（进程内）
+ *
+ * 1. 每篇文章分配递增的内部文档号，倒排表按文档号追加，天然有序，数组存储（int 文档号 + float 加权词频）
+ * 2. 更新 = 标记旧文档删除 + 追加新文档；删除比例超过阈值后整体压缩重排
+ * 3. BM25 打分，并按命中查询词的比例加权，多词查询优先返回全部命中的文章
+ * 4. 读写锁：检索并发进行，写入互斥
+ */
+public final class InvertedIndex {
+
+    private static final int SNAPSHOT_MAGIC = 0x42534958;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> docNoByPostId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private long[] docPostIds = new long[INITIAL_CAPACITY];
+    private float[] docLengths = new float[INITIAL_CAPACITY];
+    private String[] docTitles = new String[INITIAL_CAPACITY];
+    private String[] docSummaries = new String[INITIAL_CAPACITY];
+
+    /**
+     * 已分配的文档号数量（含已删除）
+     */
+    private int docCount;
+
+    /**
+     * 未删除文档的长度之和，用于计算平均文档长度
+     */
+    private double totalLength;
+
+    /**
+     * 写入或替换一篇文章
+     * @param postId 文章ID
+     * @param title 标题（高亮用）
+     * @param summary 摘要（高亮用）
+     * @param termWeights 词项 -> 按字段加权后的词频
+     * @param length 按字段加权后的文档长度
+     */
+    public void put(long postId, String title, String summary, Map<String, Float> termWeights, float length) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(postId);
+            int docNo = appendDoc(postId, title, summary, length);
+            for (Map.Entry<String, Float> entry : termWeights.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new PostingList()).add(docNo, entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除一篇文章
+     */
+    public void remove(long postId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * BM25 检索
+     * @param terms 查询词项（已去重）
+     * @param offset 偏移量（不小于 0，超出命中数时返回空页）
+     * @param limit 条数（大于 0）
+     * @param k1 BM25 词频饱和参数
+     * @param b BM25 长度归一化参数
+     * @return 命中总数与当前页结果
+     */
+    public SearchResult search(Collection<String> terms, int offset, int limit, double k1, double b) {
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("offset=" + offset + ", limit=" + limit);
+        }
+        lock.readLock().lock();
+        try {
+            int live = liveCountInternal();
+            if (terms.isEmpty() || live == 0) {
+                return new SearchResult(0, List.of());
+            }
+            double avgLength = Math.max(1e-6, totalLength / live);
+            float[] scores = new float[docCount];
+            short[] matched = new short[docCount];
+            int[] touched = new int[16];
+            int touchedCount = 0;
+
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (live - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (deleted.get(doc)) {
+                        continue;
+                    }
+                    double tf = list.tfs[i];
+                    double norm = k1 * (1 - b + b * docLengths[doc] / avgLength);
+                    if (matched[doc] == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = doc;
+                    }
+                    scores[doc] += (float) (idf * tf * (k1 + 1) / (tf + norm));
+                    matched[doc]++;
+                }
+            }
+
+            if (offset >= touchedCount) {
+                return new SearchResult(touchedCount, List.of());
+            }
+
+            // 小顶堆取前 offset + limit 条（不超过命中数，long 计算避免溢出）
+            int topN = (int) Math.min((long) offset + limit, touchedCount);
+            int termCount = terms.size();
+            PriorityQueue<Hit> heap = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+            for (int i = 0; i < touchedCount; i++) {
+                int doc = touched[i];
+                double score = scores[doc] * ((double) matched[doc] / termCount);
+                if (heap.size() < topN) {
+                    heap.add(new Hit(docPostIds[doc], score, docTitles[doc], docSummaries[doc]));
+                } else if (score > heap.peek().score()) {
+                    heap.poll();
+                    heap.add(new Hit(docPostIds[doc], score, docTitles[doc], docSummaries[doc]));
+                }
+            }
+            List<Hit> top = new ArrayList<>(heap);
+            top.sort(Comparator.comparingDouble(Hit::score).reversed());
+            List<Hit> page = offset >= top.size() ? List.of() : top.subList(offset, top.size());
+            return new SearchResult(touchedCount, page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 未删除的文章数
+     */
+    public int liveCount() {
+        lock.readLock().lock();
+        try {
+            return liveCountInternal();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 已删除文档号占比
+     */
+    public double deletedRatio() {
+        lock.readLock().lock();
+        try {
+            return docCount == 0 ? 0 : (double) deleted.cardinality() / docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 压缩：丢弃已删除文档，重新编号并重建倒排表
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            int[] mapping = buildMapping();
+            int live = liveCountInternal();
+            long[] postIds = new long[Math.max(INITIAL_CAPACITY, live)];
+            float[] lengths = new float[postIds.length];
+            String[] titles = new String[postIds.length];
+            String[] summaries = new String[postIds.length];
+            docNoByPostId.clear();
+            for (int doc = 0; doc < docCount; doc++) {
+                int target = mapping[doc];
+                if (target < 0) {
+                    continue;
+                }
+                postIds[target] = docPostIds[doc];
+                lengths[target] = docLengths[doc];
+                titles[target] = docTitles[doc];
+                summaries[target] = docSummaries[doc];
+                docNoByPostId.put(docPostIds[doc], target);
+            }
+            Iterator<Map.Entry<String, PostingList>> it = postings.entrySet().iterator();
+            while (it.hasNext()) {
+                PostingList list = it.next().getValue();
+                list.remap(mapping);
+                if (list.size == 0) {
+                    it.remove();
+                }
+            }
+            docPostIds = postIds;
+            docLengths = lengths;
+            docTitles = titles;
+            docSummaries = summaries;
+            docCount = live;
+            deleted.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 写出快照（只包含未删除文档，按压缩后的编号）
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            int[] mapping = buildMapping();
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(liveCountInternal());
+            for (int doc = 0; doc < docCount; doc++) {
+                if (mapping[doc] < 0) {
+                    continue;
+                }
+                out.writeLong(docPostIds[doc]);
+                out.writeUTF(docTitles[doc] != null ? docTitles[doc] : "");
+                out.writeUTF(docSummaries[doc] != null ? docSummaries[doc] : "");
+                out.writeFloat(docLengths[doc]);
+            }
+            out.writeInt(postings.size());
+            for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+                PostingList list = entry.getValue();
+                int live = 0;
+                for (int i = 0; i < list.size; i++) {
+                    if (mapping[list.docs[i]] >= 0) {
+                        live++;
+                    }
+                }
+                out.writeUTF(entry.getKey());
+                out.writeInt(live);
+                for (int i = 0; i < list.size; i++) {
+                    int target = mapping[list.docs[i]];
+                    if (target >= 0) {
+                        out.writeInt(target);
+                        out.writeFloat(list.tfs[i]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 读取快照
+     */
+    public static InvertedIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException("不支持的索引快照格式");
+        }
+        InvertedIndex index = new InvertedIndex();
+        int docs = in.readInt();
+        for (int i = 0; i < docs; i++) {
+            long postId = in.readLong();
+            String title = in.readUTF();
+            String summary = in.readUTF();
+            float length = in.readFloat();
+            index.appendDoc(postId, title, summary, length);
+        }
+        int terms = in.readInt();
+        for (int i = 0; i < terms; i++) {
+            String term = in.readUTF();
+            int size = in.readInt();
+            PostingList list = new PostingList(size);
+            for (int j = 0; j < size; j++) {
+                list.add(in.readInt(), in.readFloat());
+            }
+            if (size > 0) {
+                index.postings.put(term, list);
+            }
+        }
+        return index;
+    }
+
+    private int appendDoc(long postId, String title, String summary, float length) {
+        int docNo = docCount++;
+        if (docNo == docPostIds.length) {
+            int capacity = docPostIds.length * 2;
+            docPostIds = Arrays.copyOf(docPostIds, capacity);
+            docLengths = Arrays.copyOf(docLengths, capacity);
+            docTitles = Arrays.copyOf(docTitles, capacity);
+            docSummaries = Arrays.copyOf(docSummaries, capacity);
+        }
+        docPostIds[docNo] = postId;
+        docLengths[docNo] = length;
+        docTitles[docNo] = title;
+        docSummaries[docNo] = summary;
+        docNoByPostId.put(postId, docNo);
+        totalLength += length;
+        return docNo;
+    }
+
+    private void removeInternal(long postId) {
+        Integer docNo = docNoByPostId.remove(postId);
+        if (docNo != null) {
+            deleted.set(docNo);
+            totalLength -= docLengths[docNo];
+            // 释放高亮用文本，倒排表中的条目等压缩时清理
+            docTitles[docNo] = null;
+            docSummaries[docNo] = null;
+        }
+    }
+
+    private int liveCountInternal() {
+        return docCount - deleted.cardinality();
+    }
+
+    /**
+     * 旧文档号 -> 新文档号，已删除为 -1
+     */
+    private int[] buildMapping() {
+        int[] mapping = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            mapping[doc] = deleted.get(doc) ? -1 : next++;
+        }
+        return mapping;
+    }
+
+    /**
+     * 单个词项的倒排表
+     */
+    private static final class PostingList {
+        private int[] docs;
+        private float[] tfs;
+        private int size;
+
+        PostingList() {
+            this(4);
+        }
+
+        PostingList(int capacity) {
+            docs = new int[Math.max(1, capacity)];
+            tfs = new float[docs.length];
+        }
+
+        void add(int doc, float tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docs[size] = doc;
+            tfs[size] = tf;
+            size++;
+        }
+
+        void remap(int[] mapping) {
+            int next = 0;
+            for (int i = 0; i < size; i++) {
+                int target = mapping[docs[i]];
+                if (target >= 0) {
+                    docs[next] = target;
+                    tfs[next] = tfs[i];
+                    next++;
+                }
+            }
+            size = next;
+            if (docs.length > size * 2 + 4) {
+                docs = Arrays.copyOf(docs, Math.max(1, size));
+                tfs = Arrays.copyOf(tfs, Math.max(1, size));
+            }
+        }
+    }
+
+    /**
+     * 命中的文章
+     */
+    public record Hit(long postId, double score, String title, String summary) {
+    }
+
+    /**
+     * 检索结果
+     */
+    public record SearchResult(int total, List<Hit> hits) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.blog.module.search.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-16:40
+ * @Description: 搜索分词器
+ *
+ * 中日韩文字按相邻两字切分（单字成段时保留单字），字母数字按连续串切分并转小写，其余字符视为分隔符。
+ * 建索引与查询使用同一规则，无需词典。
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    /**
+     * 分词并保留位置，用于高亮
+     */
+    public static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int cp = text.codePointAt(i);
+            if (isCjk(cp)) {
+                // 收集连续的中日韩字符
+                int runStart = i;
+                List<Integer> offsets = new ArrayList<>();
+                while (i < length && isCjk(text.codePointAt(i))) {
+                    offsets.add(i);
+                    i += Character.charCount(text.codePointAt(i));
+                }
+                offsets.add(i);
+                if (offsets.size() == 2) {
+                    tokens.add(new Token(text.substring(runStart, i), runStart, i));
+                } else {
+                    for (int k = 0; k + 2 < offsets.size(); k++) {
+                        int start = offsets.get(k);
+                        int end = offsets.get(k + 2);
+                        tokens.add(new Token(text.substring(start, end), start, end));
+                    }
+                }
+            } else if (Character.isLetterOrDigit(cp)) {
+                int start = i;
+                while (i < length) {
+                    int c = text.codePointAt(i);
+                    if (!Character.isLetterOrDigit(c) || isCjk(c)) {
+                        break;
+                    }
+                    i += Character.charCount(c);
+                }
+                tokens.add(new Token(text.substring(start, i).toLowerCase(Locale.ROOT), start, i));
+            } else {
+                i += Character.charCount(cp);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    /**
+     * 词项及其在原文中的位置 [start, end)
+     */
+    public record Token(String term, int start, int end) {
+    }
+}
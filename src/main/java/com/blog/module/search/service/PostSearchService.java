@@ -0,0 +1,31 @@
+package com.blog.module.search.service;
+
+import com.blog.VO.search.PostSearchVO;
+import com.blog.common.PageResult;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-17:20
+ * @Description: 文章全文搜索服务（进程内倒排索引）
+ */
+public interface PostSearchService {
+
+    /**
+     * 搜索已发布文章
+     * @param keyword 关键词
+     * @param page 页码
+     * @param size 每页大小
+     * @return 按相关度排序的结果，标题与片段已高亮
+     */
+    PageResult<PostSearchVO> search(String keyword, Integer page, Integer size);
+
+    /**
+     * 后台从数据库全量重建索引，完成后整体替换
+     */
+    void rebuild();
+
+    /**
+     * 索引有变更时写出快照
+     */
+    void saveSnapshotIfDirty();
+}
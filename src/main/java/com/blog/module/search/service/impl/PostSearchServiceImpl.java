@@ -0,0 +1,358 @@
+package com.blog.module.search.service.impl;
+
+import com.blog.VO.auth.UserSimpleVO;
+import com.blog.VO.search.PostSearchVO;
+import com.blog.common.BusinessException;
+import com.blog.common.PageResult;
+import com.blog.common.ResultCode;
+import com.blog.config.properties.SearchProperties;
+import com.blog.constants.SystemConstants;
+import com.blog.entity.Post;
+import com.blog.module.auth.service.UserSummaryService;
+import com.blog.module.post.event.PostChangedEvent;
+import com.blog.module.post.mapper.PostMapper;
+import com.blog.module.search.index.Highlighter;
+import com.blog.module.search.index.InvertedIndex;
+import com.blog.module.search.index.Tokenizer;
+import com.blog.module.search.service.PostSearchService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-17:30
+ * @Description: 文章全文搜索
+ *
+ * 1. 启动后优先加载快照文件，再按 updated_at 追平快照之后的改动；没有快照时从数据库分批全量构建
+ * 2. 文章创建、更新、发布、删除提交后，异步按ID回查数据库并更新索引（已发布则写入，否则移除）
+ * 3. 检索在内存中完成 BM25 打分与排序，只为当前页回查一次数据库用于展示与生成片段
+ * 4. 索引有变更时定时写快照，应用关闭时再写一次
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostSearchServiceImpl implements PostSearchService {
+
+    /**
+     * 追平增量时向前多取的时间，覆盖快照期间未提交的事务
+     */
+    private static final long CATCH_UP_MARGIN_SECONDS = 60L;
+    private static final int CATCH_UP_CHUNK = 500;
+
+    private static final Pattern MD_IMAGE = Pattern.compile("!\\[[^\\]]*]\\([^)]*\\)");
+    private static final Pattern MD_LINK = Pattern.compile("\\[([^\\]]*)]\\([^)]*\\)");
+    private static final Pattern MD_SYNTAX = Pattern.compile("(?m)^\\s{0,3}(#{1,6}|>|[-*+]|\\d+\\.)\\s+|```[^\\n]*|[*_`~|]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final PostMapper postMapper;
+    private final UserSummaryService userSummaryService;
+    private final SearchProperties properties;
+
+    /**
+     * 当前索引；全量重建时整体替换
+     */
+    private volatile InvertedIndex index;
+
+    /**
+     * 串行化索引写入（增量、追平、重建），检索不受影响
+     */
+    private final Object updateMutex = new Object();
+
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    @Override
+    public PageResult<PostSearchVO> search(String keyword, Integer page, Integer size) {
+        if (keyword == null || keyword.isBlank()) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "搜索关键词不能为空");
+        }
+        InvertedIndex current = index;
+        if (current == null) {
+            throw new BusinessException("搜索索引正在加载，请稍后再试");
+        }
+        int pageNum = page == null ? 1 : Math.max(1, page);
+        int pageSize = size == null ? SystemConstants.DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(size, SystemConstants.MAX_PAGE_SIZE));
+
+        Set<String> terms = Tokenizer.tokenize(keyword).stream()
+                .map(Tokenizer.Token::term)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        // long 计算偏移量，超出 int 的深页必然越过命中数，按 int 上限传入得到空页
+        long offset = (long) (pageNum - 1) * pageSize;
+        InvertedIndex.SearchResult result = current.search(terms, (int) Math.min(offset, Integer.MAX_VALUE), pageSize,
+                properties.getK1(), properties.getB());
+        if (result.hits().isEmpty()) {
+            return new PageResult<>(List.of(), (long) result.total(), pageNum, pageSize);
+        }
+
+        // 只为当前页回查展示字段与正文片段
+        List<Long> postIds = result.hits().stream().map(InvertedIndex.Hit::postId).toList();
+        Map<Long, Post> posts = postMapper.selectSearchSourcesByIds(postIds, properties.getMaxContentChars()).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        Map<Long, UserSimpleVO> authors = userSummaryService.getUserSummaries(
+                posts.values().stream().map(Post::getUserId).collect(Collectors.toSet()));
+
+        List<PostSearchVO> records = new ArrayList<>();
+        for (InvertedIndex.Hit hit : result.hits()) {
+            Post post = posts.get(hit.postId());
+            if (post == null || post.getStatus() == null || post.getStatus() != SystemConstants.POST_STATUS_PUBLISHED) {
+                continue;
+            }
+            records.add(toSearchVO(post, hit, terms, authors.get(post.getUserId())));
+        }
+        return new PageResult<>(records, (long) result.total(), pageNum, pageSize);
+    }
+
+    private PostSearchVO toSearchVO(Post post, InvertedIndex.Hit hit, Set<String> terms, UserSimpleVO author) {
+        PostSearchVO vo = new PostSearchVO();
+        vo.setId(post.getId());
+        vo.setTitle(post.getTitle());
+        vo.setSlug(post.getSlug());
+        vo.setCoverImage(post.getCoverImage());
+        vo.setHighlightTitle(Highlighter.highlight(post.getTitle(), terms));
+        String source = plainText(post.getContent());
+        if (source.isEmpty()) {
+            source = post.getSummary() != null ? post.getSummary() : "";
+        }
+        vo.setHighlightSnippet(Highlighter.snippet(source, terms, properties.getSnippetLength()));
+        vo.setScore(hit.score());
+        vo.setViewCount(post.getViewCount());
+        vo.setLikeCount(post.getLikeCount());
+        vo.setCommentCount(post.getCommentCount());
+        vo.setPublishedAt(post.getPublishedAt());
+        if (author != null) {
+            vo.setAuthorName(author.getNickname() != null ? author.getNickname() : author.getUsername());
+            vo.setAuthorAvatar(author.getAvatarUrl());
+        }
+        return vo;
+    }
+
+    /**
+     * 启动后加载索引（异步，不阻塞启动；加载完成前搜索返回提示）
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        synchronized (updateMutex) {
+            long start = System.currentTimeMillis();
+            LocalDateTime snapshotTime = loadSnapshot();
+            if (snapshotTime != null) {
+                catchUp(snapshotTime.minusSeconds(CATCH_UP_MARGIN_SECONDS));
+                log.info("【文章搜索】快照加载完成: 文章数={}, 耗时={}ms", index.liveCount(), System.currentTimeMillis() - start);
+            } else {
+                index = buildFromDatabase();
+                dirty.set(true);
+                log.info("【文章搜索】全量构建完成: 文章数={}, 耗时={}ms", index.liveCount(), System.currentTimeMillis() - start);
+            }
+        }
+    }
+
+    /**
+     * 文章变更提交后更新索引
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        try {
+            synchronized (updateMutex) {
+                if (index == null) {
+                    // 索引尚未就绪，加载完成后的追平会覆盖这次改动
+                    return;
+                }
+                apply(List.of(event.postId()));
+            }
+        } catch (Exception e) {
+            log.error("【文章搜索】增量更新失败: {}", event, e);
+        }
+    }
+
+    @Async
+    @Override
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.warn("【文章搜索】已有重建任务在执行，本次忽略");
+            return;
+        }
+        try {
+            synchronized (updateMutex) {
+                long start = System.currentTimeMillis();
+                index = buildFromDatabase();
+                dirty.set(true);
+                log.info("【文章搜索】重建完成: 文章数={}, 耗时={}ms", index.liveCount(), System.currentTimeMillis() - start);
+            }
+        } catch (Exception e) {
+            log.error("【文章搜索】重建失败", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${blog.search.snapshot-interval:600000}",
+            fixedDelayString = "${blog.search.snapshot-interval:600000}")
+    public void saveSnapshotIfDirty() {
+        InvertedIndex current = index;
+        if (current == null || !dirty.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            writeSnapshot(current);
+        } catch (Exception e) {
+            dirty.set(true);
+            log.error("【文章搜索】快照写入失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void saveSnapshotOnShutdown() {
+        saveSnapshotIfDirty();
+    }
+
+    /**
+     * 按ID回查并更新索引：已发布写入，其余移除
+     */
+    private void apply(Collection<Long> postIds) {
+        InvertedIndex current = index;
+        Map<Long, Post> posts = postMapper.selectSearchSourcesByIds(postIds, properties.getMaxContentChars()).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        for (Long postId : postIds) {
+            Post post = posts.get(postId);
+            if (post != null && post.getStatus() != null && post.getStatus() == SystemConstants.POST_STATUS_PUBLISHED) {
+                put(current, post);
+            } else {
+                current.remove(postId);
+            }
+        }
+        dirty.set(true);
+        if (current.deletedRatio() > properties.getCompactRatio()) {
+            current.compact();
+            log.info("【文章搜索】索引已压缩: 文章数={}", current.liveCount());
+        }
+    }
+
+    private InvertedIndex buildFromDatabase() {
+        InvertedIndex built = new InvertedIndex();
+        int batchSize = Math.max(1, properties.getRebuildBatchSize());
+        long lastId = 0L;
+        while (true) {
+            List<Post> batch = postMapper.selectSearchSourcesAfter(lastId, batchSize, properties.getMaxContentChars());
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (Post post : batch) {
+                put(built, post);
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return built;
+    }
+
+    /**
+     * 追平快照之后的改动
+     */
+    private void catchUp(LocalDateTime since) {
+        List<Long> changed = postMapper.selectChangedSince(since).stream().map(Post::getId).toList();
+        for (int i = 0; i < changed.size(); i += CATCH_UP_CHUNK) {
+            apply(changed.subList(i, Math.min(changed.size(), i + CATCH_UP_CHUNK)));
+        }
+        log.info("【文章搜索】快照追平: since={}, 变更文章数={}", since, changed.size());
+    }
+
+    /**
+     * 按字段加权统计词频后写入索引
+     */
+    private void put(InvertedIndex target, Post post) {
+        Map<String, Float> weights = new HashMap<>();
+        float length = 0;
+        length += addField(weights, post.getTitle(), properties.getTitleWeight());
+        length += addField(weights, post.getSummary(), properties.getSummaryWeight());
+        length += addField(weights, plainText(post.getContent()), properties.getContentWeight());
+        target.put(post.getId(), post.getTitle(), post.getSummary(), weights, length);
+    }
+
+    private float addField(Map<String, Float> weights, String text, float weight) {
+        List<Tokenizer.Token> tokens = Tokenizer.tokenize(text);
+        for (Tokenizer.Token token : tokens) {
+            weights.merge(token.term(), weight, Float::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    /**
+     * Markdown 粗略转纯文本：去掉图片与链接地址、标记符号，合并空白
+     */
+    private String plainText(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return "";
+        }
+        String text = MD_IMAGE.matcher(markdown).replaceAll(" ");
+        text = MD_LINK.matcher(text).replaceAll("$1");
+        text = MD_SYNTAX.matcher(text).replaceAll(" ");
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
+    }
+
+    /**
+     * 快照格式：GZIP( 快照时间戳(毫秒) + 索引 )，先写临时文件再原子替换
+     */
+    private void writeSnapshot(InvertedIndex current) throws IOException {
+        long start = System.currentTimeMillis();
+        Path path = Paths.get(properties.getSnapshotPath());
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temp))))) {
+            out.writeLong(start);
+            current.writeTo(out);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("【文章搜索】快照已写入: 文章数={}, 耗时={}ms", current.liveCount(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 加载快照，成功返回快照时间，文件不存在或损坏返回 null
+     */
+    private LocalDateTime loadSnapshot() {
+        Path path = Paths.get(properties.getSnapshotPath());
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path))))) {
+            long snapshotMillis = in.readLong();
+            index = InvertedIndex.readFrom(in);
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(snapshotMillis), ZoneId.systemDefault());
+        } catch (Exception e) {
+            log.warn("【文章搜索】快照加载失败，改为全量构建: {}", path, e);
+            return null;
+        }
+    }
+}
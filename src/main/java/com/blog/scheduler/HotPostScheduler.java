@@ -0,0 +1,39 @@
+package com.blog.scheduler;
+
+import com.blog.module.post.service.HotPostService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-16:20
+ * @Description: 热门排行定时任务：周期衰减，每日从数据库重建一次纠正累计误差
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotPostScheduler {
+
+    private final HotPostService hotPostService;
+
+    @Scheduled(initialDelayString = "${blog.hot-posts.decay-interval:3600000}",
+            fixedDelayString = "${blog.hot-posts.decay-interval:3600000}")
+    public void decay() {
+        try {
+            hotPostService.decay();
+        } catch (Exception e) {
+            log.error("【热门排行】定时衰减失败", e);
+        }
+    }
+
+    @Scheduled(cron = "${blog.hot-posts.rebuild-cron:0 30 4 * * ?}")
+    public void rebuild() {
+        try {
+            hotPostService.rebuild();
+        } catch (Exception e) {
+            log.error("【热门排行】定时重建失败", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.blog.scheduler;
+
+import com.blog.module.like.filter.InteractionFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-20:50
+ * @Description: 关系过滤器定时重建：清掉取消点赞/收藏后残留的位，误判率回到初始水平
+ */
+@Component
+@RequiredArgsConstructor
+public class InteractionFilterScheduler {
+
+    private final InteractionFilter interactionFilter;
+
+    /**
+     * 重建在异步线程执行，不占用定时任务线程
+     */
+    @Scheduled(cron = "${blog.interaction-filter.rebuild-cron:0 0 5 * * ?}")
+    public void rebuild() {
+        interactionFilter.rebuildAll();
+    }
+}
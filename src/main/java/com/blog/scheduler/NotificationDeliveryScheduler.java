@@ -0,0 +1,37 @@
+package com.blog.scheduler;
+
+import com.blog.module.notification.delivery.NotificationDeliverer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-19-11:05
+ * @Description: 系统通知投递任务续跑
+ *
+ * 定时找出待执行、或执行节点中断（心跳超时）的投递任务，重新认领后从断点继续
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDeliveryScheduler {
+
+    private final NotificationDeliverer deliverer;
+
+    @Scheduled(fixedDelayString = "#{@notificationBroadcastProperties.resumeInterval}")
+    public void resume() {
+        try {
+            List<Long> ids = deliverer.findResumable();
+            for (Long id : ids) {
+                log.info("【系统通知投递】续跑任务: id={}", id);
+                deliverer.run(id);
+            }
+        } catch (Exception e) {
+            log.error("【系统通知投递】续跑任务失败", e);
+        }
+    }
+}
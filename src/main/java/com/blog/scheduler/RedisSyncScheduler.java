@@ -1,48 +1,79 @@
 package com.blog.scheduler;
 
-import com.blog.DTO.mq.CountSyncMessage;
+import com.blog.DTO.mq.CountSyncBatchMessage;
 import com.blog.config.RabbitMQConfig;
+import com.blog.constants.SystemConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.data.redis.core.Cursor;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.*;
 
 /**
  * @Author: GALA_Lin
  * @Date: 2025-10-25-13:27
- * @Description:
+ * @Description: 点赞计数同步
+ *
+ * 点赞脚本在计数变化时把目标ID记入待同步集合，并保留上次同步时的计数作为基线。
+ * 同步时按批 SPOP 待同步集合，脚本内 MGET 当前计数与基线并清除基线，按批发送真实增量，
+ * 耗时只与两次同步之间发生变化的目标数有关，不再扫描整个键空间。
+ * 计数列由点赞消费者维护，这里发出的增量只供对账核对，不回写数据库。
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class RedisSyncScheduler {
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private static final int SYNC_CHUNK_SIZE = 500;
+
+    /**
+     * 读取一批目标的增量并清除基线（原子执行，避免与并发点赞交错丢失或重复计算）
+     * KEYS: 1..n=计数键 n+1..2n=基线键；ARGV[1]=n
+     * 返回与计数键一一对应的增量，计数或基线缺失时为 0
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final DefaultRedisScript<List<Long>> DRAIN_DELTA_SCRIPT = new DefaultRedisScript<>("""
+            local n = tonumber(ARGV[1])
+            local counts = redis.call('MGET', unpack(KEYS, 1, n))
+            local bases = redis.call('MGET', unpack(KEYS, n + 1, 2 * n))
+            redis.call('DEL', unpack(KEYS, n + 1, 2 * n))
+            local deltas = {}
+            for i = 1, n do
+                if counts[i] and bases[i] then
+                    deltas[i] = tonumber(counts[i]) - tonumber(bases[i])
+                else
+                    deltas[i] = 0
+                end
+            end
+            return deltas
+            """, (Class) List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
     private final RabbitTemplate rabbitTemplate;
 
     /**
-     * 同步点赞计数到数据库
+     * 同步点赞计数
      * 每5分钟执行一次
      */
     @Scheduled(cron = "0 */5 * * * ?")
     public void syncLikeCount() {
-        log.info("【定时任务】开始同步点赞计数到数据库");
+        log.info("【定时任务】开始同步点赞计数");
 
         try {
             // 1. 同步文章点赞数
-            syncPostLikeCount();
+            int posts = drainDirtyCounters("LIKE_POST", SystemConstants.KEY_LIKE_DIRTY_POSTS,
+                    SystemConstants.KEY_POST_LIKE_COUNT, SystemConstants.KEY_POST_LIKE_COUNT_SYNCED);
 
             // 2. 同步评论点赞数
-            syncCommentLikeCount();
+            int comments = drainDirtyCounters("LIKE_COMMENT", SystemConstants.KEY_LIKE_DIRTY_COMMENTS,
+                    SystemConstants.KEY_COMMENT_LIKE_COUNT, SystemConstants.KEY_COMMENT_LIKE_COUNT_SYNCED);
 
-            log.info("【定时任务】点赞计数同步完成");
+            log.info("【定时任务】点赞计数同步完成: 文章={} 条, 评论={} 条", posts, comments);
 
         } catch (Exception e) {
             log.error("【定时任务】点赞计数同步失败", e);
@@ -50,107 +81,76 @@ public class RedisSyncScheduler {
     }
 
     /**
-     * 同步文章点赞数
+     * 分批取出待同步目标，计算增量并发送批量同步（对账）消息
+     * @param type 同步类型
+     * @param dirtyKey 待同步集合
+     * @param countKeyPattern 计数键格式
+     * @param syncedKeyPattern 基线键格式
+     * @return 发生变化的目标数
      */
-    private void syncPostLikeCount() {
-        String pattern = "post:*:like_count";
-
-        // 使用SCAN命令遍历所有匹配的key
-        try (Cursor<byte[]> cursor = redisTemplate.getConnectionFactory()
-                .getConnection()
-                .scan(ScanOptions.scanOptions().match(pattern).count(100).build())) {
-
-            int count = 0;
-            while (cursor.hasNext()) {
-                String key = new String(cursor.next());
-
-                // 提取文章ID
-                Long postId = extractIdFromKey(key);
-                if (postId == null) {
-                    continue;
-                }
-
-                // 获取Redis中的点赞数
-                Object countObj = redisTemplate.opsForValue().get(key);
-                if (countObj == null) {
-                    continue;
+    private int drainDirtyCounters(String type, String dirtyKey, String countKeyPattern, String syncedKeyPattern) {
+        int synced = 0;
+        while (true) {
+            List<String> members = stringRedisTemplate.opsForSet().pop(dirtyKey, SYNC_CHUNK_SIZE);
+            if (members == null || members.isEmpty()) {
+                break;
+            }
+            List<Long> targetIds = new ArrayList<>(members.size());
+            for (String member : members) {
+                try {
+                    targetIds.add(Long.parseLong(member));
+                } catch (NumberFormatException e) {
+                    log.warn("【定时任务】待同步集合中的无效成员: key={}, member={}", dirtyKey, member);
                 }
-
-                Integer likeCount = Integer.parseInt(countObj.toString());
-
-                // 发送MQ消息进行同步
-                CountSyncMessage message = CountSyncMessage.builder()
-                        .messageId(UUID.randomUUID().toString())
-                        .type("LIKE_POST")
-                        .targetId(postId)
-                        .delta(likeCount)
-                        .timestamp(LocalDateTime.now())
-                        .build();
-
-                rabbitTemplate.convertAndSend(
-                        RabbitMQConfig.LIKE_EXCHANGE,
-                        RabbitMQConfig.LIKE_SYNC_ROUTING_KEY,
-                        message
-                );
-
-                count++;
             }
-
-            log.info("【定时任务】文章点赞数同步: {} 条", count);
-
-        } catch (Exception e) {
-            log.error("【定时任务】文章点赞数同步失败", e);
+            if (!targetIds.isEmpty()) {
+                synced += syncChunk(type, targetIds, countKeyPattern, syncedKeyPattern);
+            }
+            if (members.size() < SYNC_CHUNK_SIZE) {
+                break;
+            }
         }
+        return synced;
     }
 
-    /**
-     * 同步评论点赞数
-     */
-    private void syncCommentLikeCount() {
-        String pattern = "comment:*:like_count";
-
-        try (Cursor<byte[]> cursor = redisTemplate.getConnectionFactory()
-                .getConnection()
-                .scan(ScanOptions.scanOptions().match(pattern).count(100).build())) {
-
-            int count = 0;
-            while (cursor.hasNext()) {
-                String key = new String(cursor.next());
-
-                Long commentId = extractIdFromKey(key);
-                if (commentId == null) {
-                    continue;
-                }
-
-                Object countObj = redisTemplate.opsForValue().get(key);
-                if (countObj == null) {
-                    continue;
-                }
-
-                Integer likeCount = Integer.parseInt(countObj.toString());
-
-                CountSyncMessage message = CountSyncMessage.builder()
-                        .messageId(UUID.randomUUID().toString())
-                        .type("LIKE_COMMENT")
-                        .targetId(commentId)
-                        .delta(likeCount)
-                        .timestamp(LocalDateTime.now())
-                        .build();
-
-                rabbitTemplate.convertAndSend(
-                        RabbitMQConfig.LIKE_EXCHANGE,
-                        RabbitMQConfig.LIKE_SYNC_ROUTING_KEY,
-                        message
-                );
+    private int syncChunk(String type, List<Long> targetIds, String countKeyPattern, String syncedKeyPattern) {
+        List<String> keys = new ArrayList<>(targetIds.size() * 2);
+        for (Long id : targetIds) {
+            keys.add(String.format(countKeyPattern, id));
+        }
+        for (Long id : targetIds) {
+            keys.add(String.format(syncedKeyPattern, id));
+        }
+        List<Long> deltas = stringRedisTemplate.execute(DRAIN_DELTA_SCRIPT, keys, String.valueOf(targetIds.size()));
+        if (deltas == null) {
+            return 0;
+        }
 
-                count++;
+        Map<Long, Integer> changed = new LinkedHashMap<>();
+        for (int i = 0; i < targetIds.size() && i < deltas.size(); i++) {
+            long delta = deltas.get(i);
+            if (delta != 0) {
+                changed.put(targetIds.get(i), Math.toIntExact(delta));
             }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
 
-            log.info("【定时任务】评论点赞数同步: {} 条", count);
-
+        CountSyncBatchMessage message = CountSyncBatchMessage.builder()
+                .messageId(UUID.randomUUID().toString())
+                .type(type)
+                .deltas(changed)
+                .timestamp(LocalDateTime.now())
+                .build();
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.LIKE_EXCHANGE, RabbitMQConfig.LIKE_SYNC_ROUTING_KEY, message);
         } catch (Exception e) {
-            log.error("【定时任务】评论点赞数同步失败", e);
+            // 基线已清除，这批增量无法重算，记录下来便于人工核对（计数列不受影响）
+            log.error("【定时任务】计数同步消息发送失败: type={}, deltas={}", type, changed, e);
+            return 0;
         }
+        return changed.size();
     }
 
     /**
@@ -180,20 +180,4 @@ public class RedisSyncScheduler {
         log.info("【定时任务】用户点赞缓存清理");
     }
 
-    /**
-     * 从Redis Key中提取ID
-     * 例如: "post:123:like_count" -> 123
-     */
-    private Long extractIdFromKey(String key) {
-        try {
-            String[] parts = key.split(":");
-            if (parts.length >= 2) {
-                return Long.parseLong(parts[1]);
-            }
-        } catch (Exception e) {
-            log.error("【定时任务】解析Key失败: {}", key, e);
-        }
-        return null;
-    }
-
 }
@@ -0,0 +1,106 @@
+package com.blog.scheduler;
+
+import com.blog.config.properties.ReplyCountProperties;
+import com.blog.constants.SystemConstants;
+import com.blog.module.comment.mapper.CommentMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-22:40
+ * @Description: 评论回复数校准
+ *
+ * 1. 写路径只对根评论的 reply_count 原子加减，并把根评论ID记入待校准集合
+ * 2. 定时按批 SPOP 待校准集合，按实际已通过的回复重算（每批一条 UPDATE ... JOIN），修复并发、漏写造成的漂移
+ * 3. 另按主键滚动巡检一段根评论，覆盖未经过写路径的历史数据和漏登记的根评论
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReplyCountReconcileScheduler {
+
+    private final CommentMapper commentMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ReplyCountProperties properties;
+
+    @Scheduled(fixedDelayString = "#{@replyCountProperties.reconcileInterval}")
+    public void reconcile() {
+        try {
+            int dirty = reconcileDirty();
+            int swept = sweep();
+            if (dirty > 0 || swept > 0) {
+                log.info("【回复数校准】完成: 待校准={} 条, 巡检={} 条", dirty, swept);
+            }
+        } catch (Exception e) {
+            log.error("【回复数校准】校准失败", e);
+        }
+    }
+
+    /**
+     * 分批取出待校准的根评论并重算
+     * @return 校准的根评论数
+     */
+    private int reconcileDirty() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int reconciled = 0;
+        while (true) {
+            List<String> members = stringRedisTemplate.opsForSet().pop(SystemConstants.KEY_REPLY_COUNT_DIRTY, batchSize);
+            if (members == null || members.isEmpty()) {
+                break;
+            }
+            List<Long> rootIds = new ArrayList<>(members.size());
+            for (String member : members) {
+                try {
+                    rootIds.add(Long.parseLong(member));
+                } catch (NumberFormatException e) {
+                    log.warn("【回复数校准】待校准集合中的无效成员: {}", member);
+                }
+            }
+            if (!rootIds.isEmpty()) {
+                try {
+                    commentMapper.reconcileReplyCounts(rootIds);
+                } catch (Exception e) {
+                    // 放回集合，下一轮重试
+                    stringRedisTemplate.opsForSet().add(SystemConstants.KEY_REPLY_COUNT_DIRTY,
+                            rootIds.stream().map(String::valueOf).toArray(String[]::new));
+                    throw e;
+                }
+                reconciled += rootIds.size();
+            }
+            if (members.size() < batchSize) {
+                break;
+            }
+        }
+        return reconciled;
+    }
+
+    /**
+     * 从上次的位置起巡检一段根评论，到末尾后从头开始
+     * @return 巡检的根评论数
+     */
+    private int sweep() {
+        int sweepSize = properties.getSweepSize();
+        if (sweepSize <= 0) {
+            return 0;
+        }
+        String saved = stringRedisTemplate.opsForValue().get(SystemConstants.KEY_REPLY_COUNT_SWEEP_CURSOR);
+        long afterId = saved != null ? Long.parseLong(saved) : 0L;
+
+        List<Long> rootIds = commentMapper.selectRootIdsAfter(afterId, sweepSize);
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int from = 0; from < rootIds.size(); from += batchSize) {
+            commentMapper.reconcileReplyCounts(rootIds.subList(from, Math.min(from + batchSize, rootIds.size())));
+        }
+
+        long next = rootIds.size() < sweepSize ? 0L : rootIds.get(rootIds.size() - 1);
+        stringRedisTemplate.opsForValue().set(SystemConstants.KEY_REPLY_COUNT_SWEEP_CURSOR, String.valueOf(next));
+        return rootIds.size();
+    }
+}
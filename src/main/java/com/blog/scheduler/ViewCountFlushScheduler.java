@@ -0,0 +1,123 @@
+package com.blog.scheduler;
+
+import com.blog.config.properties.ViewCountProperties;
+import com.blog.constants.SystemConstants;
+import com.blog.module.post.counter.ViewCountBuffer;
+import com.blog.module.post.mapper.PostMapper;
+import com.blog.module.post.service.HotPostService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-18-13:12
+ * @Description: 浏览量定期写回
+ *
+ * 1. 取走 ViewCountBuffer 中的增量，按文章ID排序后分批，每批一条多行 UPDATE（行锁顺序一致，多节点并发刷盘不会死锁）
+ * 2. 同步累加 Redis 中的实时浏览量（仅在 key 存在时累加，不存在时由详情读取回填），并按增量计入热门排行
+ * 3. 写库失败时归还增量，应用正常关闭时最后刷一次
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ViewCountFlushScheduler {
+
+    /**
+     * key 存在才累加，避免只凭增量创建出一个偏小的计数
+     */
+    private static final byte[] INCR_IF_EXISTS_SCRIPT = """
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return redis.call('INCRBY', KEYS[1], ARGV[1])
+            end
+            return 0
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final ViewCountBuffer viewCountBuffer;
+    private final ViewCountProperties viewCountProperties;
+    private final PostMapper postMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final HotPostService hotPostService;
+
+    @Scheduled(fixedDelayString = "#{@viewCountProperties.flushInterval}")
+    public void flush() {
+        Map<Long, Long> deltas = viewCountBuffer.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Map<Long, Long>> batches = partition(new TreeMap<>(deltas), viewCountProperties.getBatchSize());
+        int flushed = 0;
+        for (int i = 0; i < batches.size(); i++) {
+            Map<Long, Long> batch = batches.get(i);
+            try {
+                postMapper.batchIncrementViewCount(batch);
+            } catch (Exception e) {
+                log.error("【浏览量刷盘】批量更新失败，增量归还缓冲区等待重试: 批次{}/{}", i + 1, batches.size(), e);
+                for (int j = i; j < batches.size(); j++) {
+                    viewCountBuffer.restore(batches.get(j));
+                }
+                break;
+            }
+            incrementLiveViewCounts(batch);
+            hotPostService.recordViews(batch);
+            flushed += batch.size();
+        }
+        log.debug("【浏览量刷盘】完成: 文章数={}", flushed);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("【浏览量刷盘】应用关闭，写回剩余浏览量");
+        flush();
+    }
+
+    private void incrementLiveViewCounts(Map<Long, Long> batch) {
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Map.Entry<Long, Long> entry : batch.entrySet()) {
+                    evalIncrement(connection, entry.getKey(), entry.getValue());
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // 实时浏览量仅用于展示，随详情缓存过期自动纠正
+            log.warn("【浏览量刷盘】Redis 实时浏览量累加失败", e);
+        }
+    }
+
+    private void evalIncrement(RedisConnection connection, Long postId, Long delta) {
+        byte[] key = String.format(SystemConstants.KEY_POST_VIEW_COUNT, postId).getBytes(StandardCharsets.UTF_8);
+        byte[] arg = String.valueOf(delta).getBytes(StandardCharsets.UTF_8);
+        connection.scriptingCommands().eval(INCR_IF_EXISTS_SCRIPT, ReturnType.INTEGER, 1, key, arg);
+    }
+
+    private List<Map<Long, Long>> partition(Map<Long, Long> sorted, int batchSize) {
+        List<Map<Long, Long>> batches = new ArrayList<>();
+        Map<Long, Long> current = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> entry : sorted.entrySet()) {
+            current.put(entry.getKey(), entry.getValue());
+            if (current.size() >= batchSize) {
+                batches.add(current);
+                current = new LinkedHashMap<>();
+            }
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+}
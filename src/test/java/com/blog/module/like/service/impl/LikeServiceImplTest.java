@@ -0,0 +1,137 @@
+package com.blog.module.like.service.impl;
+
+import com.blog.module.auth.service.UserSummaryService;
+import com.blog.module.comment.mapper.CommentMapper;
+import com.blog.module.like.cache.LikeCacheWarmer;
+import com.blog.module.like.cache.RecentUsersCache;
+import com.blog.module.like.counter.LikeCounterType;
+import com.blog.module.like.filter.InteractionFilter;
+import com.blog.module.like.filter.InteractionType;
+import com.blog.module.like.mapper.CommentLikeMapper;
+import com.blog.module.like.mapper.PostLikeMapper;
+import com.blog.module.notification.service.NotificationService;
+import com.blog.module.post.mapper.PostMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @Author: GALA_Lin
+ * @Date: 2026-10-19-10:30
+ * @Description: 点赞状态批量判断：每次批量判断只有一次 Redis 往返，且结果与集合成员、数据库状态一致
+ */
+@ExtendWith(MockitoExtension.class)
+class LikeServiceImplTest {
+
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private PostLikeMapper postLikeMapper;
+    @Mock
+    private CommentLikeMapper commentLikeMapper;
+    @Mock
+    private PostMapper postMapper;
+    @Mock
+    private CommentMapper commentMapper;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private UserSummaryService userSummaryService;
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+    @Mock
+    private InteractionFilter interactionFilter;
+    @Mock
+    private LikeCacheWarmer likeCacheWarmer;
+    @Mock
+    private RecentUsersCache recentUsersCache;
+
+    private LikeServiceImpl likeService;
+
+    @BeforeEach
+    void setUp() {
+        likeService = new LikeServiceImpl(postLikeMapper, commentLikeMapper, postMapper, commentMapper,
+                notificationService, userSummaryService, redisTemplate, stringRedisTemplate, rabbitTemplate,
+                interactionFilter, likeCacheWarmer, recentUsersCache);
+        // 与 RedisConfig 一致：键为字符串，值为 Jackson
+        doReturn(new StringRedisSerializer()).when(redisTemplate).getKeySerializer();
+        doReturn(new GenericJackson2JsonRedisSerializer(new ObjectMapper())).when(redisTemplate).getValueSerializer();
+    }
+
+    @Test
+    void warmedCheckUsesOneSmIsMember() {
+        when(likeCacheWarmer.isWarmed(LikeCounterType.POST, USER_ID)).thenReturn(true);
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(List.of(true, false, true));
+
+        Map<Long, Boolean> liked = likeService.batchCheckPostLikes(List.of(1L, 2L, 3L, 2L), USER_ID);
+
+        assertEquals(Map.of(1L, true, 2L, false, 3L, true), liked);
+        verify(redisTemplate, times(1)).execute(any(RedisCallback.class));
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+        verifyNoInteractions(postLikeMapper);
+    }
+
+    @Test
+    void fallsBackToPipelineOnceSmIsMemberIsRejected() {
+        when(likeCacheWarmer.isWarmed(LikeCounterType.POST, USER_ID)).thenReturn(true);
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenThrow(new InvalidDataAccessApiUsageException("ERR unknown command 'SMISMEMBER'"));
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(false, true))
+                .thenReturn(List.of(true, false));
+
+        assertEquals(Map.of(1L, false, 2L, true), likeService.batchCheckPostLikes(List.of(1L, 2L), USER_ID));
+        assertEquals(Map.of(3L, true, 4L, false), likeService.batchCheckPostLikes(List.of(3L, 4L), USER_ID));
+
+        // 降级后不再尝试 SMISMEMBER，之后每次批量判断仍只有一次管道往返
+        verify(redisTemplate, times(1)).execute(any(RedisCallback.class));
+        verify(redisTemplate, times(2)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void coldCheckMergesDatabaseAndPendingChanges() {
+        when(likeCacheWarmer.isWarmed(LikeCounterType.POST, USER_ID)).thenReturn(false);
+        // 数据库：1、2 已点赞；2 刚取消、尚未落库
+        when(interactionFilter.containsAll(eq(InteractionType.POST_LIKE), eq(USER_ID), anyCollection(), any()))
+                .thenReturn(Set.of(1L, 2L));
+        when(likeCacheWarmer.recentlyUnliked(LikeCounterType.POST, USER_ID)).thenReturn(Set.of(2L));
+        // Redis：3 刚点赞、尚未落库
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(List.of(false, false, true, false));
+
+        Map<Long, Boolean> liked = likeService.batchCheckPostLikes(List.of(1L, 2L, 3L, 4L), USER_ID);
+
+        assertEquals(Map.of(1L, true, 2L, false, 3L, true, 4L, false), liked);
+        verify(likeCacheWarmer).warmUp(LikeCounterType.POST, USER_ID);
+        verify(redisTemplate, times(1)).execute(any(RedisCallback.class));
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+}